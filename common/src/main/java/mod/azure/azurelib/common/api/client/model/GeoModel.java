@@ -7,7 +7,10 @@
  */
 package mod.azure.azurelib.common.api.client.model;
 
+import mod.azure.azurelib.common.internal.client.animation.AnimationLod;
+import mod.azure.azurelib.common.internal.client.animation.ParallelAnimationEvaluator;
 import mod.azure.azurelib.common.internal.client.renderer.GeoRenderer;
+import mod.azure.azurelib.common.internal.client.renderer.skinned.SkinnedGeoMesh;
 import mod.azure.azurelib.common.internal.client.util.RenderUtils;
 import mod.azure.azurelib.common.internal.common.AzureLibException;
 import mod.azure.azurelib.common.internal.common.cache.AzureLibCache;
@@ -19,11 +22,16 @@ import mod.azure.azurelib.core.animatable.GeoAnimatable;
 import mod.azure.azurelib.core.animatable.model.CoreGeoModel;
 import mod.azure.azurelib.core.animation.AnimatableManager;
 import mod.azure.azurelib.core.animation.Animation;
+import mod.azure.azurelib.core.animation.AnimationController;
+import mod.azure.azurelib.core.animation.AnimationLodPolicy;
+import mod.azure.azurelib.core.animation.AnimationLodTier;
 import mod.azure.azurelib.core.animation.AnimationProcessor;
 import mod.azure.azurelib.core.animation.AnimationState;
+import mod.azure.azurelib.core.molang.MolangContext;
 import mod.azure.azurelib.core.molang.MolangParser;
 import mod.azure.azurelib.core.molang.MolangQueries;
 import mod.azure.azurelib.core.object.DataTicket;
+import mod.azure.azurelib.core.state.BonePoseBuffer;
 import net.minecraft.client.Minecraft;
 import net.minecraft.client.renderer.RenderType;
 import net.minecraft.resources.ResourceLocation;
@@ -31,6 +39,7 @@ import net.minecraft.util.Mth;
 import net.minecraft.world.entity.Entity;
 import net.minecraft.world.entity.LivingEntity;
 import net.minecraft.world.phys.Vec3;
+import org.jetbrains.annotations.Nullable;
 
 import java.util.Optional;
 import java.util.function.BiConsumer;
@@ -41,6 +50,10 @@ import java.util.function.BiConsumer;
  */
 public abstract class GeoModel<T extends GeoAnimatable> implements CoreGeoModel<T> {
 
+    static {
+        registerBuiltinMolangQueries();
+    }
+
     private final AnimationProcessor<T> processor = new AnimationProcessor<>(this);
 
     private BakedGeoModel currentModel = null;
@@ -51,6 +64,11 @@ public abstract class GeoModel<T extends GeoAnimatable> implements CoreGeoModel<
 
     private long lastRenderedInstance = -1;
 
+    private BonePoseBuffer currentPose = null;
+
+    @Nullable
+    private SkinnedGeoMesh skinnedMesh = null;
+
     /**
      * Returns the resource path for the {@link BakedGeoModel} (model json file) to render based on the provided
      * animatable
@@ -136,6 +154,42 @@ public abstract class GeoModel<T extends GeoAnimatable> implements CoreGeoModel<
         return this.processor;
     }
 
+    /**
+     * Get the {@link BonePoseBuffer} of the animatable most recently animated by this model.<br>
+     * Renderers read the bone transformations of the animatable currently being rendered from here, rather than from
+     * the {@link GeoBone GeoBones} shared by every animatable using this model
+     *
+     * @return The pose, or null if no animatable has been animated by this model yet
+     */
+    public BonePoseBuffer getCurrentPose() {
+        return this.currentPose;
+    }
+
+    /**
+     * Get the {@link SkinnedGeoMesh} the bones of the model currently being rendered are captured into, rather than
+     * having their cubes rendered
+     *
+     * @return The mesh, or null if the model's bones are being rendered as normal
+     */
+    @Nullable
+    public SkinnedGeoMesh getSkinnedMesh() {
+        return this.skinnedMesh;
+    }
+
+    /**
+     * Set the {@link SkinnedGeoMesh} the bones rendered by this model from now on should be captured into, or null to
+     * render them as normal
+     *
+     * @return The previously set mesh, to be restored once the model has been rendered
+     */
+    @Nullable
+    public SkinnedGeoMesh setSkinnedMesh(@Nullable SkinnedGeoMesh mesh) {
+        SkinnedGeoMesh previous = this.skinnedMesh;
+        this.skinnedMesh = mesh;
+
+        return previous;
+    }
+
     /**
      * Add additional {@link DataTicket DataTickets} to the {@link AnimationState} to be handled by your animation
      * handler at render time
@@ -149,8 +203,118 @@ public abstract class GeoModel<T extends GeoAnimatable> implements CoreGeoModel<
 
     @Override
     public void handleAnimations(T animatable, long instanceId, AnimationState<T> animationState) {
-        Minecraft mc = Minecraft.getInstance();
         AnimatableManager<T> animatableManager = animatable.getAnimatableInstanceCache().getManagerForId(instanceId);
+        AnimationLodTier lodTier = getAnimationLodTier(animatable);
+        this.currentPose = animatableManager.getBonePoseBuffer();
+
+        AnimationLod.record(lodTier);
+
+        if (this.currentPose.consumeEvaluatedFor(ParallelAnimationEvaluator.getCurrentFrame())) {
+            animationState.animationTick = this.animTime;
+
+            applyAnimations(animatable, animatableManager, instanceId, animationState);
+
+            return;
+        }
+
+        if (!shouldEvaluateAnimations(animatable, animatableManager, lodTier)) {
+            reapplyAnimations(animatable, animatableManager, instanceId, animationState);
+
+            return;
+        }
+
+        if (!prepareAnimations(animatable, animatableManager, instanceId, animationState))
+            return;
+
+        animatableManager.evaluatedIn(ParallelAnimationEvaluator.getCurrentFrame());
+        evaluateAnimations(animatable, animatableManager, animationState);
+        applyAnimations(animatable, animatableManager, instanceId, animationState);
+    }
+
+    /**
+     * Get the {@link AnimationLodPolicy} deciding how often the given animatable's animations are evaluated.<br>
+     * Uses the animatable's {@link GeoAnimatable#getAnimationLodPolicy() own policy} if it has one, otherwise the
+     * default policy from the config
+     */
+    public AnimationLodPolicy getAnimationLodPolicy(T animatable) {
+        AnimationLodPolicy policy = animatable.getAnimationLodPolicy();
+
+        return policy != null ? policy : AnimationLod.getDefaultPolicy();
+    }
+
+    /**
+     * Get the {@link AnimationLodTier tier} the given animatable's animations should be evaluated at this frame
+     */
+    public AnimationLodTier getAnimationLodTier(T animatable) {
+        return AnimationLod.getTier(getAnimationLodPolicy(animatable), animatable);
+    }
+
+    /**
+     * Whether the given animatable's animations should be evaluated this frame, or its last pose reused.<br>
+     * Animatables are always evaluated if they haven't been yet, or if their last pose was for a different set of bones
+     */
+    public boolean shouldEvaluateAnimations(
+            T animatable,
+            AnimatableManager<T> animatableManager,
+            AnimationLodTier lodTier
+    ) {
+        long lastEvaluatedFrame = animatableManager.getLastEvaluatedFrame();
+
+        if (lodTier == AnimationLodTier.FULL || lastEvaluatedFrame == -1)
+            return true;
+
+        if (animatableManager.getBonePoseBuffer().getBoneCount() != getAnimationProcessor().getRegisteredBones().size())
+            return true;
+
+        long framesSinceEvaluated = ParallelAnimationEvaluator.getCurrentFrame() - lastEvaluatedFrame;
+
+        return getAnimationLodPolicy(animatable).shouldEvaluate(lodTier, framesSinceEvaluated);
+    }
+
+    /**
+     * Apply the last evaluated pose of the given animatable to the bones of this model without evaluating its
+     * animations, for frames skipped by its {@link AnimationLodPolicy}.<br>
+     * {@link GeoModel#setCustomAnimations Custom animations} are still applied to the bones, but the pose isn't
+     * re-captured, so the renderer keeps using the pose captured when the animations were last evaluated
+     */
+    public void reapplyAnimations(
+            T animatable,
+            AnimatableManager<T> animatableManager,
+            long instanceId,
+            AnimationState<T> animationState
+    ) {
+        MolangContext molangContext = animatableManager.getMolangContext();
+
+        animationState.animationTick = this.animTime;
+
+        molangContext.begin(animatable, animationState.animationTick);
+
+        try {
+            getAnimationProcessor().preAnimationSetup(animatable, animationState.animationTick);
+            getAnimationProcessor().applyBonePose(animatableManager.getBonePoseBuffer());
+            setCustomAnimations(animatable, instanceId, animationState);
+        } finally {
+            molangContext.end();
+        }
+    }
+
+    /**
+     * Advance the animation timers of the given animatable for the current render frame, ahead of
+     * {@link GeoModel#evaluateAnimations evaluating} its animations.<br>
+     * This also starts the frame of the animatable's {@link MolangContext}, and applies its
+     * {@link GeoModel#applyMolangQueries Molang queries} and any pending animation reload, as these touch state shared
+     * between animatables.<br>
+     * Must be called on the render thread
+     *
+     * @return Whether the animatable's animations should be evaluated for this frame
+     */
+    public boolean prepareAnimations(
+            T animatable,
+            AnimatableManager<T> animatableManager,
+            long instanceId,
+            AnimationState<T> animationState
+    ) {
+        Minecraft mc = Minecraft.getInstance();
         Double currentTick = animationState.getData(DataTickets.TICK);
 
         if (currentTick == null)
@@ -166,7 +330,7 @@ public abstract class GeoModel<T extends GeoAnimatable> implements CoreGeoModel<
                 .getLastUpdateTime();
 
         if (isReRender && instanceId == this.lastRenderedInstance)
-            return;
+            return false;
 
         if (!isReRender && (!mc.isPaused() || animatable.shouldPlayAnimsWhileGamePaused())) {
             if (animatable instanceof LivingEntity) {
@@ -180,54 +344,211 @@ public abstract class GeoModel<T extends GeoAnimatable> implements CoreGeoModel<
             this.lastGameTickTime = lastUpdateTime;
         }
 
+        AnimationProcessor<T> processor = getAnimationProcessor();
+        MolangContext molangContext = animatableManager.getMolangContext();
+
         animationState.animationTick = this.animTime;
+
+        molangContext.begin(animatable, this.animTime);
+
+        try {
+            processor.applyPendingReload(animatableManager);
+            processor.preAnimationSetup(animatable, this.animTime);
+        } finally {
+            molangContext.end();
+        }
+
+        return true;
+    }
+
+    /**
+     * Call the state handlers of the given animatable's {@link AnimationController AnimationControllers} for the
+     * current frame, ahead of {@link GeoModel#evaluateAnimations evaluating} its animations on another thread.<br>
+     * Keyframe handlers reached while evaluating are held back until {@link GeoModel#dispatchKeyframeEvents} is
+     * called, so that no user callbacks run off the render thread.<br>
+     * {@link GeoModel#prepareAnimations} must have been called for the animatable first. Must be called on the render
+     * thread
+     */
+    public void prepareControllers(
+            T animatable,
+            AnimatableManager<T> animatableManager,
+            AnimationState<T> animationState
+    ) {
         AnimationProcessor<T> processor = getAnimationProcessor();
 
-        processor.preAnimationSetup(animationState.getAnimatable(), this.animTime);
+        if (processor.getRegisteredBones().isEmpty())
+            return;
+
+        MolangContext molangContext = animatableManager.getMolangContext();
 
-        if (!processor.getRegisteredBones().isEmpty())
-            processor.tickAnimation(
+        molangContext.resume();
+
+        try {
+            processor.prepareControllers(
                     animatable,
                     this,
                     animatableManager,
-                    this.animTime,
-                    animationState,
-                    crashIfBoneMissing()
+                    animationState.animationTick,
+                    animationState
             );
+        } finally {
+            molangContext.end();
+        }
+    }
 
-        setCustomAnimations(animatable, instanceId, animationState);
+    /**
+     * Call the keyframe handlers held back since {@link GeoModel#prepareControllers} was called for the given
+     * animatable.<br>
+     * Must be called on the render thread, once its animations have been evaluated, or failed to be
+     */
+    public void dispatchKeyframeEvents(AnimatableManager<T> animatableManager) {
+        MolangContext molangContext = animatableManager.getMolangContext();
+
+        molangContext.resume();
+
+        try {
+            getAnimationProcessor().dispatchKeyframeEvents(animatableManager);
+        } finally {
+            molangContext.end();
+        }
+    }
+
+    /**
+     * Evaluate the animations of the given animatable into the {@link BonePoseBuffer} of its
+     * {@link AnimatableManager}, without modifying the bones of this model.<br>
+     * {@link GeoModel#prepareAnimations} must have been called for the animatable first.<br>
+     * This may be called off the render thread, and for different animatables concurrently
+     */
+    public void evaluateAnimations(
+            T animatable,
+            AnimatableManager<T> animatableManager,
+            AnimationState<T> animationState
+    ) {
+        AnimationProcessor<T> processor = getAnimationProcessor();
+        MolangContext molangContext = animatableManager.getMolangContext();
+        double animTime = animationState.animationTick;
+
+        molangContext.resume();
+
+        try {
+            if (!processor.getRegisteredBones().isEmpty()) {
+                processor.evaluateAnimation(
+                        animatable,
+                        this,
+                        animatableManager,
+                        animTime,
+                        animationState,
+                        crashIfBoneMissing()
+                );
+            } else {
+                animatableManager.getBonePoseBuffer().prepare(processor.getRegisteredBones());
+            }
+        } finally {
+            molangContext.end();
+        }
     }
 
+    /**
+     * Apply the most recently {@link GeoModel#evaluateAnimations evaluated} animations of the given animatable to the
+     * bones of this model, then apply any {@link GeoModel#setCustomAnimations custom animations}.<br>
+     * The final pose of the bones is then captured back into the animatable's {@link BonePoseBuffer}, for the
+     * renderer to read from.<br>
+     * Must be called on the render thread, directly before rendering the animatable
+     */
+    public void applyAnimations(
+            T animatable,
+            AnimatableManager<T> animatableManager,
+            long instanceId,
+            AnimationState<T> animationState
+    ) {
+        MolangContext molangContext = animatableManager.getMolangContext();
+        BonePoseBuffer pose = animatableManager.getBonePoseBuffer();
+
+        molangContext.resume();
+
+        try {
+            getAnimationProcessor().applyBonePose(pose);
+            setCustomAnimations(animatable, instanceId, animationState);
+            pose.captureBones();
+        } finally {
+            molangContext.end();
+        }
+    }
+
+    /**
+     * Apply any custom Molang query values for the given animatable for the current render frame.<br>
+     * The builtin {@link MolangQueries} are resolved lazily, so there is nothing to do here by default. Override this
+     * to add or replace query values through {@link MolangParser#setValue} or {@link MolangParser#setMemoizedValue},
+     * which take precedence over the builtin query of the same name for this animatable and frame.<br>
+     * Always called on the render thread, even when the animatable's animations are evaluated in parallel
+     */
     @Override
     public void applyMolangQueries(T animatable, double animTime) {
-        MolangParser parser = MolangParser.INSTANCE;
-        Minecraft mc = Minecraft.getInstance();
+    }
 
-        parser.setMemoizedValue(MolangQueries.LIFE_TIME, () -> animTime / 20d);
-        parser.setMemoizedValue(MolangQueries.ACTOR_COUNT, mc.level::getEntityCount);
-        parser.setMemoizedValue(MolangQueries.TIME_OF_DAY, () -> mc.level.getDayTime() / 24000f);
-        parser.setMemoizedValue(MolangQueries.MOON_PHASE, mc.level::getMoonPhase);
+    /**
+     * Register the builtin {@link MolangQueries} with the {@link MolangParser}.<br>
+     * These are resolved lazily per animatable by its {@link MolangContext}, so no per-frame work is done for queries
+     * that the animatable's animations don't use
+     */
+    private static void registerBuiltinMolangQueries() {
+        MolangParser parser = MolangParser.INSTANCE;
 
-        if (animatable instanceof Entity entity) {
-            parser.setMemoizedValue(
-                    MolangQueries.DISTANCE_FROM_CAMERA,
-                    () -> mc.gameRenderer.getMainCamera().getPosition().distanceTo(entity.position())
-            );
-            parser.setMemoizedValue(MolangQueries.IS_ON_GROUND, () -> RenderUtils.booleanToFloat(entity.onGround()));
-            parser.setMemoizedValue(MolangQueries.IS_IN_WATER, () -> RenderUtils.booleanToFloat(entity.isInWater()));
-            parser.setMemoizedValue(MolangQueries.IS_IN_WATER_OR_RAIN, () -> RenderUtils.booleanToFloat(entity.isInWaterOrRain()));
-            parser.setMemoizedValue(MolangQueries.IS_ON_FIRE, () -> RenderUtils.booleanToFloat(entity.isOnFire()));
-
-            if (entity instanceof LivingEntity livingEntity) {
-                parser.setMemoizedValue(MolangQueries.HEALTH, livingEntity::getHealth);
-                parser.setMemoizedValue(MolangQueries.MAX_HEALTH, livingEntity::getMaxHealth);
-                parser.setMemoizedValue(MolangQueries.GROUND_SPEED, () -> {
-                    Vec3 velocity = livingEntity.getDeltaMovement();
-
-                    return Mth.sqrt((float) ((velocity.x * velocity.x) + (velocity.z * velocity.z)));
-                });
-                parser.setMemoizedValue(MolangQueries.YAW_SPEED, () -> livingEntity.getYRot() - livingEntity.yRotO);
-            }
-        }
+        parser.registerQuery(MolangQueries.LIFE_TIME, Object.class, (animatable, animTime) -> animTime / 20d);
+        parser.registerQuery(
+                MolangQueries.ACTOR_COUNT,
+                Object.class,
+                (animatable, animTime) -> Minecraft.getInstance().level.getEntityCount()
+        );
+        parser.registerQuery(
+                MolangQueries.TIME_OF_DAY,
+                Object.class,
+                (animatable, animTime) -> Minecraft.getInstance().level.getDayTime() / 24000f
+        );
+        parser.registerQuery(
+                MolangQueries.MOON_PHASE,
+                Object.class,
+                (animatable, animTime) -> Minecraft.getInstance().level.getMoonPhase()
+        );
+        parser.registerQuery(
+                MolangQueries.DISTANCE_FROM_CAMERA,
+                Entity.class,
+                (entity, animTime) -> Minecraft.getInstance()
+                        .gameRenderer.getMainCamera()
+                        .getPosition()
+                        .distanceTo(entity.position())
+        );
+        parser.registerQuery(
+                MolangQueries.IS_ON_GROUND,
+                Entity.class,
+                (entity, animTime) -> RenderUtils.booleanToFloat(entity.onGround())
+        );
+        parser.registerQuery(
+                MolangQueries.IS_IN_WATER,
+                Entity.class,
+                (entity, animTime) -> RenderUtils.booleanToFloat(entity.isInWater())
+        );
+        parser.registerQuery(
+                MolangQueries.IS_IN_WATER_OR_RAIN,
+                Entity.class,
+                (entity, animTime) -> RenderUtils.booleanToFloat(entity.isInWaterOrRain())
+        );
+        parser.registerQuery(
+                MolangQueries.IS_ON_FIRE,
+                Entity.class,
+                (entity, animTime) -> RenderUtils.booleanToFloat(entity.isOnFire())
+        );
+        parser.registerQuery(MolangQueries.HEALTH, LivingEntity.class, (entity, animTime) -> entity.getHealth());
+        parser.registerQuery(MolangQueries.MAX_HEALTH, LivingEntity.class, (entity, animTime) -> entity.getMaxHealth());
+        parser.registerQuery(MolangQueries.GROUND_SPEED, LivingEntity.class, (entity, animTime) -> {
+            Vec3 velocity = entity.getDeltaMovement();
+
+            return Mth.sqrt((float) ((velocity.x * velocity.x) + (velocity.z * velocity.z)));
+        });
+        parser.registerQuery(
+                MolangQueries.YAW_SPEED,
+                LivingEntity.class,
+                (entity, animTime) -> entity.getYRot() - entity.yRotO
+        );
     }
 }
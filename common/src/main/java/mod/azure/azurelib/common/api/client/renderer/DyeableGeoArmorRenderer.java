@@ -16,6 +16,7 @@ import mod.azure.azurelib.common.internal.common.cache.object.BakedGeoModel;
 import mod.azure.azurelib.common.internal.common.cache.object.GeoBone;
 import mod.azure.azurelib.core.object.Color;
 import net.minecraft.client.renderer.MultiBufferSource;
+import net.minecraft.client.renderer.RenderType;
 import net.minecraft.util.FastColor;
 import net.minecraft.world.item.Item;
 import org.jetbrains.annotations.NotNull;
@@ -66,6 +67,14 @@ public abstract class DyeableGeoArmorRenderer<T extends Item & GeoItem> extends
             checkBoneDyeCache(model);
     }
 
+    /**
+     * Per-bone colours can't be drawn from a single skinned mesh
+     */
+    @Override
+    public boolean useSkinnedRendering(T animatable, RenderType renderType, MultiBufferSource bufferSource) {
+        return false;
+    }
+
     @Override
     public void renderCubesOfBone(
             PoseStack poseStack,
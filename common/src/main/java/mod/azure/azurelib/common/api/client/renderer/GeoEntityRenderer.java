@@ -14,6 +14,7 @@ import com.mojang.math.Axis;
 import it.unimi.dsi.fastutil.objects.ObjectArrayList;
 import mod.azure.azurelib.common.api.client.model.GeoModel;
 import mod.azure.azurelib.common.api.client.renderer.layer.GeoRenderLayer;
+import mod.azure.azurelib.common.internal.client.animation.ParallelAnimationEvaluator;
 import mod.azure.azurelib.common.internal.client.model.data.EntityModelData;
 import mod.azure.azurelib.common.internal.client.renderer.GeoRenderer;
 import mod.azure.azurelib.common.internal.client.util.RenderUtils;
@@ -24,6 +25,7 @@ import mod.azure.azurelib.common.internal.common.constant.DataTickets;
 import mod.azure.azurelib.common.platform.Services;
 import mod.azure.azurelib.core.animatable.GeoAnimatable;
 import mod.azure.azurelib.core.animation.AnimationState;
+import mod.azure.azurelib.core.state.BonePoseBuffer;
 import net.minecraft.client.Minecraft;
 import net.minecraft.client.renderer.LightTexture;
 import net.minecraft.client.renderer.MultiBufferSource;
@@ -237,6 +239,15 @@ public class GeoEntityRenderer<T extends Entity & GeoAnimatable> extends EntityR
         defaultRender(poseStack, entity, bufferSource, null, null, entityYaw, partialTick, packedLight);
     }
 
+    /**
+     * Entities without render layers can be batched with others sharing their model and pose, if instanced rendering
+     * is enabled
+     */
+    @Override
+    public boolean useInstancedRendering(T animatable) {
+        return getRenderLayers().isEmpty();
+    }
+
     /**
      * The actual render method that subtype renderers should override to handle their specific rendering tasks.<br>
      * {@link GeoRenderer#preRender} has already been called by this stage, and {@link GeoRenderer#postRender} will be
@@ -259,35 +270,7 @@ public class GeoEntityRenderer<T extends Entity & GeoAnimatable> extends EntityR
         poseStack.pushPose();
 
         LivingEntity livingEntity = animatable instanceof LivingEntity entity ? entity : null;
-
-        boolean shouldSit = animatable.isPassenger() && (animatable.getVehicle() != null);
-        float lerpBodyRot = livingEntity == null
-                ? 0
-                : Mth.rotLerp(
-                partialTick,
-                livingEntity.yBodyRotO,
-                livingEntity.yBodyRot
-        );
-        float lerpHeadRot = livingEntity == null
-                ? 0
-                : Mth.rotLerp(
-                partialTick,
-                livingEntity.yHeadRotO,
-                livingEntity.yHeadRot
-        );
-        float netHeadYaw = lerpHeadRot - lerpBodyRot;
-
-        if (shouldSit && animatable.getVehicle() instanceof LivingEntity livingentity) {
-            lerpBodyRot = Mth.rotLerp(partialTick, livingentity.yBodyRotO, livingentity.yBodyRot);
-            netHeadYaw = lerpHeadRot - lerpBodyRot;
-            float clampedHeadYaw = Mth.clamp(Mth.wrapDegrees(netHeadYaw), -85, 85);
-            lerpBodyRot = lerpHeadRot - clampedHeadYaw;
-
-            if (clampedHeadYaw * clampedHeadYaw > 2500f)
-                lerpBodyRot += clampedHeadYaw * 0.2f;
-
-            netHeadYaw = lerpHeadRot - lerpBodyRot;
-        }
+        float lerpBodyRot = getLerpedBodyRotation(animatable, partialTick);
 
         if (animatable.getPose() == Pose.SLEEPING && livingEntity != null) {
             Direction bedDirection = livingEntity.getBedOrientation();
@@ -305,54 +288,19 @@ public class GeoEntityRenderer<T extends Entity & GeoAnimatable> extends EntityR
 
         float nativeScale = livingEntity != null ? livingEntity.getScale() : 1;
         float ageInTicks = animatable.tickCount + partialTick;
-        float limbSwingAmount = 0;
-        float limbSwing = 0;
 
         poseStack.scale(nativeScale, nativeScale, nativeScale);
         applyRotations(animatable, poseStack, ageInTicks, lerpBodyRot, partialTick, nativeScale);
 
-        if (!shouldSit && animatable.isAlive() && livingEntity != null) {
-            limbSwingAmount = Mth.lerp(
-                    partialTick,
-                    livingEntity.walkAnimation.speedOld,
-                    livingEntity.walkAnimation.speed()
-            );
-            limbSwing = livingEntity.walkAnimation.position() - livingEntity.walkAnimation.speed() * (1 - partialTick);
-
-            if (livingEntity.isBaby())
-                limbSwing *= 3f;
-
-            if (limbSwingAmount > 1f)
-                limbSwingAmount = 1f;
-        }
-
         if (!isReRender) {
-            float headPitch = Mth.lerp(partialTick, animatable.xRotO, animatable.getXRot());
-            float motionThreshold = getMotionAnimThreshold(animatable);
-            Vec3 velocity = animatable.getDeltaMovement();
-            float avgVelocity = (float) (Math.abs(velocity.x) + Math.abs(velocity.z) / 2f);
-            AnimationState<T> animationState = new AnimationState<T>(
-                    animatable,
-                    limbSwing,
-                    limbSwingAmount,
-                    partialTick,
-                    avgVelocity >= motionThreshold && limbSwingAmount != 0
-            );
             long instanceId = getInstanceId(animatable);
 
-            animationState.setData(DataTickets.TICK, animatable.getTick(animatable));
-            animationState.setData(DataTickets.ENTITY, animatable);
-            animationState.setData(
-                    DataTickets.ENTITY_MODEL_DATA,
-                    new EntityModelData(
-                            shouldSit,
-                            livingEntity != null && livingEntity.isBaby(),
-                            -netHeadYaw,
-                            -headPitch
-                    )
+            ParallelAnimationEvaluator.track(this, animatable);
+            this.model.handleAnimations(
+                    animatable,
+                    instanceId,
+                    createAnimationState(animatable, partialTick, lerpBodyRot)
             );
-            this.model.addAdditionalStateData(animatable, instanceId, animationState::setData);
-            this.model.handleAnimations(animatable, instanceId, animationState);
         }
 
         this.modelRenderTranslations = new Matrix4f(poseStack.last().pose());
@@ -375,6 +323,96 @@ public class GeoEntityRenderer<T extends Entity & GeoAnimatable> extends EntityR
         poseStack.popPose();
     }
 
+    /**
+     * Build the {@link AnimationState} used to animate the given entity for the current render frame, including any
+     * {@link GeoModel#addAdditionalStateData additional state data} from the model
+     */
+    public AnimationState<T> createAnimationState(T animatable, float partialTick) {
+        return createAnimationState(animatable, partialTick, getLerpedBodyRotation(animatable, partialTick));
+    }
+
+    /**
+     * Build the {@link AnimationState} used to animate the given entity for the current render frame, from its
+     * already computed {@link #getLerpedBodyRotation body rotation}
+     */
+    protected AnimationState<T> createAnimationState(T animatable, float partialTick, float lerpBodyRot) {
+        LivingEntity livingEntity = animatable instanceof LivingEntity entity ? entity : null;
+        boolean shouldSit = animatable.isPassenger() && (animatable.getVehicle() != null);
+        float netHeadYaw = getLerpedHeadRotation(livingEntity, partialTick) - lerpBodyRot;
+        float limbSwingAmount = 0;
+        float limbSwing = 0;
+
+        if (!shouldSit && animatable.isAlive() && livingEntity != null) {
+            limbSwingAmount = Mth.lerp(
+                    partialTick,
+                    livingEntity.walkAnimation.speedOld,
+                    livingEntity.walkAnimation.speed()
+            );
+            limbSwing = livingEntity.walkAnimation.position() - livingEntity.walkAnimation.speed() * (1 - partialTick);
+
+            if (livingEntity.isBaby())
+                limbSwing *= 3f;
+
+            if (limbSwingAmount > 1f)
+                limbSwingAmount = 1f;
+        }
+
+        float headPitch = Mth.lerp(partialTick, animatable.xRotO, animatable.getXRot());
+        float motionThreshold = getMotionAnimThreshold(animatable);
+        Vec3 velocity = animatable.getDeltaMovement();
+        float avgVelocity = (float) (Math.abs(velocity.x) + Math.abs(velocity.z) / 2f);
+        AnimationState<T> animationState = new AnimationState<T>(
+                animatable,
+                limbSwing,
+                limbSwingAmount,
+                partialTick,
+                avgVelocity >= motionThreshold && limbSwingAmount != 0
+        );
+
+        animationState.setData(DataTickets.TICK, animatable.getTick(animatable));
+        animationState.setData(DataTickets.ENTITY, animatable);
+        animationState.setData(
+                DataTickets.ENTITY_MODEL_DATA,
+                new EntityModelData(
+                        shouldSit,
+                        livingEntity != null && livingEntity.isBaby(),
+                        -netHeadYaw,
+                        -headPitch
+                )
+        );
+        this.model.addAdditionalStateData(animatable, getInstanceId(animatable), animationState::setData);
+
+        return animationState;
+    }
+
+    /**
+     * Get the interpolated body rotation of the given entity for the current render frame.<br>
+     * If the entity is riding a {@link LivingEntity}, its body follows the vehicle's, turned towards the direction
+     * the entity's head is facing
+     */
+    protected float getLerpedBodyRotation(T animatable, float partialTick) {
+        LivingEntity livingEntity = animatable instanceof LivingEntity entity ? entity : null;
+        float lerpBodyRot = livingEntity == null
+                ? 0
+                : Mth.rotLerp(partialTick, livingEntity.yBodyRotO, livingEntity.yBodyRot);
+
+        if (animatable.isPassenger() && animatable.getVehicle() instanceof LivingEntity vehicle) {
+            float lerpHeadRot = getLerpedHeadRotation(livingEntity, partialTick);
+            lerpBodyRot = Mth.rotLerp(partialTick, vehicle.yBodyRotO, vehicle.yBodyRot);
+            float clampedHeadYaw = Mth.clamp(Mth.wrapDegrees(lerpHeadRot - lerpBodyRot), -85, 85);
+            lerpBodyRot = lerpHeadRot - clampedHeadYaw;
+
+            if (clampedHeadYaw * clampedHeadYaw > 2500f)
+                lerpBodyRot += clampedHeadYaw * 0.2f;
+        }
+
+        return lerpBodyRot;
+    }
+
+    private static float getLerpedHeadRotation(LivingEntity livingEntity, float partialTick) {
+        return livingEntity == null ? 0 : Mth.rotLerp(partialTick, livingEntity.yHeadRotO, livingEntity.yHeadRot);
+    }
+
     /**
      * Render the various {@link GeoRenderLayer RenderLayers} that have been registered to this renderer
      */
@@ -447,11 +485,10 @@ public class GeoEntityRenderer<T extends Entity & GeoAnimatable> extends EntityR
             int packedOverlay,
             int colour
     ) {
+        BonePoseBuffer pose = getCurrentPose();
+
         poseStack.pushPose();
-        RenderUtils.translateMatrixToBone(poseStack, bone);
-        RenderUtils.translateToPivotPoint(poseStack, bone);
-        RenderUtils.rotateMatrixAroundBone(poseStack, bone);
-        RenderUtils.scaleMatrixForBone(poseStack, bone);
+        RenderUtils.transformMatrixForBone(poseStack, bone, pose);
 
         if (bone.isTrackingMatrices()) {
             Matrix4f poseState = new Matrix4f(poseStack.last().pose());
@@ -25,6 +25,7 @@ import mod.azure.azurelib.common.internal.common.constant.DataTickets;
 import mod.azure.azurelib.common.platform.Services;
 import mod.azure.azurelib.core.animatable.GeoAnimatable;
 import mod.azure.azurelib.core.animation.AnimationState;
+import mod.azure.azurelib.core.state.BonePoseBuffer;
 import net.minecraft.client.Minecraft;
 import net.minecraft.client.renderer.LightTexture;
 import net.minecraft.client.renderer.MultiBufferSource;
@@ -458,11 +459,10 @@ public class GeoReplacedEntityRenderer<E extends Entity, T extends GeoAnimatable
             int packedOverlay,
             int colour
     ) {
+        BonePoseBuffer pose = getCurrentPose();
+
         poseStack.pushPose();
-        RenderUtils.translateMatrixToBone(poseStack, bone);
-        RenderUtils.translateToPivotPoint(poseStack, bone);
-        RenderUtils.rotateMatrixAroundBone(poseStack, bone);
-        RenderUtils.scaleMatrixForBone(poseStack, bone);
+        RenderUtils.transformMatrixForBone(poseStack, bone, pose);
 
         if (bone.isTrackingMatrices()) {
             Matrix4f poseState = new Matrix4f(poseStack.last().pose());
@@ -13,9 +13,11 @@ import it.unimi.dsi.fastutil.ints.IntIntPair;
 import it.unimi.dsi.fastutil.objects.Object2ObjectOpenHashMap;
 import mod.azure.azurelib.common.api.client.model.GeoModel;
 import mod.azure.azurelib.common.api.client.renderer.GeoBlockRenderer;
+import mod.azure.azurelib.common.internal.client.util.RenderScratch;
 import mod.azure.azurelib.common.internal.client.util.RenderUtils;
 import mod.azure.azurelib.common.internal.common.cache.object.*;
 import mod.azure.azurelib.core.animatable.GeoAnimatable;
+import mod.azure.azurelib.core.state.BonePoseBuffer;
 import net.minecraft.client.renderer.MultiBufferSource;
 import net.minecraft.client.renderer.RenderType;
 import net.minecraft.resources.ResourceLocation;
@@ -94,6 +96,14 @@ public abstract class DynamicGeoBlockRenderer<T extends BlockEntity & GeoAnimata
         return false;
     }
 
+    /**
+     * Per-bone textures and render types can't be drawn from a single skinned mesh
+     */
+    @Override
+    public boolean useSkinnedRendering(T animatable, RenderType renderType, MultiBufferSource bufferSource) {
+        return false;
+    }
+
     /**
      * Renders the provided {@link GeoBone} and its associated child bones
      */
@@ -111,11 +121,10 @@ public abstract class DynamicGeoBlockRenderer<T extends BlockEntity & GeoAnimata
             int packedOverlay,
             int colour
     ) {
+        BonePoseBuffer pose = getCurrentPose();
+
         poseStack.pushPose();
-        RenderUtils.translateMatrixToBone(poseStack, bone);
-        RenderUtils.translateToPivotPoint(poseStack, bone);
-        RenderUtils.rotateMatrixAroundBone(poseStack, bone);
-        RenderUtils.scaleMatrixForBone(poseStack, bone);
+        RenderUtils.transformMatrixForBone(poseStack, bone, pose);
 
         if (bone.isTrackingMatrices()) {
             Matrix4f poseState = new Matrix4f(poseStack.last().pose());
@@ -285,10 +294,10 @@ public abstract class DynamicGeoBlockRenderer<T extends BlockEntity & GeoAnimata
             return;
         }
 
+        Vector4f vector4f = RenderScratch.get().vertexPosition;
+
         for (GeoVertex vertex : quad.vertices()) {
-            Vector4f vector4f = poseState.transform(
-                    new Vector4f(vertex.position().x(), vertex.position().y(), vertex.position().z(), 1.0f)
-            );
+            poseState.transform(vertex.position().x(), vertex.position().y(), vertex.position().z(), 1.0f, vector4f);
             float texU = (vertex.texU() * entityTextureSize.firstInt()) / boneTextureSize.firstInt();
             float texV = (vertex.texV() * entityTextureSize.secondInt()) / boneTextureSize.secondInt();
 
@@ -133,43 +133,35 @@ public interface GeoItem extends SingletonGeoAnimatable {
         }
 
         /**
-         * Gets an {@link AnimatableManager} instance from this cache, cached under the id provided, or a new one if one
-         * doesn't already exist.<br>
-         * This subclass assumes that all animatable instances will be sharing this cache instance, and so
-         * differentiates data by ids.
+         * Create a new {@link ContextAwareAnimatableManager} for the given id, holding a separate
+         * {@link AnimatableManager} for each {@link ItemDisplayContext}
          */
         @Override
-        public AnimatableManager<?> getManagerForId(long uniqueId) {
-            if (!this.managers.containsKey(uniqueId))
-                this.managers.put(
-                        uniqueId,
-                        new ContextAwareAnimatableManager<GeoItem, ItemDisplayContext>(this.animatable) {
-
-                            @Override
-                            protected Map<ItemDisplayContext, AnimatableManager<GeoItem>> buildContextOptions(
-                                    GeoAnimatable animatable
-                            ) {
-                                Map<ItemDisplayContext, AnimatableManager<GeoItem>> map = new EnumMap<>(
-                                        ItemDisplayContext.class
-                                );
-
-                                for (ItemDisplayContext context : ItemDisplayContext.values()) {
-                                    map.put(context, new AnimatableManager<>(animatable));
-                                }
-
-                                return map;
-                            }
-
-                            @Override
-                            public ItemDisplayContext getCurrentContext() {
-                                ItemDisplayContext context = getData(DataTickets.ITEM_RENDER_PERSPECTIVE);
-
-                                return context == null ? ItemDisplayContext.NONE : context;
-                            }
-                        }
-                );
-
-            return this.managers.get(uniqueId);
+        protected AnimatableManager<?> createManager(long uniqueId) {
+            return new ContextAwareAnimatableManager<GeoItem, ItemDisplayContext>(this.animatable) {
+
+                @Override
+                protected Map<ItemDisplayContext, AnimatableManager<GeoItem>> buildContextOptions(
+                        GeoAnimatable animatable
+                ) {
+                    Map<ItemDisplayContext, AnimatableManager<GeoItem>> map = new EnumMap<>(
+                            ItemDisplayContext.class
+                    );
+
+                    for (ItemDisplayContext context : ItemDisplayContext.values()) {
+                        map.put(context, new AnimatableManager<>(animatable));
+                    }
+
+                    return map;
+                }
+
+                @Override
+                public ItemDisplayContext getCurrentContext() {
+                    ItemDisplayContext context = getData(DataTickets.ITEM_RENDER_PERSPECTIVE);
+
+                    return context == null ? ItemDisplayContext.NONE : context;
+                }
+            };
         }
     }
 }
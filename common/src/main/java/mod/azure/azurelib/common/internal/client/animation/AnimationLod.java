@@ -0,0 +1,118 @@
+package mod.azure.azurelib.common.internal.client.animation;
+
+import mod.azure.azurelib.common.api.client.model.GeoModel;
+import mod.azure.azurelib.common.internal.common.AzureLibMod;
+import mod.azure.azurelib.core.animation.AnimationLodPolicy;
+import mod.azure.azurelib.core.animation.AnimationLodTier;
+import net.minecraft.client.Minecraft;
+import net.minecraft.world.entity.Entity;
+import net.minecraft.world.level.block.entity.BlockEntity;
+import net.minecraft.world.phys.Vec3;
+
+import java.util.Arrays;
+
+/**
+ * Client-side support for {@link AnimationLodPolicy animation LOD}: resolving the default policy from the config,
+ * deciding the {@link AnimationLodTier tier} of an animatable from its distance to the camera, and counting how many
+ * animatables were animated in each tier per frame for tuning.<br>
+ * Only entities and block entities have a distance; every other animatable is always in the
+ * {@link AnimationLodTier#FULL full} tier
+ *
+ * @see GeoModel#getAnimationLodTier
+ */
+public final class AnimationLod {
+
+    private static final AnimationLodTier[] TIERS = AnimationLodTier.values();
+
+    private static final int[] FRAME_COUNTS = new int[TIERS.length];
+
+    private static final int[] LAST_FRAME_COUNTS = new int[TIERS.length];
+
+    private static AnimationLodPolicy configPolicy = AnimationLodPolicy.FULL_RATE;
+
+    private AnimationLod() {
+        throw new UnsupportedOperationException();
+    }
+
+    /**
+     * Get the policy for animatables that don't provide their own, as set in the config
+     */
+    public static AnimationLodPolicy getDefaultPolicy() {
+        if (AzureLibMod.config == null)
+            return AnimationLodPolicy.FULL_RATE;
+
+        double reducedDistance = AzureLibMod.config.animationLodReducedDistance;
+        int reducedInterval = Math.max(1, AzureLibMod.config.animationLodReducedInterval);
+        double frozenDistance = AzureLibMod.config.animationLodFrozenDistance;
+        AnimationLodPolicy policy = configPolicy;
+
+        if (
+                policy.reducedDistance() != reducedDistance
+                        || policy.reducedInterval() != reducedInterval
+                        || policy.frozenDistance() != frozenDistance
+        )
+            configPolicy = policy = new AnimationLodPolicy(reducedDistance, reducedInterval, frozenDistance);
+
+        return policy;
+    }
+
+    /**
+     * Get the tier the given animatable should be animated at this frame under the given policy
+     */
+    public static AnimationLodTier getTier(AnimationLodPolicy policy, Object animatable) {
+        if (policy.reducedDistance() <= 0 && policy.frozenDistance() <= 0)
+            return AnimationLodTier.FULL;
+
+        Vec3 cameraPos = Minecraft.getInstance().gameRenderer.getMainCamera().getPosition();
+
+        if (animatable instanceof Entity entity)
+            return policy.getTier(cameraPos.distanceToSqr(entity.position()));
+
+        if (animatable instanceof BlockEntity blockEntity)
+            return policy.getTier(cameraPos.distanceToSqr(Vec3.atCenterOf(blockEntity.getBlockPos())));
+
+        return AnimationLodTier.FULL;
+    }
+
+    /**
+     * Count an animatable as having been animated in the given tier this frame
+     */
+    public static void record(AnimationLodTier tier) {
+        FRAME_COUNTS[tier.ordinal()]++;
+    }
+
+    /**
+     * Store the counts of the frame just rendered, and start counting for the next.<br>
+     * Called at the start of each level render
+     */
+    public static void beginFrame() {
+        System.arraycopy(FRAME_COUNTS, 0, LAST_FRAME_COUNTS, 0, FRAME_COUNTS.length);
+        Arrays.fill(FRAME_COUNTS, 0);
+    }
+
+    /**
+     * Get the number of animatables animated in the given tier in the last frame
+     */
+    public static int getInstanceCount(AnimationLodTier tier) {
+        return LAST_FRAME_COUNTS[tier.ordinal()];
+    }
+
+    /**
+     * Get a summary of the last frame's tier counts for the debug screen, or an empty string if no animatable was
+     * animated at a reduced level of detail
+     */
+    public static String getLastFrameStats() {
+        int reduced = getInstanceCount(AnimationLodTier.REDUCED);
+        int frozen = getInstanceCount(AnimationLodTier.FROZEN);
+
+        if (reduced == 0 && frozen == 0)
+            return "";
+
+        return String.format(
+                "AzureLib animation LOD: %d full, %d reduced, %d frozen",
+                getInstanceCount(AnimationLodTier.FULL),
+                reduced,
+                frozen
+        );
+    }
+}
@@ -0,0 +1,274 @@
+package mod.azure.azurelib.common.internal.client.animation;
+
+import it.unimi.dsi.fastutil.objects.ObjectArrayList;
+import it.unimi.dsi.fastutil.objects.Reference2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.objects.ReferenceOpenHashSet;
+import mod.azure.azurelib.common.api.client.model.GeoModel;
+import mod.azure.azurelib.common.api.client.renderer.GeoEntityRenderer;
+import mod.azure.azurelib.common.internal.common.AzureLib;
+import mod.azure.azurelib.common.internal.common.AzureLibMod;
+import mod.azure.azurelib.core.animatable.GeoAnimatable;
+import mod.azure.azurelib.core.animation.AnimatableManager;
+import mod.azure.azurelib.core.animation.AnimationState;
+import net.minecraft.client.DeltaTracker;
+import net.minecraft.client.Minecraft;
+import net.minecraft.client.multiplayer.ClientLevel;
+import net.minecraft.resources.ResourceLocation;
+import net.minecraft.world.entity.Entity;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+
+/**
+ * Opt-in evaluator that animates the {@link GeoEntityRenderer AzureLib entities} visible in a frame in parallel,
+ * before any of them are rendered.<br>
+ * Entities rendered in the previous frame are collected as they render. At the start of the next frame their
+ * animation timers are advanced and their controllers' state handlers are called on the render thread. Their bone
+ * transformations are then evaluated into their {@link AnimatableManager AnimatableManagers'} bone pose buffers on a
+ * dedicated {@link ForkJoinPool}. Once all evaluations have finished, the sound, particle and custom instruction
+ * keyframe handlers reached during them are called back on the render thread, and any evaluation failure is rethrown.
+ * Rendering then continues as normal. Each entity only needs its evaluated pose applied to the model before it is
+ * rendered.<br>
+ * Entities that weren't collected (such as those just coming into view) are animated on the render thread as normal.
+ * <br>
+ * Molang expressions and queries, and each controller's animation speed, easing override and loop type functions,
+ * still run on worker threads in this mode, so it is disabled by default and enabled through the
+ * {@code parallelAnimationEvaluation} config option
+ */
+public final class ParallelAnimationEvaluator {
+
+    /**
+     * The minimum number of entities needed in a frame before evaluating them in parallel is worthwhile
+     */
+    private static final int MIN_BATCH_SIZE = 4;
+
+    private static final List<TrackedEntity<?>> TRACKED_ENTITIES = new ObjectArrayList<>();
+
+    private static final Set<Entity> TRACKED_ENTITY_SET = new ReferenceOpenHashSet<>();
+
+    private static ForkJoinPool pool;
+
+    private static long currentFrame = 0;
+
+    private ParallelAnimationEvaluator() {
+        throw new UnsupportedOperationException();
+    }
+
+    public static boolean isEnabled() {
+        return AzureLibMod.config != null && AzureLibMod.config.parallelAnimationEvaluation;
+    }
+
+    /**
+     * Get the id of the frame currently being rendered
+     */
+    public static long getCurrentFrame() {
+        return currentFrame;
+    }
+
+    /**
+     * Collect an entity being rendered this frame, to be evaluated in parallel from the next frame onwards
+     */
+    public static <T extends Entity & GeoAnimatable> void track(GeoEntityRenderer<T> renderer, T entity) {
+        if (isEnabled() && TRACKED_ENTITY_SET.add(entity))
+            TRACKED_ENTITIES.add(new TrackedEntity<>(renderer, entity));
+    }
+
+    /**
+     * Evaluate the animations of the entities collected in the previous frame, ahead of rendering the new frame.<br>
+     * Called at the start of each level render
+     */
+    public static void evaluateFrame(DeltaTracker deltaTracker) {
+        currentFrame++;
+
+        if (!isEnabled() || TRACKED_ENTITIES.size() < MIN_BATCH_SIZE) {
+            clearTrackedEntities();
+
+            return;
+        }
+
+        ClientLevel level = Minecraft.getInstance().level;
+        List<EvaluationTask<?>> tasks = new ObjectArrayList<>(TRACKED_ENTITIES.size());
+        Map<GeoModel<?>, ResourceLocation> activeModels = new Reference2ObjectOpenHashMap<>();
+
+        for (TrackedEntity<?> trackedEntity : TRACKED_ENTITIES) {
+            Entity entity = trackedEntity.entity();
+
+            if (level == null || entity.isRemoved() || entity.level() != level)
+                continue;
+
+            float partialTick = deltaTracker.getGameTimeDeltaPartialTick(
+                    !level.tickRateManager().isEntityFrozen(entity)
+            );
+            EvaluationTask<?> task = trackedEntity.prepare(partialTick, activeModels);
+
+            if (task != null)
+                tasks.add(task);
+        }
+
+        clearTrackedEntities();
+
+        if (tasks.isEmpty())
+            return;
+
+        long frame = currentFrame;
+        RuntimeException failure = null;
+
+        getPool().submit(() -> tasks.parallelStream().forEach(task -> task.evaluate(frame))).join();
+
+        for (EvaluationTask<?> task : tasks) {
+            task.dispatchKeyframeEvents();
+
+            if (task.failure != null) {
+                if (failure == null) {
+                    failure = task.failure;
+                } else {
+                    failure.addSuppressed(task.failure);
+                }
+            }
+        }
+
+        if (failure != null)
+            throw failure;
+    }
+
+    private static void clearTrackedEntities() {
+        TRACKED_ENTITIES.clear();
+        TRACKED_ENTITY_SET.clear();
+    }
+
+    private static ForkJoinPool getPool() {
+        if (pool == null) {
+            ClassLoader classLoader = Thread.currentThread().getContextClassLoader();
+
+            pool = new ForkJoinPool(
+                    Math.max(1, Runtime.getRuntime().availableProcessors() - 1),
+                    forkJoinPool -> {
+                        ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(
+                                forkJoinPool
+                        );
+
+                        thread.setName("AzureLib Animation Worker " + thread.getPoolIndex());
+                        thread.setDaemon(true);
+                        thread.setContextClassLoader(classLoader);
+
+                        return thread;
+                    },
+                    (thread, ex) -> AzureLib.LOGGER.error("Uncaught exception in {}", thread.getName(), ex),
+                    false
+            );
+        }
+
+        return pool;
+    }
+
+    /**
+     * An entity and its renderer, collected during a frame's rendering
+     */
+    private record TrackedEntity<T extends Entity & GeoAnimatable>(GeoEntityRenderer<T> renderer, T entity) {
+
+        /**
+         * Advance the entity's animation timers for the new frame on the render thread, ready for its animations to be
+         * evaluated on a worker thread.<br>
+         * Entities that can't be safely evaluated alongside the others are left to be animated during rendering, as
+         * are those whose {@link mod.azure.azurelib.core.animation.AnimationLodPolicy LOD policy} skips this frame
+         *
+         * @param activeModels The model resource each {@link GeoModel} has been set up with for this frame. Entities
+         *                     sharing a {@code GeoModel} but using a different model resource are skipped, as the
+         *                     model's bones can only be set up for one model resource at a time
+         * @return The evaluation task, or null if the entity should be animated during rendering instead
+         */
+        private EvaluationTask<T> prepare(float partialTick, Map<GeoModel<?>, ResourceLocation> activeModels) {
+            GeoModel<T> model = this.renderer.getGeoModel();
+            AnimatableManager<T> manager = null;
+
+            try {
+                ResourceLocation modelResource = model.getModelResource(this.entity);
+                ResourceLocation activeModel = activeModels.putIfAbsent(model, modelResource);
+
+                if (activeModel == null) {
+                    model.getBakedModel(modelResource);
+                } else if (!activeModel.equals(modelResource)) {
+                    return null;
+                }
+
+                long instanceId = this.renderer.getInstanceId(this.entity);
+                manager = this.entity.getAnimatableInstanceCache().getManagerForId(instanceId);
+
+                if (!model.shouldEvaluateAnimations(this.entity, manager, model.getAnimationLodTier(this.entity)))
+                    return null;
+
+                AnimationState<T> animationState = this.renderer.createAnimationState(this.entity, partialTick);
+
+                if (!model.prepareAnimations(this.entity, manager, instanceId, animationState))
+                    return null;
+
+                model.prepareControllers(this.entity, manager, animationState);
+                manager.evaluatedIn(currentFrame);
+
+                return new EvaluationTask<>(model, this.entity, manager, animationState);
+            } catch (RuntimeException ex) {
+                AzureLib.LOGGER.error(
+                        "Failed to prepare animations of {} for parallel evaluation, animating it during rendering",
+                        this.entity,
+                        ex
+                );
+
+                if (manager != null)
+                    model.dispatchKeyframeEvents(manager);
+
+                return null;
+            }
+        }
+    }
+
+    /**
+     * The pending evaluation of an entity's animations for a frame
+     */
+    private static final class EvaluationTask<T extends Entity & GeoAnimatable> {
+
+        private final GeoModel<T> model;
+
+        private final T entity;
+
+        private final AnimatableManager<T> manager;
+
+        private final AnimationState<T> animationState;
+
+        private RuntimeException failure;
+
+        private EvaluationTask(
+                GeoModel<T> model,
+                T entity,
+                AnimatableManager<T> manager,
+                AnimationState<T> animationState
+        ) {
+            this.model = model;
+            this.entity = entity;
+            this.manager = manager;
+            this.animationState = animationState;
+        }
+
+        /**
+         * Evaluate the entity's bone transformations on a worker thread, recording any failure to be rethrown on the
+         * render thread
+         */
+        private void evaluate(long frame) {
+            try {
+                this.model.evaluateAnimations(this.entity, this.manager, this.animationState);
+                this.manager.getBonePoseBuffer().markEvaluatedFor(frame);
+            } catch (RuntimeException ex) {
+                this.failure = ex;
+            }
+        }
+
+        /**
+         * Call the keyframe handlers reached during evaluation, on the render thread
+         */
+        private void dispatchKeyframeEvents() {
+            this.model.dispatchKeyframeEvents(this.manager);
+        }
+    }
+}
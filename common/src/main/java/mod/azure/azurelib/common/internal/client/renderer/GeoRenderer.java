@@ -13,12 +13,17 @@ import mod.azure.azurelib.common.api.client.model.GeoModel;
 import mod.azure.azurelib.common.api.client.renderer.layer.GeoRenderLayer;
 import mod.azure.azurelib.common.api.common.animatable.GeoBlockEntity;
 import mod.azure.azurelib.common.api.common.animatable.GeoItem;
+import mod.azure.azurelib.common.internal.client.renderer.skinned.InstancedGeoRenderer;
+import mod.azure.azurelib.common.internal.client.renderer.skinned.SkinnedGeoMesh;
+import mod.azure.azurelib.common.internal.client.renderer.skinned.SkinnedGeoRenderer;
+import mod.azure.azurelib.common.internal.client.util.RenderScratch;
 import mod.azure.azurelib.common.internal.client.util.RenderUtils;
 import mod.azure.azurelib.common.internal.common.cache.object.*;
 import mod.azure.azurelib.common.internal.common.cache.texture.AnimatableTexture;
 import mod.azure.azurelib.core.animatable.GeoAnimatable;
 import mod.azure.azurelib.core.animation.AnimationState;
 import mod.azure.azurelib.core.object.Color;
+import mod.azure.azurelib.core.state.BonePoseBuffer;
 import net.minecraft.client.renderer.MultiBufferSource;
 import net.minecraft.client.renderer.RenderType;
 import net.minecraft.client.renderer.texture.OverlayTexture;
@@ -87,6 +92,25 @@ public interface GeoRenderer<T extends GeoAnimatable> {
         return OverlayTexture.NO_OVERLAY;
     }
 
+    /**
+     * Gets the {@link BonePoseBuffer} holding the animated pose of the animatable currently being rendered.<br>
+     * Bones are transformed from this pose when rendered, falling back to the state of the {@link GeoBone} itself for
+     * any bones the pose doesn't hold
+     */
+    @Nullable
+    default BonePoseBuffer getCurrentPose() {
+        return getGeoModel().getCurrentPose();
+    }
+
+    /**
+     * Gets the {@link SkinnedGeoMesh} the bones of the model currently being rendered are captured into, or null if
+     * their cubes are being rendered as normal
+     */
+    @Nullable
+    default SkinnedGeoMesh getSkinnedMesh() {
+        return getGeoModel().getSkinnedMesh();
+    }
+
     /**
      * Gets the id that represents the current animatable's instance for animation purposes.
      * This is mostly useful for things like items, which have a single registered instance for all objects
@@ -167,12 +191,71 @@ public interface GeoRenderer<T extends GeoAnimatable> {
                                 int packedLight, int packedOverlay, int colour) {
         updateAnimatedTextureFrame(animatable);
 
-        for (GeoBone group : model.getTopLevelBones()) {
-            renderRecursively(poseStack, animatable, group, renderType, bufferSource, buffer, isReRender, partialTick, packedLight,
-                    packedOverlay, colour);
+        SkinnedGeoMesh skinnedMesh = null;
+
+        if (!isReRender && useSkinnedRendering(animatable, renderType, bufferSource))
+            skinnedMesh = SkinnedGeoRenderer.begin(model);
+
+        InstancedGeoRenderer.Batch instanceBatch = null;
+
+        if (skinnedMesh != null && useInstancedRendering(animatable)) {
+            instanceBatch = InstancedGeoRenderer.addInstance(
+                    skinnedMesh,
+                    renderType,
+                    getCurrentPose(),
+                    poseStack.last().pose(),
+                    packedLight,
+                    packedOverlay,
+                    colour
+            );
+        }
+
+        if (instanceBatch != null && instanceBatch.hasBoneMatrices()) {
+            skinnedMesh.endCapture();
+
+            return;
+        }
+
+        SkinnedGeoMesh previousMesh = getGeoModel().setSkinnedMesh(skinnedMesh);
+
+        try {
+            for (GeoBone group : model.getTopLevelBones()) {
+                renderRecursively(poseStack, animatable, group, renderType, bufferSource, buffer, isReRender, partialTick, packedLight,
+                        packedOverlay, colour);
+            }
+        } finally {
+            getGeoModel().setSkinnedMesh(previousMesh);
+
+            if (skinnedMesh != null)
+                skinnedMesh.endCapture();
+        }
+
+        if (instanceBatch != null) {
+            instanceBatch.captureBoneMatrices(poseStack.last().pose());
+        } else if (skinnedMesh != null) {
+            SkinnedGeoRenderer.draw(skinnedMesh, renderType, packedLight, packedOverlay, colour);
         }
     }
 
+    /**
+     * Whether this render of the animatable can use the {@link SkinnedGeoRenderer GPU skinned} backend, drawing the model from
+     * a static mesh rather than submitting its cubes to the buffer.<br>
+     * Renderers that change the texture, {@link RenderType}, or colour of individual bones should return false here
+     */
+    default boolean useSkinnedRendering(T animatable, RenderType renderType, MultiBufferSource bufferSource) {
+        return SkinnedGeoRenderer.canRender(renderType, getTextureLocation(animatable), bufferSource);
+    }
+
+    /**
+     * Whether this render of the animatable can be {@link InstancedGeoRenderer batched} with others of the same model and
+     * pose. Only checked if {@link GeoRenderer#useSkinnedRendering} allows skinned rendering.<br>
+     * Only the first animatable in a batch walks its bones, so renderers that do per-bone work for every animatable
+     * (such as {@link GeoRenderLayer#renderForBone per-bone render layers}) should return false here
+     */
+    default boolean useInstancedRendering(T animatable) {
+        return false;
+    }
+
     /**
      * Calls back to the various {@link GeoRenderLayer RenderLayers} that have been registered to this renderer for their {@link GeoRenderLayer#preRender pre-render} actions.
      */
@@ -237,7 +320,7 @@ public interface GeoRenderer<T extends GeoAnimatable> {
                                    VertexConsumer buffer, boolean isReRender, float partialTick, int packedLight,
                                    int packedOverlay, int colour) {
         poseStack.pushPose();
-        RenderUtils.prepMatrixForBone(poseStack, bone);
+        RenderUtils.prepMatrixForBone(poseStack, bone, getCurrentPose());
         renderCubesOfBone(poseStack, bone, buffer, packedLight, packedOverlay, colour);
 
         if (!isReRender)
@@ -252,7 +335,7 @@ public interface GeoRenderer<T extends GeoAnimatable> {
      */
     default void renderCubesOfBone(PoseStack poseStack, GeoBone bone, VertexConsumer buffer, int packedLight,
                                    int packedOverlay, int colour) {
-        if (bone.isHidden())
+        if (bone.isHidden() || SkinnedGeoRenderer.captureBone(getSkinnedMesh(), bone, poseStack))
             return;
 
         for (GeoCube cube : bone.getCubes()) {
@@ -278,22 +361,29 @@ public interface GeoRenderer<T extends GeoAnimatable> {
 
     /**
      * Renders an individual {@link GeoCube}.<br>
-     * This tends to be called recursively from something like {@link GeoRenderer#renderCubesOfBone}
+     * This tends to be called recursively from something like {@link GeoRenderer#renderCubesOfBone}<br>
+     * Cubes baked by the builtin {@link mod.azure.azurelib.common.internal.common.loading.object.BakedModelFactory BakedModelFactory}
+     * already have their rotation applied to their vertices, so only need the bone's transform.<br>
+     * The pose and normals passed on to {@link #createVerticesOfQuad} are {@link RenderScratch per-thread scratch objects},
+     * and are only valid for the duration of that call
      */
     default void renderCube(PoseStack poseStack, GeoCube cube, VertexConsumer buffer, int packedLight,
                             int packedOverlay, int colour) {
-        RenderUtils.translateToPivotPoint(poseStack, cube);
-        RenderUtils.rotateMatrixAroundCube(poseStack, cube);
-        RenderUtils.translateAwayFromPivotPoint(poseStack, cube);
+        if (!cube.rotationBaked() && RenderUtils.hasCubeRotation(cube)) {
+            RenderUtils.translateToPivotPoint(poseStack, cube);
+            RenderUtils.rotateMatrixAroundCube(poseStack, cube);
+            RenderUtils.translateAwayFromPivotPoint(poseStack, cube);
+        }
 
+        RenderScratch scratch = RenderScratch.get();
         Matrix3f normalisedPoseState = poseStack.last().normal();
-        Matrix4f poseState = new Matrix4f(poseStack.last().pose());
+        Matrix4f poseState = scratch.cubePose.set(poseStack.last().pose());
 
         for (GeoQuad quad : cube.quads()) {
             if (quad == null)
                 continue;
 
-            Vector3f normal = normalisedPoseState.transform(new Vector3f(quad.normal()));
+            Vector3f normal = normalisedPoseState.transform(quad.normal(), scratch.quadNormal);
 
             RenderUtils.fixInvertedFlatCube(cube, normal);
             createVerticesOfQuad(quad, poseState, normal, buffer, packedLight, packedOverlay, colour);
@@ -305,9 +395,12 @@ public interface GeoRenderer<T extends GeoAnimatable> {
      */
     default void createVerticesOfQuad(GeoQuad quad, Matrix4f poseState, Vector3f normal, VertexConsumer buffer,
                                       int packedLight, int packedOverlay, int colour) {
+        Vector4f vector4f = RenderScratch.get().vertexPosition;
+
         for (GeoVertex vertex : quad.vertices()) {
             Vector3f position = vertex.position();
-            Vector4f vector4f = poseState.transform(new Vector4f(position.x(), position.y(), position.z(), 1.0f));
+
+            poseState.transform(position.x(), position.y(), position.z(), 1.0f, vector4f);
 
             buffer.addVertex(vector4f.x(), vector4f.y(), vector4f.z(), colour, vertex.texU(),
                     vertex.texV(), packedOverlay, packedLight, normal.x(), normal.y(), normal.z());
@@ -0,0 +1,317 @@
+package mod.azure.azurelib.common.internal.client.renderer.skinned;
+
+import com.mojang.blaze3d.systems.RenderSystem;
+import com.mojang.blaze3d.vertex.VertexBuffer;
+import com.mojang.blaze3d.vertex.VertexFormat;
+import it.unimi.dsi.fastutil.objects.Object2ObjectOpenHashMap;
+import mod.azure.azurelib.common.internal.common.AzureLibMod;
+import mod.azure.azurelib.common.internal.common.cache.object.GeoBone;
+import mod.azure.azurelib.core.keyframe.BoneAnimationBuffer;
+import mod.azure.azurelib.core.state.BonePoseBuffer;
+import net.minecraft.client.Minecraft;
+import net.minecraft.client.renderer.RenderType;
+import net.minecraft.client.renderer.ShaderInstance;
+import org.jetbrains.annotations.Nullable;
+import org.joml.Matrix4f;
+import org.lwjgl.opengl.GL31;
+import org.lwjgl.system.MemoryUtil;
+
+import java.nio.FloatBuffer;
+import java.nio.IntBuffer;
+import java.util.Arrays;
+import java.util.Map;
+
+/**
+ * Batches {@link SkinnedGeoRenderer skinned} entity renders that share a model, {@link RenderType} and pose, drawing
+ * each batch with a single instanced draw call once all entities have been rendered for the frame.<br>
+ * The first entity in a batch walks its bones as normal to capture the pose, and every other entity with an identical
+ * pose only adds its own transform, light, and colour to the batch, skipping the bone walk altogether. This suits
+ * ambient mobs such as flocks, schools and crowds that play the same looping animations in sync.<br>
+ * <br>
+ * Entities are only batched while the level's entities are being rendered, between {@link #beginFrame} and
+ * {@link #flush}; anything else is drawn by {@link SkinnedGeoRenderer} immediately.<br>
+ * Must only be used on the render thread
+ */
+public final class InstancedGeoRenderer {
+
+    /**
+     * The number of values stored per bone when comparing poses: its 9 transform channels and its hidden state
+     */
+    private static final int POSE_STRIDE = BoneAnimationBuffer.CHANNELS + 1;
+
+    private static final Map<BatchKey, Batch> BATCHES = new Object2ObjectOpenHashMap<>();
+
+    private static final FloatBuffer MATRIX_UPLOAD = MemoryUtil.memAllocFloat(Math.max(InstancedGeoShader.MAX_BONES, InstancedGeoShader.MAX_INSTANCES) * 16);
+
+    private static final IntBuffer LIGHT_UPLOAD = MemoryUtil.memAllocInt(InstancedGeoShader.MAX_INSTANCES * 4);
+
+    private static final FloatBuffer COLOR_UPLOAD = MemoryUtil.memAllocFloat(InstancedGeoShader.MAX_INSTANCES * 4);
+
+    private static final Matrix4f ROOT_INVERSE = new Matrix4f();
+
+    private static final Matrix4f BONE_MATRIX = new Matrix4f();
+
+    private static float[] poseScratch = new float[0];
+
+    private static boolean collecting = false;
+
+    private static int frameInstances = 0;
+
+    private static int frameDraws = 0;
+
+    private static int framePosesReused = 0;
+
+    private static long frameVerticesSaved = 0;
+
+    private static String lastFrameStats = "";
+
+    private InstancedGeoRenderer() {}
+
+    /**
+     * @return Whether instanced rendering is turned on in the config, and both it and skinned rendering are available
+     */
+    public static boolean isEnabled() {
+        return AzureLibMod.config != null && AzureLibMod.config.instancedModelRendering && SkinnedGeoRenderer.isEnabled() && InstancedGeoShader.getShader() != null;
+    }
+
+    /**
+     * Start collecting instances for the level's entity render pass
+     */
+    public static void beginFrame() {
+        collecting = isEnabled();
+    }
+
+    /**
+     * Add an entity render to the batch for its mesh, {@link RenderType} and pose, creating the batch if this is the
+     * first entity with that pose this frame
+     *
+     * @param mesh     The mesh of the model being rendered, already {@link SkinnedGeoMesh#beginCapture capturing}
+     * @param pose     The pose of the animatable being rendered, or null if the model's bones hold it
+     * @param rootPose The pose the model's bones are rendered relative to
+     * @return The batch the render was added to, or null if it can't be instanced and should be drawn as normal.<br>
+     *         If the batch doesn't {@link Batch#hasBoneMatrices() have its bone matrices} yet, the bones must be walked
+     *         and {@link Batch#captureBoneMatrices captured} into it
+     */
+    @Nullable
+    public static Batch addInstance(
+            SkinnedGeoMesh mesh,
+            RenderType renderType,
+            @Nullable BonePoseBuffer pose,
+            Matrix4f rootPose,
+            int packedLight,
+            int packedOverlay,
+            int colour
+    ) {
+        if (!collecting || mesh.getBoneCount() > InstancedGeoShader.MAX_BONES || mesh.getVertexBuffer() == null)
+            return null;
+
+        GeoBone[] bones = mesh.getBones();
+        int poseLength = bones.length * POSE_STRIDE;
+
+        if (poseScratch.length < poseLength)
+            poseScratch = new float[poseLength];
+
+        int poseHash = 1;
+
+        for (int i = 0; i < bones.length; i++) {
+            GeoBone bone = bones[i];
+
+            if (bone.isTrackingMatrices())
+                return null;
+
+            int boneIndex = pose == null ? -1 : pose.getBoneIndex(bone);
+            int offset = i * POSE_STRIDE;
+
+            for (int channel = 0; channel < BoneAnimationBuffer.CHANNELS; channel++) {
+                float value = boneIndex == -1 ? getBoneValue(bone, channel) : pose.get(boneIndex, channel);
+
+                poseScratch[offset + channel] = value;
+                poseHash = 31 * poseHash + Float.floatToIntBits(value);
+            }
+
+            float hidden = (bone.isHidden() ? 1 : 0) | (bone.isHidingChildren() ? 2 : 0);
+
+            poseScratch[offset + BoneAnimationBuffer.CHANNELS] = hidden;
+            poseHash = 31 * poseHash + Float.floatToIntBits(hidden);
+        }
+
+        BatchKey key = new BatchKey(mesh, renderType, poseHash);
+        Batch batch = BATCHES.get(key);
+
+        if (batch == null) {
+            batch = new Batch(mesh, renderType, Arrays.copyOf(poseScratch, poseLength));
+
+            BATCHES.put(key, batch);
+        } else if (!Arrays.equals(batch.pose, 0, poseLength, poseScratch, 0, poseLength)) {
+            return null;
+        } else if (batch.hasBoneMatrices()) {
+            framePosesReused++;
+        }
+
+        batch.add(rootPose, packedLight, packedOverlay, colour);
+
+        frameInstances++;
+        frameVerticesSaved += mesh.getVertexCount();
+
+        return batch;
+    }
+
+    private static float getBoneValue(GeoBone bone, int channel) {
+        return switch (channel) {
+            case BoneAnimationBuffer.ROTATION_X -> bone.getRotX();
+            case BoneAnimationBuffer.ROTATION_Y -> bone.getRotY();
+            case BoneAnimationBuffer.ROTATION_Z -> bone.getRotZ();
+            case BoneAnimationBuffer.POSITION_X -> bone.getPosX();
+            case BoneAnimationBuffer.POSITION_Y -> bone.getPosY();
+            case BoneAnimationBuffer.POSITION_Z -> bone.getPosZ();
+            case BoneAnimationBuffer.SCALE_X -> bone.getScaleX();
+            case BoneAnimationBuffer.SCALE_Y -> bone.getScaleY();
+            default -> bone.getScaleZ();
+        };
+    }
+
+    /**
+     * Draw every batch collected this frame, and stop collecting
+     */
+    public static void flush() {
+        collecting = false;
+
+        ShaderInstance shader = InstancedGeoShader.getShader();
+
+        if (shader != null) {
+            for (Batch batch : BATCHES.values()) {
+                if (batch.hasBoneMatrices())
+                    draw(shader, batch);
+            }
+        }
+
+        BATCHES.clear();
+
+        lastFrameStats = frameInstances == 0 ? "" : String.format("AzureLib instancing: %d instances in %d draws (%d draws, %d vertices saved, %d poses reused)",
+                frameInstances, frameDraws, frameInstances - frameDraws, frameVerticesSaved, framePosesReused);
+        frameInstances = 0;
+        frameDraws = 0;
+        framePosesReused = 0;
+        frameVerticesSaved = 0;
+    }
+
+    private static void draw(ShaderInstance shader, Batch batch) {
+        VertexBuffer vertexBuffer = batch.mesh.getVertexBuffer();
+
+        if (vertexBuffer == null)
+            return;
+
+        int indexCount = batch.mesh.getVertexCount() / 4 * 6;
+        int indexType = RenderSystem.getSequentialBuffer(VertexFormat.Mode.QUADS).type().asGLType;
+
+        batch.renderType.setupRenderState();
+        shader.setDefaultUniforms(VertexFormat.Mode.QUADS, RenderSystem.getModelViewMatrix(), RenderSystem.getProjectionMatrix(), Minecraft.getInstance().getWindow());
+        shader.apply();
+
+        MATRIX_UPLOAD.clear().put(batch.boneMatrices).flip();
+        RenderSystem.glUniformMatrix4(InstancedGeoShader.getBoneMatricesLocation(), false, MATRIX_UPLOAD);
+        vertexBuffer.bind();
+
+        for (int start = 0; start < batch.size; start += InstancedGeoShader.MAX_INSTANCES) {
+            int count = Math.min(InstancedGeoShader.MAX_INSTANCES, batch.size - start);
+
+            MATRIX_UPLOAD.clear().put(batch.instanceMatrices, start * 16, count * 16).flip();
+            LIGHT_UPLOAD.clear().put(batch.instanceLight, start * 4, count * 4).flip();
+            COLOR_UPLOAD.clear().put(batch.instanceColors, start * 4, count * 4).flip();
+            RenderSystem.glUniformMatrix4(InstancedGeoShader.getInstanceMatricesLocation(), false, MATRIX_UPLOAD);
+            RenderSystem.glUniform4(InstancedGeoShader.getInstanceLightLocation(), LIGHT_UPLOAD);
+            RenderSystem.glUniform4(InstancedGeoShader.getInstanceColorLocation(), COLOR_UPLOAD);
+            GL31.glDrawElementsInstanced(VertexFormat.Mode.QUADS.asGLMode, indexCount, indexType, 0L, count);
+
+            frameDraws++;
+        }
+
+        VertexBuffer.unbind();
+        shader.clear();
+        batch.renderType.clearRenderState();
+    }
+
+    /**
+     * Get a summary of the last frame's instancing for the debug screen, or an empty string if nothing was instanced
+     */
+    public static String getLastFrameStats() {
+        return lastFrameStats;
+    }
+
+    private record BatchKey(SkinnedGeoMesh mesh, RenderType renderType, int poseHash) {}
+
+    /**
+     * A set of entity renders sharing a mesh, {@link RenderType} and pose, to be drawn together
+     */
+    public static final class Batch {
+
+        private final SkinnedGeoMesh mesh;
+
+        private final RenderType renderType;
+
+        private final float[] pose;
+
+        private float[] boneMatrices = null;
+
+        private float[] instanceMatrices = new float[16 * 4];
+
+        private int[] instanceLight = new int[4 * 4];
+
+        private float[] instanceColors = new float[4 * 4];
+
+        private int size = 0;
+
+        private Batch(SkinnedGeoMesh mesh, RenderType renderType, float[] pose) {
+            this.mesh = mesh;
+            this.renderType = renderType;
+            this.pose = pose;
+        }
+
+        private void add(Matrix4f rootPose, int packedLight, int packedOverlay, int colour) {
+            if (this.size * 16 == this.instanceMatrices.length) {
+                this.instanceMatrices = Arrays.copyOf(this.instanceMatrices, this.instanceMatrices.length * 2);
+                this.instanceLight = Arrays.copyOf(this.instanceLight, this.instanceLight.length * 2);
+                this.instanceColors = Arrays.copyOf(this.instanceColors, this.instanceColors.length * 2);
+            }
+
+            int offset = this.size * 4;
+
+            rootPose.get(this.instanceMatrices, this.size * 16);
+
+            this.instanceLight[offset] = packedLight & 0xFFFF;
+            this.instanceLight[offset + 1] = packedLight >> 16 & 0xFFFF;
+            this.instanceLight[offset + 2] = packedOverlay & 0xFFFF;
+            this.instanceLight[offset + 3] = packedOverlay >> 16 & 0xFFFF;
+            this.instanceColors[offset] = (colour >> 16 & 0xFF) / 255f;
+            this.instanceColors[offset + 1] = (colour >> 8 & 0xFF) / 255f;
+            this.instanceColors[offset + 2] = (colour & 0xFF) / 255f;
+            this.instanceColors[offset + 3] = (colour >>> 24) / 255f;
+            this.size++;
+        }
+
+        /**
+         * Whether the pose of this batch has been captured, so further instances don't need to walk their bones
+         */
+        public boolean hasBoneMatrices() {
+            return this.boneMatrices != null;
+        }
+
+        /**
+         * Store the bone matrices the batch's mesh just captured, relative to the root pose they were captured under,
+         * to be shared by every instance in the batch
+         */
+        public void captureBoneMatrices(Matrix4f rootPose) {
+            FloatBuffer capturedMatrices = this.mesh.getBoneMatrices();
+            float[] boneMatrices = new float[this.mesh.getBoneCount() * 16];
+
+            ROOT_INVERSE.set(rootPose).invert();
+
+            for (int i = 0; i < this.mesh.getBoneCount(); i++) {
+                BONE_MATRIX.set(i * 16, capturedMatrices);
+                ROOT_INVERSE.mul(BONE_MATRIX, BONE_MATRIX).get(boneMatrices, i * 16);
+            }
+
+            this.boneMatrices = boneMatrices;
+        }
+    }
+}
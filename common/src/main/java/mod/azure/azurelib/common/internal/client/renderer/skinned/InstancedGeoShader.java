@@ -0,0 +1,79 @@
+package mod.azure.azurelib.common.internal.client.renderer.skinned;
+
+import com.mojang.blaze3d.shaders.Uniform;
+import mod.azure.azurelib.common.internal.common.AzureLib;
+import net.minecraft.client.renderer.ShaderInstance;
+import net.minecraft.resources.ResourceLocation;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Holder for the core shader used by {@link InstancedGeoRenderer}.<br>
+ * Uses the same {@link SkinnedGeoShader#FORMAT vertex format} as the skinned shader, but its bone matrices are in
+ * model space and shared by every instance in the draw, with each instance's own transform, light and colour read
+ * from per-instance uniform arrays
+ */
+public final class InstancedGeoShader {
+
+    public static final ResourceLocation ID = AzureLib.modResource("rendertype_geo_instanced");
+
+    /**
+     * The maximum number of bones a model can have to be instanced. Must match the size of the {@code BoneMatrices}
+     * array in the shader.<br>
+     * Lower than {@link SkinnedGeoShader#MAX_BONES} to leave room for the instance arrays within the minimum number of
+     * vertex shader uniforms OpenGL guarantees
+     */
+    public static final int MAX_BONES = 32;
+
+    /**
+     * The maximum number of instances drawn per call. Must match the size of the instance arrays in the shader
+     */
+    public static final int MAX_INSTANCES = 16;
+
+    @Nullable
+    private static ShaderInstance shader = null;
+
+    private static int boneMatricesLocation = -1;
+
+    private static int instanceMatricesLocation = -1;
+
+    private static int instanceLightLocation = -1;
+
+    private static int instanceColorLocation = -1;
+
+    private InstancedGeoShader() {}
+
+    /**
+     * Set the loaded shader instance. Called by the platform's shader registration on each resource reload
+     */
+    public static void setShader(ShaderInstance shader) {
+        InstancedGeoShader.shader = shader;
+        InstancedGeoShader.boneMatricesLocation = Uniform.glGetUniformLocation(shader.getId(), "BoneMatrices");
+        InstancedGeoShader.instanceMatricesLocation = Uniform.glGetUniformLocation(shader.getId(), "InstanceMatrices");
+        InstancedGeoShader.instanceLightLocation = Uniform.glGetUniformLocation(shader.getId(), "InstanceLight");
+        InstancedGeoShader.instanceColorLocation = Uniform.glGetUniformLocation(shader.getId(), "InstanceColor");
+    }
+
+    /**
+     * Get the loaded shader instance, or null if it hasn't loaded
+     */
+    @Nullable
+    public static ShaderInstance getShader() {
+        return shader;
+    }
+
+    public static int getBoneMatricesLocation() {
+        return boneMatricesLocation;
+    }
+
+    public static int getInstanceMatricesLocation() {
+        return instanceMatricesLocation;
+    }
+
+    public static int getInstanceLightLocation() {
+        return instanceLightLocation;
+    }
+
+    public static int getInstanceColorLocation() {
+        return instanceColorLocation;
+    }
+}
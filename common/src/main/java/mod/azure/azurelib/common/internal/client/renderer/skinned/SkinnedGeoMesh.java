@@ -0,0 +1,271 @@
+package mod.azure.azurelib.common.internal.client.renderer.skinned;
+
+import com.mojang.blaze3d.vertex.BufferBuilder;
+import com.mojang.blaze3d.vertex.ByteBufferBuilder;
+import com.mojang.blaze3d.vertex.MeshData;
+import com.mojang.blaze3d.vertex.PoseStack;
+import com.mojang.blaze3d.vertex.VertexBuffer;
+import com.mojang.blaze3d.vertex.VertexFormat;
+import it.unimi.dsi.fastutil.objects.ObjectArrayList;
+import it.unimi.dsi.fastutil.objects.Reference2IntOpenHashMap;
+import mod.azure.azurelib.common.internal.client.util.RenderUtils;
+import mod.azure.azurelib.common.internal.common.cache.object.BakedGeoModel;
+import mod.azure.azurelib.common.internal.common.cache.object.GeoBone;
+import mod.azure.azurelib.common.internal.common.cache.object.GeoCube;
+import mod.azure.azurelib.common.internal.common.cache.object.GeoQuad;
+import mod.azure.azurelib.common.internal.common.cache.object.GeoVertex;
+import mod.azure.azurelib.common.internal.common.loading.object.BakedModelFactory;
+import org.jetbrains.annotations.Nullable;
+import org.joml.Vector3f;
+import org.lwjgl.system.MemoryUtil;
+
+import java.nio.FloatBuffer;
+import java.util.List;
+
+/**
+ * The geometry of a {@link BakedGeoModel}, uploaded once into a static {@link VertexBuffer} for
+ * {@link SkinnedGeoRenderer skinned rendering}.<br>
+ * Every vertex is stored in model space along with the index of the bone it belongs to. Each frame, only the pose
+ * matrix of each bone is captured and sent to the shader, which places the vertices and transforms their normals
+ * itself.<br>
+ * Must only be used on the render thread
+ */
+public final class SkinnedGeoMesh implements AutoCloseable {
+
+    static final int FLAT_X = 1;
+
+    static final int FLAT_Y = 2;
+
+    static final int FLAT_Z = 4;
+
+    private final Reference2IntOpenHashMap<GeoBone> boneIndices;
+
+    private final GeoBone[] bones;
+
+    private final int vertexCount;
+
+    @Nullable
+    private final VertexBuffer vertexBuffer;
+
+    private final FloatBuffer boneMatrices;
+
+    private boolean capturing = false;
+
+    private boolean mismatched = false;
+
+    private SkinnedGeoMesh(Reference2IntOpenHashMap<GeoBone> boneIndices, GeoBone[] bones, int vertexCount, @Nullable VertexBuffer vertexBuffer) {
+        this.boneIndices = boneIndices;
+        this.bones = bones;
+        this.vertexCount = vertexCount;
+        this.vertexBuffer = vertexBuffer;
+        this.boneMatrices = MemoryUtil.memAllocFloat(bones.length * 16);
+    }
+
+    /**
+     * Build and upload the mesh for the given model
+     *
+     * @return The mesh, or null if the model has more bones than the shader supports
+     */
+    @Nullable
+    public static SkinnedGeoMesh build(BakedGeoModel model) {
+        List<GeoBone> bones = new ObjectArrayList<>();
+
+        collectBones(model.getTopLevelBones(), bones);
+
+        if (bones.size() > SkinnedGeoShader.MAX_BONES)
+            return null;
+
+        Reference2IntOpenHashMap<GeoBone> boneIndices = new Reference2IntOpenHashMap<>(bones.size());
+        int maxVertexCount = 0;
+
+        boneIndices.defaultReturnValue(-1);
+
+        for (int i = 0; i < bones.size(); i++) {
+            boneIndices.put(bones.get(i), i);
+
+            maxVertexCount += bones.get(i).getCubes().size() * 24;
+        }
+
+        GeoBone[] boneArray = bones.toArray(new GeoBone[0]);
+
+        if (maxVertexCount == 0)
+            return new SkinnedGeoMesh(boneIndices, boneArray, 0, null);
+
+        try (ByteBufferBuilder byteBuffer = new ByteBufferBuilder(maxVertexCount * SkinnedGeoShader.FORMAT.getVertexSize())) {
+            BufferBuilder builder = new BufferBuilder(byteBuffer, VertexFormat.Mode.QUADS, SkinnedGeoShader.FORMAT);
+
+            for (int i = 0; i < bones.size(); i++) {
+                for (GeoCube cube : bones.get(i).getCubes()) {
+                    addCube(builder, cube, i);
+                }
+            }
+
+            MeshData meshData = builder.build();
+
+            if (meshData == null)
+                return new SkinnedGeoMesh(boneIndices, boneArray, 0, null);
+
+            int uploadedVertexCount = meshData.drawState().vertexCount();
+            VertexBuffer vertexBuffer = new VertexBuffer(VertexBuffer.Usage.STATIC);
+
+            vertexBuffer.bind();
+            vertexBuffer.upload(meshData);
+            VertexBuffer.unbind();
+
+            return new SkinnedGeoMesh(boneIndices, boneArray, uploadedVertexCount, vertexBuffer);
+        }
+    }
+
+    private static void collectBones(List<GeoBone> bones, List<GeoBone> output) {
+        for (GeoBone bone : bones) {
+            output.add(bone);
+            collectBones(bone.getChildBones(), output);
+        }
+    }
+
+    private static void addCube(BufferBuilder builder, GeoCube cube, int boneIndex) {
+        int flatCubeFlags = getFlatCubeFlags(cube);
+
+        for (GeoQuad quad : getMeshQuads(cube)) {
+            if (quad == null)
+                continue;
+
+            Vector3f normal = quad.normal();
+
+            for (GeoVertex vertex : quad.vertices()) {
+                Vector3f position = vertex.position();
+
+                builder.addVertex(position.x(), position.y(), position.z())
+                        .setUv(vertex.texU(), vertex.texV())
+                        .setUv1(boneIndex, flatCubeFlags)
+                        .setNormal(normal.x(), normal.y(), normal.z());
+            }
+        }
+    }
+
+    /**
+     * Get the quads of the cube as they're stored in the mesh, relative to their bone, with the cube's rotation baked
+     * into them if it isn't already
+     */
+    public static GeoQuad[] getMeshQuads(GeoCube cube) {
+        if (!cube.rotationBaked() && RenderUtils.hasCubeRotation(cube))
+            return BakedModelFactory.DEFAULT_FACTORY.bakeCubeRotation(cube.quads(), cube.pivot(), cube.rotation());
+
+        return cube.quads();
+    }
+
+    /**
+     * Get the flags telling the shader which axes of the cube's normals to un-invert, matching
+     * {@link RenderUtils#fixInvertedFlatCube}
+     */
+    public static int getFlatCubeFlags(GeoCube cube) {
+        int flags = 0;
+
+        if (cube.size().y() == 0 || cube.size().z() == 0)
+            flags |= FLAT_X;
+
+        if (cube.size().x() == 0 || cube.size().z() == 0)
+            flags |= FLAT_Y;
+
+        if (cube.size().x() == 0 || cube.size().y() == 0)
+            flags |= FLAT_Z;
+
+        return flags;
+    }
+
+    /**
+     * Start capturing bone matrices for a new frame, clearing those of the last.<br>
+     * Bones that aren't captured this frame, such as hidden bones, are left with an empty matrix and aren't drawn
+     *
+     * @return Whether capturing started, or false if this mesh is already being captured further up the render
+     */
+    public boolean beginCapture() {
+        if (this.capturing)
+            return false;
+
+        MemoryUtil.memSet(MemoryUtil.memAddress(this.boneMatrices), 0, (long) this.boneMatrices.capacity() * Float.BYTES);
+
+        this.capturing = true;
+
+        return true;
+    }
+
+    /**
+     * Capture the current pose as the given bone's matrix for this frame
+     *
+     * @return Whether the bone belongs to this mesh, and so was captured
+     */
+    public boolean captureBone(GeoBone bone, PoseStack poseStack) {
+        int index = this.boneIndices.getInt(bone);
+
+        if (index == -1)
+            return false;
+
+        poseStack.last().pose().get(index * 16, this.boneMatrices);
+
+        return true;
+    }
+
+    /**
+     * Stop capturing bone matrices for this frame
+     */
+    public void endCapture() {
+        this.capturing = false;
+    }
+
+    /**
+     * Get the index of the given bone in this mesh, or -1 if it doesn't belong to it
+     */
+    public int getBoneIndex(GeoBone bone) {
+        return this.boneIndices.getInt(bone);
+    }
+
+    /**
+     * Flag this mesh as not matching the regular render path, so its model is rendered as normal from then on
+     */
+    public void markMismatched() {
+        this.mismatched = true;
+    }
+
+    public boolean isMismatched() {
+        return this.mismatched;
+    }
+
+    public int getBoneCount() {
+        return this.bones.length;
+    }
+
+    /**
+     * Get the bones of the model, in the order of their indices in this mesh
+     */
+    public GeoBone[] getBones() {
+        return this.bones;
+    }
+
+    public int getVertexCount() {
+        return this.vertexCount;
+    }
+
+    /**
+     * Get the bone matrices captured this frame, one column-major {@code mat4} per bone
+     */
+    public FloatBuffer getBoneMatrices() {
+        return this.boneMatrices;
+    }
+
+    /**
+     * Get the uploaded geometry, or null if the model has no cubes
+     */
+    @Nullable
+    public VertexBuffer getVertexBuffer() {
+        return this.vertexBuffer;
+    }
+
+    @Override
+    public void close() {
+        if (this.vertexBuffer != null)
+            this.vertexBuffer.close();
+
+        MemoryUtil.memFree(this.boneMatrices);
+    }
+}
@@ -0,0 +1,182 @@
+package mod.azure.azurelib.common.internal.client.renderer.skinned;
+
+import com.mojang.blaze3d.shaders.Uniform;
+import com.mojang.blaze3d.systems.RenderSystem;
+import com.mojang.blaze3d.vertex.PoseStack;
+import com.mojang.blaze3d.vertex.VertexBuffer;
+import com.mojang.blaze3d.vertex.VertexFormat;
+import it.unimi.dsi.fastutil.objects.Reference2BooleanMap;
+import it.unimi.dsi.fastutil.objects.Reference2BooleanOpenHashMap;
+import it.unimi.dsi.fastutil.objects.Reference2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.objects.ReferenceOpenHashSet;
+import mod.azure.azurelib.common.internal.client.renderer.GeoRenderer;
+import mod.azure.azurelib.common.internal.common.AzureLibMod;
+import mod.azure.azurelib.common.internal.common.cache.object.BakedGeoModel;
+import mod.azure.azurelib.common.internal.common.cache.object.GeoBone;
+import net.minecraft.client.Minecraft;
+import net.minecraft.client.renderer.MultiBufferSource;
+import net.minecraft.client.renderer.OutlineBufferSource;
+import net.minecraft.client.renderer.RenderType;
+import net.minecraft.client.renderer.ShaderInstance;
+import net.minecraft.resources.ResourceLocation;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Optional render backend that draws {@link BakedGeoModel models} from a static {@link SkinnedGeoMesh} uploaded once
+ * per model, rather than re-submitting every vertex through a {@code VertexConsumer} each frame.<br>
+ * The model's bones are still walked by {@link GeoRenderer#renderRecursively} as normal, so bone matrix tracking and
+ * per-bone render layers keep working. Only the cubes are skipped: {@link GeoRenderer#renderCubesOfBone} captures each
+ * bone's pose matrix into the {@link GeoRenderer#getSkinnedMesh renderer's active mesh} instead, and the whole model is
+ * drawn in one call once the walk is done. This sends 64 bytes per bone per instance to the GPU, instead of the full
+ * vertex data of every cube.<br>
+ * With the {@code verifySkinnedRendering} config option on, every captured bone is also checked against the vertices
+ * and normals the regular path would have rendered, and models that don't match are moved back to the regular path.<br>
+ * <br>
+ * Only opaque and cutout entity {@link RenderType RenderTypes} are supported, as the model is drawn immediately rather
+ * than being batched and sorted. Models with more than {@link SkinnedGeoShader#MAX_BONES} bones, renders into an entity
+ * outline buffer, and re-renders from render layers all use the regular path.<br>
+ * Must only be used on the render thread
+ */
+public final class SkinnedGeoRenderer {
+
+    private static final Map<BakedGeoModel, SkinnedGeoMesh> MESHES = new Reference2ObjectOpenHashMap<>();
+
+    private static final Set<BakedGeoModel> UNSUPPORTED_MODELS = new ReferenceOpenHashSet<>();
+
+    private static final Reference2BooleanMap<RenderType> SUPPORTED_RENDER_TYPES = new Reference2BooleanOpenHashMap<>();
+
+    private SkinnedGeoRenderer() {}
+
+    /**
+     * @return Whether skinned rendering is turned on in the config, and its shader has loaded
+     */
+    public static boolean isEnabled() {
+        return AzureLibMod.config != null && AzureLibMod.config.skinnedModelRendering && SkinnedGeoShader.getShader() != null;
+    }
+
+    /**
+     * @return Whether skinned renders should be checked against the regular path, as set in the config
+     */
+    public static boolean shouldVerify() {
+        return AzureLibMod.config != null && AzureLibMod.config.verifySkinnedRendering;
+    }
+
+    /**
+     * Whether a {@link RenderType} is supported is only worked out the first time it's seen, as vanilla caches its
+     * entity RenderTypes per texture
+     *
+     * @return Whether a model rendered with the given {@link RenderType} and texture into the given buffer source can be
+     *         drawn by this backend
+     */
+    public static boolean canRender(RenderType renderType, ResourceLocation texture, MultiBufferSource bufferSource) {
+        if (!isEnabled() || bufferSource instanceof OutlineBufferSource)
+            return false;
+
+        return SUPPORTED_RENDER_TYPES.computeIfAbsent(renderType, type -> isSupported(type, texture));
+    }
+
+    private static boolean isSupported(RenderType renderType, ResourceLocation texture) {
+        return renderType == RenderType.entityCutoutNoCull(texture) || renderType == RenderType.entityCutout(texture) || renderType == RenderType.entitySolid(texture);
+    }
+
+    /**
+     * Start capturing a frame of the given model
+     *
+     * @return The mesh to capture bone matrices into, or null if the model can't be skinned, in which case it should be
+     *         rendered as normal
+     */
+    @Nullable
+    public static SkinnedGeoMesh begin(BakedGeoModel model) {
+        if (UNSUPPORTED_MODELS.contains(model))
+            return null;
+
+        SkinnedGeoMesh mesh = MESHES.get(model);
+
+        if (mesh != null && mesh.isMismatched()) {
+            UNSUPPORTED_MODELS.add(model);
+
+            return null;
+        }
+
+        if (mesh == null) {
+            mesh = SkinnedGeoMesh.build(model);
+
+            if (mesh == null) {
+                UNSUPPORTED_MODELS.add(model);
+
+                return null;
+            }
+
+            MESHES.put(model, mesh);
+        }
+
+        return mesh.beginCapture() ? mesh : null;
+    }
+
+    /**
+     * Capture the given bone's pose into the given mesh, if there is one
+     *
+     * @param mesh The {@link GeoRenderer#getSkinnedMesh renderer's active mesh}
+     * @return Whether the bone was captured, and so its cubes shouldn't be rendered as normal
+     */
+    public static boolean captureBone(@Nullable SkinnedGeoMesh mesh, GeoBone bone, PoseStack poseStack) {
+        if (mesh == null || !mesh.captureBone(bone, poseStack))
+            return false;
+
+        if (shouldVerify() && !mesh.isMismatched())
+            SkinnedGeoVerifier.verifyBone(mesh, bone, poseStack);
+
+        return true;
+    }
+
+    /**
+     * Draw the given mesh with the bone matrices it captured this frame
+     */
+    public static void draw(SkinnedGeoMesh mesh, RenderType renderType, int packedLight, int packedOverlay, int colour) {
+        VertexBuffer vertexBuffer = mesh.getVertexBuffer();
+        ShaderInstance shader = SkinnedGeoShader.getShader();
+
+        if (vertexBuffer == null || shader == null)
+            return;
+
+        renderType.setupRenderState();
+        shader.setDefaultUniforms(VertexFormat.Mode.QUADS, RenderSystem.getModelViewMatrix(), RenderSystem.getProjectionMatrix(), Minecraft.getInstance().getWindow());
+        setUniform(shader, "LightCoords", packedLight & 0xFFFF, packedLight >> 16 & 0xFFFF);
+        setUniform(shader, "OverlayCoords", packedOverlay & 0xFFFF, packedOverlay >> 16 & 0xFFFF);
+
+        Uniform tintColor = shader.getUniform("TintColor");
+
+        if (tintColor != null)
+            tintColor.set((colour >> 16 & 0xFF) / 255f, (colour >> 8 & 0xFF) / 255f, (colour & 0xFF) / 255f, (colour >>> 24) / 255f);
+
+        shader.apply();
+        RenderSystem.glUniformMatrix4(SkinnedGeoShader.getBoneMatricesLocation(), false, mesh.getBoneMatrices());
+        vertexBuffer.bind();
+        vertexBuffer.draw();
+        VertexBuffer.unbind();
+        shader.clear();
+        renderType.clearRenderState();
+    }
+
+    private static void setUniform(ShaderInstance shader, String name, int x, int y) {
+        Uniform uniform = shader.getUniform(name);
+
+        if (uniform != null)
+            uniform.set(x, y);
+    }
+
+    /**
+     * Free all uploaded meshes. Called when models are reloaded, as the meshes belong to the old models
+     */
+    public static void clearMeshes() {
+        for (SkinnedGeoMesh mesh : MESHES.values()) {
+            mesh.close();
+        }
+
+        MESHES.clear();
+        UNSUPPORTED_MODELS.clear();
+    }
+}
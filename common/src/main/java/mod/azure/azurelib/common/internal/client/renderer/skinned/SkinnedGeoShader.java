@@ -0,0 +1,71 @@
+package mod.azure.azurelib.common.internal.client.renderer.skinned;
+
+import com.mojang.blaze3d.shaders.Uniform;
+import com.mojang.blaze3d.vertex.VertexFormat;
+import com.mojang.blaze3d.vertex.VertexFormatElement;
+import mod.azure.azurelib.common.internal.common.AzureLib;
+import net.minecraft.client.renderer.ShaderInstance;
+import net.minecraft.resources.ResourceLocation;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Holder for the core shader used by {@link SkinnedGeoRenderer}.<br>
+ * The shader is registered by each platform alongside vanilla's core shaders, and skinned rendering is unavailable
+ * until it has loaded
+ */
+public final class SkinnedGeoShader {
+
+    public static final ResourceLocation ID = AzureLib.modResource("rendertype_geo_skinned");
+
+    /**
+     * The vertex format of skinned meshes.<br>
+     * {@code UV1} holds the index of the vertex's bone in its first element, and its cube's
+     * {@link SkinnedGeoMesh#getFlatCubeFlags flat cube flags} in its second
+     */
+    public static final VertexFormat FORMAT = VertexFormat.builder()
+            .add("Position", VertexFormatElement.POSITION)
+            .add("UV0", VertexFormatElement.UV0)
+            .add("UV1", VertexFormatElement.UV1)
+            .add("Normal", VertexFormatElement.NORMAL)
+            .padding(1)
+            .build();
+
+    /**
+     * The maximum number of bones a model can have to be rendered by the shader. Must match the size of the
+     * {@code BoneMatrices} array in the shader.<br>
+     * Kept low enough to fit within the minimum number of vertex shader uniforms OpenGL guarantees
+     */
+    public static final int MAX_BONES = 56;
+
+    public static final String BONE_MATRICES_UNIFORM = "BoneMatrices";
+
+    @Nullable
+    private static ShaderInstance shader = null;
+
+    private static int boneMatricesLocation = -1;
+
+    private SkinnedGeoShader() {}
+
+    /**
+     * Set the loaded shader instance. Called by the platform's shader registration on each resource reload
+     */
+    public static void setShader(ShaderInstance shader) {
+        SkinnedGeoShader.shader = shader;
+        SkinnedGeoShader.boneMatricesLocation = Uniform.glGetUniformLocation(shader.getId(), BONE_MATRICES_UNIFORM);
+    }
+
+    /**
+     * Get the loaded shader instance, or null if it hasn't loaded
+     */
+    @Nullable
+    public static ShaderInstance getShader() {
+        return shader;
+    }
+
+    /**
+     * Get the location of the bone matrix array uniform in the loaded shader, or -1 if it hasn't loaded
+     */
+    public static int getBoneMatricesLocation() {
+        return boneMatricesLocation;
+    }
+}
@@ -0,0 +1,146 @@
+package mod.azure.azurelib.common.internal.client.renderer.skinned;
+
+import com.mojang.blaze3d.vertex.PoseStack;
+import mod.azure.azurelib.common.internal.client.renderer.GeoRenderer;
+import mod.azure.azurelib.common.internal.client.util.RenderUtils;
+import mod.azure.azurelib.common.internal.common.AzureLib;
+import mod.azure.azurelib.common.internal.common.cache.object.GeoBone;
+import mod.azure.azurelib.common.internal.common.cache.object.GeoCube;
+import mod.azure.azurelib.common.internal.common.cache.object.GeoQuad;
+import org.joml.Matrix3f;
+import org.joml.Matrix4f;
+import org.joml.Vector3f;
+import org.joml.Vector4f;
+
+/**
+ * Debug check comparing what {@link SkinnedGeoRenderer skinned rendering} draws for a bone against what
+ * {@link GeoRenderer#renderCube the regular path} would have rendered for it.<br>
+ * Each vertex and normal is worked out both ways on the CPU: once from the bone's pose as {@link GeoRenderer#renderCube}
+ * does, and once from the {@link SkinnedGeoMesh mesh's} model space geometry and captured bone matrix as the skinned
+ * shader does. The first mismatch found is logged, and the mesh is {@link SkinnedGeoMesh#markMismatched flagged} so
+ * its model is rendered as normal from then on.<br>
+ * Enabled through the {@code verifySkinnedRendering} config option.<br>
+ * Must only be used on the render thread
+ */
+public final class SkinnedGeoVerifier {
+
+    /**
+     * The largest distance a vertex can be from where the regular path would have placed it, relative to its distance
+     * from the origin
+     */
+    private static final float POSITION_TOLERANCE = 1.0E-4f;
+
+    /**
+     * The smallest dot product a normal can have with the one the regular path would have used
+     */
+    private static final float NORMAL_TOLERANCE = 0.999f;
+
+    private static final Matrix4f BONE_MATRIX = new Matrix4f();
+
+    private static final Matrix3f BONE_NORMAL_MATRIX = new Matrix3f();
+
+    private static final Vector4f EXPECTED_POSITION = new Vector4f();
+
+    private static final Vector4f ACTUAL_POSITION = new Vector4f();
+
+    private static final Vector3f EXPECTED_NORMAL = new Vector3f();
+
+    private static final Vector3f ACTUAL_NORMAL = new Vector3f();
+
+    private SkinnedGeoVerifier() {}
+
+    /**
+     * Check the bone the given mesh just captured against the regular render path
+     *
+     * @param poseStack The pose stack the bone was captured from, left unchanged
+     * @return Whether the skinned mesh matches the regular path for this bone
+     */
+    public static boolean verifyBone(SkinnedGeoMesh mesh, GeoBone bone, PoseStack poseStack) {
+        int boneIndex = mesh.getBoneIndex(bone);
+
+        BONE_MATRIX.set(boneIndex * 16, mesh.getBoneMatrices());
+        BONE_NORMAL_MATRIX.set(BONE_MATRIX).invert().transpose();
+
+        for (GeoCube cube : bone.getCubes()) {
+            poseStack.pushPose();
+
+            try {
+                if (!verifyCube(mesh, bone, cube, poseStack))
+                    return false;
+            } finally {
+                poseStack.popPose();
+            }
+        }
+
+        return true;
+    }
+
+    private static boolean verifyCube(SkinnedGeoMesh mesh, GeoBone bone, GeoCube cube, PoseStack poseStack) {
+        if (!cube.rotationBaked() && RenderUtils.hasCubeRotation(cube)) {
+            RenderUtils.translateToPivotPoint(poseStack, cube);
+            RenderUtils.rotateMatrixAroundCube(poseStack, cube);
+            RenderUtils.translateAwayFromPivotPoint(poseStack, cube);
+        }
+
+        Matrix4f cubePose = poseStack.last().pose();
+        Matrix3f cubeNormal = poseStack.last().normal();
+        GeoQuad[] quads = cube.quads();
+        GeoQuad[] meshQuads = SkinnedGeoMesh.getMeshQuads(cube);
+        int flatCubeFlags = SkinnedGeoMesh.getFlatCubeFlags(cube);
+
+        for (int i = 0; i < quads.length; i++) {
+            GeoQuad quad = quads[i];
+
+            if (quad == null)
+                continue;
+
+            GeoQuad meshQuad = meshQuads[i];
+
+            cubeNormal.transform(quad.normal(), EXPECTED_NORMAL);
+            RenderUtils.fixInvertedFlatCube(cube, EXPECTED_NORMAL);
+            BONE_NORMAL_MATRIX.transform(meshQuad.normal(), ACTUAL_NORMAL);
+            unInvertFlatCubeNormal(ACTUAL_NORMAL, flatCubeFlags);
+
+            if (EXPECTED_NORMAL.normalize().dot(ACTUAL_NORMAL.normalize()) < NORMAL_TOLERANCE)
+                return mismatch(mesh, bone, "normal", EXPECTED_NORMAL, ACTUAL_NORMAL);
+
+            for (int j = 0; j < quad.vertices().length; j++) {
+                Vector3f position = quad.vertices()[j].position();
+                Vector3f meshPosition = meshQuad.vertices()[j].position();
+
+                cubePose.transform(position.x(), position.y(), position.z(), 1, EXPECTED_POSITION);
+                BONE_MATRIX.transform(meshPosition.x(), meshPosition.y(), meshPosition.z(), 1, ACTUAL_POSITION);
+
+                float tolerance = POSITION_TOLERANCE * Math.max(1, EXPECTED_POSITION.length());
+
+                if (EXPECTED_POSITION.distance(ACTUAL_POSITION) > tolerance)
+                    return mismatch(mesh, bone, "vertex", EXPECTED_POSITION, ACTUAL_POSITION);
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * Un-invert the normal of a flat cube as the skinned shader does, from the cube's
+     * {@link SkinnedGeoMesh#getFlatCubeFlags flat cube flags}
+     */
+    private static void unInvertFlatCubeNormal(Vector3f normal, int flatCubeFlags) {
+        if ((flatCubeFlags & SkinnedGeoMesh.FLAT_X) != 0)
+            normal.x = Math.abs(normal.x);
+
+        if ((flatCubeFlags & SkinnedGeoMesh.FLAT_Y) != 0)
+            normal.y = Math.abs(normal.y);
+
+        if ((flatCubeFlags & SkinnedGeoMesh.FLAT_Z) != 0)
+            normal.z = Math.abs(normal.z);
+    }
+
+    private static boolean mismatch(SkinnedGeoMesh mesh, GeoBone bone, String type, Object expected, Object actual) {
+        mesh.markMismatched();
+        AzureLib.LOGGER.warn("Skinned rendering of bone '{}' doesn't match the regular render path, rendering its model as normal from now on. Expected {} {}, but got {}",
+                bone.getName(), type, expected, actual);
+
+        return false;
+    }
+}
@@ -0,0 +1,47 @@
+package mod.azure.azurelib.common.internal.client.util;
+
+import mod.azure.azurelib.common.internal.client.renderer.GeoRenderer;
+import org.joml.Matrix4f;
+import org.joml.Quaternionf;
+import org.joml.Vector3f;
+import org.joml.Vector4f;
+
+/**
+ * Per-thread scratch objects for the per-cube and per-vertex maths in {@link GeoRenderer}, so that rendering a model
+ * doesn't allocate a new matrix or vector for every cube, quad and vertex.<br>
+ * Each object is overwritten by the next cube or vertex rendered on the same thread, so nothing obtained from here
+ * should be held onto past the call it was given to
+ */
+public final class RenderScratch {
+
+    private static final ThreadLocal<RenderScratch> SCRATCH = ThreadLocal.withInitial(RenderScratch::new);
+
+    /**
+     * The pose of the cube currently being rendered
+     */
+    public final Matrix4f cubePose = new Matrix4f();
+
+    /**
+     * The transformed normal of the quad currently being rendered
+     */
+    public final Vector3f quadNormal = new Vector3f();
+
+    /**
+     * The transformed position of the vertex currently being rendered
+     */
+    public final Vector4f vertexPosition = new Vector4f();
+
+    /**
+     * The rotation of the cube currently being rendered
+     */
+    public final Quaternionf cubeRotation = new Quaternionf();
+
+    private RenderScratch() {}
+
+    /**
+     * Get the scratch objects for the current thread
+     */
+    public static RenderScratch get() {
+        return SCRATCH.get();
+    }
+}
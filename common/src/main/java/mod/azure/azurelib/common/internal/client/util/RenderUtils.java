@@ -16,6 +16,8 @@ import mod.azure.azurelib.common.internal.common.cache.object.GeoCube;
 import mod.azure.azurelib.common.internal.common.cache.object.GeoQuad;
 import mod.azure.azurelib.core.animatable.GeoAnimatable;
 import mod.azure.azurelib.core.animatable.model.CoreGeoBone;
+import mod.azure.azurelib.core.keyframe.BoneAnimationBuffer;
+import mod.azure.azurelib.core.state.BonePoseBuffer;
 import net.minecraft.client.Minecraft;
 import net.minecraft.client.model.geom.ModelPart;
 import net.minecraft.client.renderer.blockentity.BlockEntityRenderer;
@@ -56,12 +58,33 @@ public record RenderUtils() {
             poseStack.mulPose(Axis.XP.rotation(bone.getRotX()));
     }
 
+    /**
+     * @return Whether the given cube is rotated at all, and so needs {@link #rotateMatrixAroundCube} applied to render
+     */
+    public static boolean hasCubeRotation(GeoCube cube) {
+        Vec3 rotation = cube.rotation();
+
+        return rotation.x() != 0 || rotation.y() != 0 || rotation.z() != 0;
+    }
+
+    /**
+     * Rotate the provided {@link PoseStack} by the given cube's rotation, in Z, Y, X order.<br>
+     * Unrotated cubes are skipped entirely. Cubes with a {@link GeoCube#rotationBaked() baked rotation} shouldn't be
+     * passed to this, as their vertices are already rotated
+     */
     public static void rotateMatrixAroundCube(PoseStack poseStack, GeoCube cube) {
+        if (!hasCubeRotation(cube))
+            return;
+
         Vec3 rotation = cube.rotation();
 
-        poseStack.mulPose(new Quaternionf().rotationXYZ(0, 0, (float) rotation.z()));
-        poseStack.mulPose(new Quaternionf().rotationXYZ(0, (float) rotation.y(), 0));
-        poseStack.mulPose(new Quaternionf().rotationXYZ((float) rotation.x(), 0, 0));
+        Quaternionf cubeRotation = RenderScratch.get().cubeRotation.rotationZYX(
+                (float) rotation.z(),
+                (float) rotation.y(),
+                (float) rotation.x()
+        );
+
+        poseStack.mulPose(cubeRotation);
     }
 
     public static void scaleMatrixForBone(PoseStack poseStack, CoreGeoBone bone) {
@@ -100,6 +123,63 @@ public record RenderUtils() {
         translateAwayFromPivotPoint(poseStack, bone);
     }
 
+    /**
+     * Translate, rotate and scale the provided {@link PoseStack} for the given bone, leaving it translated to the
+     * bone's pivot point.<br>
+     * The bone's transformations are read from the given {@link BonePoseBuffer} if it holds the bone, so that the pose
+     * of the animatable being rendered is used rather than the state of the shared bone
+     *
+     * @param pose The pose of the animatable being rendered, or null to use the bone's own transformations
+     */
+    public static void transformMatrixForBone(PoseStack poseStack, CoreGeoBone bone, @Nullable BonePoseBuffer pose) {
+        int boneIndex = pose == null ? -1 : pose.getBoneIndex(bone);
+
+        if (boneIndex == -1) {
+            translateMatrixToBone(poseStack, bone);
+            translateToPivotPoint(poseStack, bone);
+            rotateMatrixAroundBone(poseStack, bone);
+            scaleMatrixForBone(poseStack, bone);
+
+            return;
+        }
+
+        poseStack.translate(
+                -pose.get(boneIndex, BoneAnimationBuffer.POSITION_X) / 16f,
+                pose.get(boneIndex, BoneAnimationBuffer.POSITION_Y) / 16f,
+                pose.get(boneIndex, BoneAnimationBuffer.POSITION_Z) / 16f
+        );
+        translateToPivotPoint(poseStack, bone);
+
+        float rotX = pose.get(boneIndex, BoneAnimationBuffer.ROTATION_X);
+        float rotY = pose.get(boneIndex, BoneAnimationBuffer.ROTATION_Y);
+        float rotZ = pose.get(boneIndex, BoneAnimationBuffer.ROTATION_Z);
+
+        if (rotZ != 0)
+            poseStack.mulPose(Axis.ZP.rotation(rotZ));
+
+        if (rotY != 0)
+            poseStack.mulPose(Axis.YP.rotation(rotY));
+
+        if (rotX != 0)
+            poseStack.mulPose(Axis.XP.rotation(rotX));
+
+        poseStack.scale(
+                pose.get(boneIndex, BoneAnimationBuffer.SCALE_X),
+                pose.get(boneIndex, BoneAnimationBuffer.SCALE_Y),
+                pose.get(boneIndex, BoneAnimationBuffer.SCALE_Z)
+        );
+    }
+
+    /**
+     * Pose-aware equivalent of {@link #prepMatrixForBone(PoseStack, CoreGeoBone)}
+     *
+     * @see #transformMatrixForBone
+     */
+    public static void prepMatrixForBone(PoseStack poseStack, CoreGeoBone bone, @Nullable BonePoseBuffer pose) {
+        transformMatrixForBone(poseStack, bone, pose);
+        translateAwayFromPivotPoint(poseStack, bone);
+    }
+
     public static Matrix4f invertAndMultiplyMatrices(Matrix4f baseMatrix, Matrix4f inputMatrix) {
         inputMatrix = new Matrix4f(inputMatrix);
 
@@ -4,14 +4,19 @@ import it.unimi.dsi.fastutil.objects.Object2ObjectOpenHashMap;
 import it.unimi.dsi.fastutil.objects.ObjectOpenHashSet;
 import mod.azure.azurelib.common.internal.common.AzureLib;
 import mod.azure.azurelib.common.internal.common.AzureLibException;
+import mod.azure.azurelib.common.internal.common.AzureLibMod;
 import mod.azure.azurelib.common.internal.common.cache.object.BakedGeoModel;
 import mod.azure.azurelib.common.internal.common.loading.FileLoader;
 import mod.azure.azurelib.common.internal.common.loading.json.raw.Model;
 import mod.azure.azurelib.common.internal.common.loading.object.BakedAnimations;
 import mod.azure.azurelib.common.internal.common.loading.object.BakedModelFactory;
 import mod.azure.azurelib.common.internal.common.loading.object.GeometryTree;
+import mod.azure.azurelib.common.internal.common.util.AzureLibUtil;
+import mod.azure.azurelib.common.platform.Services;
+import mod.azure.azurelib.core.animatable.instance.SingletonAnimatableInstanceCache;
 import mod.azure.azurelib.core.animatable.model.CoreGeoModel;
 import mod.azure.azurelib.core.animation.Animation;
+import mod.azure.azurelib.core.molang.MolangParser;
 import net.minecraft.client.Minecraft;
 import net.minecraft.resources.ResourceLocation;
 import net.minecraft.server.packs.resources.PreparableReloadListener.PreparationBarrier;
@@ -19,21 +24,31 @@ import net.minecraft.server.packs.resources.ReloadableResourceManager;
 import net.minecraft.server.packs.resources.ResourceManager;
 import net.minecraft.util.profiling.ProfilerFiller;
 
+import java.nio.file.Path;
 import java.util.Collections;
+import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
 import java.util.function.BiConsumer;
-import java.util.function.Function;
+import java.util.function.BiFunction;
 
 /**
  * Cache class for holding loaded {@link Animation Animations} and {@link CoreGeoModel Models}
  */
 public final class AzureLibCache {
 
+    /**
+     * Namespaces whose geo and animation resources belong to other animation libraries or formats AzureLib doesn't
+     * support, and are skipped without being loaded.<br>
+     * Can be added to by other mods via {@link AzureLibUtil#addExcludedNamespace}, and by users via the
+     * {@code excludedNamespaces} config option
+     */
     private static final Set<String> EXCLUDED_NAMESPACES = ObjectOpenHashSet.of(
             "moreplayermodels",
             "customnpcs",
@@ -48,6 +63,10 @@ public final class AzureLibCache {
 
     private static Map<ResourceLocation, BakedGeoModel> MODELS = Collections.emptyMap();
 
+    private static ResourceLoadMetrics LOAD_METRICS = new ResourceLoadMetrics();
+
+    private static final List<Runnable> RELOAD_CALLBACKS = new CopyOnWriteArrayList<>();
+
     private AzureLibCache() {
         throw new UnsupportedOperationException();
     }
@@ -66,6 +85,58 @@ public final class AzureLibCache {
         return MODELS;
     }
 
+    /**
+     * Get the per-namespace load statistics of the most recent reload
+     */
+    public static ResourceLoadMetrics getLoadMetrics() {
+        return LOAD_METRICS;
+    }
+
+    /**
+     * Register a callback to be run on the game thread once newly loaded models and animations have replaced the old
+     * ones.<br>
+     * Lets client-side code discard anything it built from the previous models without this cache depending on it
+     *
+     * @param callback The callback to run after each reload
+     */
+    public static void addReloadCallback(Runnable callback) {
+        RELOAD_CALLBACKS.add(callback);
+    }
+
+    /**
+     * Whether the timings and cache statistics of each reload should be logged
+     */
+    private static boolean shouldLogLoadStats() {
+        return AzureLibMod.config != null && AzureLibMod.config.logResourceLoadStats;
+    }
+
+    /**
+     * Exclude a namespace from having its geo and animation resources loaded by AzureLib.<br>
+     * It is recommended you don't call this directly, and instead call it via
+     * {@link AzureLibUtil#addExcludedNamespace}
+     *
+     * @param namespace The namespace (modid) to exclude
+     */
+    public static void addExcludedNamespace(String namespace) {
+        EXCLUDED_NAMESPACES.add(namespace.toLowerCase(Locale.ROOT));
+    }
+
+    /**
+     * Get the namespaces to exclude for a reload, combining the registered namespaces with those from the config
+     */
+    private static Set<String> getExcludedNamespaces() {
+        Set<String> namespaces = new ObjectOpenHashSet<>(EXCLUDED_NAMESPACES);
+
+        if (AzureLibMod.config != null && AzureLibMod.config.excludedNamespaces != null) {
+            for (String namespace : AzureLibMod.config.excludedNamespaces) {
+                if (namespace != null && !namespace.isBlank())
+                    namespaces.add(namespace.trim().toLowerCase(Locale.ROOT));
+            }
+        }
+
+        return namespaces;
+    }
+
     public static void registerReloadListener() {
         Minecraft mc = Minecraft.getInstance();
 
@@ -89,77 +160,168 @@ public final class AzureLibCache {
     ) {
         Map<ResourceLocation, BakedAnimations> animations = new Object2ObjectOpenHashMap<>();
         Map<ResourceLocation, BakedGeoModel> models = new Object2ObjectOpenHashMap<>();
+        BakedResourceCache resourceCache = openResourceCache();
+        ResourceLoadMetrics metrics = new ResourceLoadMetrics();
+        Set<String> excludedNamespaces = getExcludedNamespaces();
+        long startTime = System.nanoTime();
+
+        if (AzureLibMod.config != null) {
+            MolangParser.setCompileExpressions(AzureLibMod.config.compileMolangExpressions);
+            SingletonAnimatableInstanceCache.setMaxManagers(AzureLibMod.config.maxSingletonAnimatableManagers);
+        }
 
         return CompletableFuture
                 .allOf(
-                        loadAnimations(backgroundExecutor, resourceManager, animations::put),
-                        loadModels(backgroundExecutor, resourceManager, models::put)
+                        loadResources(
+                                backgroundExecutor,
+                                resourceManager,
+                                "animations",
+                                excludedNamespaces,
+                                metrics,
+                                (resource, contents) -> loadAnimations(resource, contents, resourceCache),
+                                animations::put
+                        ),
+                        loadResources(
+                                backgroundExecutor,
+                                resourceManager,
+                                "geo",
+                                excludedNamespaces,
+                                metrics,
+                                (resource, contents) -> loadModel(resource, contents, resourceCache),
+                                models::put
+                        )
                 )
+                .thenRunAsync(() -> {
+                    if (shouldLogLoadStats()) {
+                        AzureLib.LOGGER.info(
+                                "Loaded {} models and {} animation files in {}ms ({} from cache, {} baked from json)",
+                                models.size(),
+                                animations.size(),
+                                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime),
+                                resourceCache.getHits(),
+                                resourceCache.getMisses()
+                        );
+                        metrics.log();
+                    }
+
+                    resourceCache.save();
+                }, backgroundExecutor)
                 .thenCompose(stage::wait)
                 .thenAcceptAsync(empty -> {
                     AzureLibCache.ANIMATIONS = animations;
                     AzureLibCache.MODELS = models;
+                    AzureLibCache.LOAD_METRICS = metrics;
+
+                    for (Runnable callback : RELOAD_CALLBACKS) {
+                        callback.run();
+                    }
                 }, gameExecutor);
     }
 
-    private static CompletableFuture<Void> loadAnimations(
-            Executor backgroundExecutor,
-            ResourceManager resourceManager,
-            BiConsumer<ResourceLocation, BakedAnimations> elementConsumer
+    /**
+     * Open the {@link BakedResourceCache} for this reload, or a disabled cache if it has been turned off in the config
+     */
+    private static BakedResourceCache openResourceCache() {
+        if (AzureLibMod.config != null && !AzureLibMod.config.useBakedResourceCache)
+            return BakedResourceCache.disabled();
+
+        Path cacheFile = Services.PLATFORM.getGameDir().resolve(AzureLib.MOD_ID).resolve("baked_resources.bin");
+
+        return BakedResourceCache.open(cacheFile);
+    }
+
+    private static BakedAnimations loadAnimations(
+            ResourceLocation resource,
+            byte[] contents,
+            BakedResourceCache resourceCache
     ) {
-        return loadResources(
-                backgroundExecutor,
-                resourceManager,
-                "animations",
-                resource -> FileLoader.loadAnimationsFile(resource, resourceManager),
-                elementConsumer
-        );
+        byte[] hash = BakedResourceCache.hash(contents);
+        BakedAnimations cachedAnimations = resourceCache.getAnimations(resource, hash);
+
+        if (cachedAnimations != null)
+            return cachedAnimations;
+
+        BakedAnimations animations = FileLoader.loadAnimationsFile(contents);
+
+        resourceCache.putAnimations(resource, hash, animations);
+
+        return animations;
     }
 
-    private static CompletableFuture<Void> loadModels(
-            Executor backgroundExecutor,
-            ResourceManager resourceManager,
-            BiConsumer<ResourceLocation, BakedGeoModel> elementConsumer
+    private static BakedGeoModel loadModel(
+            ResourceLocation resource,
+            byte[] contents,
+            BakedResourceCache resourceCache
     ) {
-        return loadResources(backgroundExecutor, resourceManager, "geo", resource -> {
-            Model model = FileLoader.loadModelFile(resource, resourceManager);
-
-            switch (model.formatVersion()) {
-                case V_1_12_0 -> {}
-                case V_1_14_0 -> throw new IllegalArgumentException("Unsupported geometry json version: 1.14.0. Supported versions: 1.12.0");
-                case V_1_21_0 -> throw new IllegalArgumentException("Unsupported geometry json version: 1.21.0. Supported versions: 1.12.0. Remove any rotated face UVs and re-export the model to fix");
-                case null, default -> throw new IllegalArgumentException("Unsupported geometry json version. Supported versions: 1.12.0");
-            }
+        byte[] hash = BakedResourceCache.hash(contents);
+        BakedGeoModel cachedModel = resourceCache.getModel(resource, hash);
+
+        if (cachedModel != null)
+            return cachedModel;
 
-            return BakedModelFactory.getForNamespace(resource.getNamespace())
-                    .constructGeoModel(GeometryTree.fromModel(model));
-        }, elementConsumer);
+        Model model = FileLoader.loadModelFile(contents);
+
+        switch (model.formatVersion()) {
+            case V_1_12_0 -> {}
+            case V_1_14_0 -> throw new IllegalArgumentException("Unsupported geometry json version: 1.14.0. Supported versions: 1.12.0");
+            case V_1_21_0 -> throw new IllegalArgumentException("Unsupported geometry json version: 1.21.0. Supported versions: 1.12.0. Remove any rotated face UVs and re-export the model to fix");
+            case null, default -> throw new IllegalArgumentException("Unsupported geometry json version. Supported versions: 1.12.0");
+        }
+
+        BakedGeoModel bakedModel = BakedModelFactory.getForNamespace(resource.getNamespace())
+                .constructGeoModel(GeometryTree.fromModel(model));
+
+        resourceCache.putModel(resource, hash, bakedModel);
+
+        return bakedModel;
     }
 
     private static <T> CompletableFuture<Void> loadResources(
             Executor executor,
             ResourceManager resourceManager,
             String type,
-            Function<ResourceLocation, T> loader,
+            Set<String> excludedNamespaces,
+            ResourceLoadMetrics metrics,
+            BiFunction<ResourceLocation, byte[], T> loader,
             BiConsumer<ResourceLocation, T> map
     ) {
         return CompletableFuture.supplyAsync(
-                        () -> resourceManager.listResources(type, fileName -> fileName.toString().endsWith(".json")),
+                        () -> resourceManager.listResources(type, fileName -> {
+                            if (!fileName.toString().endsWith(".json"))
+                                return false;
+
+                            if (excludedNamespaces.contains(fileName.getNamespace().toLowerCase(Locale.ROOT))) {
+                                metrics.recordSkipped(fileName.getNamespace());
+
+                                return false;
+                            }
+
+                            return true;
+                        }),
                         executor
                 )
                 .thenApplyAsync(resources -> {
                     Map<ResourceLocation, CompletableFuture<T>> tasks = new Object2ObjectOpenHashMap<>();
 
                     for (ResourceLocation resource : resources.keySet()) {
-                        tasks.put(resource, CompletableFuture.supplyAsync(() -> loader.apply(resource), executor));
+                        tasks.put(resource, CompletableFuture.supplyAsync(() -> {
+                            long startTime = System.nanoTime();
+                            byte[] contents = FileLoader.getFileBytes(resource, resourceManager);
+                            T result = loader.apply(resource, contents);
+
+                            long loadTime = System.nanoTime() - startTime;
+
+                            metrics.recordLoaded(resource.getNamespace(), contents.length, loadTime);
+
+                            return result;
+                        }, executor));
                     }
 
                     return tasks;
                 }, executor)
                 .thenAcceptAsync(tasks -> {
                     for (Entry<ResourceLocation, CompletableFuture<T>> entry : tasks.entrySet()) {
-                        if (!EXCLUDED_NAMESPACES.contains(entry.getKey().getNamespace().toLowerCase(Locale.ROOT)))
-                            map.accept(entry.getKey(), entry.getValue().join());
+                        map.accept(entry.getKey(), entry.getValue().join());
                     }
                 }, executor);
     }
@@ -0,0 +1,792 @@
+package mod.azure.azurelib.common.internal.common.cache;
+
+import com.google.common.hash.Hashing;
+import it.unimi.dsi.fastutil.objects.Object2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.objects.ObjectArrayList;
+import it.unimi.dsi.fastutil.objects.Reference2IntOpenHashMap;
+import mod.azure.azurelib.common.internal.common.AzureLib;
+import mod.azure.azurelib.common.internal.common.cache.object.BakedGeoModel;
+import mod.azure.azurelib.common.internal.common.cache.object.GeoBone;
+import mod.azure.azurelib.common.internal.common.cache.object.GeoCube;
+import mod.azure.azurelib.common.internal.common.cache.object.GeoQuad;
+import mod.azure.azurelib.common.internal.common.cache.object.GeoVertex;
+import mod.azure.azurelib.common.internal.common.loading.object.BakedAnimations;
+import mod.azure.azurelib.common.internal.common.loading.object.BakedModelFactory;
+import mod.azure.azurelib.core.animation.Animation;
+import mod.azure.azurelib.core.animation.EasingType;
+import mod.azure.azurelib.core.keyframe.BoneAnimation;
+import mod.azure.azurelib.core.keyframe.Keyframe;
+import mod.azure.azurelib.core.keyframe.KeyframeStack;
+import mod.azure.azurelib.core.keyframe.event.data.CustomInstructionKeyframeData;
+import mod.azure.azurelib.core.keyframe.event.data.ParticleKeyframeData;
+import mod.azure.azurelib.core.keyframe.event.data.SoundKeyframeData;
+import mod.azure.azurelib.core.math.Constant;
+import mod.azure.azurelib.core.math.IValue;
+import mod.azure.azurelib.core.molang.MolangParser;
+import mod.azure.azurelib.core.molang.expressions.MolangCompoundValue;
+import mod.azure.azurelib.core.molang.expressions.MolangValue;
+import net.minecraft.core.Direction;
+import net.minecraft.resources.ResourceLocation;
+import net.minecraft.world.phys.Vec3;
+import org.jetbrains.annotations.Nullable;
+import org.joml.Vector3f;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * On-disk cache of the baked form of geo model and animation resources, used to skip json parsing and model baking for
+ * resources that haven't changed since the last reload.<br>
+ * Entries are keyed by resource path, and hold a hash of the raw file contents they were baked from. An entry is only
+ * used if the hash of the resource being loaded matches it, so edited files are re-baked automatically, and entries
+ * for resources that no longer exist are dropped when the cache is next {@link #save saved}.<br>
+ * The cache file is read in a single pass when opened, and entries are only deserialized when requested.<br>
+ * Molang expressions are stored in their source form and re-parsed when read, so that they are always parsed with the
+ * current {@link MolangParser} state.<br>
+ * Models baked by a custom {@link BakedModelFactory}, and animations using unregistered loop or easing types, are not
+ * cached.
+ */
+public final class BakedResourceCache {
+
+    private static final int MAGIC = 0x415A4243;
+
+    private static final int FORMAT_VERSION = 2;
+
+    private static final int HASH_LENGTH = 16;
+
+    private static final byte CONSTANT = 0;
+
+    private static final byte MOLANG_CONSTANT = 1;
+
+    private static final byte MOLANG_EXPRESSION = 2;
+
+    private static final Direction[] DIRECTIONS = Direction.values();
+
+    private static final BakedResourceCache DISABLED = new BakedResourceCache(null, Map.of());
+
+    @Nullable
+    private final Path file;
+
+    private final Map<String, Entry> storedEntries;
+
+    private final Map<String, Entry> usedEntries = new ConcurrentHashMap<>();
+
+    private final AtomicInteger hits = new AtomicInteger();
+
+    private final AtomicInteger misses = new AtomicInteger();
+
+    private BakedResourceCache(@Nullable Path file, Map<String, Entry> storedEntries) {
+        this.file = file;
+        this.storedEntries = storedEntries;
+    }
+
+    /**
+     * Get a cache that never holds any entries, for when the cache is disabled
+     */
+    public static BakedResourceCache disabled() {
+        return DISABLED;
+    }
+
+    /**
+     * Open the cache stored at the given path.<br>
+     * If the file doesn't exist, or can't be read, an empty cache is returned that will be written to the path when
+     * saved
+     */
+    public static BakedResourceCache open(Path file) {
+        if (!Files.isRegularFile(file))
+            return new BakedResourceCache(file, Map.of());
+
+        try {
+            ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(file));
+
+            if (buffer.getInt() != MAGIC || buffer.getInt() != FORMAT_VERSION)
+                return new BakedResourceCache(file, Map.of());
+
+            int entryCount = buffer.getInt();
+            Map<String, Entry> entries = new Object2ObjectOpenHashMap<>(entryCount);
+
+            for (int i = 0; i < entryCount; i++) {
+                String key = readString(buffer);
+                byte[] hash = new byte[HASH_LENGTH];
+
+                buffer.get(hash);
+
+                int length = buffer.getInt();
+
+                entries.put(key, new Entry(hash, buffer.slice(buffer.position(), length)));
+                buffer.position(buffer.position() + length);
+            }
+
+            return new BakedResourceCache(file, entries);
+        } catch (Exception ex) {
+            AzureLib.LOGGER.warn("Unable to read the baked resource cache, it will be rebuilt", ex);
+
+            return new BakedResourceCache(file, Map.of());
+        }
+    }
+
+    /**
+     * Compute the content hash used to validate cache entries for the given raw file contents
+     */
+    public static byte[] hash(byte[] contents) {
+        return Hashing.murmur3_128().hashBytes(contents).asBytes();
+    }
+
+    public boolean isEnabled() {
+        return this.file != null;
+    }
+
+    /**
+     * Get the number of resources loaded from the cache so far
+     */
+    public int getHits() {
+        return this.hits.get();
+    }
+
+    /**
+     * Get the number of resources that had to be baked from their json so far
+     */
+    public int getMisses() {
+        return this.misses.get();
+    }
+
+    /**
+     * Get the cached {@link BakedGeoModel} for the given resource, if one is stored for the same file contents
+     *
+     * @param location The resource path of the model file
+     * @param hash     The {@link #hash} of the model file's current contents
+     * @return The cached model, or null if it needs to be baked from its json
+     */
+    @Nullable
+    public BakedGeoModel getModel(ResourceLocation location, byte[] hash) {
+        if (!usesBuiltinFactory(location))
+            return null;
+
+        return get(location, hash, BakedResourceCache::readModel);
+    }
+
+    /**
+     * Store a freshly baked {@link BakedGeoModel} in the cache
+     *
+     * @param location The resource path of the model file
+     * @param hash     The {@link #hash} of the contents the model was baked from
+     */
+    public void putModel(ResourceLocation location, byte[] hash, BakedGeoModel model) {
+        if (usesBuiltinFactory(location))
+            put(location, hash, model, BakedResourceCache::writeModel);
+    }
+
+    /**
+     * Get the cached {@link BakedAnimations} for the given resource, if one is stored for the same file contents
+     *
+     * @param location The resource path of the animations file
+     * @param hash     The {@link #hash} of the animations file's current contents
+     * @return The cached animations, or null if they need to be baked from their json
+     */
+    @Nullable
+    public BakedAnimations getAnimations(ResourceLocation location, byte[] hash) {
+        return get(location, hash, BakedResourceCache::readAnimations);
+    }
+
+    /**
+     * Store freshly baked {@link BakedAnimations} in the cache
+     *
+     * @param location The resource path of the animations file
+     * @param hash     The {@link #hash} of the contents the animations were baked from
+     */
+    public void putAnimations(ResourceLocation location, byte[] hash, BakedAnimations animations) {
+        put(location, hash, animations, BakedResourceCache::writeAnimations);
+    }
+
+    private static boolean usesBuiltinFactory(ResourceLocation location) {
+        return BakedModelFactory.getForNamespace(location.getNamespace()) == BakedModelFactory.DEFAULT_FACTORY;
+    }
+
+    @Nullable
+    private <T> T get(ResourceLocation location, byte[] hash, Reader<T> reader) {
+        if (!isEnabled())
+            return null;
+
+        String key = location.toString();
+        Entry entry = this.storedEntries.get(key);
+
+        if (entry == null || !Arrays.equals(entry.hash(), hash)) {
+            this.misses.incrementAndGet();
+
+            return null;
+        }
+
+        try {
+            T value = reader.read(entry.payload().duplicate());
+
+            this.usedEntries.put(key, entry);
+            this.hits.incrementAndGet();
+
+            return value;
+        } catch (Exception ex) {
+            AzureLib.LOGGER.debug("Discarding unreadable baked resource cache entry for {}", location, ex);
+            this.misses.incrementAndGet();
+
+            return null;
+        }
+    }
+
+    private <T> void put(ResourceLocation location, byte[] hash, T value, Writer<T> writer) {
+        if (!isEnabled())
+            return;
+
+        try {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            DataOutputStream output = new DataOutputStream(bytes);
+
+            if (!writer.write(output, value)) {
+                AzureLib.LOGGER.debug("Not caching {} as it uses custom or unregistered types", location);
+
+                return;
+            }
+
+            output.flush();
+            this.usedEntries.put(location.toString(), new Entry(hash, ByteBuffer.wrap(bytes.toByteArray())));
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    /**
+     * Write the entries used since this cache was opened back to disk, dropping any entries that weren't used.<br>
+     * Does nothing if the stored entries are already up-to-date
+     */
+    public void save() {
+        if (!isEnabled() || !isDirty())
+            return;
+
+        Path tempFile = this.file.resolveSibling(this.file.getFileName() + ".tmp");
+
+        try {
+            Files.createDirectories(this.file.getParent());
+
+            try (
+                    DataOutputStream output = new DataOutputStream(
+                            new BufferedOutputStream(Files.newOutputStream(tempFile))
+                    )
+            ) {
+                output.writeInt(MAGIC);
+                output.writeInt(FORMAT_VERSION);
+                output.writeInt(this.usedEntries.size());
+
+                for (Map.Entry<String, Entry> mapEntry : this.usedEntries.entrySet()) {
+                    ByteBuffer payload = mapEntry.getValue().payload().duplicate();
+                    byte[] payloadBytes = new byte[payload.remaining()];
+
+                    payload.get(payloadBytes);
+                    writeString(output, mapEntry.getKey());
+                    output.write(mapEntry.getValue().hash());
+                    output.writeInt(payloadBytes.length);
+                    output.write(payloadBytes);
+                }
+            }
+
+            Files.move(tempFile, this.file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException ex) {
+            AzureLib.LOGGER.warn("Unable to save the baked resource cache", ex);
+        }
+    }
+
+    private boolean isDirty() {
+        if (this.usedEntries.size() != this.storedEntries.size())
+            return true;
+
+        for (Map.Entry<String, Entry> mapEntry : this.usedEntries.entrySet()) {
+            if (this.storedEntries.get(mapEntry.getKey()) != mapEntry.getValue())
+                return true;
+        }
+
+        return false;
+    }
+
+    private static boolean writeModel(DataOutputStream output, BakedGeoModel model) throws IOException {
+        return writeBones(output, model.getTopLevelBones());
+    }
+
+    private static BakedGeoModel readModel(ByteBuffer buffer) {
+        return new BakedGeoModel(readBones(buffer, null));
+    }
+
+    private static boolean writeBones(DataOutputStream output, List<GeoBone> bones) throws IOException {
+        output.writeInt(bones.size());
+
+        for (GeoBone bone : bones) {
+            if (bone.getClass() != GeoBone.class)
+                return false;
+
+            writeString(output, bone.getName());
+            writeNullableBoolean(output, bone.getMirror());
+            output.writeBoolean(bone.getInflate() != null);
+
+            if (bone.getInflate() != null)
+                output.writeDouble(bone.getInflate());
+
+            writeNullableBoolean(output, bone.shouldNeverRender());
+            writeNullableBoolean(output, bone.getReset());
+            output.writeFloat(bone.getRotX());
+            output.writeFloat(bone.getRotY());
+            output.writeFloat(bone.getRotZ());
+            output.writeFloat(bone.getPivotX());
+            output.writeFloat(bone.getPivotY());
+            output.writeFloat(bone.getPivotZ());
+            output.writeInt(bone.getCubes().size());
+
+            for (GeoCube cube : bone.getCubes()) {
+                writeCube(output, cube);
+            }
+
+            if (!writeBones(output, bone.getChildBones()))
+                return false;
+        }
+
+        return true;
+    }
+
+    private static List<GeoBone> readBones(ByteBuffer buffer, @Nullable GeoBone parent) {
+        int boneCount = buffer.getInt();
+        List<GeoBone> bones = new ObjectArrayList<>(boneCount);
+
+        for (int i = 0; i < boneCount; i++) {
+            String name = readString(buffer);
+            Boolean mirror = readNullableBoolean(buffer);
+            Double inflate = buffer.get() != 0 ? buffer.getDouble() : null;
+            Boolean dontRender = readNullableBoolean(buffer);
+            Boolean reset = readNullableBoolean(buffer);
+            GeoBone bone = new GeoBone(parent, name, mirror, inflate, dontRender, reset);
+
+            bone.updateRotation(buffer.getFloat(), buffer.getFloat(), buffer.getFloat());
+            bone.updatePivot(buffer.getFloat(), buffer.getFloat(), buffer.getFloat());
+
+            int cubeCount = buffer.getInt();
+
+            for (int j = 0; j < cubeCount; j++) {
+                bone.getCubes().add(readCube(buffer));
+            }
+
+            bone.getChildBones().addAll(readBones(buffer, bone));
+            bones.add(bone);
+        }
+
+        return bones;
+    }
+
+    private static void writeCube(DataOutputStream output, GeoCube cube) throws IOException {
+        output.writeInt(cube.quads().length);
+
+        for (GeoQuad quad : cube.quads()) {
+            output.writeBoolean(quad != null);
+
+            if (quad == null)
+                continue;
+
+            output.writeInt(quad.vertices().length);
+
+            for (GeoVertex vertex : quad.vertices()) {
+                output.writeFloat(vertex.position().x());
+                output.writeFloat(vertex.position().y());
+                output.writeFloat(vertex.position().z());
+                output.writeFloat(vertex.texU());
+                output.writeFloat(vertex.texV());
+            }
+
+            output.writeFloat(quad.normal().x());
+            output.writeFloat(quad.normal().y());
+            output.writeFloat(quad.normal().z());
+            output.writeByte(quad.direction().ordinal());
+        }
+
+        writeVec3(output, cube.pivot());
+        writeVec3(output, cube.rotation());
+        writeVec3(output, cube.size());
+        output.writeDouble(cube.inflate());
+        output.writeBoolean(cube.mirror());
+        output.writeBoolean(cube.rotationBaked());
+    }
+
+    private static GeoCube readCube(ByteBuffer buffer) {
+        GeoQuad[] quads = new GeoQuad[buffer.getInt()];
+
+        for (int i = 0; i < quads.length; i++) {
+            if (buffer.get() == 0)
+                continue;
+
+            GeoVertex[] vertices = new GeoVertex[buffer.getInt()];
+
+            for (int j = 0; j < vertices.length; j++) {
+                Vector3f position = new Vector3f(buffer.getFloat(), buffer.getFloat(), buffer.getFloat());
+
+                vertices[j] = new GeoVertex(position, buffer.getFloat(), buffer.getFloat());
+            }
+
+            Vector3f normal = new Vector3f(buffer.getFloat(), buffer.getFloat(), buffer.getFloat());
+
+            quads[i] = new GeoQuad(vertices, normal, DIRECTIONS[buffer.get()]);
+        }
+
+        return new GeoCube(
+                quads,
+                readVec3(buffer),
+                readVec3(buffer),
+                readVec3(buffer),
+                buffer.getDouble(),
+                buffer.get() != 0,
+                buffer.get() != 0
+        );
+    }
+
+    private static boolean writeAnimations(DataOutputStream output, BakedAnimations bakedAnimations) throws IOException {
+        Map<EasingType, String> easingNames = new Object2ObjectOpenHashMap<>();
+        Reference2IntOpenHashMap<IValue> valueIds = new Reference2IntOpenHashMap<>();
+        List<IValue> values = new ObjectArrayList<>();
+
+        for (Map.Entry<String, EasingType> entry : EasingType.EASING_TYPES.entrySet()) {
+            easingNames.putIfAbsent(entry.getValue(), entry.getKey());
+        }
+
+        valueIds.defaultReturnValue(-1);
+
+        for (Animation animation : bakedAnimations.animations().values()) {
+            for (BoneAnimation boneAnimation : animation.boneAnimations()) {
+                collectValues(boneAnimation.rotationKeyFrames(), valueIds, values);
+                collectValues(boneAnimation.positionKeyFrames(), valueIds, values);
+                collectValues(boneAnimation.scaleKeyFrames(), valueIds, values);
+            }
+        }
+
+        output.writeInt(values.size());
+
+        for (IValue value : values) {
+            if (!writeValue(output, value))
+                return false;
+        }
+
+        output.writeInt(bakedAnimations.animations().size());
+
+        for (Map.Entry<String, Animation> entry : bakedAnimations.animations().entrySet()) {
+            Animation animation = entry.getValue();
+            String loopTypeName = getLoopTypeName(animation.loopType());
+
+            if (loopTypeName == null)
+                return false;
+
+            writeString(output, entry.getKey());
+            writeString(output, animation.name());
+            output.writeDouble(animation.length());
+            writeString(output, loopTypeName);
+            output.writeInt(animation.boneAnimations().length);
+
+            for (BoneAnimation boneAnimation : animation.boneAnimations()) {
+                writeString(output, boneAnimation.boneName());
+
+                if (
+                        !writeKeyframeStack(output, boneAnimation.rotationKeyFrames(), valueIds, easingNames)
+                                || !writeKeyframeStack(output, boneAnimation.positionKeyFrames(), valueIds, easingNames)
+                                || !writeKeyframeStack(output, boneAnimation.scaleKeyFrames(), valueIds, easingNames)
+                )
+                    return false;
+            }
+
+            writeKeyframeData(output, animation.keyFrames());
+        }
+
+        Map<String, ResourceLocation> includes = bakedAnimations.includes();
+
+        output.writeInt(includes == null ? -1 : includes.size());
+
+        if (includes != null) {
+            for (Map.Entry<String, ResourceLocation> entry : includes.entrySet()) {
+                writeString(output, entry.getKey());
+                writeString(output, entry.getValue().toString());
+            }
+        }
+
+        return true;
+    }
+
+    private static BakedAnimations readAnimations(ByteBuffer buffer) throws Exception {
+        IValue[] values = new IValue[buffer.getInt()];
+
+        for (int i = 0; i < values.length; i++) {
+            values[i] = readValue(buffer);
+        }
+
+        int animationCount = buffer.getInt();
+        Map<String, Animation> animations = new Object2ObjectOpenHashMap<>(animationCount);
+
+        for (int i = 0; i < animationCount; i++) {
+            String key = readString(buffer);
+            String name = readString(buffer);
+            double length = buffer.getDouble();
+            Animation.LoopType loopType = Animation.LoopType.fromString(readString(buffer));
+            BoneAnimation[] boneAnimations = new BoneAnimation[buffer.getInt()];
+
+            for (int j = 0; j < boneAnimations.length; j++) {
+                boneAnimations[j] = new BoneAnimation(
+                        readString(buffer),
+                        readKeyframeStack(buffer, values),
+                        readKeyframeStack(buffer, values),
+                        readKeyframeStack(buffer, values)
+                );
+            }
+
+            animations.put(key, new Animation(name, length, loopType, boneAnimations, readKeyframeData(buffer)));
+        }
+
+        int includeCount = buffer.getInt();
+        Map<String, ResourceLocation> includes = null;
+
+        if (includeCount >= 0) {
+            includes = new Object2ObjectOpenHashMap<>(includeCount);
+
+            for (int i = 0; i < includeCount; i++) {
+                includes.put(readString(buffer), ResourceLocation.parse(readString(buffer)));
+            }
+        }
+
+        return new BakedAnimations(animations, includes);
+    }
+
+    @Nullable
+    private static String getLoopTypeName(Animation.LoopType loopType) {
+        for (Map.Entry<String, Animation.LoopType> entry : Animation.LoopType.LOOP_TYPES.entrySet()) {
+            if (entry.getValue() == loopType)
+                return entry.getKey();
+        }
+
+        return null;
+    }
+
+    private static void collectValues(
+            KeyframeStack<Keyframe<IValue>> stack,
+            Reference2IntOpenHashMap<IValue> valueIds,
+            List<IValue> values
+    ) {
+        for (List<Keyframe<IValue>> keyframes : List.of(stack.xKeyframes(), stack.yKeyframes(), stack.zKeyframes())) {
+            for (Keyframe<IValue> keyframe : keyframes) {
+                collectValue(keyframe.startValue(), valueIds, values);
+                collectValue(keyframe.endValue(), valueIds, values);
+
+                for (IValue easingArg : keyframe.easingArgs()) {
+                    collectValue(easingArg, valueIds, values);
+                }
+            }
+        }
+    }
+
+    private static void collectValue(IValue value, Reference2IntOpenHashMap<IValue> valueIds, List<IValue> values) {
+        if (valueIds.putIfAbsent(value, values.size()) == -1)
+            values.add(value);
+    }
+
+    private static boolean writeKeyframeStack(
+            DataOutputStream output,
+            KeyframeStack<Keyframe<IValue>> stack,
+            Reference2IntOpenHashMap<IValue> valueIds,
+            Map<EasingType, String> easingNames
+    ) throws IOException {
+        for (List<Keyframe<IValue>> keyframes : List.of(stack.xKeyframes(), stack.yKeyframes(), stack.zKeyframes())) {
+            output.writeInt(keyframes.size());
+
+            for (Keyframe<IValue> keyframe : keyframes) {
+                String easingName = easingNames.get(keyframe.easingType());
+
+                if (easingName == null)
+                    return false;
+
+                output.writeDouble(keyframe.length());
+                output.writeInt(valueIds.getInt(keyframe.startValue()));
+                output.writeInt(valueIds.getInt(keyframe.endValue()));
+                writeString(output, easingName);
+                output.writeInt(keyframe.easingArgs().size());
+
+                for (IValue easingArg : keyframe.easingArgs()) {
+                    output.writeInt(valueIds.getInt(easingArg));
+                }
+            }
+        }
+
+        return true;
+    }
+
+    private static KeyframeStack<Keyframe<IValue>> readKeyframeStack(ByteBuffer buffer, IValue[] values) {
+        List<Keyframe<IValue>> xKeyframes = readKeyframes(buffer, values);
+        List<Keyframe<IValue>> yKeyframes = readKeyframes(buffer, values);
+        List<Keyframe<IValue>> zKeyframes = readKeyframes(buffer, values);
+
+        return new KeyframeStack<>(xKeyframes, yKeyframes, zKeyframes);
+    }
+
+    private static List<Keyframe<IValue>> readKeyframes(ByteBuffer buffer, IValue[] values) {
+        int keyframeCount = buffer.getInt();
+        List<Keyframe<IValue>> keyframes = new ObjectArrayList<>(keyframeCount);
+
+        for (int i = 0; i < keyframeCount; i++) {
+            double length = buffer.getDouble();
+            IValue startValue = values[buffer.getInt()];
+            IValue endValue = values[buffer.getInt()];
+            EasingType easingType = EasingType.EASING_TYPES.getOrDefault(readString(buffer), EasingType.LINEAR);
+            int easingArgCount = buffer.getInt();
+            List<IValue> easingArgs = new ObjectArrayList<>(easingArgCount);
+
+            for (int j = 0; j < easingArgCount; j++) {
+                easingArgs.add(values[buffer.getInt()]);
+            }
+
+            keyframes.add(new Keyframe<>(length, startValue, endValue, easingType, easingArgs));
+        }
+
+        return keyframes;
+    }
+
+    private static boolean writeValue(DataOutputStream output, IValue value) throws IOException {
+        if (value instanceof Constant constant) {
+            output.writeByte(CONSTANT);
+            output.writeDouble(constant.get());
+        } else if (value instanceof MolangCompoundValue compoundValue && compoundValue.getExpression() != null) {
+            output.writeByte(MOLANG_EXPRESSION);
+            writeString(output, compoundValue.getExpression());
+        } else if (value instanceof MolangValue molangValue && molangValue.isConstant()) {
+            output.writeByte(MOLANG_CONSTANT);
+            output.writeDouble(molangValue.get());
+        } else {
+            return false;
+        }
+
+        return true;
+    }
+
+    private static IValue readValue(ByteBuffer buffer) throws Exception {
+        return switch (buffer.get()) {
+            case CONSTANT -> new Constant(buffer.getDouble());
+            case MOLANG_CONSTANT -> new MolangValue(new Constant(buffer.getDouble()));
+            case MOLANG_EXPRESSION -> MolangParser.parseExpression(readString(buffer));
+            default -> throw new IllegalStateException("Unknown keyframe value type");
+        };
+    }
+
+    private static void writeKeyframeData(DataOutputStream output, Animation.Keyframes keyframes) throws IOException {
+        output.writeInt(keyframes.sounds().length);
+
+        for (SoundKeyframeData sound : keyframes.sounds()) {
+            output.writeDouble(sound.getStartTick());
+            writeString(output, sound.getSound());
+        }
+
+        output.writeInt(keyframes.particles().length);
+
+        for (ParticleKeyframeData particle : keyframes.particles()) {
+            output.writeDouble(particle.getStartTick());
+            writeString(output, particle.getEffect());
+            writeString(output, particle.getLocator());
+            writeString(output, particle.script());
+        }
+
+        output.writeInt(keyframes.customInstructions().length);
+
+        for (CustomInstructionKeyframeData instruction : keyframes.customInstructions()) {
+            output.writeDouble(instruction.getStartTick());
+            writeString(output, instruction.getInstructions());
+        }
+    }
+
+    private static Animation.Keyframes readKeyframeData(ByteBuffer buffer) {
+        SoundKeyframeData[] sounds = new SoundKeyframeData[buffer.getInt()];
+
+        for (int i = 0; i < sounds.length; i++) {
+            sounds[i] = new SoundKeyframeData(buffer.getDouble(), readString(buffer));
+        }
+
+        ParticleKeyframeData[] particles = new ParticleKeyframeData[buffer.getInt()];
+
+        for (int i = 0; i < particles.length; i++) {
+            particles[i] = new ParticleKeyframeData(
+                    buffer.getDouble(),
+                    readString(buffer),
+                    readString(buffer),
+                    readString(buffer)
+            );
+        }
+
+        CustomInstructionKeyframeData[] customInstructions = new CustomInstructionKeyframeData[buffer.getInt()];
+
+        for (int i = 0; i < customInstructions.length; i++) {
+            customInstructions[i] = new CustomInstructionKeyframeData(buffer.getDouble(), readString(buffer));
+        }
+
+        return new Animation.Keyframes(sounds, particles, customInstructions);
+    }
+
+    private static void writeVec3(DataOutputStream output, Vec3 vec) throws IOException {
+        output.writeDouble(vec.x);
+        output.writeDouble(vec.y);
+        output.writeDouble(vec.z);
+    }
+
+    private static Vec3 readVec3(ByteBuffer buffer) {
+        return new Vec3(buffer.getDouble(), buffer.getDouble(), buffer.getDouble());
+    }
+
+    private static void writeNullableBoolean(DataOutputStream output, @Nullable Boolean value) throws IOException {
+        output.writeByte(value == null ? -1 : value ? 1 : 0);
+    }
+
+    @Nullable
+    private static Boolean readNullableBoolean(ByteBuffer buffer) {
+        byte value = buffer.get();
+
+        return value == -1 ? null : value == 1;
+    }
+
+    private static void writeString(DataOutputStream output, String string) throws IOException {
+        byte[] bytes = string.getBytes(StandardCharsets.UTF_8);
+
+        output.writeInt(bytes.length);
+        output.write(bytes);
+    }
+
+    private static String readString(ByteBuffer buffer) {
+        byte[] bytes = new byte[buffer.getInt()];
+
+        buffer.get(bytes);
+
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * A stored cache entry, holding the hash of the contents it was baked from and its serialized form
+     */
+    private record Entry(byte[] hash, ByteBuffer payload) {}
+
+    @FunctionalInterface
+    private interface Reader<T> {
+
+        T read(ByteBuffer buffer) throws Exception;
+    }
+
+    @FunctionalInterface
+    private interface Writer<T> {
+
+        /**
+         * @return Whether the value was written, or false if it holds something that can't be cached
+         */
+        boolean write(DataOutputStream output, T value) throws IOException;
+    }
+}
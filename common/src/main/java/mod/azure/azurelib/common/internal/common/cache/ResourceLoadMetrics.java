@@ -0,0 +1,128 @@
+package mod.azure.azurelib.common.internal.common.cache;
+
+import mod.azure.azurelib.common.internal.common.AzureLib;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+/**
+ * Per-namespace statistics for the resources loaded during a single {@link AzureLibCache} reload.<br>
+ * Records how many files each namespace (modid) provided, how many bytes were read for them and how much time was
+ * spent loading and baking them, so that packs can see which mods contribute the most to reload times.<br>
+ * Files skipped because their namespace is excluded are counted separately.<br>
+ * Safe to record into from multiple loading threads at once
+ */
+public final class ResourceLoadMetrics {
+
+    private static final int LOGGED_NAMESPACES = 5;
+
+    private final Map<String, NamespaceMetrics> namespaces = new ConcurrentHashMap<>();
+
+    private final Map<String, LongAdder> skippedFiles = new ConcurrentHashMap<>();
+
+    /**
+     * Record a loaded file
+     *
+     * @param namespace The namespace of the file
+     * @param bytes     The size of the file's contents
+     * @param nanos     The time taken to load and bake the file
+     */
+    public void recordLoaded(String namespace, long bytes, long nanos) {
+        NamespaceMetrics metrics = this.namespaces.computeIfAbsent(namespace, key -> new NamespaceMetrics());
+
+        metrics.files.increment();
+        metrics.bytes.add(bytes);
+        metrics.nanos.add(nanos);
+    }
+
+    /**
+     * Record a file that was skipped without being loaded, because its namespace is excluded
+     */
+    public void recordSkipped(String namespace) {
+        this.skippedFiles.computeIfAbsent(namespace, key -> new LongAdder()).increment();
+    }
+
+    /**
+     * Get the metrics for each namespace that had files loaded, keyed by namespace
+     */
+    public Map<String, NamespaceMetrics> getNamespaces() {
+        return this.namespaces;
+    }
+
+    /**
+     * Get the number of files skipped for each excluded namespace, keyed by namespace
+     */
+    public Map<String, Long> getSkippedFiles() {
+        return this.skippedFiles.entrySet()
+                .stream()
+                .collect(Collectors.toMap(Map.Entry::getKey, entry -> entry.getValue().sum()));
+    }
+
+    /**
+     * Log the namespaces that took the longest to load, along with any skipped files.<br>
+     * The full breakdown for every namespace is logged at debug level
+     */
+    public void log() {
+        List<Map.Entry<String, NamespaceMetrics>> sorted = this.namespaces.entrySet()
+                .stream()
+                .sorted(Comparator.comparingLong(entry -> -entry.getValue().getNanos()))
+                .toList();
+
+        if (!sorted.isEmpty()) {
+            AzureLib.LOGGER.info(
+                    "Slowest resource namespaces: {}",
+                    sorted.stream()
+                            .limit(LOGGED_NAMESPACES)
+                            .map(entry -> entry.getKey() + " (" + entry.getValue() + ")")
+                            .collect(Collectors.joining(", "))
+            );
+        }
+
+        for (Map.Entry<String, NamespaceMetrics> entry : sorted) {
+            AzureLib.LOGGER.debug("Loaded resources for namespace {}: {}", entry.getKey(), entry.getValue());
+        }
+
+        Map<String, Long> skipped = getSkippedFiles();
+
+        if (!skipped.isEmpty())
+            AzureLib.LOGGER.info("Skipped resources from excluded namespaces: {}", skipped);
+    }
+
+    /**
+     * The accumulated statistics for a single namespace
+     */
+    public static final class NamespaceMetrics {
+
+        private final LongAdder files = new LongAdder();
+
+        private final LongAdder bytes = new LongAdder();
+
+        private final LongAdder nanos = new LongAdder();
+
+        public long getFiles() {
+            return this.files.sum();
+        }
+
+        public long getBytes() {
+            return this.bytes.sum();
+        }
+
+        /**
+         * Get the total time spent loading this namespace's files, summed across all loading threads
+         */
+        public long getNanos() {
+            return this.nanos.sum();
+        }
+
+        @Override
+        public String toString() {
+            return TimeUnit.NANOSECONDS.toMillis(getNanos()) + "ms, " + getBytes() / 1024 + "KB, " + getFiles()
+                    + " files";
+        }
+    }
+}
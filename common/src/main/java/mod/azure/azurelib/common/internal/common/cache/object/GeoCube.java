@@ -11,6 +11,9 @@ import net.minecraft.world.phys.Vec3;
 
 /**
  * Baked cuboid for a {@link GeoBone}
+ *
+ * @param rotationBaked Whether the cube's rotation around its pivot has already been applied to its quads' vertices and
+ *                      normals, so that it doesn't need to be applied again at render time
  */
 public record GeoCube(
         GeoQuad[] quads,
@@ -18,6 +21,11 @@ public record GeoCube(
         Vec3 rotation,
         Vec3 size,
         double inflate,
-        boolean mirror
+        boolean mirror,
+        boolean rotationBaked
 ) {
+
+    public GeoCube(GeoQuad[] quads, Vec3 pivot, Vec3 rotation, Vec3 size, double inflate, boolean mirror) {
+        this(quads, pivot, rotation, size, inflate, mirror, false);
+    }
 }
@@ -1,7 +1,10 @@
 package mod.azure.azurelib.common.internal.common.config;
 
 import mod.azure.azurelib.common.api.common.config.Config;
+import mod.azure.azurelib.common.internal.client.config.IValidationHandler;
 import mod.azure.azurelib.common.internal.common.AzureLib;
+import mod.azure.azurelib.core.animatable.instance.SingletonAnimatableInstanceCache;
+import mod.azure.azurelib.sblforked.object.SensorScanStats;
 
 @Config(id = AzureLib.MOD_ID)
 public class AzureLibConfig {
@@ -9,4 +12,57 @@ public class AzureLibConfig {
     @Configurable
     @Configurable.Synchronized
     public boolean useVanillaUseKey = true;
+
+    @Configurable
+    public boolean compileMolangExpressions = true;
+
+    @Configurable
+    public boolean parallelAnimationEvaluation = false;
+
+    @Configurable
+    @Configurable.DecimalRange(min = 0)
+    public double animationLodReducedDistance = 0;
+
+    @Configurable
+    @Configurable.Range(min = 1)
+    public int animationLodReducedInterval = 3;
+
+    @Configurable
+    @Configurable.DecimalRange(min = 0)
+    public double animationLodFrozenDistance = 0;
+
+    @Configurable
+    public boolean useBakedResourceCache = true;
+
+    @Configurable
+    public boolean logResourceLoadStats = false;
+
+    @Configurable
+    public boolean skinnedModelRendering = false;
+
+    @Configurable
+    public boolean instancedModelRendering = false;
+
+    @Configurable
+    public boolean verifySkinnedRendering = false;
+
+    @Configurable
+    public String[] excludedNamespaces = new String[0];
+
+    @Configurable
+    @Configurable.Range(min = 0)
+    @Configurable.ValueUpdateCallback(method = "onMaxSingletonAnimatableManagersUpdate")
+    public int maxSingletonAnimatableManagers = SingletonAnimatableInstanceCache.DEFAULT_MAX_MANAGERS;
+
+    @Configurable
+    @Configurable.ValueUpdateCallback(method = "onRecordSensorScanStatsUpdate")
+    public boolean recordSensorScanStats = false;
+
+    public void onMaxSingletonAnimatableManagersUpdate(int value, IValidationHandler handler) {
+        SingletonAnimatableInstanceCache.setMaxManagers(value);
+    }
+
+    public void onRecordSensorScanStatsUpdate(boolean value, IValidationHandler handler) {
+        SensorScanStats.setEnabled(value);
+    }
 }
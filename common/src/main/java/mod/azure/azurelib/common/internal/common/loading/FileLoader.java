@@ -8,6 +8,8 @@
 package mod.azure.azurelib.common.internal.common.loading;
 
 import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import com.google.gson.stream.JsonReader;
 import mod.azure.azurelib.common.internal.common.AzureLib;
 import mod.azure.azurelib.common.internal.common.AzureLibException;
 import mod.azure.azurelib.common.internal.common.cache.object.BakedGeoModel;
@@ -20,7 +22,9 @@ import net.minecraft.server.packs.resources.ResourceManager;
 import net.minecraft.util.GsonHelper;
 import org.apache.commons.io.IOUtils;
 
+import java.io.ByteArrayInputStream;
 import java.io.InputStream;
+import java.io.InputStreamReader;
 import java.nio.charset.Charset;
 
 /**
@@ -39,7 +43,16 @@ public final class FileLoader {
      * @param manager  The Minecraft {@code ResourceManager} responsible for maintaining in-memory resource access
      */
     public static BakedAnimations loadAnimationsFile(ResourceLocation location, ResourceManager manager) {
-        return JsonUtil.GEO_GSON.fromJson(loadFile(location, manager), BakedAnimations.class);
+        return loadAnimationsFile(getFileBytes(location, manager));
+    }
+
+    /**
+     * Deserialize the already-read contents of an animation json file to its respective {@link Animation} components
+     *
+     * @param contents The raw contents of the file, as read by {@link #getFileBytes}
+     */
+    public static BakedAnimations loadAnimationsFile(byte[] contents) {
+        return streamFile(contents, BakedAnimations.class);
     }
 
     /**
@@ -49,7 +62,39 @@ public final class FileLoader {
      * @param manager  The Minecraft {@code ResourceManager} responsible for maintaining in-memory resource access
      */
     public static Model loadModelFile(ResourceLocation location, ResourceManager manager) {
-        return JsonUtil.GEO_GSON.fromJson(loadFile(location, manager), Model.class);
+        return loadModelFile(getFileBytes(location, manager));
+    }
+
+    /**
+     * Deserialize the already-read contents of a geo model json file to its respective {@link Model} format
+     *
+     * @param contents The raw contents of the file, as read by {@link #getFileBytes}
+     */
+    public static Model loadModelFile(byte[] contents) {
+        return streamFile(contents, Model.class);
+    }
+
+    /**
+     * Deserialize the already-read contents of a json file directly into the given type.<br>
+     * The contents are streamed through the type's {@link com.google.gson.TypeAdapter TypeAdapter} in a single pass,
+     * without first being parsed into a {@link JsonObject} tree
+     *
+     * @param contents The raw contents of the file, as read by {@link #getFileBytes}
+     * @param type     The class to deserialize the file to
+     */
+    private static <T> T streamFile(byte[] contents, Class<T> type) {
+        JsonReader reader = new JsonReader(
+                new InputStreamReader(new ByteArrayInputStream(contents), Charset.defaultCharset())
+        );
+
+        reader.setLenient(true);
+
+        T result = JsonUtil.GEO_GSON.fromJson(reader, type);
+
+        if (result == null)
+            throw new JsonParseException("Empty json file, expected " + type.getSimpleName());
+
+        return result;
     }
 
     /**
@@ -62,6 +107,22 @@ public final class FileLoader {
         return GsonHelper.fromJson(JsonUtil.GEO_GSON, getFileContents(location, manager), JsonObject.class);
     }
 
+    /**
+     * Read a file into memory in its raw form
+     *
+     * @param location The resource path of the file
+     * @param manager  The Minecraft {@code ResourceManager} responsible for maintaining in-memory resource access
+     */
+    public static byte[] getFileBytes(ResourceLocation location, ResourceManager manager) {
+        try (InputStream inputStream = manager.getResourceOrThrow(location).open()) {
+            return inputStream.readAllBytes();
+        } catch (Exception e) {
+            AzureLib.LOGGER.error("Couldn't load {}", location, e);
+
+            throw new AzureLibException(location.toString());
+        }
+    }
+
     /**
      * Read a text-based file into memory in the form of a single string
      *
@@ -7,12 +7,6 @@
  */
 package mod.azure.azurelib.common.internal.common.loading.json.raw;
 
-import com.google.gson.JsonArray;
-import com.google.gson.JsonDeserializer;
-import com.google.gson.JsonObject;
-import com.google.gson.JsonParseException;
-import mod.azure.azurelib.common.internal.common.util.JsonUtil;
-import net.minecraft.util.GsonHelper;
 import org.jetbrains.annotations.Nullable;
 
 import java.util.Map;
@@ -37,55 +31,4 @@ public record Bone(
         double[] rotation,
         @Nullable TextureMesh[] textureMeshes
 ) {
-
-    public static JsonDeserializer<Bone> deserializer() throws JsonParseException {
-        return (json, type, context) -> {
-            JsonObject obj = json.getAsJsonObject();
-            double[] bindPoseRotation = JsonUtil.jsonArrayToDoubleArray(
-                    GsonHelper.getAsJsonArray(obj, "bind_pose_rotation", null)
-            );
-            Cube[] cubes = JsonUtil.jsonArrayToObjectArray(
-                    GsonHelper.getAsJsonArray(obj, "cubes", new JsonArray(0)),
-                    context,
-                    Cube.class
-            );
-            Boolean debug = JsonUtil.getOptionalBoolean(obj, "debug");
-            Double inflate = JsonUtil.getOptionalDouble(obj, "inflate");
-            Map<String, LocatorValue> locators = obj.has("locators")
-                    ? JsonUtil.jsonObjToMap(GsonHelper.getAsJsonObject(obj, "locators"), context, LocatorValue.class)
-                    : null;
-            Boolean mirror = JsonUtil.getOptionalBoolean(obj, "mirror");
-            String name = GsonHelper.getAsString(obj, "name", null);
-            Boolean neverRender = JsonUtil.getOptionalBoolean(obj, "neverRender");
-            String parent = GsonHelper.getAsString(obj, "parent", null);
-            double[] pivot = JsonUtil.jsonArrayToDoubleArray(GsonHelper.getAsJsonArray(obj, "pivot", new JsonArray(0)));
-            PolyMesh polyMesh = GsonHelper.getAsObject(obj, "poly_mesh", null, context, PolyMesh.class);
-            Long renderGroupId = JsonUtil.getOptionalLong(obj, "render_group_id");
-            Boolean reset = JsonUtil.getOptionalBoolean(obj, "reset");
-            double[] rotation = JsonUtil.jsonArrayToDoubleArray(GsonHelper.getAsJsonArray(obj, "rotation", null));
-            TextureMesh[] textureMeshes = JsonUtil.jsonArrayToObjectArray(
-                    GsonHelper.getAsJsonArray(obj, "texture_meshes", new JsonArray(0)),
-                    context,
-                    TextureMesh.class
-            );
-
-            return new Bone(
-                    bindPoseRotation,
-                    cubes,
-                    debug,
-                    inflate,
-                    locators,
-                    mirror,
-                    name,
-                    neverRender,
-                    parent,
-                    pivot,
-                    polyMesh,
-                    renderGroupId,
-                    reset,
-                    rotation,
-                    textureMeshes
-            );
-        };
-    }
 }
@@ -7,11 +7,6 @@
  */
 package mod.azure.azurelib.common.internal.common.loading.json.raw;
 
-import com.google.gson.JsonDeserializer;
-import com.google.gson.JsonObject;
-import com.google.gson.JsonParseException;
-import mod.azure.azurelib.common.internal.common.util.JsonUtil;
-import net.minecraft.util.GsonHelper;
 import org.jetbrains.annotations.Nullable;
 
 /**
@@ -26,19 +21,4 @@ public record Cube(
         double[] size,
         UVUnion uv
 ) {
-
-    public static JsonDeserializer<Cube> deserializer() throws JsonParseException {
-        return (json, type, context) -> {
-            JsonObject obj = json.getAsJsonObject();
-            Double inflate = JsonUtil.getOptionalDouble(obj, "inflate");
-            Boolean mirror = JsonUtil.getOptionalBoolean(obj, "mirror");
-            double[] origin = JsonUtil.jsonArrayToDoubleArray(GsonHelper.getAsJsonArray(obj, "origin", null));
-            double[] pivot = JsonUtil.jsonArrayToDoubleArray(GsonHelper.getAsJsonArray(obj, "pivot", null));
-            double[] rotation = JsonUtil.jsonArrayToDoubleArray(GsonHelper.getAsJsonArray(obj, "rotation", null));
-            double[] size = JsonUtil.jsonArrayToDoubleArray(GsonHelper.getAsJsonArray(obj, "size", null));
-            UVUnion uvUnion = GsonHelper.getAsObject(obj, "uv", null, context, UVUnion.class);
-
-            return new Cube(inflate, mirror, origin, pivot, rotation, size, uvUnion);
-        };
-    }
 }
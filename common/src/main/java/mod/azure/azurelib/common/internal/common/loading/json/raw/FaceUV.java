@@ -7,11 +7,6 @@
  */
 package mod.azure.azurelib.common.internal.common.loading.json.raw;
 
-import com.google.gson.JsonDeserializer;
-import com.google.gson.JsonObject;
-import com.google.gson.JsonParseException;
-import mod.azure.azurelib.common.internal.common.util.JsonUtil;
-import net.minecraft.util.GsonHelper;
 import org.jetbrains.annotations.Nullable;
 
 /**
@@ -22,15 +17,4 @@ public record FaceUV(
         double[] uv,
         double[] uvSize
 ) {
-
-    public static JsonDeserializer<FaceUV> deserializer() throws JsonParseException {
-        return (json, type, context) -> {
-            JsonObject obj = json.getAsJsonObject();
-            String materialInstance = GsonHelper.getAsString(obj, "material_instance", null);
-            double[] uv = JsonUtil.jsonArrayToDoubleArray(GsonHelper.getAsJsonArray(obj, "uv", null));
-            double[] uvSize = JsonUtil.jsonArrayToDoubleArray(GsonHelper.getAsJsonArray(obj, "uv_size", null));
-
-            return new FaceUV(materialInstance, uv, uvSize);
-        };
-    }
 }
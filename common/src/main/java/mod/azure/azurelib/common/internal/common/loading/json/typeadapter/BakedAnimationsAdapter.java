@@ -7,8 +7,13 @@
  */
 package mod.azure.azurelib.common.internal.common.loading.json.typeadapter;
 
-import com.google.gson.*;
-import com.mojang.datafixers.util.Pair;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonPrimitive;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
 import it.unimi.dsi.fastutil.objects.Object2ObjectOpenHashMap;
 import it.unimi.dsi.fastutil.objects.ObjectArrayList;
 import mod.azure.azurelib.common.internal.common.AzureLib;
@@ -19,256 +24,544 @@ import mod.azure.azurelib.core.animation.EasingType;
 import mod.azure.azurelib.core.keyframe.BoneAnimation;
 import mod.azure.azurelib.core.keyframe.Keyframe;
 import mod.azure.azurelib.core.keyframe.KeyframeStack;
+import mod.azure.azurelib.core.keyframe.event.data.CustomInstructionKeyframeData;
+import mod.azure.azurelib.core.keyframe.event.data.ParticleKeyframeData;
+import mod.azure.azurelib.core.keyframe.event.data.SoundKeyframeData;
 import mod.azure.azurelib.core.math.Constant;
 import mod.azure.azurelib.core.math.IValue;
 import mod.azure.azurelib.core.molang.MolangException;
 import mod.azure.azurelib.core.molang.MolangParser;
 import mod.azure.azurelib.core.molang.expressions.MolangValue;
 import net.minecraft.resources.ResourceLocation;
-import net.minecraft.util.GsonHelper;
 import org.apache.commons.lang3.math.NumberUtils;
 
-import java.lang.reflect.Type;
+import java.io.IOException;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 
 /**
- * {@link com.google.gson.Gson} {@link JsonDeserializer} for {@link BakedAnimations}.<br>
- * Acts as the deserialization interface for {@code BakedAnimations}
+ * {@link com.google.gson.Gson} {@link TypeAdapter} for {@link BakedAnimations}.<br>
+ * Acts as the deserialization interface for {@code BakedAnimations}, streaming the animation json directly into its
+ * baked keyframes in a single pass rather than building an intermediate {@link JsonElement} tree for the file
  */
-public class BakedAnimationsAdapter implements JsonDeserializer<BakedAnimations> {
+public class BakedAnimationsAdapter extends TypeAdapter<BakedAnimations> {
 
-    private static List<Pair<String, JsonElement>> getTripletObj(JsonElement element) {
-        if (element == null)
-            return List.of();
+    private static double calculateAnimationLength(BoneAnimation[] boneAnimations) {
+        double length = 0;
 
-        if (element instanceof JsonPrimitive primitive) {
-            JsonArray array = new JsonArray(3);
+        for (BoneAnimation animation : boneAnimations) {
+            length = Math.max(length, animation.rotationKeyFrames().getLastKeyframeTime());
+            length = Math.max(length, animation.positionKeyFrames().getLastKeyframeTime());
+            length = Math.max(length, animation.scaleKeyFrames().getLastKeyframeTime());
+        }
 
-            array.add(primitive);
-            array.add(primitive);
-            array.add(primitive);
+        return length == 0 ? Double.MAX_VALUE : length;
+    }
 
-            element = array;
+    @Override
+    public void write(JsonWriter writer, BakedAnimations animations) {
+        throw new UnsupportedOperationException("Serializing baked animations is not supported");
+    }
+
+    @Override
+    public BakedAnimations read(JsonReader reader) throws IOException {
+        Map<String, Animation> animations = new Object2ObjectOpenHashMap<>();
+        Map<String, ResourceLocation> includes = null;
+
+        reader.beginObject();
+
+        while (reader.hasNext()) {
+            switch (reader.nextName()) {
+                case "animations" -> readAnimations(reader, animations);
+                case "includes" -> includes = readIncludes(reader);
+                default -> reader.skipValue();
+            }
         }
 
-        if (element instanceof JsonArray array)
-            return ObjectArrayList.of(Pair.of("0", array));
+        reader.endObject();
 
-        if (element instanceof JsonObject obj) {
-            List<Pair<String, JsonElement>> list = new ObjectArrayList<>();
+        return new BakedAnimations(animations, includes);
+    }
 
-            for (Map.Entry<String, JsonElement> entry : obj.entrySet()) {
-                if (entry.getValue() instanceof JsonObject entryObj && !entryObj.has("vector")) {
-                    list.add(getTripletObjBedrock(entry.getKey(), entryObj));
+    private static void readAnimations(JsonReader reader, Map<String, Animation> animations) throws IOException {
+        reader.beginObject();
 
-                    continue;
-                }
+        while (reader.hasNext()) {
+            String name = reader.nextName();
+            AnimationReader animationReader = new AnimationReader(name);
+            Animation animation = animationReader.read(reader);
+
+            if (animationReader.error != null) {
+                AzureLib.LOGGER.error("Unable to parse animation: {}", name);
+                animationReader.error.printStackTrace();
 
-                list.add(Pair.of(entry.getKey(), entry.getValue()));
+                continue;
             }
 
-            return list;
+            animations.put(name, animation);
         }
 
-        throw new JsonParseException("Invalid object type provided to getTripletObj, got: " + element);
+        reader.endObject();
     }
 
-    private static Pair<String, JsonElement> getTripletObjBedrock(String timestamp, JsonObject keyframe) {
-        JsonArray keyframeValues = null;
+    private static Map<String, ResourceLocation> readIncludes(JsonReader reader) throws IOException {
+        Map<String, ResourceLocation> includes = new Object2ObjectOpenHashMap<>();
 
-        if (keyframe.has("pre")) {
-            JsonElement pre = keyframe.get("pre");
-            keyframeValues = pre.isJsonArray() ? pre.getAsJsonArray() : GsonHelper.getAsJsonArray(pre.getAsJsonObject(), "vector");
-        }
-        else if (keyframe.has("post")) {
-            JsonElement post = keyframe.get("post");
-            keyframeValues = post.isJsonArray() ? post.getAsJsonArray() : GsonHelper.getAsJsonArray(post.getAsJsonObject(), "vector");
+        reader.beginArray();
+
+        while (reader.hasNext()) {
+            ResourceLocation fileId = null;
+            List<String> animationNames = new ObjectArrayList<>();
+
+            reader.beginObject();
+
+            while (reader.hasNext()) {
+                switch (reader.nextName()) {
+                    case "file_id" -> fileId = ResourceLocation.parse(reader.nextString());
+                    case "animations" -> animationNames = JsonUtil.readList(reader, JsonReader::nextString);
+                    default -> reader.skipValue();
+                }
+            }
+
+            reader.endObject();
+
+            if (fileId == null)
+                throw new JsonParseException("Missing file_id for animation include");
+
+            for (String animationName : animationNames) {
+                ResourceLocation existing = includes.putIfAbsent(animationName, fileId);
+
+                if (existing != null) {
+                    AzureLib.LOGGER.warn(
+                            "Animation {} is already included! File already including: {}  File trying to include from again: {}",
+                            animationName,
+                            existing,
+                            fileId
+                    );
+                }
+            }
         }
 
-        if (keyframeValues != null)
-            return Pair.of(NumberUtils.isCreatable(timestamp) ? timestamp : "0", keyframeValues);
+        reader.endArray();
 
-        throw new JsonParseException("Invalid keyframe data - expected array, found " + keyframe);
+        return includes;
     }
 
-    private static double calculateAnimationLength(BoneAnimation[] boneAnimations) {
-        double length = 0;
+    /**
+     * Single-use reader for one animation of an animation file.<br>
+     * A {@link MolangException} thrown while parsing one of the animation's values is held until the rest of the
+     * animation has been consumed, so that only the broken animation is skipped and the rest of the file can continue
+     * to be read
+     */
+    private static final class AnimationReader {
 
-        for (BoneAnimation animation : boneAnimations) {
-            length = Math.max(length, animation.rotationKeyFrames().getLastKeyframeTime());
-            length = Math.max(length, animation.positionKeyFrames().getLastKeyframeTime());
-            length = Math.max(length, animation.scaleKeyFrames().getLastKeyframeTime());
+        private final String name;
+
+        private MolangException error = null;
+
+        private AnimationReader(String name) {
+            this.name = name;
         }
 
-        return length == 0 ? Double.MAX_VALUE : length;
-    }
+        private Animation read(JsonReader reader) throws IOException {
+            double length = -1;
+            Animation.LoopType loopType = Animation.LoopType.PLAY_ONCE;
+            BoneAnimation[] boneAnimations = new BoneAnimation[0];
+            SoundKeyframeData[] sounds = new SoundKeyframeData[0];
+            ParticleKeyframeData[] particles = new ParticleKeyframeData[0];
+            CustomInstructionKeyframeData[] customInstructions = new CustomInstructionKeyframeData[0];
+
+            reader.beginObject();
+
+            while (reader.hasNext()) {
+                switch (reader.nextName()) {
+                    case "animation_length" -> length = reader.nextDouble() * 20d;
+                    case "loop" -> loopType = readLoopType(reader);
+                    case "bones" -> boneAnimations = readBoneAnimations(reader);
+                    case "sound_effects" -> sounds = readSounds(reader);
+                    case "particle_effects" -> particles = readParticles(reader);
+                    case "timeline" -> customInstructions = readCustomInstructions(reader);
+                    default -> reader.skipValue();
+                }
+            }
 
-    @Override
-    public BakedAnimations deserialize(
-            JsonElement json,
-            Type type,
-            JsonDeserializationContext context
-    ) throws JsonParseException {
-        JsonObject jsonObj = json.getAsJsonObject();
-
-        JsonObject animationJsonList = jsonObj.getAsJsonObject("animations");
-        JsonArray includeListJSONObj = jsonObj.getAsJsonArray("includes");
-        Map<String, ResourceLocation> includes = null;
-        if (includeListJSONObj != null) {
-            includes = new Object2ObjectOpenHashMap<>(includeListJSONObj.size());
-            for (JsonElement entry : includeListJSONObj.asList()) {
-                JsonObject obj = entry.getAsJsonObject();
-                ResourceLocation fileId = ResourceLocation.parse(obj.get("file_id").getAsString());
-                for (JsonElement animName : obj.getAsJsonArray("animations")) {
-                    String ani = animName.getAsString();
-                    if (includes.containsKey(ani)) {
-                        AzureLib.LOGGER.warn(
-                                "Animation {} is already included! File already including: {}  File trying to include from again: {}",
-                                ani,
-                                includes.get(ani),
-                                fileId
-                        );
+            reader.endObject();
+
+            if (length == -1)
+                length = calculateAnimationLength(boneAnimations);
+
+            return new Animation(
+                    this.name,
+                    length,
+                    loopType,
+                    boneAnimations,
+                    new Animation.Keyframes(sounds, particles, customInstructions)
+            );
+        }
+
+        private static Animation.LoopType readLoopType(JsonReader reader) throws IOException {
+            return switch (reader.peek()) {
+                case BOOLEAN -> reader.nextBoolean() ? Animation.LoopType.LOOP : Animation.LoopType.PLAY_ONCE;
+                case STRING -> Animation.LoopType.fromString(reader.nextString());
+                default -> {
+                    reader.skipValue();
+
+                    yield Animation.LoopType.PLAY_ONCE;
+                }
+            };
+        }
+
+        private BoneAnimation[] readBoneAnimations(JsonReader reader) throws IOException {
+            List<BoneAnimation> animations = new ObjectArrayList<>();
+
+            reader.beginObject();
+
+            while (reader.hasNext()) {
+                String boneName = reader.nextName();
+                KeyframeStack<Keyframe<IValue>> rotationFrames = null;
+                KeyframeStack<Keyframe<IValue>> positionFrames = null;
+                KeyframeStack<Keyframe<IValue>> scaleFrames = null;
+
+                reader.beginObject();
+
+                while (reader.hasNext()) {
+                    switch (reader.nextName()) {
+                        case "rotation" -> rotationFrames = readKeyframeStack(reader, true);
+                        case "position" -> positionFrames = readKeyframeStack(reader, false);
+                        case "scale" -> scaleFrames = readKeyframeStack(reader, false);
+                        default -> reader.skipValue();
+                    }
+                }
+
+                reader.endObject();
+
+                animations.add(
+                        new BoneAnimation(
+                                boneName,
+                                rotationFrames != null ? rotationFrames : new KeyframeStack<>(),
+                                positionFrames != null ? positionFrames : new KeyframeStack<>(),
+                                scaleFrames != null ? scaleFrames : new KeyframeStack<>()
+                        )
+                );
+            }
+
+            reader.endObject();
+
+            return animations.toArray(new BoneAnimation[0]);
+        }
+
+        private static SoundKeyframeData[] readSounds(JsonReader reader) throws IOException {
+            List<SoundKeyframeData> sounds = new ObjectArrayList<>();
+
+            reader.beginObject();
+
+            while (reader.hasNext()) {
+                double startTick = Double.parseDouble(reader.nextName()) * 20d;
+                String effect = null;
+
+                reader.beginObject();
+
+                while (reader.hasNext()) {
+                    if (reader.nextName().equals("effect")) {
+                        effect = reader.nextString();
                     } else {
-                        includes.put(ani, fileId);
+                        reader.skipValue();
                     }
                 }
+
+                reader.endObject();
+
+                if (effect == null)
+                    throw new JsonParseException("Missing effect for sound keyframe at " + startTick);
+
+                sounds.add(new SoundKeyframeData(startTick, effect));
             }
+
+            reader.endObject();
+
+            return sounds.toArray(new SoundKeyframeData[0]);
         }
 
-        Map<String, Animation> animations = new Object2ObjectOpenHashMap<>(animationJsonList.size());
+        private static ParticleKeyframeData[] readParticles(JsonReader reader) throws IOException {
+            List<ParticleKeyframeData> particles = new ObjectArrayList<>();
 
-        for (Map.Entry<String, JsonElement> entry : animationJsonList.entrySet()) {
-            try {
-                animations.put(
-                        entry.getKey(),
-                        bakeAnimation(entry.getKey(), entry.getValue().getAsJsonObject(), context)
-                );
-            } catch (MolangException ex) {
-                AzureLib.LOGGER.error("Unable to parse animation: {}", entry.getKey());
-                ex.printStackTrace();
+            reader.beginObject();
+
+            while (reader.hasNext()) {
+                double startTick = Double.parseDouble(reader.nextName()) * 20d;
+                String effect = "";
+                String locator = "";
+                String script = "";
+
+                reader.beginObject();
+
+                while (reader.hasNext()) {
+                    switch (reader.nextName()) {
+                        case "effect" -> effect = reader.nextString();
+                        case "locator" -> locator = reader.nextString();
+                        case "pre_effect_script" -> script = reader.nextString();
+                        default -> reader.skipValue();
+                    }
+                }
+
+                reader.endObject();
+
+                particles.add(new ParticleKeyframeData(startTick, effect, locator, script));
             }
+
+            reader.endObject();
+
+            return particles.toArray(new ParticleKeyframeData[0]);
         }
 
-        return new BakedAnimations(animations, includes);
-    }
+        private static CustomInstructionKeyframeData[] readCustomInstructions(JsonReader reader) throws IOException {
+            List<CustomInstructionKeyframeData> customInstructions = new ObjectArrayList<>();
 
-    private Animation bakeAnimation(
-            String name,
-            JsonObject animationObj,
-            JsonDeserializationContext context
-    ) throws MolangException {
-        double length = animationObj.has("animation_length")
-                ? GsonHelper.getAsDouble(animationObj, "animation_length") * 20d
-                : -1;
-        Animation.LoopType loopType = Animation.LoopType.fromJson(animationObj.get("loop"));
-        BoneAnimation[] boneAnimations = bakeBoneAnimations(
-                GsonHelper.getAsJsonObject(animationObj, "bones", new JsonObject())
-        );
-        Animation.Keyframes keyframes = context.deserialize(animationObj, Animation.Keyframes.class);
-
-        if (length == -1)
-            length = calculateAnimationLength(boneAnimations);
-
-        return new Animation(name, length, loopType, boneAnimations, keyframes);
-    }
+            reader.beginObject();
 
-    private BoneAnimation[] bakeBoneAnimations(JsonObject bonesObj) throws MolangException {
-        BoneAnimation[] animations = new BoneAnimation[bonesObj.size()];
-        int index = 0;
+            while (reader.hasNext()) {
+                double startTick = Double.parseDouble(reader.nextName()) * 20d;
+                String instructions = switch (reader.peek()) {
+                    case BEGIN_ARRAY -> JsonUtil.GEO_GSON.fromJson(reader, ObjectArrayList.class).toString();
+                    case STRING, NUMBER, BOOLEAN -> reader.nextString();
+                    default -> {
+                        reader.skipValue();
 
-        for (Map.Entry<String, JsonElement> entry : bonesObj.entrySet()) {
-            JsonObject entryObj = entry.getValue().getAsJsonObject();
-            KeyframeStack<Keyframe<IValue>> scaleFrames = buildKeyframeStack(
-                    getTripletObj(entryObj.get("scale")),
-                    false
-            );
-            KeyframeStack<Keyframe<IValue>> positionFrames = buildKeyframeStack(
-                    getTripletObj(entryObj.get("position")),
-                    false
-            );
-            KeyframeStack<Keyframe<IValue>> rotationFrames = buildKeyframeStack(
-                    getTripletObj(entryObj.get("rotation")),
-                    true
-            );
+                        yield "";
+                    }
+                };
+
+                customInstructions.add(new CustomInstructionKeyframeData(startTick, instructions));
+            }
+
+            reader.endObject();
+
+            return customInstructions.toArray(new CustomInstructionKeyframeData[0]);
+        }
+
+        /**
+         * Read one transformation channel of a bone.<br>
+         * A channel is either a single value or vector applied for the whole animation, or an object of timestamped
+         * keyframes. Keyframes are either a vector, an object holding a {@code vector} and its easing, or a bedrock
+         * {@code pre}/{@code post} keyframe
+         */
+        private KeyframeStack<Keyframe<IValue>> readKeyframeStack(
+                JsonReader reader,
+                boolean isForRotation
+        ) throws IOException {
+            KeyframeStackBuilder builder = new KeyframeStackBuilder(isForRotation);
+
+            switch (reader.peek()) {
+                case BEGIN_ARRAY -> builder.add(0, readVector(reader), EasingType.LINEAR, new ObjectArrayList<>());
+                case BEGIN_OBJECT -> {
+                    reader.beginObject();
+
+                    while (reader.hasNext()) {
+                        String key = reader.nextName();
+
+                        if (key.equals("easing") || key.equals("easingArgs") || key.equals("lerp_mode")) {
+                            reader.skipValue();
+
+                            continue;
+                        }
+
+                        double time = NumberUtils.isCreatable(key) ? Double.parseDouble(key) : 0;
+
+                        switch (reader.peek()) {
+                            case BEGIN_ARRAY -> builder.add(
+                                    time,
+                                    readVector(reader),
+                                    EasingType.LINEAR,
+                                    new ObjectArrayList<>()
+                            );
+                            case BEGIN_OBJECT -> readKeyframe(reader, time, builder);
+                            default -> throw new JsonParseException(
+                                    "Invalid keyframe data - expected array or object at " + reader.getPath()
+                            );
+                        }
+                    }
+
+                    reader.endObject();
+                }
+                case NULL -> reader.nextNull();
+                default -> {
+                    MolangValue value = readValue(reader);
+
+                    builder.add(0, new MolangValue[] {value, value, value}, EasingType.LINEAR, new ObjectArrayList<>());
+                }
+            }
+
+            return builder.build();
+        }
+
+        private void readKeyframe(JsonReader reader, double time, KeyframeStackBuilder builder) throws IOException {
+            MolangValue[] vector = null;
+            MolangValue[] pre = null;
+            MolangValue[] post = null;
+            EasingType easingType = EasingType.LINEAR;
+            List<IValue> easingArgs = new ObjectArrayList<>();
+
+            reader.beginObject();
+
+            while (reader.hasNext()) {
+                switch (reader.nextName()) {
+                    case "vector" -> vector = readVector(reader);
+                    case "easing" -> easingType = readEasingType(reader);
+                    case "easingArgs" -> easingArgs = JsonUtil.readList(
+                            reader,
+                            argReader -> new Constant(argReader.nextDouble())
+                    );
+                    case "pre" -> pre = readBedrockVector(reader);
+                    case "post" -> post = readBedrockVector(reader);
+                    default -> reader.skipValue();
+                }
+            }
+
+            reader.endObject();
+
+            if (vector != null) {
+                builder.add(time, vector, easingType, easingArgs);
+            } else if (pre != null) {
+                builder.add(time, pre, EasingType.LINEAR, new ObjectArrayList<>());
+            } else if (post != null) {
+                builder.add(time, post, EasingType.LINEAR, new ObjectArrayList<>());
+            } else {
+                throw new JsonParseException("Invalid keyframe data - expected vector, pre or post at " + time);
+            }
+        }
+
+        private static EasingType readEasingType(JsonReader reader) throws IOException {
+            if (reader.peek() != JsonToken.STRING) {
+                reader.skipValue();
 
-            animations[index] = new BoneAnimation(entry.getKey(), rotationFrames, positionFrames, scaleFrames);
-            index++;
+                return EasingType.LINEAR;
+            }
+
+            return EasingType.fromString(reader.nextString().toLowerCase(Locale.ROOT));
+        }
+
+        private MolangValue[] readBedrockVector(JsonReader reader) throws IOException {
+            if (reader.peek() == JsonToken.BEGIN_ARRAY)
+                return readVector(reader);
+
+            MolangValue[] vector = null;
+
+            reader.beginObject();
+
+            while (reader.hasNext()) {
+                if (reader.nextName().equals("vector")) {
+                    vector = readVector(reader);
+                } else {
+                    reader.skipValue();
+                }
+            }
+
+            reader.endObject();
+
+            if (vector == null)
+                throw new JsonParseException("Missing vector for bedrock keyframe in animation " + this.name);
+
+            return vector;
+        }
+
+        private MolangValue[] readVector(JsonReader reader) throws IOException {
+            MolangValue[] vector = new MolangValue[3];
+            int index = 0;
+
+            reader.beginArray();
+
+            while (reader.hasNext()) {
+                if (index < 3) {
+                    vector[index] = readValue(reader);
+                } else {
+                    reader.skipValue();
+                }
+
+                index++;
+            }
+
+            reader.endArray();
+
+            if (index < 3)
+                throw new JsonParseException("Invalid keyframe vector - expected 3 values, found " + index);
+
+            return vector;
         }
 
-        return animations;
+        private MolangValue readValue(JsonReader reader) throws IOException {
+            if (reader.peek() == JsonToken.NUMBER)
+                return new MolangValue(new Constant(reader.nextDouble()));
+
+            JsonElement element = reader.peek() == JsonToken.STRING
+                    ? new JsonPrimitive(reader.nextString())
+                    : JsonUtil.GEO_GSON.fromJson(reader, JsonElement.class);
+
+            try {
+                return MolangParser.parseJson(element);
+            } catch (MolangException ex) {
+                if (this.error == null)
+                    this.error = ex;
+
+                return MolangParser.ZERO;
+            }
+        }
     }
 
-    private KeyframeStack<Keyframe<IValue>> buildKeyframeStack(
-            List<Pair<String, JsonElement>> entries,
-            boolean isForRotation
-    ) throws MolangException {
-        if (entries.isEmpty())
-            return new KeyframeStack<>();
+    /**
+     * Accumulates the keyframes of a transformation channel as they are read, linking each keyframe to the end value
+     * of the one before it
+     */
+    private static final class KeyframeStackBuilder {
 
-        List<Keyframe<IValue>> xFrames = new ObjectArrayList<>();
-        List<Keyframe<IValue>> yFrames = new ObjectArrayList<>();
-        List<Keyframe<IValue>> zFrames = new ObjectArrayList<>();
+        private final boolean isForRotation;
 
-        IValue xPrev = null;
-        IValue yPrev = null;
-        IValue zPrev = null;
-        Pair<String, JsonElement> prevEntry = null;
+        private final List<Keyframe<IValue>> xFrames = new ObjectArrayList<>();
 
-        for (Pair<String, JsonElement> entry : entries) {
-            String key = entry.getFirst();
-            JsonElement element = entry.getSecond();
+        private final List<Keyframe<IValue>> yFrames = new ObjectArrayList<>();
 
-            if (key.equals("easing") || key.equals("easingArgs") || key.equals("lerp_mode"))
-                continue;
+        private final List<Keyframe<IValue>> zFrames = new ObjectArrayList<>();
 
-            double prevTime = prevEntry != null ? Double.parseDouble(prevEntry.getFirst()) : 0;
-            double curTime = NumberUtils.isCreatable(key) ? Double.parseDouble(entry.getFirst()) : 0;
-            double timeDelta = curTime - prevTime;
-
-            JsonArray keyFrameVector = element instanceof JsonArray array
-                    ? array
-                    : GsonHelper.getAsJsonArray(element.getAsJsonObject(), "vector");
-            MolangValue rawXValue = MolangParser.parseJson(keyFrameVector.get(0));
-            MolangValue rawYValue = MolangParser.parseJson(keyFrameVector.get(1));
-            MolangValue rawZValue = MolangParser.parseJson(keyFrameVector.get(2));
-            IValue xValue = isForRotation && rawXValue.isConstant()
-                    ? new Constant(Math.toRadians(-rawXValue.get()))
-                    : rawXValue;
-            IValue yValue = isForRotation && rawYValue.isConstant()
-                    ? new Constant(Math.toRadians(-rawYValue.get()))
-                    : rawYValue;
-            IValue zValue = isForRotation && rawZValue.isConstant()
-                    ? new Constant(Math.toRadians(rawZValue.get()))
-                    : rawZValue;
-
-            JsonObject entryObj = element instanceof JsonObject obj ? obj : null;
-            EasingType easingType = entryObj != null && entryObj.has("easing")
-                    ? EasingType.fromJson(entryObj.get("easing"))
-                    : EasingType.LINEAR;
-            List<IValue> easingArgs = entryObj != null && entryObj.has("easingArgs")
-                    ? JsonUtil.jsonArrayToList(
-                    GsonHelper.getAsJsonArray(entryObj, "easingArgs"),
-                    ele -> new Constant(ele.getAsDouble())
-            )
-                    : new ObjectArrayList<>();
-
-            xFrames.add(
-                    new Keyframe<>(timeDelta * 20, prevEntry == null ? xValue : xPrev, xValue, easingType, easingArgs)
-            );
-            yFrames.add(
-                    new Keyframe<>(timeDelta * 20, prevEntry == null ? yValue : yPrev, yValue, easingType, easingArgs)
-            );
-            zFrames.add(
-                    new Keyframe<>(timeDelta * 20, prevEntry == null ? zValue : zPrev, zValue, easingType, easingArgs)
-            );
+        private double prevTime = 0;
+
+        private IValue xPrev = null;
+
+        private IValue yPrev = null;
 
-            xPrev = xValue;
-            yPrev = yValue;
-            zPrev = zValue;
-            prevEntry = entry;
+        private IValue zPrev = null;
+
+        private KeyframeStackBuilder(boolean isForRotation) {
+            this.isForRotation = isForRotation;
+        }
+
+        private void add(double time, MolangValue[] vector, EasingType easingType, List<IValue> easingArgs) {
+            double length = (time - this.prevTime) * 20;
+            IValue xValue = this.isForRotation && vector[0].isConstant()
+                    ? new Constant(Math.toRadians(-vector[0].get()))
+                    : vector[0];
+            IValue yValue = this.isForRotation && vector[1].isConstant()
+                    ? new Constant(Math.toRadians(-vector[1].get()))
+                    : vector[1];
+            IValue zValue = this.isForRotation && vector[2].isConstant()
+                    ? new Constant(Math.toRadians(vector[2].get()))
+                    : vector[2];
+            boolean first = this.xFrames.isEmpty();
+
+            this.xFrames.add(new Keyframe<>(length, first ? xValue : this.xPrev, xValue, easingType, easingArgs));
+            this.yFrames.add(new Keyframe<>(length, first ? yValue : this.yPrev, yValue, easingType, easingArgs));
+            this.zFrames.add(new Keyframe<>(length, first ? zValue : this.zPrev, zValue, easingType, easingArgs));
+
+            this.xPrev = xValue;
+            this.yPrev = yValue;
+            this.zPrev = zValue;
+            this.prevTime = time;
         }
 
-        return new KeyframeStack<>(xFrames, yFrames, zFrames);
+        private KeyframeStack<Keyframe<IValue>> build() {
+            if (this.xFrames.isEmpty())
+                return new KeyframeStack<>();
+
+            return new KeyframeStack<>(this.xFrames, this.yFrames, this.zFrames);
+        }
     }
 }
@@ -1,105 +0,0 @@
-/**
- * This class is a fork of the matching class found in the Geckolib repository.
- * Original source: https://github.com/bernie-g/geckolib
- * Copyright © 2024 Bernie-G.
- * Licensed under the MIT License.
- * https://github.com/bernie-g/geckolib/blob/main/LICENSE
- */
-package mod.azure.azurelib.common.internal.common.loading.json.typeadapter;
-
-import com.google.gson.*;
-import it.unimi.dsi.fastutil.objects.ObjectArrayList;
-import mod.azure.azurelib.common.internal.common.util.JsonUtil;
-import mod.azure.azurelib.core.animation.Animation;
-import mod.azure.azurelib.core.keyframe.event.data.CustomInstructionKeyframeData;
-import mod.azure.azurelib.core.keyframe.event.data.ParticleKeyframeData;
-import mod.azure.azurelib.core.keyframe.event.data.SoundKeyframeData;
-import net.minecraft.util.GsonHelper;
-
-import java.lang.reflect.Type;
-import java.util.Map;
-
-/**
- * {@link Gson} {@link JsonDeserializer} for {@link Animation.Keyframes}.<br>
- * Acts as the deserialization interface for {@code Keyframes}
- */
-public class KeyFramesAdapter implements JsonDeserializer<Animation.Keyframes> {
-
-    private static SoundKeyframeData[] buildSoundFrameData(JsonObject rootObj) {
-        JsonObject soundsObj = GsonHelper.getAsJsonObject(rootObj, "sound_effects", new JsonObject());
-        SoundKeyframeData[] sounds = new SoundKeyframeData[soundsObj.size()];
-        int index = 0;
-
-        for (Map.Entry<String, JsonElement> entry : soundsObj.entrySet()) {
-            sounds[index] = new SoundKeyframeData(
-                    Double.parseDouble(entry.getKey()) * 20d,
-                    GsonHelper.getAsString(entry.getValue().getAsJsonObject(), "effect")
-            );
-            index++;
-        }
-
-        return sounds;
-    }
-
-    private static ParticleKeyframeData[] buildParticleFrameData(JsonObject rootObj) {
-        JsonObject particlesObj = GsonHelper.getAsJsonObject(rootObj, "particle_effects", new JsonObject());
-        ParticleKeyframeData[] particles = new ParticleKeyframeData[particlesObj.size()];
-        int index = 0;
-
-        for (Map.Entry<String, JsonElement> entry : particlesObj.entrySet()) {
-            JsonObject obj = entry.getValue().getAsJsonObject();
-            String effect = GsonHelper.getAsString(obj, "effect", "");
-            String locator = GsonHelper.getAsString(obj, "locator", "");
-            String script = GsonHelper.getAsString(obj, "pre_effect_script", "");
-
-            particles[index] = new ParticleKeyframeData(
-                    Double.parseDouble(entry.getKey()) * 20d,
-                    effect,
-                    locator,
-                    script
-            );
-            index++;
-        }
-
-        return particles;
-    }
-
-    private static CustomInstructionKeyframeData[] buildCustomFrameData(JsonObject rootObj) {
-        JsonObject customInstructionsObj = GsonHelper.getAsJsonObject(rootObj, "timeline", new JsonObject());
-        CustomInstructionKeyframeData[] customInstructions = new CustomInstructionKeyframeData[customInstructionsObj
-                .size()];
-        int index = 0;
-
-        for (Map.Entry<String, JsonElement> entry : customInstructionsObj.entrySet()) {
-            String instructions = "";
-
-            if (entry.getValue() instanceof JsonArray array) {
-                instructions = JsonUtil.GEO_GSON.fromJson(array, ObjectArrayList.class).toString();
-            } else if (entry.getValue() instanceof JsonPrimitive primitive) {
-                instructions = primitive.getAsString();
-            }
-
-            customInstructions[index] = new CustomInstructionKeyframeData(
-                    Double.parseDouble(entry.getKey()) * 20d,
-                    instructions
-            );
-            index++;
-        }
-
-        return customInstructions;
-    }
-
-    @Override
-    public Animation.Keyframes deserialize(
-            JsonElement json,
-            Type type,
-            JsonDeserializationContext context
-    ) throws JsonParseException {
-        JsonObject obj = json.getAsJsonObject();
-        SoundKeyframeData[] sounds = buildSoundFrameData(obj);
-        ParticleKeyframeData[] particles = buildParticleFrameData(obj);
-        CustomInstructionKeyframeData[] customInstructions = buildCustomFrameData(obj);
-
-        return new Animation.Keyframes(sounds, particles, customInstructions);
-    }
-}
@@ -0,0 +1,312 @@
+package mod.azure.azurelib.common.internal.common.loading.json.typeadapter;
+
+import com.google.gson.JsonParseException;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+import it.unimi.dsi.fastutil.objects.Object2ObjectOpenHashMap;
+import mod.azure.azurelib.common.internal.common.loading.json.FormatVersion;
+import mod.azure.azurelib.common.internal.common.loading.json.raw.*;
+import mod.azure.azurelib.common.internal.common.util.JsonUtil;
+
+import java.io.IOException;
+import java.util.Map;
+
+/**
+ * Streaming {@link TypeAdapter} for the {@link Model} format.<br>
+ * Reads a geo model json directly into its {@code Model} representation in a single pass, without building an
+ * intermediate {@link com.google.gson.JsonObject} tree for the file.<br>
+ * Rarely-used sections (locators, poly meshes and texture meshes) are handed to their respective
+ * {@link com.google.gson.JsonDeserializer deserializers}.
+ */
+public class ModelAdapter extends TypeAdapter<Model> {
+
+    @Override
+    public void write(JsonWriter writer, Model model) {
+        throw new UnsupportedOperationException("Serializing geo models is not supported");
+    }
+
+    @Override
+    public Model read(JsonReader reader) throws IOException {
+        FormatVersion formatVersion = null;
+        MinecraftGeometry[] minecraftGeometry = new MinecraftGeometry[0];
+
+        reader.beginObject();
+
+        while (reader.hasNext()) {
+            switch (reader.nextName()) {
+                case "format_version" -> formatVersion = JsonUtil.GEO_GSON.fromJson(reader, FormatVersion.class);
+                case "minecraft:geometry" -> minecraftGeometry = JsonUtil.readList(reader, ModelAdapter::readGeometry)
+                        .toArray(new MinecraftGeometry[0]);
+                default -> reader.skipValue();
+            }
+        }
+
+        reader.endObject();
+
+        return new Model(formatVersion, minecraftGeometry);
+    }
+
+    private static MinecraftGeometry readGeometry(JsonReader reader) throws IOException {
+        Bone[] bones = new Bone[0];
+        String cape = null;
+        ModelProperties modelProperties = null;
+
+        reader.beginObject();
+
+        while (reader.hasNext()) {
+            switch (reader.nextName()) {
+                case "bones" -> bones = JsonUtil.readList(reader, ModelAdapter::readBone).toArray(new Bone[0]);
+                case "cape" -> cape = JsonUtil.readOptionalString(reader);
+                case "description" -> modelProperties = readModelProperties(reader);
+                default -> reader.skipValue();
+            }
+        }
+
+        reader.endObject();
+
+        return new MinecraftGeometry(bones, cape, modelProperties);
+    }
+
+    private static ModelProperties readModelProperties(JsonReader reader) throws IOException {
+        Boolean animationArmsDown = null;
+        Boolean animationArmsOutFront = null;
+        Boolean animationDontShowArmor = null;
+        Boolean animationInvertedCrouch = null;
+        Boolean animationNoHeadBob = null;
+        Boolean animationSingleArmAnimation = null;
+        Boolean animationSingleLegAnimation = null;
+        Boolean animationStationaryLegs = null;
+        Boolean animationStatueOfLibertyArms = null;
+        Boolean animationUpsideDown = null;
+        String identifier = null;
+        Boolean preserveModelPose = null;
+        Double textureHeight = null;
+        Double textureWidth = null;
+        Double visibleBoundsHeight = null;
+        double[] visibleBoundsOffset = new double[3];
+        Double visibleBoundsWidth = null;
+
+        reader.beginObject();
+
+        while (reader.hasNext()) {
+            switch (reader.nextName()) {
+                case "animationArmsDown" -> animationArmsDown = JsonUtil.readOptionalBoolean(reader);
+                case "animationArmsOutFront" -> animationArmsOutFront = JsonUtil.readOptionalBoolean(reader);
+                case "animationDontShowArmor" -> animationDontShowArmor = JsonUtil.readOptionalBoolean(reader);
+                case "animationInvertedCrouch" -> animationInvertedCrouch = JsonUtil.readOptionalBoolean(reader);
+                case "animationNoHeadBob" -> animationNoHeadBob = JsonUtil.readOptionalBoolean(reader);
+                case "animationSingleArmAnimation" -> animationSingleArmAnimation = JsonUtil.readOptionalBoolean(
+                        reader
+                );
+                case "animationSingleLegAnimation" -> animationSingleLegAnimation = JsonUtil.readOptionalBoolean(
+                        reader
+                );
+                case "animationStationaryLegs" -> animationStationaryLegs = JsonUtil.readOptionalBoolean(reader);
+                case "animationStatueOfLibertyArms" -> animationStatueOfLibertyArms = JsonUtil.readOptionalBoolean(
+                        reader
+                );
+                case "animationUpsideDown" -> animationUpsideDown = JsonUtil.readOptionalBoolean(reader);
+                case "identifier" -> identifier = JsonUtil.readOptionalString(reader);
+                case "preserve_model_pose" -> preserveModelPose = JsonUtil.readOptionalBoolean(reader);
+                case "texture_height" -> textureHeight = JsonUtil.readOptionalDouble(reader);
+                case "texture_width" -> textureWidth = JsonUtil.readOptionalDouble(reader);
+                case "visible_bounds_height" -> visibleBoundsHeight = JsonUtil.readOptionalDouble(reader);
+                case "visible_bounds_offset" -> visibleBoundsOffset = JsonUtil.readDoubleArray(reader);
+                case "visible_bounds_width" -> visibleBoundsWidth = JsonUtil.readOptionalDouble(reader);
+                default -> reader.skipValue();
+            }
+        }
+
+        reader.endObject();
+
+        if (textureHeight == null || textureWidth == null)
+            throw new JsonParseException("Missing texture_height or texture_width in geometry description");
+
+        return new ModelProperties(
+                animationArmsDown,
+                animationArmsOutFront,
+                animationDontShowArmor,
+                animationInvertedCrouch,
+                animationNoHeadBob,
+                animationSingleArmAnimation,
+                animationSingleLegAnimation,
+                animationStationaryLegs,
+                animationStatueOfLibertyArms,
+                animationUpsideDown,
+                identifier,
+                preserveModelPose,
+                textureHeight,
+                textureWidth,
+                visibleBoundsHeight,
+                visibleBoundsOffset,
+                visibleBoundsWidth
+        );
+    }
+
+    private static Bone readBone(JsonReader reader) throws IOException {
+        double[] bindPoseRotation = new double[3];
+        Cube[] cubes = new Cube[0];
+        Boolean debug = null;
+        Double inflate = null;
+        Map<String, LocatorValue> locators = null;
+        Boolean mirror = null;
+        String name = null;
+        Boolean neverRender = null;
+        String parent = null;
+        double[] pivot = new double[0];
+        PolyMesh polyMesh = null;
+        Long renderGroupId = null;
+        Boolean reset = null;
+        double[] rotation = new double[3];
+        TextureMesh[] textureMeshes = new TextureMesh[0];
+
+        reader.beginObject();
+
+        while (reader.hasNext()) {
+            switch (reader.nextName()) {
+                case "bind_pose_rotation" -> bindPoseRotation = JsonUtil.readDoubleArray(reader);
+                case "cubes" -> cubes = JsonUtil.readList(reader, ModelAdapter::readCube).toArray(new Cube[0]);
+                case "debug" -> debug = JsonUtil.readOptionalBoolean(reader);
+                case "inflate" -> inflate = JsonUtil.readOptionalDouble(reader);
+                case "locators" -> locators = readLocators(reader);
+                case "mirror" -> mirror = JsonUtil.readOptionalBoolean(reader);
+                case "name" -> name = JsonUtil.readOptionalString(reader);
+                case "neverRender" -> neverRender = JsonUtil.readOptionalBoolean(reader);
+                case "parent" -> parent = JsonUtil.readOptionalString(reader);
+                case "pivot" -> pivot = JsonUtil.readDoubleArray(reader);
+                case "poly_mesh" -> polyMesh = JsonUtil.GEO_GSON.fromJson(reader, PolyMesh.class);
+                case "render_group_id" -> renderGroupId = JsonUtil.readOptionalLong(reader);
+                case "reset" -> reset = JsonUtil.readOptionalBoolean(reader);
+                case "rotation" -> rotation = JsonUtil.readDoubleArray(reader);
+                case "texture_meshes" -> textureMeshes = JsonUtil.readList(
+                        reader,
+                        meshReader -> JsonUtil.GEO_GSON.<TextureMesh>fromJson(meshReader, TextureMesh.class)
+                ).toArray(new TextureMesh[0]);
+                default -> reader.skipValue();
+            }
+        }
+
+        reader.endObject();
+
+        return new Bone(
+                bindPoseRotation,
+                cubes,
+                debug,
+                inflate,
+                locators,
+                mirror,
+                name,
+                neverRender,
+                parent,
+                pivot,
+                polyMesh,
+                renderGroupId,
+                reset,
+                rotation,
+                textureMeshes
+        );
+    }
+
+    private static Map<String, LocatorValue> readLocators(JsonReader reader) throws IOException {
+        Map<String, LocatorValue> locators = new Object2ObjectOpenHashMap<>();
+
+        reader.beginObject();
+
+        while (reader.hasNext()) {
+            locators.put(reader.nextName(), JsonUtil.GEO_GSON.fromJson(reader, LocatorValue.class));
+        }
+
+        reader.endObject();
+
+        return locators;
+    }
+
+    private static Cube readCube(JsonReader reader) throws IOException {
+        Double inflate = null;
+        Boolean mirror = null;
+        double[] origin = new double[3];
+        double[] pivot = new double[3];
+        double[] rotation = new double[3];
+        double[] size = new double[3];
+        UVUnion uvUnion = null;
+
+        reader.beginObject();
+
+        while (reader.hasNext()) {
+            switch (reader.nextName()) {
+                case "inflate" -> inflate = JsonUtil.readOptionalDouble(reader);
+                case "mirror" -> mirror = JsonUtil.readOptionalBoolean(reader);
+                case "origin" -> origin = JsonUtil.readDoubleArray(reader);
+                case "pivot" -> pivot = JsonUtil.readDoubleArray(reader);
+                case "rotation" -> rotation = JsonUtil.readDoubleArray(reader);
+                case "size" -> size = JsonUtil.readDoubleArray(reader);
+                case "uv" -> uvUnion = readUVUnion(reader);
+                default -> reader.skipValue();
+            }
+        }
+
+        reader.endObject();
+
+        return new Cube(inflate, mirror, origin, pivot, rotation, size, uvUnion);
+    }
+
+    private static UVUnion readUVUnion(JsonReader reader) throws IOException {
+        JsonToken token = reader.peek();
+
+        if (token == JsonToken.BEGIN_ARRAY)
+            return new UVUnion(JsonUtil.readDoubleArray(reader), null, true);
+
+        if (token != JsonToken.BEGIN_OBJECT)
+            throw new JsonParseException(
+                    "Invalid format provided for UVUnion, must be either double array or UVFaces collection"
+            );
+
+        FaceUV north = null;
+        FaceUV south = null;
+        FaceUV east = null;
+        FaceUV west = null;
+        FaceUV up = null;
+        FaceUV down = null;
+
+        reader.beginObject();
+
+        while (reader.hasNext()) {
+            switch (reader.nextName()) {
+                case "north" -> north = readFaceUV(reader);
+                case "south" -> south = readFaceUV(reader);
+                case "east" -> east = readFaceUV(reader);
+                case "west" -> west = readFaceUV(reader);
+                case "up" -> up = readFaceUV(reader);
+                case "down" -> down = readFaceUV(reader);
+                default -> reader.skipValue();
+            }
+        }
+
+        reader.endObject();
+
+        return new UVUnion(new double[0], new UVFaces(north, south, east, west, up, down), false);
+    }
+
+    private static FaceUV readFaceUV(JsonReader reader) throws IOException {
+        String materialInstance = null;
+        double[] uv = new double[3];
+        double[] uvSize = new double[3];
+
+        reader.beginObject();
+
+        while (reader.hasNext()) {
+            switch (reader.nextName()) {
+                case "material_instance" -> materialInstance = JsonUtil.readOptionalString(reader);
+                case "uv" -> uv = JsonUtil.readDoubleArray(reader);
+                case "uv_size" -> uvSize = JsonUtil.readDoubleArray(reader);
+                default -> reader.skipValue();
+            }
+        }
+
+        reader.endObject();
+
+        return new FaceUV(materialInstance, uv, uvSize);
+    }
+}
@@ -16,6 +16,8 @@ import mod.azure.azurelib.common.internal.common.util.AzureLibUtil;
 import net.minecraft.core.Direction;
 import net.minecraft.world.phys.Vec3;
 import org.jetbrains.annotations.Nullable;
+import org.joml.Quaternionf;
+import org.joml.Vector3f;
 
 import java.util.List;
 import java.util.Map;
@@ -94,6 +96,44 @@ public interface BakedModelFactory {
         return quads;
     }
 
+    /**
+     * Bake a cube's rotation around its pivot point into its quads' vertex positions and normals, so that rendering the
+     * cube only needs its bone's transform.<br>
+     * Returns the input quads as-is if the cube isn't rotated
+     *
+     * @param quads    The cube's quads, as built by {@link #buildQuads}
+     * @param pivot    The cube's pivot point, in model units
+     * @param rotation The cube's rotation, in radians
+     */
+    default GeoQuad[] bakeCubeRotation(GeoQuad[] quads, Vec3 pivot, Vec3 rotation) {
+        if (rotation.x == 0 && rotation.y == 0 && rotation.z == 0)
+            return quads;
+
+        Quaternionf quaternion = new Quaternionf().rotationZYX((float) rotation.z, (float) rotation.y, (float) rotation.x);
+        Vector3f pivotPos = new Vector3f((float) pivot.x / 16f, (float) pivot.y / 16f, (float) pivot.z / 16f);
+        GeoQuad[] bakedQuads = new GeoQuad[quads.length];
+
+        for (int i = 0; i < quads.length; i++) {
+            GeoQuad quad = quads[i];
+
+            if (quad == null)
+                continue;
+
+            GeoVertex[] vertices = new GeoVertex[quad.vertices().length];
+
+            for (int j = 0; j < vertices.length; j++) {
+                GeoVertex vertex = quad.vertices()[j];
+                Vector3f position = new Vector3f(vertex.position()).sub(pivotPos).rotate(quaternion).add(pivotPos);
+
+                vertices[j] = new GeoVertex(position, vertex.texU(), vertex.texV());
+            }
+
+            bakedQuads[i] = new GeoQuad(vertices, new Vector3f(quad.normal()).rotate(quaternion), quad.direction());
+        }
+
+        return bakedQuads;
+    }
+
     /**
      * Build an individual quad
      */
@@ -233,7 +273,7 @@ public interface BakedModelFactory {
                     mirror
             );
 
-            return new GeoCube(quads, pivot, rotation, size, inflate, mirror);
+            return new GeoCube(bakeCubeRotation(quads, pivot, rotation), pivot, rotation, size, inflate, mirror, true);
         }
     }
 
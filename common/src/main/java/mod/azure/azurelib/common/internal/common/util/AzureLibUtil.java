@@ -1,5 +1,6 @@
 package mod.azure.azurelib.common.internal.common.util;
 
+import mod.azure.azurelib.common.internal.common.cache.AzureLibCache;
 import mod.azure.azurelib.common.internal.common.constant.DataTickets;
 import mod.azure.azurelib.common.internal.common.loading.object.BakedModelFactory;
 import mod.azure.azurelib.common.internal.common.network.SerializableDataTicket;
@@ -96,6 +97,18 @@ public record AzureLibUtil() {
         BakedModelFactory.register(namespace, factory);
     }
 
+    /**
+     * Exclude a namespace from having its geo models and animations loaded by AzureLib.<br>
+     * Use this for namespaces whose {@code geo/} and {@code animations/} resources are meant for a different animation
+     * library, so that they're skipped before being read.<br>
+     * <b><u>MUST be called during mod construct</u></b><br>
+     *
+     * @param namespace The namespace (modid) to exclude
+     */
+    public static synchronized void addExcludedNamespace(String namespace) {
+        AzureLibCache.addExcludedNamespace(namespace);
+    }
+
     /**
      * Register a custom {@link SerializableDataTicket} with AzureLib for handling custom data transmission.<br>
      * NOTE: You do not need to register non-serializable {@link DataTicket DataTickets}.
@@ -8,16 +8,19 @@
 package mod.azure.azurelib.common.internal.common.util;
 
 import com.google.gson.*;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import it.unimi.dsi.fastutil.doubles.DoubleArrayList;
 import it.unimi.dsi.fastutil.objects.Object2ObjectOpenHashMap;
 import it.unimi.dsi.fastutil.objects.ObjectArrayList;
 import mod.azure.azurelib.common.internal.common.loading.json.raw.*;
 import mod.azure.azurelib.common.internal.common.loading.json.typeadapter.BakedAnimationsAdapter;
-import mod.azure.azurelib.common.internal.common.loading.json.typeadapter.KeyFramesAdapter;
+import mod.azure.azurelib.common.internal.common.loading.json.typeadapter.ModelAdapter;
 import mod.azure.azurelib.common.internal.common.loading.object.BakedAnimations;
-import mod.azure.azurelib.core.animation.Animation;
 import net.minecraft.util.GsonHelper;
 import org.jetbrains.annotations.Nullable;
 
+import java.io.IOException;
 import java.lang.reflect.Array;
 import java.util.List;
 import java.util.Map;
@@ -29,20 +32,12 @@ import java.util.function.Function;
 public record JsonUtil() {
 
     public static final Gson GEO_GSON = new GsonBuilder().setLenient()
-            .registerTypeAdapter(Bone.class, Bone.deserializer())
-            .registerTypeAdapter(Cube.class, Cube.deserializer())
-            .registerTypeAdapter(FaceUV.class, FaceUV.deserializer())
             .registerTypeAdapter(LocatorClass.class, LocatorClass.deserializer())
             .registerTypeAdapter(LocatorValue.class, LocatorValue.deserializer())
-            .registerTypeAdapter(MinecraftGeometry.class, MinecraftGeometry.deserializer())
-            .registerTypeAdapter(Model.class, Model.deserializer())
-            .registerTypeAdapter(ModelProperties.class, ModelProperties.deserializer())
+            .registerTypeAdapter(Model.class, new ModelAdapter())
             .registerTypeAdapter(PolyMesh.class, PolyMesh.deserializer())
             .registerTypeAdapter(PolysUnion.class, PolysUnion.deserializer())
             .registerTypeAdapter(TextureMesh.class, TextureMesh.deserializer())
-            .registerTypeAdapter(UVFaces.class, UVFaces.deserializer())
-            .registerTypeAdapter(UVUnion.class, UVUnion.deserializer())
-            .registerTypeAdapter(Animation.Keyframes.class, new KeyFramesAdapter())
             .registerTypeAdapter(BakedAnimations.class, new BakedAnimationsAdapter())
             .create();
 
@@ -168,4 +163,115 @@ public record JsonUtil() {
     public static Integer getOptionalInteger(JsonObject obj, String elementName) {
         return obj.has(elementName) ? GsonHelper.getAsInt(obj, elementName) : null;
     }
+
+    /**
+     * Read a json array of doubles from the provided {@link JsonReader} into a {@code double[]}.<br>
+     * Streaming equivalent of {@link #jsonArrayToDoubleArray}, returning an array of size 3 if the value is null
+     */
+    public static double[] readDoubleArray(JsonReader reader) throws IOException {
+        if (reader.peek() == JsonToken.NULL) {
+            reader.nextNull();
+
+            return new double[3];
+        }
+
+        DoubleArrayList values = new DoubleArrayList(3);
+
+        reader.beginArray();
+
+        while (reader.hasNext()) {
+            values.add(reader.nextDouble());
+        }
+
+        reader.endArray();
+
+        return values.toDoubleArray();
+    }
+
+    /**
+     * Read a json array from the provided {@link JsonReader} into a {@link List}, reading each element with the
+     * provided element reader
+     */
+    public static <T> List<T> readList(JsonReader reader, ElementReader<T> elementReader) throws IOException {
+        List<T> list = new ObjectArrayList<>();
+
+        reader.beginArray();
+
+        while (reader.hasNext()) {
+            list.add(elementReader.read(reader));
+        }
+
+        reader.endArray();
+
+        return list;
+    }
+
+    /**
+     * Read a nullable Boolean from the provided {@link JsonReader}, accepting both boolean and string values
+     */
+    @Nullable
+    public static Boolean readOptionalBoolean(JsonReader reader) throws IOException {
+        return switch (reader.peek()) {
+            case NULL -> {
+                reader.nextNull();
+
+                yield null;
+            }
+            case STRING -> Boolean.parseBoolean(reader.nextString());
+            default -> reader.nextBoolean();
+        };
+    }
+
+    /**
+     * Read a nullable Double from the provided {@link JsonReader}
+     */
+    @Nullable
+    public static Double readOptionalDouble(JsonReader reader) throws IOException {
+        if (reader.peek() == JsonToken.NULL) {
+            reader.nextNull();
+
+            return null;
+        }
+
+        return reader.nextDouble();
+    }
+
+    /**
+     * Read a nullable Long from the provided {@link JsonReader}
+     */
+    @Nullable
+    public static Long readOptionalLong(JsonReader reader) throws IOException {
+        if (reader.peek() == JsonToken.NULL) {
+            reader.nextNull();
+
+            return null;
+        }
+
+        return reader.nextLong();
+    }
+
+    /**
+     * Read a nullable String from the provided {@link JsonReader}, accepting any primitive value
+     */
+    @Nullable
+    public static String readOptionalString(JsonReader reader) throws IOException {
+        return switch (reader.peek()) {
+            case NULL -> {
+                reader.nextNull();
+
+                yield null;
+            }
+            case BOOLEAN -> String.valueOf(reader.nextBoolean());
+            default -> reader.nextString();
+        };
+    }
+
+    /**
+     * Functional interface for reading a single value from a {@link JsonReader}
+     */
+    @FunctionalInterface
+    public interface ElementReader<T> {
+
+        T read(JsonReader reader) throws IOException;
+    }
 }
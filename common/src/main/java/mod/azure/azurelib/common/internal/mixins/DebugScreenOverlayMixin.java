@@ -0,0 +1,28 @@
+package mod.azure.azurelib.common.internal.mixins;
+
+import mod.azure.azurelib.common.internal.client.animation.AnimationLod;
+import mod.azure.azurelib.common.internal.client.renderer.skinned.InstancedGeoRenderer;
+import net.minecraft.client.gui.components.DebugScreenOverlay;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.Unique;
+import org.spongepowered.asm.mixin.injection.At;
+import org.spongepowered.asm.mixin.injection.Inject;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfoReturnable;
+
+import java.util.List;
+
+@Mixin(DebugScreenOverlay.class)
+public abstract class DebugScreenOverlayMixin {
+
+    @Inject(method = "getGameInformation", at = @At("RETURN"))
+    private void addRenderStats(CallbackInfoReturnable<List<String>> callback) {
+        addIfPresent(callback.getReturnValue(), InstancedGeoRenderer.getLastFrameStats());
+        addIfPresent(callback.getReturnValue(), AnimationLod.getLastFrameStats());
+    }
+
+    @Unique
+    private static void addIfPresent(List<String> lines, String stats) {
+        if (!stats.isEmpty())
+            lines.add(stats);
+    }
+}
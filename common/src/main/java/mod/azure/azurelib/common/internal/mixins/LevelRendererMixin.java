@@ -0,0 +1,62 @@
+package mod.azure.azurelib.common.internal.mixins;
+
+import mod.azure.azurelib.common.internal.client.animation.AnimationLod;
+import mod.azure.azurelib.common.internal.client.animation.ParallelAnimationEvaluator;
+import mod.azure.azurelib.common.internal.client.renderer.skinned.InstancedGeoRenderer;
+import net.minecraft.client.Camera;
+import net.minecraft.client.DeltaTracker;
+import net.minecraft.client.renderer.GameRenderer;
+import net.minecraft.client.renderer.LevelRenderer;
+import net.minecraft.client.renderer.LightTexture;
+import org.joml.Matrix4f;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.injection.At;
+import org.spongepowered.asm.mixin.injection.Inject;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
+
+@Mixin(LevelRenderer.class)
+public abstract class LevelRendererMixin {
+
+    @Inject(method = "renderLevel", at = @At("HEAD"))
+    private void evaluateAnimations(
+            DeltaTracker deltaTracker,
+            boolean renderBlockOutline,
+            Camera camera,
+            GameRenderer gameRenderer,
+            LightTexture lightTexture,
+            Matrix4f frustumMatrix,
+            Matrix4f projectionMatrix,
+            CallbackInfo callback
+    ) {
+        AnimationLod.beginFrame();
+        ParallelAnimationEvaluator.evaluateFrame(deltaTracker);
+    }
+
+    @Inject(method = "renderLevel", at = @At(value = "CONSTANT", args = "stringValue=entities"))
+    private void beginInstancedEntities(
+            DeltaTracker deltaTracker,
+            boolean renderBlockOutline,
+            Camera camera,
+            GameRenderer gameRenderer,
+            LightTexture lightTexture,
+            Matrix4f frustumMatrix,
+            Matrix4f projectionMatrix,
+            CallbackInfo callback
+    ) {
+        InstancedGeoRenderer.beginFrame();
+    }
+
+    @Inject(method = "renderLevel", at = @At(value = "CONSTANT", args = "stringValue=blockentities"))
+    private void flushInstancedEntities(
+            DeltaTracker deltaTracker,
+            boolean renderBlockOutline,
+            Camera camera,
+            GameRenderer gameRenderer,
+            LightTexture lightTexture,
+            Matrix4f frustumMatrix,
+            Matrix4f projectionMatrix,
+            CallbackInfo callback
+    ) {
+        InstancedGeoRenderer.flush();
+    }
+}
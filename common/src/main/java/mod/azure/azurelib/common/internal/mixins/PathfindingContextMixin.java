@@ -0,0 +1,31 @@
+package mod.azure.azurelib.common.internal.mixins;
+
+import mod.azure.azurelib.sblforked.api.core.navigation.AsyncPathRequest;
+import net.minecraft.world.entity.Mob;
+import net.minecraft.world.level.CollisionGetter;
+import net.minecraft.world.level.pathfinder.PathTypeCache;
+import net.minecraft.world.level.pathfinder.PathfindingContext;
+import org.jetbrains.annotations.Nullable;
+import org.spongepowered.asm.mixin.Final;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.Mutable;
+import org.spongepowered.asm.mixin.Shadow;
+import org.spongepowered.asm.mixin.injection.At;
+import org.spongepowered.asm.mixin.injection.Inject;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
+
+@Mixin(PathfindingContext.class)
+public abstract class PathfindingContextMixin {
+
+    @Shadow
+    @Final
+    @Mutable
+    @Nullable
+    private PathTypeCache cache;
+
+    @Inject(method = "<init>", at = @At("TAIL"))
+    private void useDetachedPathTypeCache(CollisionGetter level, Mob mob, CallbackInfo callback) {
+        if (level instanceof AsyncPathRequest.DetachedNavigationRegion region)
+            this.cache = region.getPathTypeCache();
+    }
+}
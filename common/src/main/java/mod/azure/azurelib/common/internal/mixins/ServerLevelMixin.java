@@ -0,0 +1,38 @@
+package mod.azure.azurelib.common.internal.mixins;
+
+import mod.azure.azurelib.sblforked.util.BlockChangeTracker;
+import net.minecraft.core.BlockPos;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.world.level.block.state.BlockState;
+import org.jetbrains.annotations.Nullable;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.Unique;
+import org.spongepowered.asm.mixin.injection.At;
+import org.spongepowered.asm.mixin.injection.Inject;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
+
+@Mixin(ServerLevel.class)
+public abstract class ServerLevelMixin implements BlockChangeTracker.TrackedLevel {
+
+    @Unique
+    @Nullable
+    private volatile int[] azurelib$blockVersions;
+
+    @Inject(method = "onBlockStateChange", at = @At("HEAD"))
+    private void trackBlockChange(BlockPos pos, BlockState oldState, BlockState newState, CallbackInfo callback) {
+        int[] versions = this.azurelib$blockVersions;
+
+        if (versions != null)
+            BlockChangeTracker.onBlockChanged(versions, pos);
+    }
+
+    @Override
+    public int[] azurelib$getBlockVersions() {
+        return this.azurelib$blockVersions;
+    }
+
+    @Override
+    public void azurelib$setBlockVersions(int[] versions) {
+        this.azurelib$blockVersions = versions;
+    }
+}
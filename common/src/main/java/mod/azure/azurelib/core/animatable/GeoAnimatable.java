@@ -14,6 +14,7 @@ import mod.azure.azurelib.core.animatable.instance.AnimatableInstanceCache;
 import mod.azure.azurelib.core.animatable.model.CoreGeoBone;
 import mod.azure.azurelib.core.animation.AnimatableManager;
 import mod.azure.azurelib.core.animation.AnimationController;
+import mod.azure.azurelib.core.animation.AnimationLodPolicy;
 import mod.azure.azurelib.core.animation.AnimationProcessor;
 import org.jetbrains.annotations.Nullable;
 
@@ -82,6 +83,19 @@ public interface GeoAnimatable {
      */
     double getTick(Object object);
 
+    /**
+     * Override the {@link AnimationLodPolicy} used to decide how often this animatable's animations are evaluated at a
+     * distance.<br>
+     * Return {@link AnimationLodPolicy#FULL_RATE} for animatables that must always animate at full rate, such as those
+     * with gameplay-relevant keyframe events
+     *
+     * @return The policy, or null to use the default policy from the config
+     */
+    @Nullable
+    default AnimationLodPolicy getAnimationLodPolicy() {
+        return null;
+    }
+
     /**
      * Override the default handling for instantiating an AnimatableInstanceCache for this animatable.<br>
      * Don't override this unless you know what you're doing.
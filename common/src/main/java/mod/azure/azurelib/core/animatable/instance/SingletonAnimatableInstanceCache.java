@@ -7,23 +7,75 @@
  */
 package mod.azure.azurelib.core.animatable.instance;
 
+import it.unimi.dsi.fastutil.longs.Long2ObjectLinkedOpenHashMap;
 import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
-import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectMaps;
 import mod.azure.azurelib.core.animatable.GeoAnimatable;
 import mod.azure.azurelib.core.animation.AnimatableManager;
 
+import java.util.concurrent.atomic.AtomicLong;
+
 /**
  * AnimatableInstanceCache implementation for singleton/flyweight objects such as Items. Utilises a keyed map to
- * differentiate different instances of the object.
+ * differentiate different instances of the object.<br>
+ * Managers are kept in least-recently-used order, and once more than {@link #getMaxManagers()} are held the least
+ * recently used manager is evicted. This is the only way a manager is released, as there's no signal for when an id
+ * (such as an item stack's) is gone for good, so the cap bounds how many stale managers a cache can hold rather than
+ * releasing them as soon as they're unused. An evicted id gets a fresh manager if it is used again.
  */
 public class SingletonAnimatableInstanceCache extends AnimatableInstanceCache {
 
-    protected final Long2ObjectMap<AnimatableManager<?>> managers = new Long2ObjectOpenHashMap<>();
+    /**
+     * The default maximum number of managers held by each cache
+     */
+    public static final int DEFAULT_MAX_MANAGERS = 1024;
+
+    private static final AtomicLong LIVE_MANAGERS = new AtomicLong();
+
+    private static final AtomicLong EVICTED_MANAGERS = new AtomicLong();
+
+    private static volatile int maxManagers = DEFAULT_MAX_MANAGERS;
+
+    private final Long2ObjectLinkedOpenHashMap<AnimatableManager<?>> orderedManagers = new Long2ObjectLinkedOpenHashMap<>();
+
+    /**
+     * A read-only view of the managers held by this cache.<br>
+     * Managers are only added through {@link #getManagerForId} so that they're kept in order and counted towards the
+     * eviction limit
+     */
+    protected final Long2ObjectMap<AnimatableManager<?>> managers = Long2ObjectMaps.unmodifiable(this.orderedManagers);
 
     public SingletonAnimatableInstanceCache(GeoAnimatable animatable) {
         super(animatable);
     }
 
+    /**
+     * Set the maximum number of managers each cache holds before evicting its least recently used manager.<br>
+     * A value of 0 or less disables eviction. Caches already over the new limit are trimmed the next time they create
+     * a manager
+     */
+    public static void setMaxManagers(int max) {
+        maxManagers = max;
+    }
+
+    public static int getMaxManagers() {
+        return maxManagers;
+    }
+
+    /**
+     * Get the number of managers currently held across all {@code SingletonAnimatableInstanceCaches}
+     */
+    public static long getLiveManagerCount() {
+        return LIVE_MANAGERS.get();
+    }
+
+    /**
+     * Get the number of managers evicted across all {@code SingletonAnimatableInstanceCaches} this session
+     */
+    public static long getEvictedManagerCount() {
+        return EVICTED_MANAGERS.get();
+    }
+
     /**
      * Gets an {@link AnimatableManager} instance from this cache, cached under the id provided, or a new one if one
      * doesn't already exist.<br>
@@ -31,7 +83,39 @@ public class SingletonAnimatableInstanceCache extends AnimatableInstanceCache {
      * data by ids.
      */
     @Override
-    public AnimatableManager<?> getManagerForId(long uniqueId) {
-        return this.managers.computeIfAbsent(uniqueId, key -> new AnimatableManager<>(this.animatable));
+    public synchronized AnimatableManager<?> getManagerForId(long uniqueId) {
+        AnimatableManager<?> manager = this.orderedManagers.getAndMoveToLast(uniqueId);
+
+        if (manager != null)
+            return manager;
+
+        manager = createManager(uniqueId);
+
+        this.orderedManagers.putAndMoveToLast(uniqueId, manager);
+        LIVE_MANAGERS.incrementAndGet();
+
+        int max = maxManagers;
+
+        while (max > 0 && this.orderedManagers.size() > max) {
+            this.orderedManagers.removeFirst();
+            LIVE_MANAGERS.decrementAndGet();
+            EVICTED_MANAGERS.incrementAndGet();
+        }
+
+        return manager;
+    }
+
+    /**
+     * Create a new {@link AnimatableManager} for the given id, to be cached by {@link #getManagerForId}
+     */
+    protected AnimatableManager<?> createManager(long uniqueId) {
+        return new AnimatableManager<>(this.animatable);
+    }
+
+    /**
+     * Get the number of managers currently held by this cache
+     */
+    public synchronized int getManagerCount() {
+        return this.orderedManagers.size();
     }
 }
@@ -75,8 +75,11 @@ public interface CoreGeoModel<E extends GeoAnimatable> {
 
     /**
      * This method is called once per render frame for each {@link GeoAnimatable} being rendered.<br>
-     * Is generally overridden by default to apply the builtin queries, but can be extended further for custom query
-     * handling.
+     * The builtin queries are registered via {@link mod.azure.azurelib.core.molang.MolangParser#registerQuery} and
+     * resolved lazily, so this can be overridden for any additional custom query handling.<br>
+     * Values set here through {@link mod.azure.azurelib.core.molang.MolangParser#setValue} or
+     * {@link mod.azure.azurelib.core.molang.MolangParser#setMemoizedValue} take precedence over the builtin query of
+     * the same name, for this animatable for the current frame.
      *
      * @param animatable The {@code GeoAnimatable} instance currently being rendered
      * @param animTime   The internal tick counter kept by the {@link AnimatableManager manager} for this animatable
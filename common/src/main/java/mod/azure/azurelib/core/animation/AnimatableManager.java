@@ -15,7 +15,9 @@ import it.unimi.dsi.fastutil.objects.Object2ObjectArrayMap;
 import it.unimi.dsi.fastutil.objects.Object2ObjectOpenHashMap;
 import it.unimi.dsi.fastutil.objects.ObjectArrayList;
 import mod.azure.azurelib.core.animatable.GeoAnimatable;
+import mod.azure.azurelib.core.molang.MolangContext;
 import mod.azure.azurelib.core.object.DataTicket;
+import mod.azure.azurelib.core.state.BonePoseBuffer;
 import mod.azure.azurelib.core.state.BoneSnapshot;
 
 import java.util.Arrays;
@@ -33,6 +35,10 @@ public class AnimatableManager<T extends GeoAnimatable> {
 
     private final Map<String, AnimationController<T>> animationControllers;
 
+    private final MolangContext molangContext = new MolangContext();
+
+    private final BonePoseBuffer bonePoseBuffer = new BonePoseBuffer();
+
     private Map<DataTicket<?>, Object> extraData;
 
     private double lastUpdateTime;
@@ -41,6 +47,8 @@ public class AnimatableManager<T extends GeoAnimatable> {
 
     private double firstTickTime = -1;
 
+    private long lastEvaluatedFrame = -1;
+
     /**
      * Instantiates a new AnimatableManager for the given animatable, calling {@link GeoAnimatable#registerControllers}
      * to define its controllers
@@ -76,6 +84,20 @@ public class AnimatableManager<T extends GeoAnimatable> {
         return boneSnapshotCollection;
     }
 
+    /**
+     * Get the {@link MolangContext} holding the Molang variable values for this animatable
+     */
+    public MolangContext getMolangContext() {
+        return this.molangContext;
+    }
+
+    /**
+     * Get the {@link BonePoseBuffer} holding the most recently evaluated bone transformations for this animatable
+     */
+    public BonePoseBuffer getBonePoseBuffer() {
+        return this.bonePoseBuffer;
+    }
+
     public void clearSnapshotCache() {
         this.boneSnapshotCollection.clear();
     }
@@ -96,6 +118,18 @@ public class AnimatableManager<T extends GeoAnimatable> {
         this.firstTickTime = time;
     }
 
+    /**
+     * Get the render frame this animatable's animations were last evaluated in, or -1 if they haven't been yet.<br>
+     * Used by {@link AnimationLodPolicy} to space out evaluations of distant animatables
+     */
+    public long getLastEvaluatedFrame() {
+        return this.lastEvaluatedFrame;
+    }
+
+    public void evaluatedIn(long frame) {
+        this.lastEvaluatedFrame = frame;
+    }
+
     public boolean isFirstTick() {
         return this.isFirstTick;
     }
@@ -12,6 +12,7 @@
 package mod.azure.azurelib.core.animation;
 
 import it.unimi.dsi.fastutil.objects.Object2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.objects.ObjectArrayList;
 import it.unimi.dsi.fastutil.objects.ObjectOpenHashSet;
 import mod.azure.azurelib.core.animatable.GeoAnimatable;
 import mod.azure.azurelib.core.animatable.model.CoreGeoBone;
@@ -53,7 +54,7 @@ public class AnimationController<T extends GeoAnimatable> {
 
     protected final AnimationStateHandler<T> stateHandler;
 
-    protected final Map<String, BoneAnimationQueue> boneAnimationQueues = new Object2ObjectOpenHashMap<>();
+    protected final BoneAnimationBuffer boneAnimationBuffer = new BoneAnimationBuffer();
 
     protected final Map<String, BoneSnapshot> boneSnapshots = new Object2ObjectOpenHashMap<>();
     protected final Map<String, RawAnimation> triggerableAnimations = new Object2ObjectOpenHashMap<>(0);
@@ -86,6 +87,11 @@ public class AnimationController<T extends GeoAnimatable> {
     protected CoreGeoModel<T> lastModel;
     protected boolean justStopped = true;
 
+    protected PlayState preparedPlayState = null;
+    protected double preparedTick = 0;
+    protected boolean deferKeyframeEvents = false;
+    protected final List<Runnable> deferredKeyframeEvents = new ObjectArrayList<>(0);
+
     /**
      * Instantiates a new {@code AnimationController}.<br>
      * This constructor assumes a 0-tick transition length between animations, and a generic name.
@@ -279,10 +285,51 @@ public class AnimationController<T extends GeoAnimatable> {
     }
 
     /**
-     * Gets the currently loaded animation's {@link BoneAnimationQueue BoneAnimationQueues}.
+     * Gets the currently loaded animation's {@link BoneAnimationQueue BoneAnimationQueues}.<br>
+     * The queues are built from the {@link BoneAnimationBuffer} on each call, and hold a copy of the animation points
+     * computed for the current render frame. Changes made to them aren't applied to the animation
+     *
+     * @deprecated Animation points are now written to the controller's {@link BoneAnimationBuffer}. Use
+     *             {@link AnimationController#getBoneAnimationBuffer()} to read them without allocating
      */
+    @Deprecated
     public Map<String, BoneAnimationQueue> getBoneAnimationQueues() {
-        return this.boneAnimationQueues;
+        BoneAnimationBuffer buffer = this.boneAnimationBuffer;
+        Map<String, BoneAnimationQueue> queues = new Object2ObjectOpenHashMap<>(buffer.getActiveBoneCount());
+
+        for (int i = 0; i < buffer.getActiveBoneCount(); i++) {
+            int boneIndex = buffer.getActiveBone(i);
+            BoneAnimationQueue queue = new BoneAnimationQueue(buffer.getBone(boneIndex));
+
+            if (buffer.hasRotation(boneIndex)) {
+                queue.rotationXQueue().add(buffer.getAnimationPoint(boneIndex, BoneAnimationBuffer.ROTATION_X));
+                queue.rotationYQueue().add(buffer.getAnimationPoint(boneIndex, BoneAnimationBuffer.ROTATION_Y));
+                queue.rotationZQueue().add(buffer.getAnimationPoint(boneIndex, BoneAnimationBuffer.ROTATION_Z));
+            }
+
+            if (buffer.hasPosition(boneIndex)) {
+                queue.positionXQueue().add(buffer.getAnimationPoint(boneIndex, BoneAnimationBuffer.POSITION_X));
+                queue.positionYQueue().add(buffer.getAnimationPoint(boneIndex, BoneAnimationBuffer.POSITION_Y));
+                queue.positionZQueue().add(buffer.getAnimationPoint(boneIndex, BoneAnimationBuffer.POSITION_Z));
+            }
+
+            if (buffer.hasScale(boneIndex)) {
+                queue.scaleXQueue().add(buffer.getAnimationPoint(boneIndex, BoneAnimationBuffer.SCALE_X));
+                queue.scaleYQueue().add(buffer.getAnimationPoint(boneIndex, BoneAnimationBuffer.SCALE_Y));
+                queue.scaleZQueue().add(buffer.getAnimationPoint(boneIndex, BoneAnimationBuffer.SCALE_Z));
+            }
+
+            queues.put(queue.bone().getName(), queue);
+        }
+
+        return queues;
+    }
+
+    /**
+     * Gets the {@link BoneAnimationBuffer} holding the animation points computed for the current render frame.
+     */
+    public BoneAnimationBuffer getBoneAnimationBuffer() {
+        return this.boneAnimationBuffer;
     }
 
     /**
@@ -449,6 +496,68 @@ public class AnimationController<T extends GeoAnimatable> {
         return this.stateHandler.handle(state);
     }
 
+    /**
+     * Advance this controller's tick for the current frame and call its {@link AnimationStateHandler}, ahead of the
+     * rest of {@link AnimationController#process}.<br>
+     * {@code process} calls this itself, unless it has already been called for the frame. This allows the state
+     * handler to be called on the render thread, while the animation points are computed on another thread
+     *
+     * @param model    The model currently being processed
+     * @param state    The animation test state
+     * @param seekTime The current tick + partial tick
+     */
+    public void prepareProcess(CoreGeoModel<T> model, AnimationState<T> state, double seekTime) {
+        double adjustedTick = adjustTick(seekTime);
+        this.lastModel = model;
+
+        if (animationState == State.TRANSITIONING && adjustedTick >= this.transitionLength) {
+            this.shouldResetTick = true;
+            this.animationState = State.RUNNING;
+            adjustedTick = adjustTick(seekTime);
+        }
+
+        this.preparedTick = adjustedTick;
+        this.preparedPlayState = handleAnimationState(state);
+    }
+
+    /**
+     * Set whether the sound, particle and custom instruction keyframe handlers should be held back when their
+     * keyframes are reached, rather than called straight away.<br>
+     * Held back handlers are called by {@link AnimationController#dispatchDeferredKeyframeEvents}
+     */
+    public void setDeferKeyframeEvents(boolean defer) {
+        this.deferKeyframeEvents = defer;
+    }
+
+    /**
+     * Call the keyframe handlers held back since {@link AnimationController#setDeferKeyframeEvents} was enabled, in
+     * the order their keyframes were reached.<br>
+     * This also stops deferring keyframe handlers, and discards any state prepared by
+     * {@link AnimationController#prepareProcess} that {@link AnimationController#process} didn't use
+     */
+    public void dispatchDeferredKeyframeEvents() {
+        this.deferKeyframeEvents = false;
+        this.preparedPlayState = null;
+
+        for (int i = 0; i < this.deferredKeyframeEvents.size(); i++) {
+            this.deferredKeyframeEvents.get(i).run();
+        }
+
+        this.deferredKeyframeEvents.clear();
+    }
+
+    /**
+     * Call a keyframe handler, or hold it back if keyframe handlers are being
+     * {@link AnimationController#setDeferKeyframeEvents deferred}
+     */
+    protected void handleKeyframeEvent(Runnable handler) {
+        if (this.deferKeyframeEvents) {
+            this.deferredKeyframeEvents.add(handler);
+        } else {
+            handler.run();
+        }
+    }
+
     /**
      * This method is called every frame in order to populate the animation point queues, and process animation state
      * logic.
@@ -469,16 +578,12 @@ public class AnimationController<T extends GeoAnimatable> {
             final double seekTime,
             boolean crashWhenCantFindBone
     ) {
-        double adjustedTick = adjustTick(seekTime);
-        this.lastModel = model;
-
-        if (animationState == State.TRANSITIONING && adjustedTick >= this.transitionLength) {
-            this.shouldResetTick = true;
-            this.animationState = State.RUNNING;
-            adjustedTick = adjustTick(seekTime);
-        }
+        if (this.preparedPlayState == null)
+            prepareProcess(model, state, seekTime);
 
-        PlayState playState = handleAnimationState(state);
+        PlayState playState = this.preparedPlayState;
+        double adjustedTick = this.preparedTick;
+        this.preparedPlayState = null;
 
         if (playState == PlayState.STOP || (this.currentAnimation == null && this.animationQueue.isEmpty())) {
             this.animationState = State.STOPPED;
@@ -521,58 +626,58 @@ public class AnimationController<T extends GeoAnimatable> {
             }
 
             if (this.currentAnimation != null) {
-                MolangParser.INSTANCE.setValue(MolangQueries.ANIM_TIME, () -> 0);
+                MolangParser.INSTANCE.setContextValue(MolangQueries.ANIM_TIME, 0);
 
                 for (BoneAnimation boneAnimation : this.currentAnimation.animation().boneAnimations()) {
-                    BoneAnimationQueue boneAnimationQueue = this.boneAnimationQueues.get(boneAnimation.boneName());
+                    int boneIndex = this.boneAnimationBuffer.getBoneIndex(boneAnimation.boneName());
                     BoneSnapshot boneSnapshot = this.boneSnapshots.get(boneAnimation.boneName());
-                    CoreGeoBone bone = bones.get(boneAnimation.boneName());
 
-                    if (bone == null) {
+                    if (boneIndex == -1) {
                         if (crashWhenCantFindBone)
                             throw new NoSuchElementException("Could not find bone: " + boneAnimation.boneName());
 
                         continue;
                     }
 
+                    CoreGeoBone bone = this.boneAnimationBuffer.getBone(boneIndex);
                     KeyframeStack<Keyframe<IValue>> rotationKeyFrames = boneAnimation.rotationKeyFrames();
                     KeyframeStack<Keyframe<IValue>> positionKeyFrames = boneAnimation.positionKeyFrames();
                     KeyframeStack<Keyframe<IValue>> scaleKeyFrames = boneAnimation.scaleKeyFrames();
 
                     if (!rotationKeyFrames.xKeyframes().isEmpty()) {
-                        boneAnimationQueue.addNextRotation(
-                                null,
+                        setAnimationPointsAtTick(boneIndex, BoneAnimationBuffer.ROTATION_X, rotationKeyFrames, 0, true);
+                        this.boneAnimationBuffer.setRotationTransition(
+                                boneIndex,
                                 adjustedTick,
                                 this.transitionLength,
                                 boneSnapshot,
-                                bone.getInitialSnapshot(),
-                                getAnimationPointAtTick(rotationKeyFrames.xKeyframes(), 0, true, Axis.X),
-                                getAnimationPointAtTick(rotationKeyFrames.yKeyframes(), 0, true, Axis.Y),
-                                getAnimationPointAtTick(rotationKeyFrames.zKeyframes(), 0, true, Axis.Z)
+                                bone.getInitialSnapshot()
                         );
                     }
 
                     if (!positionKeyFrames.xKeyframes().isEmpty()) {
-                        boneAnimationQueue.addNextPosition(
-                                null,
+                        setAnimationPointsAtTick(
+                                boneIndex,
+                                BoneAnimationBuffer.POSITION_X,
+                                positionKeyFrames,
+                                0,
+                                false
+                        );
+                        this.boneAnimationBuffer.setPositionTransition(
+                                boneIndex,
                                 adjustedTick,
                                 this.transitionLength,
-                                boneSnapshot,
-                                getAnimationPointAtTick(positionKeyFrames.xKeyframes(), 0, false, Axis.X),
-                                getAnimationPointAtTick(positionKeyFrames.yKeyframes(), 0, false, Axis.Y),
-                                getAnimationPointAtTick(positionKeyFrames.zKeyframes(), 0, false, Axis.Z)
+                                boneSnapshot
                         );
                     }
 
                     if (!scaleKeyFrames.xKeyframes().isEmpty()) {
-                        boneAnimationQueue.addNextScale(
-                                null,
+                        setAnimationPointsAtTick(boneIndex, BoneAnimationBuffer.SCALE_X, scaleKeyFrames, 0, false);
+                        this.boneAnimationBuffer.setScaleTransition(
+                                boneIndex,
                                 adjustedTick,
                                 this.transitionLength,
-                                boneSnapshot,
-                                getAnimationPointAtTick(scaleKeyFrames.xKeyframes(), 0, false, Axis.X),
-                                getAnimationPointAtTick(scaleKeyFrames.yKeyframes(), 0, false, Axis.Y),
-                                getAnimationPointAtTick(scaleKeyFrames.zKeyframes(), 0, false, Axis.Z)
+                                boneSnapshot
                         );
                     }
                 }
@@ -617,14 +722,12 @@ public class AnimationController<T extends GeoAnimatable> {
             }
         }
 
-        final double finalAdjustedTick = adjustedTick;
-
-        MolangParser.INSTANCE.setMemoizedValue(MolangQueries.ANIM_TIME, () -> finalAdjustedTick / 20d);
+        MolangParser.INSTANCE.setContextValue(MolangQueries.ANIM_TIME, adjustedTick / 20d);
 
         for (BoneAnimation boneAnimation : this.currentAnimation.animation().boneAnimations()) {
-            BoneAnimationQueue boneAnimationQueue = this.boneAnimationQueues.get(boneAnimation.boneName());
+            int boneIndex = this.boneAnimationBuffer.getBoneIndex(boneAnimation.boneName());
 
-            if (boneAnimationQueue == null) {
+            if (boneIndex == -1) {
                 if (crashWhenCantFindBone)
                     throw new NoSuchElementException("Could not find bone: " + boneAnimation.boneName());
 
@@ -636,27 +739,30 @@ public class AnimationController<T extends GeoAnimatable> {
             KeyframeStack<Keyframe<IValue>> scaleKeyFrames = boneAnimation.scaleKeyFrames();
 
             if (!rotationKeyFrames.xKeyframes().isEmpty()) {
-                boneAnimationQueue.addRotations(
-                        getAnimationPointAtTick(rotationKeyFrames.xKeyframes(), adjustedTick, true, Axis.X),
-                        getAnimationPointAtTick(rotationKeyFrames.yKeyframes(), adjustedTick, true, Axis.Y),
-                        getAnimationPointAtTick(rotationKeyFrames.zKeyframes(), adjustedTick, true, Axis.Z)
+                setAnimationPointsAtTick(
+                        boneIndex,
+                        BoneAnimationBuffer.ROTATION_X,
+                        rotationKeyFrames,
+                        adjustedTick,
+                        true
                 );
+                this.boneAnimationBuffer.markRotation(boneIndex);
             }
 
             if (!positionKeyFrames.xKeyframes().isEmpty()) {
-                boneAnimationQueue.addPositions(
-                        getAnimationPointAtTick(positionKeyFrames.xKeyframes(), adjustedTick, false, Axis.X),
-                        getAnimationPointAtTick(positionKeyFrames.yKeyframes(), adjustedTick, false, Axis.Y),
-                        getAnimationPointAtTick(positionKeyFrames.zKeyframes(), adjustedTick, false, Axis.Z)
+                setAnimationPointsAtTick(
+                        boneIndex,
+                        BoneAnimationBuffer.POSITION_X,
+                        positionKeyFrames,
+                        adjustedTick,
+                        false
                 );
+                this.boneAnimationBuffer.markPosition(boneIndex);
             }
 
             if (!scaleKeyFrames.xKeyframes().isEmpty()) {
-                boneAnimationQueue.addScales(
-                        getAnimationPointAtTick(scaleKeyFrames.xKeyframes(), adjustedTick, false, Axis.X),
-                        getAnimationPointAtTick(scaleKeyFrames.yKeyframes(), adjustedTick, false, Axis.Y),
-                        getAnimationPointAtTick(scaleKeyFrames.zKeyframes(), adjustedTick, false, Axis.Z)
-                );
+                setAnimationPointsAtTick(boneIndex, BoneAnimationBuffer.SCALE_X, scaleKeyFrames, adjustedTick, false);
+                this.boneAnimationBuffer.markScale(boneIndex);
             }
         }
 
@@ -673,9 +779,15 @@ public class AnimationController<T extends GeoAnimatable> {
                     break;
                 }
 
-                this.soundKeyframeHandler.handle(
-                        new SoundKeyframeEvent<>(this.animatable, adjustedTick, this, keyframeData)
+                SoundKeyframeHandler<T> handler = this.soundKeyframeHandler;
+                SoundKeyframeEvent<T> event = new SoundKeyframeEvent<>(
+                        this.animatable,
+                        adjustedTick,
+                        this,
+                        keyframeData
                 );
+
+                handleKeyframeEvent(() -> handler.handle(event));
             }
         }
 
@@ -690,9 +802,15 @@ public class AnimationController<T extends GeoAnimatable> {
                     break;
                 }
 
-                this.particleKeyframeHandler.handle(
-                        new ParticleKeyframeEvent<>(this.animatable, adjustedTick, this, keyframeData)
+                ParticleKeyframeHandler<T> handler = this.particleKeyframeHandler;
+                ParticleKeyframeEvent<T> event = new ParticleKeyframeEvent<>(
+                        this.animatable,
+                        adjustedTick,
+                        this,
+                        keyframeData
                 );
+
+                handleKeyframeEvent(() -> handler.handle(event));
             }
         }
 
@@ -711,9 +829,15 @@ public class AnimationController<T extends GeoAnimatable> {
                     break;
                 }
 
-                this.customKeyframeHandler.handle(
-                        new CustomInstructionKeyframeEvent<>(this.animatable, adjustedTick, this, keyframeData)
+                CustomKeyframeHandler<T> handler = this.customKeyframeHandler;
+                CustomInstructionKeyframeEvent<T> event = new CustomInstructionKeyframeEvent<>(
+                        this.animatable,
+                        adjustedTick,
+                        this,
+                        keyframeData
                 );
+
+                handleKeyframeEvent(() -> handler.handle(event));
             }
         }
 
@@ -723,16 +847,12 @@ public class AnimationController<T extends GeoAnimatable> {
     }
 
     /**
-     * Prepare the {@link BoneAnimationQueue} map for the current render frame
+     * Prepare the {@link BoneAnimationBuffer} for the current render frame
      *
      * @param modelRendererList The bone list from the {@link AnimationProcessor}
      */
     protected void createInitialQueues(Collection<CoreGeoBone> modelRendererList) {
-        this.boneAnimationQueues.clear();
-
-        for (CoreGeoBone modelRenderer : modelRendererList) {
-            this.boneAnimationQueues.put(modelRenderer.getName(), new BoneAnimationQueue(modelRenderer));
-        }
+        this.boneAnimationBuffer.prepare(modelRendererList);
     }
 
     /**
@@ -781,35 +901,111 @@ public class AnimationController<T extends GeoAnimatable> {
     }
 
     /**
-     * Convert a {@link KeyframeLocation} to an {@link AnimationPoint}
+     * Write the X, Y, and Z animation points of a {@link KeyframeStack} at the given tick into the
+     * {@link BoneAnimationBuffer}, without allocating intermediary {@link AnimationPoint AnimationPoints}
+     *
+     * @param boneIndex  The index of the bone in the {@code BoneAnimationBuffer}
+     * @param xChannel   The buffer channel of the X axis, with the Y and Z axes immediately following it
+     * @param stack      The {@code KeyframeStack} to compute the points from
+     * @param tick       The current animation tick
+     * @param isRotation Whether the stack holds rotation keyframes
      */
-    protected AnimationPoint getAnimationPointAtTick(
+    protected void setAnimationPointsAtTick(
+            int boneIndex,
+            int xChannel,
+            KeyframeStack<Keyframe<IValue>> stack,
+            double tick,
+            boolean isRotation
+    ) {
+        setAnimationPointAtTick(
+                boneIndex,
+                xChannel,
+                stack.xKeyframes(),
+                stack.xKeyframeEndTimes(),
+                tick,
+                isRotation,
+                Axis.X
+        );
+        setAnimationPointAtTick(
+                boneIndex,
+                xChannel + 1,
+                stack.yKeyframes(),
+                stack.yKeyframeEndTimes(),
+                tick,
+                isRotation,
+                Axis.Y
+        );
+        setAnimationPointAtTick(
+                boneIndex,
+                xChannel + 2,
+                stack.zKeyframes(),
+                stack.zKeyframeEndTimes(),
+                tick,
+                isRotation,
+                Axis.Z
+        );
+    }
+
+    private void setAnimationPointAtTick(
+            int boneIndex,
+            int channel,
             List<Keyframe<IValue>> frames,
+            double[] endTimes,
             double tick,
             boolean isRotation,
             Axis axis
     ) {
-        KeyframeLocation<Keyframe<IValue>> location = getCurrentKeyFrameLocation(frames, tick);
-        Keyframe<IValue> currentFrame = location.keyframe();
-        double startValue = currentFrame.startValue().get();
-        double endValue = currentFrame.endValue().get();
-
-        if (isRotation) {
-            if (!(currentFrame.startValue() instanceof Constant)) {
-                startValue = Math.toRadians(startValue);
+        int index = KeyframeStack.getKeyframeIndexAtTick(endTimes, tick);
+        Keyframe<IValue> frame = frames.get(index);
+        double startTick = endTimes[index] > tick ? tick - (endTimes[index] - frame.length()) : tick;
+
+        this.boneAnimationBuffer.setPoint(
+                boneIndex,
+                channel,
+                frame,
+                startTick,
+                frame.length(),
+                getKeyframeValue(frame.startValue(), isRotation, axis),
+                getKeyframeValue(frame.endValue(), isRotation, axis)
+        );
+    }
 
-                if (axis == Axis.X || axis == Axis.Y)
-                    startValue *= -1;
-            }
+    /**
+     * Evaluate a keyframe value, converting non-constant rotation values from degrees to radians.<br>
+     * Constant rotation values are already converted at deserialization time
+     */
+    protected static double getKeyframeValue(IValue value, boolean isRotation, Axis axis) {
+        double result = value.get();
 
-            if (!(currentFrame.endValue() instanceof Constant)) {
-                endValue = Math.toRadians(endValue);
+        if (isRotation && !(value instanceof Constant)) {
+            result = Math.toRadians(result);
 
-                if (axis == Axis.X || axis == Axis.Y)
-                    endValue *= -1;
-            }
+            if (axis == Axis.X || axis == Axis.Y)
+                result *= -1;
         }
 
+        return result;
+    }
+
+    /**
+     * Convert a {@link KeyframeLocation} to an {@link AnimationPoint}
+     *
+     * @deprecated The controller now locates keyframes by binary search over the pre-computed end times of a
+     *             {@link KeyframeStack}, and no longer calls this. Overriding it has no effect on animation. Use
+     *             {@link AnimationController#setAnimationPointsAtTick} instead
+     */
+    @Deprecated
+    protected AnimationPoint getAnimationPointAtTick(
+            List<Keyframe<IValue>> frames,
+            double tick,
+            boolean isRotation,
+            Axis axis
+    ) {
+        KeyframeLocation<Keyframe<IValue>> location = getCurrentKeyFrameLocation(frames, tick);
+        Keyframe<IValue> currentFrame = location.keyframe();
+        double startValue = getKeyframeValue(currentFrame.startValue(), isRotation, axis);
+        double endValue = getKeyframeValue(currentFrame.endValue(), isRotation, axis);
+
         return new AnimationPoint(currentFrame, location.startTick(), currentFrame.length(), startValue, endValue);
     }
 
@@ -819,7 +1015,11 @@ public class AnimationController<T extends GeoAnimatable> {
      * @param frames     The list of {@code KeyFrames} to filter through
      * @param ageInTicks The current tick time
      * @return A new {@code KeyFrameLocation} containing the current {@code KeyFrame} and the tick time used to find it
+     * @deprecated The controller now locates keyframes by binary search over the pre-computed end times of a
+     *             {@link KeyframeStack}, and no longer calls this. Overriding it has no effect on animation. Use
+     *             {@link KeyframeStack#getKeyframeIndexAtTick} instead
      */
+    @Deprecated
     protected KeyframeLocation<Keyframe<IValue>> getCurrentKeyFrameLocation(
             List<Keyframe<IValue>> frames,
             double ageInTicks
@@ -0,0 +1,55 @@
+package mod.azure.azurelib.core.animation;
+
+import mod.azure.azurelib.core.animatable.GeoAnimatable;
+
+/**
+ * Decides how often an animatable's animations are evaluated, based on its distance from the camera.<br>
+ * Animatables further away than {@link #reducedDistance} are only evaluated every {@link #reducedInterval} frames,
+ * and those further away than {@link #frozenDistance} aren't evaluated at all. Either distance can be 0 to disable
+ * that tier.<br>
+ * Animatables can provide their own policy through {@link GeoAnimatable#getAnimationLodPolicy()}, otherwise the
+ * policy built from the config is used
+ *
+ * @param reducedDistance The distance from the camera, in blocks, past which animations are evaluated at a reduced rate
+ * @param reducedInterval The number of frames between evaluations at a reduced rate
+ * @param frozenDistance  The distance from the camera, in blocks, past which animations aren't evaluated
+ */
+public record AnimationLodPolicy(double reducedDistance, int reducedInterval, double frozenDistance) {
+
+    /**
+     * A policy that always evaluates animations every frame
+     */
+    public static final AnimationLodPolicy FULL_RATE = new AnimationLodPolicy(0, 1, 0);
+
+    public AnimationLodPolicy {
+        if (reducedInterval < 1)
+            throw new IllegalArgumentException("Reduced animation interval must be at least 1 frame, got " + reducedInterval);
+    }
+
+    /**
+     * Get the tier for an animatable the given squared distance from the camera
+     */
+    public AnimationLodTier getTier(double distanceSqr) {
+        if (this.frozenDistance > 0 && distanceSqr > this.frozenDistance * this.frozenDistance)
+            return AnimationLodTier.FROZEN;
+
+        if (this.reducedDistance > 0 && this.reducedInterval > 1 && distanceSqr > this.reducedDistance * this.reducedDistance)
+            return AnimationLodTier.REDUCED;
+
+        return AnimationLodTier.FULL;
+    }
+
+    /**
+     * Whether an animatable in the given tier should have its animations evaluated this frame
+     *
+     * @param tier                 The animatable's tier
+     * @param framesSinceEvaluated The number of frames since the animatable's animations were last evaluated
+     */
+    public boolean shouldEvaluate(AnimationLodTier tier, long framesSinceEvaluated) {
+        return switch (tier) {
+            case FULL -> true;
+            case REDUCED -> framesSinceEvaluated >= this.reducedInterval;
+            case FROZEN -> false;
+        };
+    }
+}
@@ -0,0 +1,21 @@
+package mod.azure.azurelib.core.animation;
+
+/**
+ * The level of detail an animatable's animations are evaluated at, as decided by its {@link AnimationLodPolicy}
+ */
+public enum AnimationLodTier {
+    /**
+     * Animations are evaluated every frame
+     */
+    FULL,
+    /**
+     * Animations are evaluated every {@link AnimationLodPolicy#reducedInterval() few} frames, reusing the last pose in
+     * between
+     */
+    REDUCED,
+    /**
+     * Animations aren't evaluated at all, leaving the animatable in its last pose.<br>
+     * Controllers and their keyframe handlers don't run until the animatable moves back into a closer tier
+     */
+    FROZEN
+}
@@ -12,8 +12,8 @@ import mod.azure.azurelib.core.animatable.GeoAnimatable;
 import mod.azure.azurelib.core.animatable.model.CoreBakedGeoModel;
 import mod.azure.azurelib.core.animatable.model.CoreGeoBone;
 import mod.azure.azurelib.core.animatable.model.CoreGeoModel;
-import mod.azure.azurelib.core.keyframe.AnimationPoint;
-import mod.azure.azurelib.core.keyframe.BoneAnimationQueue;
+import mod.azure.azurelib.core.keyframe.BoneAnimationBuffer;
+import mod.azure.azurelib.core.state.BonePoseBuffer;
 import mod.azure.azurelib.core.state.BoneSnapshot;
 import mod.azure.azurelib.core.utils.Interpolations;
 import org.slf4j.Logger;
@@ -70,7 +70,9 @@ public class AnimationProcessor<T extends GeoAnimatable> {
     }
 
     /**
-     * Tick and apply transformations to the model based on the current state of the {@link AnimationController}
+     * Tick and apply transformations to the model based on the current state of the {@link AnimationController}.<br>
+     * This is equivalent to calling {@link #applyPendingReload} and {@link #evaluateAnimation}, followed by
+     * {@link #applyBonePose}
      *
      * @param animatable            The animatable object relevant to the animation being played
      * @param model                 The model currently being processed
@@ -88,78 +90,160 @@ public class AnimationProcessor<T extends GeoAnimatable> {
             AnimationState<T> event,
             boolean crashWhenCantFindBone
     ) {
-        Map<String, BoneSnapshot> boneSnapshots = updateBoneSnapshots(animatableManager.getBoneSnapshotCollection());
+        applyPendingReload(animatableManager);
+        evaluateAnimation(animatable, model, animatableManager, animTime, event, crashWhenCantFindBone);
+        applyBonePose(animatableManager.getBonePoseBuffer());
+    }
+
+    /**
+     * Reset the {@link AnimationController AnimationControllers} of the given animatable if this processor has been
+     * flagged to {@link #reloadAnimations reload its animations}, clearing the flag.<br>
+     * Must be called on the render thread, before {@link #evaluateAnimation}
+     */
+    public void applyPendingReload(AnimatableManager<T> animatableManager) {
+        if (!this.reloadAnimations)
+            return;
 
         for (AnimationController<T> controller : animatableManager.getAnimationControllers().values()) {
-            if (this.reloadAnimations) {
-                controller.forceAnimationReset();
-                controller.getBoneAnimationQueues().clear();
-            }
+            controller.forceAnimationReset();
+            controller.getBoneAnimationBuffer().clear();
+        }
+
+        this.reloadAnimations = false;
+    }
+
+    /**
+     * Call the {@link AnimationController.AnimationStateHandler state handlers} of the given animatable's
+     * controllers for the current frame, ahead of {@link #evaluateAnimation} being called for it on another thread.
+     * <br>
+     * Keyframe handlers reached during that evaluation are held back until {@link #dispatchKeyframeEvents} is called.
+     * <br>
+     * Must be called on the render thread
+     *
+     * @param animatable        The animatable object relevant to the animation being played
+     * @param model             The model currently being processed
+     * @param animatableManager The AnimatableManager instance being used for this animation processor
+     * @param animTime          The internal tick counter kept by the {@link AnimatableManager} for this animatable
+     * @param event             An {@link AnimationState} instance applied to this render frame
+     */
+    public void prepareControllers(
+            T animatable,
+            CoreGeoModel<T> model,
+            AnimatableManager<T> animatableManager,
+            double animTime,
+            AnimationState<T> event
+    ) {
+        for (AnimationController<T> controller : animatableManager.getAnimationControllers().values()) {
+            controller.isJustStarting = animatableManager.isFirstTick();
+            controller.setDeferKeyframeEvents(true);
+
+            event.withController(controller);
+            controller.prepareProcess(model, event, animTime);
+        }
+    }
+
+    /**
+     * Call the keyframe handlers held back by the given animatable's controllers since
+     * {@link #prepareControllers} was called for it.<br>
+     * Must be called on the render thread, once {@link #evaluateAnimation} has finished for the animatable, or failed
+     */
+    public void dispatchKeyframeEvents(AnimatableManager<T> animatableManager) {
+        for (AnimationController<T> controller : animatableManager.getAnimationControllers().values()) {
+            controller.dispatchDeferredKeyframeEvents();
+        }
+    }
+
+    /**
+     * Tick the {@link AnimationController AnimationControllers} of the given animatable, and compute the resulting
+     * transformations of each registered bone into the {@link BonePoseBuffer} of its {@link AnimatableManager}.<br>
+     * This does not modify the registered {@link CoreGeoBone GeoBones} themselves, so it may be called for different
+     * animatables concurrently, as long as the registered bones don't change in the meantime.<br>
+     * Use {@link #applyBonePose} to apply the result to the model
+     *
+     * @param animatable            The animatable object relevant to the animation being played
+     * @param model                 The model currently being processed
+     * @param animatableManager     The AnimatableManager instance being used for this animation processor
+     * @param animTime              The internal tick counter kept by the {@link AnimatableManager} for this animatable
+     * @param event                 An {@link AnimationState} instance applied to this render frame
+     * @param crashWhenCantFindBone Whether to crash if unable to find a required bone, or to continue with the
+     *                              remaining bones
+     */
+    public void evaluateAnimation(
+            T animatable,
+            CoreGeoModel<T> model,
+            AnimatableManager<T> animatableManager,
+            double animTime,
+            AnimationState<T> event,
+            boolean crashWhenCantFindBone
+    ) {
+        Map<String, BoneSnapshot> boneSnapshots = updateBoneSnapshots(animatableManager.getBoneSnapshotCollection());
+        BonePoseBuffer pose = animatableManager.getBonePoseBuffer();
 
+        pose.prepare(getRegisteredBones());
+
+        for (AnimationController<T> controller : animatableManager.getAnimationControllers().values()) {
             controller.isJustStarting = animatableManager.isFirstTick();
 
             event.withController(controller);
             controller.process(model, event, this.bonesByName, boneSnapshots, animTime, crashWhenCantFindBone);
 
-            for (BoneAnimationQueue boneAnimation : controller.getBoneAnimationQueues().values()) {
-                CoreGeoBone bone = boneAnimation.bone();
+            BoneAnimationBuffer boneAnimations = controller.getBoneAnimationBuffer();
+            EasingType easingType = controller.overrideEasingTypeFunction.apply(animatable);
+
+            for (int i = 0; i < boneAnimations.getActiveBoneCount(); i++) {
+                int boneIndex = boneAnimations.getActiveBone(i);
+                CoreGeoBone bone = boneAnimations.getBone(boneIndex);
                 BoneSnapshot snapshot = boneSnapshots.get(bone.getName());
                 BoneSnapshot initialSnapshot = bone.getInitialSnapshot();
 
-                AnimationPoint rotXPoint = boneAnimation.rotationXQueue().poll();
-                AnimationPoint rotYPoint = boneAnimation.rotationYQueue().poll();
-                AnimationPoint rotZPoint = boneAnimation.rotationZQueue().poll();
-                AnimationPoint posXPoint = boneAnimation.positionXQueue().poll();
-                AnimationPoint posYPoint = boneAnimation.positionYQueue().poll();
-                AnimationPoint posZPoint = boneAnimation.positionZQueue().poll();
-                AnimationPoint scaleXPoint = boneAnimation.scaleXQueue().poll();
-                AnimationPoint scaleYPoint = boneAnimation.scaleYQueue().poll();
-                AnimationPoint scaleZPoint = boneAnimation.scaleZQueue().poll();
-                EasingType easingType = controller.overrideEasingTypeFunction.apply(animatable);
-
-                if (rotXPoint != null && rotYPoint != null && rotZPoint != null) {
-                    bone.setRotX(
-                            (float) EasingType.lerpWithOverride(rotXPoint, easingType) + initialSnapshot.getRotX()
-                    );
-                    bone.setRotY(
-                            (float) EasingType.lerpWithOverride(rotYPoint, easingType) + initialSnapshot.getRotY()
-                    );
-                    bone.setRotZ(
-                            (float) EasingType.lerpWithOverride(rotZPoint, easingType) + initialSnapshot.getRotZ()
-                    );
-                    snapshot.updateRotation(bone.getRotX(), bone.getRotY(), bone.getRotZ());
+                if (boneAnimations.hasRotation(boneIndex)) {
+                    float rotX = (float) boneAnimations.lerp(boneIndex, BoneAnimationBuffer.ROTATION_X, easingType)
+                            + initialSnapshot.getRotX();
+                    float rotY = (float) boneAnimations.lerp(boneIndex, BoneAnimationBuffer.ROTATION_Y, easingType)
+                            + initialSnapshot.getRotY();
+                    float rotZ = (float) boneAnimations.lerp(boneIndex, BoneAnimationBuffer.ROTATION_Z, easingType)
+                            + initialSnapshot.getRotZ();
+
+                    pose.setRotation(boneIndex, rotX, rotY, rotZ);
+                    snapshot.updateRotation(rotX, rotY, rotZ);
                     snapshot.startRotAnim();
-                    bone.markRotationAsChanged();
+                    pose.markRotationAsChanged(boneIndex);
                 }
 
-                if (posXPoint != null && posYPoint != null && posZPoint != null) {
-                    bone.setPosX((float) EasingType.lerpWithOverride(posXPoint, easingType));
-                    bone.setPosY((float) EasingType.lerpWithOverride(posYPoint, easingType));
-                    bone.setPosZ((float) EasingType.lerpWithOverride(posZPoint, easingType));
-                    snapshot.updateOffset(bone.getPosX(), bone.getPosY(), bone.getPosZ());
+                if (boneAnimations.hasPosition(boneIndex)) {
+                    float posX = (float) boneAnimations.lerp(boneIndex, BoneAnimationBuffer.POSITION_X, easingType);
+                    float posY = (float) boneAnimations.lerp(boneIndex, BoneAnimationBuffer.POSITION_Y, easingType);
+                    float posZ = (float) boneAnimations.lerp(boneIndex, BoneAnimationBuffer.POSITION_Z, easingType);
+
+                    pose.setPosition(boneIndex, posX, posY, posZ);
+                    snapshot.updateOffset(posX, posY, posZ);
                     snapshot.startPosAnim();
-                    bone.markPositionAsChanged();
+                    pose.markPositionAsChanged(boneIndex);
                 }
 
-                if (scaleXPoint != null && scaleYPoint != null && scaleZPoint != null) {
-                    bone.setScaleX((float) EasingType.lerpWithOverride(scaleXPoint, easingType));
-                    bone.setScaleY((float) EasingType.lerpWithOverride(scaleYPoint, easingType));
-                    bone.setScaleZ((float) EasingType.lerpWithOverride(scaleZPoint, easingType));
-                    snapshot.updateScale(bone.getScaleX(), bone.getScaleY(), bone.getScaleZ());
+                if (boneAnimations.hasScale(boneIndex)) {
+                    float scaleX = (float) boneAnimations.lerp(boneIndex, BoneAnimationBuffer.SCALE_X, easingType);
+                    float scaleY = (float) boneAnimations.lerp(boneIndex, BoneAnimationBuffer.SCALE_Y, easingType);
+                    float scaleZ = (float) boneAnimations.lerp(boneIndex, BoneAnimationBuffer.SCALE_Z, easingType);
+
+                    pose.setScale(boneIndex, scaleX, scaleY, scaleZ);
+                    snapshot.updateScale(scaleX, scaleY, scaleZ);
                     snapshot.startScaleAnim();
-                    bone.markScaleAsChanged();
+                    pose.markScaleAsChanged(boneIndex);
                 }
             }
+
+            boneAnimations.clear();
         }
 
-        this.reloadAnimations = false;
         double resetTickLength = animatable.getBoneResetTime();
 
-        for (CoreGeoBone bone : getRegisteredBones()) {
-            if (!bone.hasRotationChanged()) {
-                BoneSnapshot initialSnapshot = bone.getInitialSnapshot();
-                BoneSnapshot saveSnapshot = boneSnapshots.get(bone.getName());
+        for (int boneIndex = 0; boneIndex < pose.getBoneCount(); boneIndex++) {
+            CoreGeoBone bone = pose.getBone(boneIndex);
+            BoneSnapshot initialSnapshot = bone.getInitialSnapshot();
+            BoneSnapshot saveSnapshot = boneSnapshots.get(bone.getName());
 
+            if (!pose.hasRotationChanged(boneIndex)) {
                 if (saveSnapshot.isRotAnimInProgress())
                     saveSnapshot.stopRotAnim(animTime);
 
@@ -167,25 +251,29 @@ public class AnimationProcessor<T extends GeoAnimatable> {
                         (animTime - saveSnapshot.getLastResetRotationTick()) / resetTickLength,
                         1
                 );
-
-                bone.setRotX(
-                        (float) Interpolations.lerp(saveSnapshot.getRotX(), initialSnapshot.getRotX(), percentageReset)
+                float rotX = (float) Interpolations.lerp(
+                        saveSnapshot.getRotX(),
+                        initialSnapshot.getRotX(),
+                        percentageReset
                 );
-                bone.setRotY(
-                        (float) Interpolations.lerp(saveSnapshot.getRotY(), initialSnapshot.getRotY(), percentageReset)
+                float rotY = (float) Interpolations.lerp(
+                        saveSnapshot.getRotY(),
+                        initialSnapshot.getRotY(),
+                        percentageReset
                 );
-                bone.setRotZ(
-                        (float) Interpolations.lerp(saveSnapshot.getRotZ(), initialSnapshot.getRotZ(), percentageReset)
+                float rotZ = (float) Interpolations.lerp(
+                        saveSnapshot.getRotZ(),
+                        initialSnapshot.getRotZ(),
+                        percentageReset
                 );
 
+                pose.setRotation(boneIndex, rotX, rotY, rotZ);
+
                 if (percentageReset >= 1)
-                    saveSnapshot.updateRotation(bone.getRotX(), bone.getRotY(), bone.getRotZ());
+                    saveSnapshot.updateRotation(rotX, rotY, rotZ);
             }
 
-            if (!bone.hasPositionChanged()) {
-                BoneSnapshot initialSnapshot = bone.getInitialSnapshot();
-                BoneSnapshot saveSnapshot = boneSnapshots.get(bone.getName());
-
+            if (!pose.hasPositionChanged(boneIndex)) {
                 if (saveSnapshot.isPosAnimInProgress())
                     saveSnapshot.stopPosAnim(animTime);
 
@@ -193,37 +281,29 @@ public class AnimationProcessor<T extends GeoAnimatable> {
                         (animTime - saveSnapshot.getLastResetPositionTick()) / resetTickLength,
                         1
                 );
-
-                bone.setPosX(
-                        (float) Interpolations.lerp(
-                                saveSnapshot.getOffsetX(),
-                                initialSnapshot.getOffsetX(),
-                                percentageReset
-                        )
+                float posX = (float) Interpolations.lerp(
+                        saveSnapshot.getOffsetX(),
+                        initialSnapshot.getOffsetX(),
+                        percentageReset
                 );
-                bone.setPosY(
-                        (float) Interpolations.lerp(
-                                saveSnapshot.getOffsetY(),
-                                initialSnapshot.getOffsetY(),
-                                percentageReset
-                        )
+                float posY = (float) Interpolations.lerp(
+                        saveSnapshot.getOffsetY(),
+                        initialSnapshot.getOffsetY(),
+                        percentageReset
                 );
-                bone.setPosZ(
-                        (float) Interpolations.lerp(
-                                saveSnapshot.getOffsetZ(),
-                                initialSnapshot.getOffsetZ(),
-                                percentageReset
-                        )
+                float posZ = (float) Interpolations.lerp(
+                        saveSnapshot.getOffsetZ(),
+                        initialSnapshot.getOffsetZ(),
+                        percentageReset
                 );
 
+                pose.setPosition(boneIndex, posX, posY, posZ);
+
                 if (percentageReset >= 1)
-                    saveSnapshot.updateOffset(bone.getPosX(), bone.getPosY(), bone.getPosZ());
+                    saveSnapshot.updateOffset(posX, posY, posZ);
             }
 
-            if (!bone.hasScaleChanged()) {
-                BoneSnapshot initialSnapshot = bone.getInitialSnapshot();
-                BoneSnapshot saveSnapshot = boneSnapshots.get(bone.getName());
-
+            if (!pose.hasScaleChanged(boneIndex)) {
                 if (saveSnapshot.isScaleAnimInProgress())
                     saveSnapshot.stopScaleAnim(animTime);
 
@@ -231,34 +311,60 @@ public class AnimationProcessor<T extends GeoAnimatable> {
                         (animTime - saveSnapshot.getLastResetScaleTick()) / resetTickLength,
                         1
                 );
-
-                bone.setScaleX(
-                        (float) Interpolations.lerp(saveSnapshot.getScaleX(), initialSnapshot.getScaleX(),
-                                percentageReset)
+                float scaleX = (float) Interpolations.lerp(
+                        saveSnapshot.getScaleX(),
+                        initialSnapshot.getScaleX(),
+                        percentageReset
                 );
-                bone.setScaleY(
-                        (float) Interpolations.lerp(saveSnapshot.getScaleY(), initialSnapshot.getScaleY(),
-                                percentageReset)
+                float scaleY = (float) Interpolations.lerp(
+                        saveSnapshot.getScaleY(),
+                        initialSnapshot.getScaleY(),
+                        percentageReset
                 );
-                bone.setScaleZ(
-                        (float) Interpolations.lerp(saveSnapshot.getScaleZ(), initialSnapshot.getScaleZ(),
-                                percentageReset)
+                float scaleZ = (float) Interpolations.lerp(
+                        saveSnapshot.getScaleZ(),
+                        initialSnapshot.getScaleZ(),
+                        percentageReset
                 );
 
+                pose.setScale(boneIndex, scaleX, scaleY, scaleZ);
+
                 if (percentageReset >= 1)
-                    saveSnapshot.updateScale(bone.getScaleX(), bone.getScaleY(), bone.getScaleZ());
+                    saveSnapshot.updateScale(scaleX, scaleY, scaleZ);
             }
         }
 
-        resetBoneTransformationMarkers();
         animatableManager.finishFirstTick();
     }
 
     /**
-     * Reset the transformation markers applied to each {@link CoreGeoBone} ready for the next render frame
+     * Apply the transformations computed by {@link #evaluateAnimation} for an animatable to the
+     * {@link CoreGeoBone GeoBones} of its model, ready for rendering.<br>
+     * Must be called on the thread the model is rendered on, directly before rendering that animatable
+     *
+     * @param pose The {@link BonePoseBuffer} of the animatable's {@link AnimatableManager}
      */
-    private void resetBoneTransformationMarkers() {
-        getRegisteredBones().forEach(CoreGeoBone::resetStateChanges);
+    public void applyBonePose(BonePoseBuffer pose) {
+        for (int boneIndex = 0; boneIndex < pose.getBoneCount(); boneIndex++) {
+            CoreGeoBone bone = pose.getBone(boneIndex);
+
+            bone.updateRotation(
+                    pose.get(boneIndex, BoneAnimationBuffer.ROTATION_X),
+                    pose.get(boneIndex, BoneAnimationBuffer.ROTATION_Y),
+                    pose.get(boneIndex, BoneAnimationBuffer.ROTATION_Z)
+            );
+            bone.updatePosition(
+                    pose.get(boneIndex, BoneAnimationBuffer.POSITION_X),
+                    pose.get(boneIndex, BoneAnimationBuffer.POSITION_Y),
+                    pose.get(boneIndex, BoneAnimationBuffer.POSITION_Z)
+            );
+            bone.updateScale(
+                    pose.get(boneIndex, BoneAnimationBuffer.SCALE_X),
+                    pose.get(boneIndex, BoneAnimationBuffer.SCALE_Y),
+                    pose.get(boneIndex, BoneAnimationBuffer.SCALE_Z)
+            );
+            bone.resetStateChanges();
+        }
     }
 
     /**
@@ -316,7 +422,8 @@ public class AnimationProcessor<T extends GeoAnimatable> {
     }
 
     /**
-     * Apply transformations and settings prior to acting on any animation-related functionality
+     * Apply transformations and settings prior to acting on any animation-related functionality.<br>
+     * Must be called on the render thread
      */
     public void preAnimationSetup(T animatable, double animTime) {
         this.model.applyMolangQueries(animatable, animTime);
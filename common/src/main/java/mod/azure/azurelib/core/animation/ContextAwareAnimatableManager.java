@@ -8,7 +8,9 @@
 package mod.azure.azurelib.core.animation;
 
 import mod.azure.azurelib.core.animatable.GeoAnimatable;
+import mod.azure.azurelib.core.molang.MolangContext;
 import mod.azure.azurelib.core.object.DataTicket;
+import mod.azure.azurelib.core.state.BonePoseBuffer;
 import mod.azure.azurelib.core.state.BoneSnapshot;
 import org.jetbrains.annotations.Nullable;
 
@@ -83,6 +85,16 @@ public abstract class ContextAwareAnimatableManager<T extends GeoAnimatable, C>
         return getManagerForContext(getCurrentContext()).getBoneSnapshotCollection();
     }
 
+    @Override
+    public MolangContext getMolangContext() {
+        return getManagerForContext(getCurrentContext()).getMolangContext();
+    }
+
+    @Override
+    public BonePoseBuffer getBonePoseBuffer() {
+        return getManagerForContext(getCurrentContext()).getBonePoseBuffer();
+    }
+
     @Override
     public void clearSnapshotCache() {
         getManagerForContext(getCurrentContext()).clearSnapshotCache();
@@ -108,6 +120,16 @@ public abstract class ContextAwareAnimatableManager<T extends GeoAnimatable, C>
         getManagerForContext(getCurrentContext()).startedAt(time);
     }
 
+    @Override
+    public long getLastEvaluatedFrame() {
+        return getManagerForContext(getCurrentContext()).getLastEvaluatedFrame();
+    }
+
+    @Override
+    public void evaluatedIn(long frame) {
+        getManagerForContext(getCurrentContext()).evaluatedIn(frame);
+    }
+
     @Override
     public boolean isFirstTick() {
         return getManagerForContext(getCurrentContext()).isFirstTick();
@@ -16,6 +16,7 @@ import mod.azure.azurelib.core.utils.Interpolations;
 
 import java.util.Locale;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 
 /**
@@ -97,6 +98,13 @@ public interface EasingType {
 
     EasingType CATMULLROM = register("catmullrom", value -> easeInOut(EasingType::catmullRom));
 
+    /**
+     * The {@code EasingTypes} built into AzureLib.<br>
+     * These only define {@link #buildTransformer}, so they can be eased without building an {@link AnimationPoint}.
+     * Any other registered type may override {@link #apply(AnimationPoint)}, and is always eased through it
+     */
+    Set<EasingType> BUILTIN_TYPES = Set.copyOf(EASING_TYPES.values());
+
     static double lerpWithOverride(AnimationPoint animationPoint, EasingType override) {
         EasingType easingType = override;
 
@@ -106,6 +114,43 @@ public interface EasingType {
         return easingType.apply(animationPoint);
     }
 
+    /**
+     * Primitive equivalent of {@link #lerpWithOverride(AnimationPoint, EasingType)}, for use by
+     * {@link mod.azure.azurelib.core.keyframe.BoneAnimationBuffer} without allocating an {@link AnimationPoint} for
+     * {@link #BUILTIN_TYPES builtin} easing types
+     */
+    static double lerpWithOverride(
+            Keyframe<?> keyFrame,
+            double currentTick,
+            double transitionLength,
+            double startValue,
+            double endValue,
+            EasingType override
+    ) {
+        EasingType easingType = override;
+
+        if (override == null)
+            easingType = keyFrame == null ? LINEAR : keyFrame.easingType();
+
+        if (!BUILTIN_TYPES.contains(easingType))
+            return easingType.apply(new AnimationPoint(keyFrame, currentTick, transitionLength, startValue, endValue));
+
+        if (currentTick >= transitionLength)
+            return (float) endValue;
+
+        double lerpValue = currentTick / transitionLength;
+
+        if (easingType == LINEAR)
+            return Interpolations.lerp(startValue, endValue, lerpValue);
+
+        Double easingVariable = null;
+
+        if (keyFrame != null && !keyFrame.easingArgs().isEmpty())
+            easingVariable = keyFrame.easingArgs().get(0).get();
+
+        return Interpolations.lerp(startValue, endValue, easingType.buildTransformer(easingVariable).apply(lerpValue));
+    }
+
     /**
      * Register an {@code EasingType} with AzureLib for handling animation transitions and value curves.<br>
      * <b><u>MUST be called during mod construct</u></b><br>
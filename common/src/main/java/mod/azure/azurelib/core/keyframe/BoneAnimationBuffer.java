@@ -0,0 +1,336 @@
+package mod.azure.azurelib.core.keyframe;
+
+import it.unimi.dsi.fastutil.objects.Object2IntOpenHashMap;
+import mod.azure.azurelib.core.animatable.model.CoreGeoBone;
+import mod.azure.azurelib.core.animation.AnimationController;
+import mod.azure.azurelib.core.animation.EasingType;
+import mod.azure.azurelib.core.state.BoneSnapshot;
+
+import java.util.Arrays;
+import java.util.Collection;
+
+/**
+ * A reusable, primitive-backed alternative to {@link BoneAnimationQueue}.<br>
+ * Holds the animation point data (start tick, transition length, start value, end value and keyframe) for every
+ * channel of every bone in flat arrays indexed by {@code boneIndex * CHANNELS + channel}, so that an
+ * {@link AnimationController} can hand its per-frame transformations over to the animation processor without
+ * allocating an {@link AnimationPoint} per channel per bone.<br>
+ * The arrays are only reallocated when the set of bones being animated changes.
+ */
+public final class BoneAnimationBuffer {
+
+    public static final int ROTATION_X = 0;
+
+    public static final int ROTATION_Y = 1;
+
+    public static final int ROTATION_Z = 2;
+
+    public static final int POSITION_X = 3;
+
+    public static final int POSITION_Y = 4;
+
+    public static final int POSITION_Z = 5;
+
+    public static final int SCALE_X = 6;
+
+    public static final int SCALE_Y = 7;
+
+    public static final int SCALE_Z = 8;
+
+    public static final int CHANNELS = 9;
+
+    private static final byte ROTATION_MASK = 1;
+
+    private static final byte POSITION_MASK = 1 << 1;
+
+    private static final byte SCALE_MASK = 1 << 2;
+
+    private final Object2IntOpenHashMap<String> boneIndexes = new Object2IntOpenHashMap<>();
+
+    private CoreGeoBone[] bones = new CoreGeoBone[0];
+
+    private double[] ticks = new double[0];
+
+    private double[] transitionLengths = new double[0];
+
+    private double[] startValues = new double[0];
+
+    private double[] endValues = new double[0];
+
+    private Keyframe<?>[] keyframes = new Keyframe<?>[0];
+
+    private byte[] transformMasks = new byte[0];
+
+    private int[] activeBones = new int[0];
+
+    private int activeBoneCount = 0;
+
+    public BoneAnimationBuffer() {
+        this.boneIndexes.defaultReturnValue(-1);
+    }
+
+    /**
+     * Prepare the buffer for the current render frame, clearing any existing animation points and re-indexing the
+     * bones if they have changed since the last frame
+     *
+     * @param bones The bones currently registered to the {@code AnimationProcessor}
+     */
+    public void prepare(Collection<? extends CoreGeoBone> bones) {
+        clear();
+
+        if (!matchesBones(bones))
+            indexBones(bones);
+    }
+
+    /**
+     * Clear all animation points currently held in the buffer
+     */
+    public void clear() {
+        for (int i = 0; i < this.activeBoneCount; i++) {
+            int boneIndex = this.activeBones[i];
+            int offset = boneIndex * CHANNELS;
+
+            this.transformMasks[boneIndex] = 0;
+            Arrays.fill(this.keyframes, offset, offset + CHANNELS, null);
+        }
+
+        this.activeBoneCount = 0;
+    }
+
+    private boolean matchesBones(Collection<? extends CoreGeoBone> bones) {
+        if (bones.size() != this.bones.length)
+            return false;
+
+        int index = 0;
+
+        for (CoreGeoBone bone : bones) {
+            if (this.bones[index++] != bone)
+                return false;
+        }
+
+        return true;
+    }
+
+    private void indexBones(Collection<? extends CoreGeoBone> bones) {
+        int boneCount = bones.size();
+        int slotCount = boneCount * CHANNELS;
+
+        this.bones = bones.toArray(new CoreGeoBone[0]);
+        this.ticks = new double[slotCount];
+        this.transitionLengths = new double[slotCount];
+        this.startValues = new double[slotCount];
+        this.endValues = new double[slotCount];
+        this.keyframes = new Keyframe<?>[slotCount];
+        this.transformMasks = new byte[boneCount];
+        this.activeBones = new int[boneCount];
+        this.activeBoneCount = 0;
+
+        this.boneIndexes.clear();
+
+        for (int i = 0; i < boneCount; i++) {
+            this.boneIndexes.put(this.bones[i].getName(), i);
+        }
+    }
+
+    /**
+     * Get the index of the bone with the given name in this buffer
+     *
+     * @return The bone index, or -1 if no bone by that name is registered
+     */
+    public int getBoneIndex(String boneName) {
+        return this.boneIndexes.getInt(boneName);
+    }
+
+    public CoreGeoBone getBone(int boneIndex) {
+        return this.bones[boneIndex];
+    }
+
+    /**
+     * Get the number of bones that have had at least one animation point added this frame
+     */
+    public int getActiveBoneCount() {
+        return this.activeBoneCount;
+    }
+
+    /**
+     * Get the bone index of the nth bone that has had an animation point added this frame
+     */
+    public int getActiveBone(int index) {
+        return this.activeBones[index];
+    }
+
+    public boolean hasRotation(int boneIndex) {
+        return (this.transformMasks[boneIndex] & ROTATION_MASK) != 0;
+    }
+
+    public boolean hasPosition(int boneIndex) {
+        return (this.transformMasks[boneIndex] & POSITION_MASK) != 0;
+    }
+
+    public boolean hasScale(int boneIndex) {
+        return (this.transformMasks[boneIndex] & SCALE_MASK) != 0;
+    }
+
+    /**
+     * Set the animation point data for the given channel of a bone.<br>
+     * Callers should also call {@link #markRotation}, {@link #markPosition} or {@link #markScale} once all three axes
+     * of a transformation have been set
+     *
+     * @param boneIndex        The index of the bone, as returned by {@link #getBoneIndex(String)}
+     * @param channel          The channel to set, e.g. {@link #ROTATION_X}
+     * @param keyFrame         The {@code Nullable} Keyframe relevant to the animation point
+     * @param lerpedTick       The lerped time (current tick + partial tick) that the point starts at
+     * @param transitionLength The length of the transition
+     * @param startValue       The value of the point at the start of its transition
+     * @param endValue         The value of the point at the end of its transition
+     */
+    public void setPoint(
+            int boneIndex,
+            int channel,
+            Keyframe<?> keyFrame,
+            double lerpedTick,
+            double transitionLength,
+            double startValue,
+            double endValue
+    ) {
+        int slot = boneIndex * CHANNELS + channel;
+
+        this.keyframes[slot] = keyFrame;
+        this.ticks[slot] = lerpedTick;
+        this.transitionLengths[slot] = transitionLength;
+        this.startValues[slot] = startValue;
+        this.endValues[slot] = endValue;
+    }
+
+    /**
+     * Set the start values of the X, Y, and Z rotation channels of a bone to transition from the given snapshot,
+     * mirroring {@link BoneAnimationQueue#addNextRotation}
+     */
+    public void setRotationTransition(
+            int boneIndex,
+            double lerpedTick,
+            double transitionLength,
+            BoneSnapshot startSnapshot,
+            BoneSnapshot initialSnapshot
+    ) {
+        double startX = startSnapshot.getRotX() - initialSnapshot.getRotX();
+        double startY = startSnapshot.getRotY() - initialSnapshot.getRotY();
+        double startZ = startSnapshot.getRotZ() - initialSnapshot.getRotZ();
+
+        setTransitionStart(boneIndex, ROTATION_X, lerpedTick, transitionLength, startX);
+        setTransitionStart(boneIndex, ROTATION_Y, lerpedTick, transitionLength, startY);
+        setTransitionStart(boneIndex, ROTATION_Z, lerpedTick, transitionLength, startZ);
+        markRotation(boneIndex);
+    }
+
+    /**
+     * Set the start values of the X, Y, and Z position channels of a bone to transition from the given snapshot,
+     * mirroring {@link BoneAnimationQueue#addNextPosition}
+     */
+    public void setPositionTransition(
+            int boneIndex,
+            double lerpedTick,
+            double transitionLength,
+            BoneSnapshot startSnapshot
+    ) {
+        setTransitionStart(boneIndex, POSITION_X, lerpedTick, transitionLength, startSnapshot.getOffsetX());
+        setTransitionStart(boneIndex, POSITION_Y, lerpedTick, transitionLength, startSnapshot.getOffsetY());
+        setTransitionStart(boneIndex, POSITION_Z, lerpedTick, transitionLength, startSnapshot.getOffsetZ());
+        markPosition(boneIndex);
+    }
+
+    /**
+     * Set the start values of the X, Y, and Z scale channels of a bone to transition from the given snapshot,
+     * mirroring {@link BoneAnimationQueue#addNextScale}
+     */
+    public void setScaleTransition(
+            int boneIndex,
+            double lerpedTick,
+            double transitionLength,
+            BoneSnapshot startSnapshot
+    ) {
+        setTransitionStart(boneIndex, SCALE_X, lerpedTick, transitionLength, startSnapshot.getScaleX());
+        setTransitionStart(boneIndex, SCALE_Y, lerpedTick, transitionLength, startSnapshot.getScaleY());
+        setTransitionStart(boneIndex, SCALE_Z, lerpedTick, transitionLength, startSnapshot.getScaleZ());
+        markScale(boneIndex);
+    }
+
+    /**
+     * Turn an already-set animation point into a transition point, starting from the given value and ending at the
+     * original start value of the point
+     */
+    private void setTransitionStart(
+            int boneIndex,
+            int channel,
+            double lerpedTick,
+            double transitionLength,
+            double startValue
+    ) {
+        int slot = boneIndex * CHANNELS + channel;
+
+        this.endValues[slot] = this.startValues[slot];
+        this.startValues[slot] = startValue;
+        this.ticks[slot] = lerpedTick;
+        this.transitionLengths[slot] = transitionLength;
+        this.keyframes[slot] = null;
+    }
+
+    public void markRotation(int boneIndex) {
+        mark(boneIndex, ROTATION_MASK);
+    }
+
+    public void markPosition(int boneIndex) {
+        mark(boneIndex, POSITION_MASK);
+    }
+
+    public void markScale(int boneIndex) {
+        mark(boneIndex, SCALE_MASK);
+    }
+
+    private void mark(int boneIndex, byte mask) {
+        if (this.transformMasks[boneIndex] == 0)
+            this.activeBones[this.activeBoneCount++] = boneIndex;
+
+        this.transformMasks[boneIndex] |= mask;
+    }
+
+    /**
+     * Create an {@link AnimationPoint} holding a copy of the animation point data for the given channel of a bone
+     *
+     * @param boneIndex The index of the bone
+     * @param channel   The channel to copy, e.g. {@link #ROTATION_X}
+     */
+    public AnimationPoint getAnimationPoint(int boneIndex, int channel) {
+        int slot = boneIndex * CHANNELS + channel;
+
+        return new AnimationPoint(
+                this.keyframes[slot],
+                this.ticks[slot],
+                this.transitionLengths[slot],
+                this.startValues[slot],
+                this.endValues[slot]
+        );
+    }
+
+    /**
+     * Compute the eased value of the given channel of a bone, equivalent to
+     * {@code EasingType.lerpWithOverride(AnimationPoint, EasingType)} for the matching {@link AnimationPoint}
+     *
+     * @param boneIndex The index of the bone
+     * @param channel   The channel to compute, e.g. {@link #ROTATION_X}
+     * @param override  The {@code Nullable} controller override {@link EasingType}
+     * @return The interpolated value of the channel
+     */
+    public double lerp(int boneIndex, int channel, EasingType override) {
+        int slot = boneIndex * CHANNELS + channel;
+
+        return EasingType.lerpWithOverride(
+                this.keyframes[slot],
+                this.ticks[slot],
+                this.transitionLengths[slot],
+                this.startValues[slot],
+                this.endValues[slot],
+                override
+        );
+    }
+}
@@ -13,42 +13,135 @@ package mod.azure.azurelib.core.keyframe;
 
 import it.unimi.dsi.fastutil.objects.ObjectArrayList;
 
+import java.util.Arrays;
 import java.util.List;
+import java.util.Objects;
 
 /**
- * Stores a triplet of {@link Keyframe Keyframes} in an ordered stack
+ * Stores a triplet of {@link Keyframe Keyframes} in an ordered stack.<br>
+ * Alongside the keyframes, the cumulative end time (in ticks) of each keyframe is baked at construction time so that
+ * the current keyframe for a given tick can be found by binary search rather than a linear walk.<br>
+ * The keyframe lists should therefore be treated as immutable once the stack has been created.<br>
+ * Equality compares the contents of the end time arrays, rather than the identity a record would use by default
+ *
+ * @param xKeyframeEndTimes The cumulative end time of each keyframe in {@code xKeyframes}
+ * @param yKeyframeEndTimes The cumulative end time of each keyframe in {@code yKeyframes}
+ * @param zKeyframeEndTimes The cumulative end time of each keyframe in {@code zKeyframes}
  */
 public record KeyframeStack<T extends Keyframe<?>>(
         List<T> xKeyframes,
         List<T> yKeyframes,
-        List<T> zKeyframes
+        List<T> zKeyframes,
+        double[] xKeyframeEndTimes,
+        double[] yKeyframeEndTimes,
+        double[] zKeyframeEndTimes
 ) {
 
     public KeyframeStack() {
         this(new ObjectArrayList<>(), new ObjectArrayList<>(), new ObjectArrayList<>());
     }
 
+    public KeyframeStack(List<T> xKeyframes, List<T> yKeyframes, List<T> zKeyframes) {
+        this(
+                xKeyframes,
+                yKeyframes,
+                zKeyframes,
+                computeEndTimes(xKeyframes),
+                computeEndTimes(yKeyframes),
+                computeEndTimes(zKeyframes)
+        );
+    }
+
     public static <F extends Keyframe<?>> KeyframeStack<F> from(KeyframeStack<F> otherStack) {
-        return new KeyframeStack<>(otherStack.xKeyframes, otherStack.yKeyframes, otherStack.zKeyframes);
+        return new KeyframeStack<>(
+                otherStack.xKeyframes,
+                otherStack.yKeyframes,
+                otherStack.zKeyframes,
+                otherStack.xKeyframeEndTimes,
+                otherStack.yKeyframeEndTimes,
+                otherStack.zKeyframeEndTimes
+        );
     }
 
-    public double getLastKeyframeTime() {
-        double xTime = 0;
-        double yTime = 0;
-        double zTime = 0;
+    /**
+     * Compute the cumulative end time of each keyframe in the given list, in the same order the keyframes are played
+     *
+     * @param keyframes The keyframes to compute the end times for
+     * @return An array of end times, one per keyframe, in ascending order
+     */
+    public static double[] computeEndTimes(List<? extends Keyframe<?>> keyframes) {
+        double[] endTimes = new double[keyframes.size()];
+        double totalFrameTime = 0;
 
-        for (T frame : xKeyframes()) {
-            xTime += frame.length();
+        for (int i = 0; i < endTimes.length; i++) {
+            totalFrameTime += keyframes.get(i).length();
+            endTimes[i] = totalFrameTime;
         }
 
-        for (T frame : yKeyframes()) {
-            yTime += frame.length();
-        }
+        return endTimes;
+    }
+
+    /**
+     * Find the index of the keyframe that is active at the given tick time, given its pre-computed end times.<br>
+     * If the tick is beyond the end of the last keyframe, the last keyframe's index is returned
+     *
+     * @param endTimes The cumulative keyframe end times, as computed by {@link #computeEndTimes(List)}
+     * @param tick     The tick time to find the keyframe for
+     * @return The index of the active keyframe, or -1 if there are no keyframes
+     */
+    public static int getKeyframeIndexAtTick(double[] endTimes, double tick) {
+        int low = 0;
+        int high = endTimes.length - 1;
 
-        for (T frame : zKeyframes()) {
-            zTime += frame.length();
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+
+            if (endTimes[mid] > tick) {
+                high = mid - 1;
+            } else {
+                low = mid + 1;
+            }
         }
 
+        return Math.min(low, endTimes.length - 1);
+    }
+
+    private static double getLastEndTime(double[] endTimes) {
+        return endTimes.length == 0 ? 0 : endTimes[endTimes.length - 1];
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj)
+            return true;
+
+        if (obj == null || getClass() != obj.getClass())
+            return false;
+
+        KeyframeStack<?> other = (KeyframeStack<?>) obj;
+
+        return this.xKeyframes.equals(other.xKeyframes)
+                && this.yKeyframes.equals(other.yKeyframes)
+                && this.zKeyframes.equals(other.zKeyframes)
+                && Arrays.equals(this.xKeyframeEndTimes, other.xKeyframeEndTimes)
+                && Arrays.equals(this.yKeyframeEndTimes, other.yKeyframeEndTimes)
+                && Arrays.equals(this.zKeyframeEndTimes, other.zKeyframeEndTimes);
+    }
+
+    @Override
+    public int hashCode() {
+        int result = Objects.hash(this.xKeyframes, this.yKeyframes, this.zKeyframes);
+        result = 31 * result + Arrays.hashCode(this.xKeyframeEndTimes);
+        result = 31 * result + Arrays.hashCode(this.yKeyframeEndTimes);
+
+        return 31 * result + Arrays.hashCode(this.zKeyframeEndTimes);
+    }
+
+    public double getLastKeyframeTime() {
+        double xTime = getLastEndTime(this.xKeyframeEndTimes);
+        double yTime = getLastEndTime(this.yKeyframeEndTimes);
+        double zTime = getLastEndTime(this.zKeyframeEndTimes);
+
         return Math.max(xTime, Math.max(yTime, zTime));
     }
 }
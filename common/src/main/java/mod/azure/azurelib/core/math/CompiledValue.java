@@ -0,0 +1,221 @@
+package mod.azure.azurelib.core.math;
+
+import it.unimi.dsi.fastutil.doubles.DoubleArrayList;
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import it.unimi.dsi.fastutil.objects.ObjectArrayList;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A flattened, stack-machine form of an {@link IValue} tree built by the {@link MathBuilder}.<br>
+ * Operators, groups, negations and ternaries are compiled into a flat array of instructions evaluated in a single loop,
+ * rather than by a chain of virtual {@link IValue#get()} calls. Constants are inlined into a constant pool, and any
+ * other values (such as variables and functions) are kept as-is and called when their instruction is reached.<br>
+ * Evaluation produces the same result as the source tree, including the evaluation order of its inputs.
+ */
+public final class CompiledValue implements IValue {
+
+    private static final int PUSH_CONSTANT = 0;
+
+    private static final int PUSH_VALUE = 1;
+
+    private static final int NEGATE = 2;
+
+    private static final int NEGATIVE = 3;
+
+    private static final int JUMP = 4;
+
+    private static final int JUMP_IF_ZERO = 5;
+
+    private static final int OPERATION = 6;
+
+    private static final Operation[] OPERATIONS = Operation.values();
+
+    private static final ThreadLocal<Stack> STACK = ThreadLocal.withInitial(Stack::new);
+
+    private final IValue source;
+
+    private final int[] instructions;
+
+    private final double[] constants;
+
+    private final IValue[] values;
+
+    private final int maxStackSize;
+
+    private CompiledValue(IValue source, int[] instructions, double[] constants, IValue[] values, int maxStackSize) {
+        this.source = source;
+        this.instructions = instructions;
+        this.constants = constants;
+        this.values = values;
+        this.maxStackSize = maxStackSize;
+    }
+
+    /**
+     * Compile the given value into a {@code CompiledValue}.<br>
+     * Values that would not benefit from compilation (constants, variables, functions, and other single values) are
+     * returned as-is
+     */
+    public static IValue compile(IValue value) {
+        if (!isCompilable(value))
+            return value;
+
+        Compiler compiler = new Compiler();
+
+        compiler.compile(value, 1);
+
+        return new CompiledValue(
+                value,
+                compiler.instructions.toIntArray(),
+                compiler.constants.toDoubleArray(),
+                compiler.values.toArray(new IValue[0]),
+                compiler.maxStackSize
+        );
+    }
+
+    private static boolean isCompilable(IValue value) {
+        return value instanceof Operator || value instanceof Group || value instanceof Negate
+                || value instanceof Negative || value instanceof Ternary;
+    }
+
+    /**
+     * Get the {@link IValue} tree this value was compiled from
+     */
+    public IValue getSource() {
+        return this.source;
+    }
+
+    @Override
+    public double get() {
+        Stack stack = STACK.get();
+        int base = stack.size;
+        double[] slots = stack.reserve(this.maxStackSize);
+        int top = base - 1;
+
+        try {
+            for (int i = 0; i < this.instructions.length; i++) {
+                int instruction = this.instructions[i];
+
+                switch (instruction & 0xFF) {
+                    case PUSH_CONSTANT -> slots[++top] = this.constants[instruction >>> 8];
+                    case PUSH_VALUE -> slots[++top] = this.values[instruction >>> 8].get();
+                    case NEGATE -> slots[top] = slots[top] == 0 ? 1 : 0;
+                    case NEGATIVE -> slots[top] = -slots[top];
+                    case JUMP -> i = (instruction >>> 8) - 1;
+                    case JUMP_IF_ZERO -> {
+                        if (slots[top--] == 0)
+                            i = (instruction >>> 8) - 1;
+                    }
+                    default -> {
+                        double b = slots[top--];
+
+                        slots[top] = OPERATIONS[(instruction >>> 8)].calculate(slots[top], b);
+                    }
+                }
+            }
+
+            return slots[top];
+        } finally {
+            stack.size = base;
+        }
+    }
+
+    @Override
+    public String toString() {
+        return this.source.toString();
+    }
+
+    /**
+     * Single-use builder for the instruction set of a {@link CompiledValue}
+     */
+    private static final class Compiler {
+
+        private final IntArrayList instructions = new IntArrayList();
+
+        private final DoubleArrayList constants = new DoubleArrayList();
+
+        private final List<IValue> values = new ObjectArrayList<>();
+
+        private int maxStackSize = 0;
+
+        /**
+         * Append the instructions for the given value, which will leave its result on the stack at the given depth
+         */
+        private void compile(IValue value, int depth) {
+            this.maxStackSize = Math.max(this.maxStackSize, depth);
+
+            switch (value) {
+                case Constant constant -> {
+                    emit(PUSH_CONSTANT, this.constants.size());
+                    this.constants.add(constant.get());
+                }
+                case Group group -> compile(group.getValue(), depth);
+                case Negate negate -> {
+                    compile(negate.value, depth);
+                    emit(NEGATE, 0);
+                }
+                case Negative negative -> {
+                    compile(negative.value, depth);
+                    emit(NEGATIVE, 0);
+                }
+                case Operator operator -> {
+                    compile(operator.a, depth);
+                    compile(operator.b, depth + 1);
+                    emit(OPERATION, operator.operation.ordinal());
+                }
+                case Ternary ternary -> {
+                    compile(ternary.condition, depth);
+
+                    int jumpToFalse = emit(JUMP_IF_ZERO, 0);
+
+                    compile(ternary.ifTrue, depth);
+
+                    int jumpToEnd = emit(JUMP, 0);
+
+                    patch(jumpToFalse, JUMP_IF_ZERO);
+                    compile(ternary.ifFalse, depth);
+                    patch(jumpToEnd, JUMP);
+                }
+                default -> {
+                    emit(PUSH_VALUE, this.values.size());
+                    this.values.add(value);
+                }
+            }
+        }
+
+        private int emit(int opcode, int operand) {
+            this.instructions.add(operand << 8 | opcode);
+
+            return this.instructions.size() - 1;
+        }
+
+        /**
+         * Point a previously emitted jump instruction at the next instruction to be emitted
+         */
+        private void patch(int index, int opcode) {
+            this.instructions.set(index, this.instructions.size() << 8 | opcode);
+        }
+    }
+
+    /**
+     * Per-thread evaluation stack shared by all {@code CompiledValue} instances.<br>
+     * Each evaluation reserves its own region above the current size, so that values which evaluate other compiled
+     * values while being computed don't overwrite the caller's in-progress results
+     */
+    private static final class Stack {
+
+        private double[] slots = new double[64];
+
+        private int size = 0;
+
+        private double[] reserve(int count) {
+            if (this.size + count > this.slots.length)
+                this.slots = Arrays.copyOf(this.slots, Math.max(this.slots.length * 2, this.size + count));
+
+            this.size += count;
+
+            return this.slots;
+        }
+    }
+}
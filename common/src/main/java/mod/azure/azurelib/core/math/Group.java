@@ -11,6 +11,10 @@ public class Group implements IValue {
         this.value = value;
     }
 
+    public IValue getValue() {
+        return this.value;
+    }
+
     @Override
     public double get() {
         return this.value.get();
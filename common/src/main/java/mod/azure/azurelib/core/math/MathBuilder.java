@@ -22,9 +22,8 @@ import java.util.Map;
  * Math builder This class is responsible for parsing math expressions provided by user in a string to an {@link IValue}
  * which can be used to compute some value dynamically using different math operators, variables and functions. It works
  * by first breaking down given string into a list of tokens and then putting them together in a binary tree-like
- * {@link IValue}.
- * TODO: maybe implement constant pool (to reuse same values)?
- * TODO: maybe pre-compute constant expressions?
+ * {@link IValue}. Sub-expressions that can be fully determined at parse time are pre-computed into {@link Constant
+ * Constants} as the tree is built.
  */
 public class MathBuilder {
 
@@ -258,7 +257,7 @@ public class MathBuilder {
                     IValue leftValue = this.parseSymbols(symbols.subList(0, leftOp));
                     IValue rightValue = this.parseSymbols(symbols.subList(leftOp + 1, size));
 
-                    return new Operator(left, leftValue, rightValue);
+                    return this.fold(new Operator(left, leftValue, rightValue));
                 } else if (left.value > right.value) {
                     Operation initial = this.operationForOperator((String) symbols.get(lastOp));
 
@@ -266,13 +265,13 @@ public class MathBuilder {
                         IValue leftValue = this.parseSymbols(symbols.subList(0, lastOp));
                         IValue rightValue = this.parseSymbols(symbols.subList(lastOp + 1, size));
 
-                        return new Operator(initial, leftValue, rightValue);
+                        return this.fold(new Operator(initial, leftValue, rightValue));
                     }
 
                     IValue leftValue = this.parseSymbols(symbols.subList(0, op));
                     IValue rightValue = this.parseSymbols(symbols.subList(op + 1, size));
 
-                    return new Operator(right, leftValue, rightValue);
+                    return this.fold(new Operator(right, leftValue, rightValue));
                 }
             }
 
@@ -281,13 +280,55 @@ public class MathBuilder {
 
         Operation operation = this.operationForOperator((String) symbols.get(lastOp));
 
-        return new Operator(
-                operation,
-                this.parseSymbols(symbols.subList(0, lastOp)),
-                this.parseSymbols(symbols.subList(lastOp + 1, size))
+        return this.fold(
+                new Operator(
+                        operation,
+                        this.parseSymbols(symbols.subList(0, lastOp)),
+                        this.parseSymbols(symbols.subList(lastOp + 1, size))
+                )
         );
     }
 
+    /**
+     * Pre-compute the given value if its result can be fully determined at parse time.<br>
+     * Operators, groups, negations and deterministic functions whose inputs are all {@link Constant Constants} are
+     * replaced by a {@code Constant} of their result, and ternaries with a constant condition are replaced by the
+     * branch they would always take
+     */
+    protected IValue fold(IValue value) {
+        if (value instanceof Ternary ternary && ternary.condition instanceof Constant condition)
+            return condition.get() != 0 ? ternary.ifTrue : ternary.ifFalse;
+
+        if (!(value instanceof Constant) && this.isConstantExpression(value))
+            return new Constant(value.get());
+
+        return value;
+    }
+
+    /**
+     * Whether the given value only depends on {@link Constant} inputs, and so will always compute the same result
+     */
+    protected boolean isConstantExpression(IValue value) {
+        return switch (value) {
+            case Constant constant -> true;
+            case Operator operator -> operator.a instanceof Constant && operator.b instanceof Constant;
+            case Group group -> group.getValue() instanceof Constant;
+            case Negate negate -> negate.value instanceof Constant;
+            case Negative negative -> negative.value instanceof Constant;
+            case Function function -> function.isDeterministic() && this.isAllConstant(function.getArgs());
+            default -> false;
+        };
+    }
+
+    private boolean isAllConstant(IValue[] values) {
+        for (IValue value : values) {
+            if (!(value instanceof Constant))
+                return false;
+        }
+
+        return true;
+    }
+
     protected int seekLastOperator(List<Object> symbols) {
         return this.seekLastOperator(symbols, symbols.size() - 1);
     }
@@ -358,10 +399,12 @@ public class MathBuilder {
         }
 
         if (questions == colons && question > 0 && question + 1 < colon && colon < size - 1) {
-            return new Ternary(
-                    this.parseSymbols(symbols.subList(0, question)),
-                    this.parseSymbols(symbols.subList(question + 1, colon)),
-                    this.parseSymbols(symbols.subList(colon + 1, size))
+            return this.fold(
+                    new Ternary(
+                            this.parseSymbols(symbols.subList(0, question)),
+                            this.parseSymbols(symbols.subList(question + 1, colon)),
+                            this.parseSymbols(symbols.subList(colon + 1, size))
+                    )
             );
         }
 
@@ -377,20 +420,20 @@ public class MathBuilder {
     protected IValue createFunction(String first, List<Object> args) throws Exception {
         /* Handle special cases with negation */
         if (first.equals("!")) {
-            return new Negate(this.parseSymbols(args));
+            return this.fold(new Negate(this.parseSymbols(args)));
         }
 
         if (first.startsWith("!") && first.length() > 1) {
-            return new Negate(this.createFunction(first.substring(1), args));
+            return this.fold(new Negate(this.createFunction(first.substring(1), args)));
         }
 
         /* Handle inversion of the value */
         if (first.equals("-")) {
-            return new Negative(new Group(this.parseSymbols(args)));
+            return this.fold(new Negative(this.fold(new Group(this.parseSymbols(args)))));
         }
 
         if (first.startsWith("-") && first.length() > 1) {
-            return new Negative(this.createFunction(first.substring(1), args));
+            return this.fold(new Negative(this.createFunction(first.substring(1), args)));
         }
 
         if (!this.functions.containsKey(first)) {
@@ -415,7 +458,7 @@ public class MathBuilder {
 
         Class<? extends Function> function = this.functions.get(first);
         Constructor<? extends Function> ctor = function.getConstructor(IValue[].class, String.class);
-        return ctor.newInstance(values.toArray(new IValue[values.size()]), first);
+        return this.fold(ctor.newInstance(values.toArray(new IValue[values.size()]), first));
     }
 
     /**
@@ -424,13 +467,13 @@ public class MathBuilder {
      */
     public IValue valueFromObject(Object object) throws Exception {
         if (object instanceof List) {
-            return new Group(this.parseSymbols((List<Object>) object));
+            return this.fold(new Group(this.parseSymbols((List<Object>) object)));
         }
 
         if (object instanceof String symbol) {
             /* Variable and constant negation */
             if (symbol.startsWith("!")) {
-                return new Negate(this.valueFromObject(symbol.substring(1)));
+                return this.fold(new Negate(this.valueFromObject(symbol.substring(1))));
             }
 
             if (this.isDecimal(symbol)) {
@@ -439,13 +482,13 @@ public class MathBuilder {
                 /* Need to account for a negative value variable */
                 if (symbol.startsWith("-")) {
                     symbol = symbol.substring(1);
-                    Variable value = this.getVariable(symbol);
+                    Variable value = this.resolveVariable(symbol);
 
                     if (value != null) {
                         return new Negative(value);
                     }
                 } else {
-                    IValue value = this.getVariable(symbol);
+                    IValue value = this.resolveVariable(symbol);
 
                     /* Avoid NPE */
                     if (value != null) {
@@ -465,6 +508,14 @@ public class MathBuilder {
         return this.variables.get(name);
     }
 
+    /**
+     * Get the variable a parsed expression should reference for the given name.<br>
+     * Defaults to {@link #getVariable(String)}
+     */
+    protected Variable resolveVariable(String name) {
+        return this.getVariable(name);
+    }
+
     /**
      * Get operation for given operator strings
      */
@@ -61,6 +61,22 @@ public abstract class Function implements IValue {
         return this.name;
     }
 
+    /**
+     * Get the arguments of this function
+     */
+    public IValue[] getArgs() {
+        return this.args;
+    }
+
+    /**
+     * Whether this function always returns the same output for the same arguments.<br>
+     * Deterministic functions with only constant arguments are pre-computed by the {@code MathBuilder} at parse time.
+     * Functions are assumed to read some outside state unless they override this, so only pure functions should opt in
+     */
+    public boolean isDeterministic() {
+        return false;
+    }
+
     /**
      * Get minimum count of arguments this function needs
      */
@@ -17,6 +17,11 @@ public class ACos extends Function {
         return 1;
     }
 
+    @Override
+    public boolean isDeterministic() {
+        return true;
+    }
+
     @Override
     public double get() {
         return Math.acos(this.getArg(0));
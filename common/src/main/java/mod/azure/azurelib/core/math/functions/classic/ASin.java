@@ -17,6 +17,11 @@ public class ASin extends Function {
         return 1;
     }
 
+    @Override
+    public boolean isDeterministic() {
+        return true;
+    }
+
     @Override
     public double get() {
         return Math.asin(this.getArg(0));
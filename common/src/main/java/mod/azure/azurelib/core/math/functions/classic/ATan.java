@@ -17,6 +17,11 @@ public class ATan extends Function {
         return 1;
     }
 
+    @Override
+    public boolean isDeterministic() {
+        return true;
+    }
+
     @Override
     public double get() {
         return Math.atan(this.getArg(0));
@@ -17,6 +17,11 @@ public class ATan2 extends Function {
         return 2;
     }
 
+    @Override
+    public boolean isDeterministic() {
+        return true;
+    }
+
     @Override
     public double get() {
         return Math.atan2(this.getArg(0), this.getArg(1));
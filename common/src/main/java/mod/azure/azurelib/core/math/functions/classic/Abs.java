@@ -17,6 +17,11 @@ public class Abs extends Function {
         return 1;
     }
 
+    @Override
+    public boolean isDeterministic() {
+        return true;
+    }
+
     @Override
     public double get() {
         return Math.abs(this.getArg(0));
@@ -14,6 +14,11 @@ public class Cos extends Function {
         return 1;
     }
 
+    @Override
+    public boolean isDeterministic() {
+        return true;
+    }
+
     @Override
     public double get() {
         return Math.cos(this.getArg(0));
@@ -14,6 +14,11 @@ public class Exp extends Function {
         return 1;
     }
 
+    @Override
+    public boolean isDeterministic() {
+        return true;
+    }
+
     @Override
     public double get() {
         return Math.exp(this.getArg(0));
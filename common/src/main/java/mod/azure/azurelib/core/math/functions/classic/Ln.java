@@ -14,6 +14,11 @@ public class Ln extends Function {
         return 1;
     }
 
+    @Override
+    public boolean isDeterministic() {
+        return true;
+    }
+
     @Override
     public double get() {
         return Math.log(this.getArg(0));
@@ -14,6 +14,11 @@ public class Mod extends Function {
         return 2;
     }
 
+    @Override
+    public boolean isDeterministic() {
+        return true;
+    }
+
     @Override
     public double get() {
         return this.getArg(0) % this.getArg(1);
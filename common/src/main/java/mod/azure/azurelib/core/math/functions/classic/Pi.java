@@ -9,6 +9,11 @@ public class Pi extends Function {
         super(values, name);
     }
 
+    @Override
+    public boolean isDeterministic() {
+        return true;
+    }
+
     @Override
     public double get() {
         return Math.PI;
@@ -14,6 +14,11 @@ public class Pow extends Function {
         return 2;
     }
 
+    @Override
+    public boolean isDeterministic() {
+        return true;
+    }
+
     @Override
     public double get() {
         return Math.pow(this.getArg(0), this.getArg(1));
@@ -14,6 +14,11 @@ public class Sin extends Function {
         return 1;
     }
 
+    @Override
+    public boolean isDeterministic() {
+        return true;
+    }
+
     @Override
     public double get() {
         return Math.sin(this.getArg(0));
@@ -14,6 +14,11 @@ public class Sqrt extends Function {
         return 1;
     }
 
+    @Override
+    public boolean isDeterministic() {
+        return true;
+    }
+
     @Override
     public double get() {
         return Math.sqrt(this.getArg(0));
@@ -15,6 +15,11 @@ public class Clamp extends Function {
         return 3;
     }
 
+    @Override
+    public boolean isDeterministic() {
+        return true;
+    }
+
     @Override
     public double get() {
         return MathUtils.clamp(this.getArg(0), this.getArg(1), this.getArg(2));
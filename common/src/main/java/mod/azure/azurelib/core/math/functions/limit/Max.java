@@ -14,6 +14,11 @@ public class Max extends Function {
         return 2;
     }
 
+    @Override
+    public boolean isDeterministic() {
+        return true;
+    }
+
     @Override
     public double get() {
         return Math.max(this.getArg(0), this.getArg(1));
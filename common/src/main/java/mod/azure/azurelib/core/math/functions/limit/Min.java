@@ -14,6 +14,11 @@ public class Min extends Function {
         return 2;
     }
 
+    @Override
+    public boolean isDeterministic() {
+        return true;
+    }
+
     @Override
     public double get() {
         return Math.min(this.getArg(0), this.getArg(1));
@@ -14,6 +14,11 @@ public class Ceil extends Function {
         return 1;
     }
 
+    @Override
+    public boolean isDeterministic() {
+        return true;
+    }
+
     @Override
     public double get() {
         return Math.ceil(this.getArg(0));
@@ -14,6 +14,11 @@ public class Floor extends Function {
         return 1;
     }
 
+    @Override
+    public boolean isDeterministic() {
+        return true;
+    }
+
     @Override
     public double get() {
         return Math.floor(this.getArg(0));
@@ -14,6 +14,11 @@ public class Round extends Function {
         return 1;
     }
 
+    @Override
+    public boolean isDeterministic() {
+        return true;
+    }
+
     @Override
     public double get() {
         return Math.round(this.getArg(0));
@@ -14,6 +14,11 @@ public class Trunc extends Function {
         return 1;
     }
 
+    @Override
+    public boolean isDeterministic() {
+        return true;
+    }
+
     @Override
     public double get() {
         double value = this.getArg(0);
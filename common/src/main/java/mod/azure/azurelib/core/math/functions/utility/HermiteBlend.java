@@ -18,6 +18,11 @@ public class HermiteBlend extends Function {
         return 1;
     }
 
+    @Override
+    public boolean isDeterministic() {
+        return true;
+    }
+
     @Override
     public double get() {
         double min = Math.ceil(this.getArg(0));
@@ -13,6 +13,11 @@ public class Random extends Function {
         this.random = new java.util.Random();
     }
 
+    @Override
+    public boolean isDeterministic() {
+        return false;
+    }
+
     @Override
     public double get() {
         double random = 0;
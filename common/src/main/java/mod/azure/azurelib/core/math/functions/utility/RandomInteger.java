@@ -13,6 +13,11 @@ public class RandomInteger extends Function {
         this.random = new java.util.Random();
     }
 
+    @Override
+    public boolean isDeterministic() {
+        return false;
+    }
+
     @Override
     public int getRequiredArguments() {
         return 2;
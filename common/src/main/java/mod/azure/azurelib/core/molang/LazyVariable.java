@@ -13,12 +13,18 @@ import java.util.function.DoubleSupplier;
 
 /**
  * Lazy override of Variable, to allow for deferred value calculation. <br>
- * Optimises rendering as values are not touched until needed (if at all)
+ * Optimises rendering as values are not touched until needed (if at all).<br>
+ * Variables registered with or parsed by the {@link MolangParser} are assigned a slot id, which is used to read and
+ * write their value from the currently active {@link MolangContext} where one is present
  */
 public class LazyVariable extends Variable {
 
     private DoubleSupplier valueSupplier;
 
+    private int slot = -1;
+
+    private boolean hasGlobalValue = false;
+
     public LazyVariable(String name, double value) {
         this(name, () -> value);
     }
@@ -37,25 +43,79 @@ public class LazyVariable extends Variable {
     }
 
     /**
-     * Set the new value for the variable, acting as a constant
+     * Get the {@link MolangContext} slot id for this variable, or -1 if it isn't a registered variable
+     */
+    public int getSlot() {
+        return this.slot;
+    }
+
+    void setSlot(int slot) {
+        this.slot = slot;
+    }
+
+    /**
+     * Set the new value for the variable, acting as a constant.<br>
+     * If a {@link MolangContext} is active, the value is only assigned for that context. Otherwise it is set globally,
+     * taking precedence over any {@link MolangQuery} registered for the variable
      */
     @Override
     public void set(double value) {
-        this.valueSupplier = () -> value;
+        MolangContext context = this.slot == -1 ? null : MolangContext.getActive();
+
+        if (context != null) {
+            context.setValue(this.slot, value);
+        } else {
+            this.valueSupplier = () -> value;
+            this.hasGlobalValue = true;
+        }
     }
 
     /**
-     * Set the new value supplier for the variable
+     * Set the new value supplier for the variable.<br>
+     * If a {@link MolangContext} is active, the supplier is only set for that context for the current frame. Otherwise
+     * it is set globally, taking precedence over any {@link MolangQuery} registered for the variable
      */
     public void set(DoubleSupplier valueSupplier) {
-        this.valueSupplier = valueSupplier;
+        MolangContext context = this.slot == -1 ? null : MolangContext.getActive();
+
+        if (context != null) {
+            context.setSupplier(this.slot, valueSupplier);
+        } else {
+            this.valueSupplier = valueSupplier;
+            this.hasGlobalValue = true;
+        }
     }
 
     /**
-     * Get the current value of the variable
+     * Get the current value of the variable, preferring the value held by the active {@link MolangContext} if there is
+     * one
      */
     @Override
     public double get() {
+        MolangContext context = this.slot == -1 ? null : MolangContext.getActive();
+
+        return context != null ? context.getValue(this) : this.valueSupplier.getAsDouble();
+    }
+
+    /**
+     * Take on the global value of another variable, for when this variable is registered in its place
+     */
+    void copyValueFrom(LazyVariable other) {
+        this.valueSupplier = other.valueSupplier;
+        this.hasGlobalValue = other.hasGlobalValue;
+    }
+
+    /**
+     * Whether this variable has been given a value globally, outside any {@link MolangContext}
+     */
+    boolean hasGlobalValue() {
+        return this.hasGlobalValue;
+    }
+
+    /**
+     * Get the global value of the variable, ignoring any active {@link MolangContext}
+     */
+    double getGlobalValue() {
         return this.valueSupplier.getAsDouble();
     }
 }
@@ -0,0 +1,165 @@
+package mod.azure.azurelib.core.molang;
+
+import java.util.Arrays;
+import java.util.function.DoubleSupplier;
+
+/**
+ * A reusable Molang evaluation context, holding the values of the Molang variables for a single animatable.<br>
+ * Values are stored in a primitive slot array, indexed by the slot id that the {@link MolangParser} assigns to each
+ * {@link LazyVariable} when it is registered or first parsed.<br>
+ * <br>
+ * Values held by a context come from three sources, in order of precedence:
+ * <ul>
+ *     <li>Value suppliers set through {@link MolangParser#setValue} or {@link MolangParser#setMemoizedValue} while the
+ *     context is active. These only last until the next frame, as they are normally set again each frame from
+ *     {@link mod.azure.azurelib.core.animatable.model.CoreGeoModel#applyMolangQueries}</li>
+ *     <li>Values assigned by Molang expressions, or set through {@link MolangParser#setContextValue}. These persist
+ *     across frames until they are next assigned</li>
+ *     <li>Registered {@link MolangQuery queries}, which are only computed the first time they are read in a frame,
+ *     with the result reused for the remainder of that frame. Queries are skipped for variables that have been given
+ *     a value globally, outside any context</li>
+ * </ul>
+ * A context is made active for the current thread between {@link #begin} or {@link #resume} and {@link #end}, during
+ * which variable reads and writes go to this context rather than the global variable values. This allows several
+ * animatables to be evaluated independently of each other.
+ */
+public final class MolangContext {
+
+    private static final ThreadLocal<MolangContext> ACTIVE = new ThreadLocal<>();
+
+    private double[] values = new double[0];
+
+    private boolean[] assigned = new boolean[0];
+
+    private long[] queryGenerations = new long[0];
+
+    private DoubleSupplier[] suppliers = new DoubleSupplier[0];
+
+    private long[] supplierGenerations = new long[0];
+
+    private long generation = 0;
+
+    private Object animatable;
+
+    private double animTime;
+
+    /**
+     * Get the context currently active on this thread, if any
+     */
+    public static MolangContext getActive() {
+        return ACTIVE.get();
+    }
+
+    /**
+     * Start a new evaluation frame for the given animatable, invalidating the query results and value suppliers of the
+     * previous frame and making this context the active context for the current thread.<br>
+     * Values assigned by Molang expressions are kept
+     *
+     * @param animatable The animatable being animated
+     * @param animTime   The internal tick counter for the animatable
+     */
+    public void begin(Object animatable, double animTime) {
+        this.animatable = animatable;
+        this.animTime = animTime;
+        this.generation++;
+
+        ACTIVE.set(this);
+    }
+
+    /**
+     * Make this context the active context for the current thread again, continuing the evaluation frame last started
+     * by {@link #begin}.<br>
+     * This allows a frame to be evaluated in several stages, possibly on different threads, while sharing the same
+     * query results and value suppliers
+     */
+    public void resume() {
+        ACTIVE.set(this);
+    }
+
+    /**
+     * Deactivate this context for the current thread
+     */
+    public void end() {
+        if (ACTIVE.get() == this)
+            ACTIVE.remove();
+    }
+
+    public Object getAnimatable() {
+        return this.animatable;
+    }
+
+    public double getAnimTime() {
+        return this.animTime;
+    }
+
+    /**
+     * Assign the value of the given variable slot, persisting until it is next assigned
+     */
+    public void setValue(int slot, double value) {
+        ensureCapacity(slot);
+
+        this.values[slot] = value;
+        this.assigned[slot] = true;
+        this.suppliers[slot] = null;
+    }
+
+    /**
+     * Set the value supplier of the given variable slot for the current frame, taking precedence over any assigned
+     * value or registered {@link MolangQuery} for the slot
+     */
+    public void setSupplier(int slot, DoubleSupplier supplier) {
+        ensureCapacity(slot);
+
+        this.suppliers[slot] = supplier;
+        this.supplierGenerations[slot] = this.generation;
+    }
+
+    /**
+     * Get the value of the given variable for the current frame, resolving its registered {@link MolangQuery} if it
+     * hasn't already been computed this frame.<br>
+     * Falls back to the variable's global value if this context has no value for it
+     */
+    double getValue(LazyVariable variable) {
+        int slot = variable.getSlot();
+
+        if (slot < this.values.length) {
+            DoubleSupplier supplier = this.suppliers[slot];
+
+            if (supplier != null && this.supplierGenerations[slot] == this.generation)
+                return supplier.getAsDouble();
+
+            if (this.assigned[slot] || this.queryGenerations[slot] == this.generation)
+                return this.values[slot];
+        }
+
+        if (!variable.hasGlobalValue()) {
+            MolangParser.RegisteredQuery<?> query = MolangParser.INSTANCE.getQuery(slot);
+
+            if (query != null && query.appliesTo(this.animatable)) {
+                double value = query.get(this.animatable, this.animTime);
+
+                ensureCapacity(slot);
+
+                this.values[slot] = value;
+                this.queryGenerations[slot] = this.generation;
+
+                return value;
+            }
+        }
+
+        return variable.getGlobalValue();
+    }
+
+    private void ensureCapacity(int slot) {
+        if (slot < this.values.length)
+            return;
+
+        int size = Math.max(slot + 1, this.values.length * 2);
+
+        this.values = Arrays.copyOf(this.values, size);
+        this.assigned = Arrays.copyOf(this.assigned, size);
+        this.queryGenerations = Arrays.copyOf(this.queryGenerations, size);
+        this.suppliers = Arrays.copyOf(this.suppliers, size);
+        this.supplierGenerations = Arrays.copyOf(this.supplierGenerations, size);
+    }
+}
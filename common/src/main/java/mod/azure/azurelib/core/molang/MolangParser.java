@@ -9,7 +9,7 @@ package mod.azure.azurelib.core.molang;
 
 import com.google.gson.JsonElement;
 import com.google.gson.JsonPrimitive;
-import it.unimi.dsi.fastutil.objects.Object2ObjectOpenHashMap;
+import mod.azure.azurelib.core.math.CompiledValue;
 import mod.azure.azurelib.core.math.Constant;
 import mod.azure.azurelib.core.math.IValue;
 import mod.azure.azurelib.core.math.MathBuilder;
@@ -20,20 +20,38 @@ import mod.azure.azurelib.core.molang.expressions.MolangVariableHolder;
 import mod.azure.azurelib.core.molang.functions.CosDegrees;
 import mod.azure.azurelib.core.molang.functions.SinDegrees;
 
+import java.util.Arrays;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.DoubleSupplier;
 
 /**
- * Utility class for parsing and utilising MoLang functions and expressions
+ * Utility class for parsing and utilising MoLang functions and expressions.<br>
+ * Expressions may be parsed from several threads at once. Variables they reference that haven't been registered are
+ * held separately from {@link #VARIABLES}, and only become registered once code registers or requests them by name
  *
  * @see <a href="https://bedrock.dev/docs/1.19.0.0/1.19.30.23/Molang#Math%20Functions">Bedrock Dev - Molang</a>
  */
 public class MolangParser extends MathBuilder {
 
     // Replace base variables map
-    public static final Map<String, LazyVariable> VARIABLES = new Object2ObjectOpenHashMap<>();
+    public static final Map<String, LazyVariable> VARIABLES = new ConcurrentHashMap<>();
+
+    /**
+     * Variables referenced or assigned by parsed expressions that haven't been registered yet
+     */
+    private static final Map<String, LazyVariable> PARSED_VARIABLES = new ConcurrentHashMap<>();
+
+    /**
+     * Guards slot allocation, and changes to {@link #VARIABLES}, {@link #PARSED_VARIABLES} and {@link #queries}
+     */
+    private static final Object REGISTRY_LOCK = new Object();
+
+    private static volatile RegisteredQuery<?>[] queries = new RegisteredQuery<?>[0];
+
+    private static int nextSlot = 0;
 
     public static final MolangVariableHolder ZERO = new MolangVariableHolder(null, new Constant(0));
 
@@ -43,6 +61,8 @@ public class MolangParser extends MathBuilder {
 
     public static final MolangParser INSTANCE = new MolangParser();
 
+    private static boolean compileExpressions = true;
+
     private MolangParser() {
         super();
 
@@ -84,7 +104,7 @@ public class MolangParser extends MathBuilder {
 
             if (!trimmed.isEmpty()) {
                 if (result == null) {
-                    result = new MolangCompoundValue(parseOneLine(trimmed, result));
+                    result = new MolangCompoundValue(parseOneLine(trimmed, result), expression);
 
                     continue;
                 }
@@ -108,7 +128,9 @@ public class MolangParser extends MathBuilder {
     ) throws MolangException {
         if (expression.startsWith(RETURN)) {
             try {
-                return new MolangValue(INSTANCE.parse(expression.substring(RETURN.length())), true);
+                IValue value = INSTANCE.parse(expression.substring(RETURN.length()));
+
+                return new MolangValue(INSTANCE.compile(value), true);
             } catch (Exception e) {
                 throw new MolangException("Couldn't parse return '" + expression + "' expression!");
             }
@@ -122,23 +144,36 @@ public class MolangParser extends MathBuilder {
                             && symbols.get(1).equals("=")
             ) {
                 symbols = symbols.subList(2, symbols.size());
-                LazyVariable variable;
+                LazyVariable variable = INSTANCE.getVariable(name, currentStatement);
 
-                if (!VARIABLES.containsKey(name) && !currentStatement.locals.containsKey(name)) {
-                    currentStatement.locals.put(name, (variable = new LazyVariable(name, 0)));
-                } else {
-                    variable = INSTANCE.getVariable(name, currentStatement);
-                }
-
-                return new MolangVariableHolder(variable, INSTANCE.parseSymbolsMolang(symbols));
+                return new MolangVariableHolder(variable, INSTANCE.compile(INSTANCE.parseSymbolsMolang(symbols)));
             }
 
-            return new MolangValue(INSTANCE.parseSymbolsMolang(symbols));
+            return new MolangValue(INSTANCE.compile(INSTANCE.parseSymbolsMolang(symbols)));
         } catch (Exception e) {
             throw new MolangException("Couldn't parse '" + expression + "' expression!");
         }
     }
 
+    /**
+     * Set whether newly parsed Molang expressions should be compiled into {@link CompiledValue CompiledValues}.<br>
+     * Expressions that have already been parsed are unaffected
+     */
+    public static void setCompileExpressions(boolean compile) {
+        compileExpressions = compile;
+    }
+
+    public static boolean shouldCompileExpressions() {
+        return compileExpressions;
+    }
+
+    /**
+     * Compile the given parsed expression into a {@link CompiledValue} if expression compilation is enabled
+     */
+    private IValue compile(IValue value) {
+        return compileExpressions ? CompiledValue.compile(value) : value;
+    }
+
     private void doCoreRemaps() {
         // Replace radian based sin and cos with degree-based functions
         this.functions.put("cos", CosDegrees.class);
@@ -191,14 +226,61 @@ public class MolangParser extends MathBuilder {
 
     /**
      * Register a new {@link Variable} with the {@code MolangParser}.<br>
+     * If expressions referencing a variable by the same name have already been parsed, the variable they reference is
+     * registered in its place, taking on the given variable's value.<br>
      * Ideally should be called from the mod constructor.
      */
     @Override
     public void register(Variable variable) {
-        if (!(variable instanceof LazyVariable))
-            variable = LazyVariable.from(variable);
+        LazyVariable lazyVariable = variable instanceof LazyVariable lazy ? lazy : LazyVariable.from(variable);
+
+        synchronized (REGISTRY_LOCK) {
+            LazyVariable parsed = PARSED_VARIABLES.remove(lazyVariable.getName());
+
+            if (parsed != null) {
+                parsed.copyValueFrom(lazyVariable);
+                lazyVariable = parsed;
+            }
+
+            LazyVariable existing = VARIABLES.put(lazyVariable.getName(), lazyVariable);
+
+            if (lazyVariable.getSlot() == -1)
+                lazyVariable.setSlot(existing != null && existing.getSlot() != -1 ? existing.getSlot() : nextSlot++);
+        }
+    }
+
+    /**
+     * Register a {@link MolangQuery} for the variable with the given name.<br>
+     * The query will be lazily computed once per frame per animatable by that animatable's {@link MolangContext},
+     * for any animatable that is an instance of the given type.<br>
+     * Ideally should be called from the mod constructor.
+     *
+     * @param name           The name of the variable, e.g. {@link MolangQueries#HEALTH}
+     * @param animatableType The type of animatable the query applies to
+     * @param query          The query to compute the value of the variable
+     */
+    public <A> void registerQuery(String name, Class<A> animatableType, MolangQuery<A> query) {
+        synchronized (REGISTRY_LOCK) {
+            int slot = getVariable(name).getSlot();
+            RegisteredQuery<?>[] registeredQueries = queries;
+
+            if (slot >= registeredQueries.length)
+                registeredQueries = Arrays.copyOf(registeredQueries, slot + 1);
+            else
+                registeredQueries = registeredQueries.clone();
+
+            registeredQueries[slot] = new RegisteredQuery<>(animatableType, query);
+            queries = registeredQueries;
+        }
+    }
 
-        VARIABLES.put(variable.getName(), (LazyVariable) variable);
+    /**
+     * Get the {@link MolangQuery} registered for the given variable slot, if any
+     */
+    public RegisteredQuery<?> getQuery(int slot) {
+        RegisteredQuery<?>[] registeredQueries = queries;
+
+        return slot < registeredQueries.length ? registeredQueries[slot] : null;
     }
 
     /**
@@ -210,6 +292,8 @@ public class MolangParser extends MathBuilder {
 
     /**
      * Set the value supplier for a variable.<br>
+     * If a {@link MolangContext} is active, the supplier only applies to that context for the current frame. Either
+     * way, it takes precedence over any {@link MolangQuery} registered for the variable.<br>
      * Consider using {@link MolangParser#setMemoizedValue} instead of you don't need per-call dynamic results
      *
      * @param name  The name of the variable to set the value for
@@ -223,7 +307,20 @@ public class MolangParser extends MathBuilder {
     }
 
     /**
-     * Sets a memoized value supplier for a variable.<br>
+     * Set the value of a variable for the currently active {@link MolangContext}, or globally if no context is active.
+     * A value set for a context persists across frames until it is next set.<br>
+     * Unlike {@link MolangParser#setValue} and {@link MolangParser#setMemoizedValue}, this does not allocate when a
+     * context is active
+     *
+     * @param name  The name of the variable to set the value for
+     * @param value The value to set
+     */
+    public void setContextValue(String name, double value) {
+        getVariable(name).set(value);
+    }
+
+    /**
+     * Sets a memoized value supplier for a variable, as with {@link MolangParser#setValue}.<br>
      * This prevents re-calculation on successive calls, improving efficiency.<br>
      * This should be used wherever per-call accuracy is not needed.
      */
@@ -253,9 +350,32 @@ public class MolangParser extends MathBuilder {
      */
     @Override
     public LazyVariable getVariable(String name) {
-        return VARIABLES.computeIfAbsent(name, key -> new LazyVariable(key, 0));
+        LazyVariable variable = VARIABLES.get(name);
+
+        if (variable != null)
+            return variable;
+
+        synchronized (REGISTRY_LOCK) {
+            variable = VARIABLES.get(name);
+
+            if (variable == null) {
+                variable = PARSED_VARIABLES.remove(name);
+
+                if (variable == null)
+                    variable = new LazyVariable(name, 0);
+
+                register(variable);
+            }
+
+            return variable;
+        }
     }
 
+    /**
+     * Get the variable an assignment in the given statement should write to, without registering it.<br>
+     * Variables that haven't been registered are tracked as locals of the statement. Like every other variable, their
+     * assigned values are held by the active {@link MolangContext}, so each animatable keeps its own
+     */
     public LazyVariable getVariable(String name, MolangCompoundValue currentStatement) {
         LazyVariable variable;
 
@@ -266,7 +386,40 @@ public class MolangParser extends MathBuilder {
                 return variable;
         }
 
-        return getVariable(name);
+        variable = resolveVariable(name);
+
+        if (currentStatement != null && !VARIABLES.containsKey(name))
+            currentStatement.locals.put(name, variable);
+
+        return variable;
+    }
+
+    /**
+     * Get the variable a parsed expression should reference for the given name, without registering it.<br>
+     * Returns the registered variable if there is one, or otherwise a variable shared by every expression referencing
+     * the name, which is registered in turn if code later registers or requests it
+     */
+    @Override
+    protected LazyVariable resolveVariable(String name) {
+        LazyVariable variable = VARIABLES.get(name);
+
+        if (variable != null)
+            return variable;
+
+        synchronized (REGISTRY_LOCK) {
+            variable = VARIABLES.get(name);
+
+            if (variable != null)
+                return variable;
+
+            return PARSED_VARIABLES.computeIfAbsent(name, key -> {
+                LazyVariable parsed = new LazyVariable(key, 0);
+
+                parsed.setSlot(nextSlot++);
+
+                return parsed;
+            });
+        }
     }
 
     /**
@@ -282,6 +435,20 @@ public class MolangParser extends MathBuilder {
         }
     }
 
+    /**
+     * A {@link MolangQuery} paired with the type of animatable it applies to
+     */
+    public record RegisteredQuery<A>(Class<A> animatableType, MolangQuery<A> query) {
+
+        public boolean appliesTo(Object animatable) {
+            return this.animatableType.isInstance(animatable);
+        }
+
+        public double get(Object animatable, double animTime) {
+            return this.query.get(this.animatableType.cast(animatable), animTime);
+        }
+    }
+
     /**
      * Extend this method to allow {@link #breakdownChars(String[])} to capture "=" as an operator, so it was easier to
      * parse assignment statements
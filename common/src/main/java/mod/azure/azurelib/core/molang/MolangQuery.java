@@ -0,0 +1,21 @@
+package mod.azure.azurelib.core.molang;
+
+/**
+ * A builtin or custom Molang query, resolved lazily per animatable by a {@link MolangContext}.<br>
+ * Queries are registered once via {@link MolangParser#registerQuery}, so implementations should not capture any
+ * per-frame state, and should instead derive their value from the provided animatable and animation time
+ *
+ * @param <A> The type of animatable the query applies to
+ */
+@FunctionalInterface
+public interface MolangQuery<A> {
+
+    /**
+     * Compute the value of the query for the given animatable
+     *
+     * @param animatable The animatable currently being animated
+     * @param animTime   The internal tick counter for the animatable
+     * @return The value of the query
+     */
+    double get(A animatable, double animTime);
+}
@@ -24,10 +24,24 @@ public class MolangCompoundValue extends MolangValue {
 
     public final Map<String, LazyVariable> locals = new Object2ObjectOpenHashMap<>();
 
+    private final String expression;
+
     public MolangCompoundValue(MolangValue baseValue) {
+        this(baseValue, null);
+    }
+
+    public MolangCompoundValue(MolangValue baseValue, String expression) {
         super(baseValue);
 
         this.values.add(baseValue);
+        this.expression = expression;
+    }
+
+    /**
+     * Get the source expression this value was parsed from, if known
+     */
+    public String getExpression() {
+        return this.expression;
     }
 
     @Override
@@ -25,6 +25,11 @@ public class CosDegrees extends Function {
         return 1;
     }
 
+    @Override
+    public boolean isDeterministic() {
+        return true;
+    }
+
     @Override
     public double get() {
         return Math.cos(this.getArg(0) / 180 * Math.PI);
@@ -25,6 +25,11 @@ public class SinDegrees extends Function {
         return 1;
     }
 
+    @Override
+    public boolean isDeterministic() {
+        return true;
+    }
+
     @Override
     public double get() {
         return Math.sin(getArg(0) / 180 * Math.PI);
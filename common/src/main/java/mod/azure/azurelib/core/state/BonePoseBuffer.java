@@ -0,0 +1,189 @@
+package mod.azure.azurelib.core.state;
+
+import it.unimi.dsi.fastutil.objects.Reference2IntOpenHashMap;
+import mod.azure.azurelib.core.animatable.model.CoreGeoBone;
+import mod.azure.azurelib.core.animatable.model.CoreGeoModel;
+import mod.azure.azurelib.core.animation.AnimatableManager;
+import mod.azure.azurelib.core.animation.AnimationProcessor;
+import mod.azure.azurelib.core.keyframe.BoneAnimationBuffer;
+
+import java.util.Arrays;
+import java.util.Collection;
+
+/**
+ * A per-instance store of the animated transformations of each bone of a model.<br>
+ * The {@link AnimationProcessor} writes the result of evaluating an animatable's controllers here instead of into the
+ * {@link CoreGeoBone GeoBones} of the model, which are shared by every instance using that model. This allows the
+ * animations of multiple instances to be evaluated independently (and concurrently), and applied to the model later.
+ * <br>
+ * Bones are indexed by their ordinal in the collection the buffer was {@link #prepare prepared} with, and each bone
+ * holds {@link BoneAnimationBuffer#CHANNELS} transform values in the same channel order as
+ * {@link BoneAnimationBuffer}.<br>
+ * Once an animatable's animations have been applied, the buffer holds its final pose for the frame, which renderers
+ * read from instead of the shared bones.<br>
+ * Each {@link AnimatableManager} holds its own buffer
+ */
+public final class BonePoseBuffer {
+
+    private static final byte ROTATION_MASK = 1;
+
+    private static final byte POSITION_MASK = 1 << 1;
+
+    private static final byte SCALE_MASK = 1 << 2;
+
+    private final Reference2IntOpenHashMap<CoreGeoBone> boneIndexes = new Reference2IntOpenHashMap<>();
+
+    private CoreGeoBone[] bones = new CoreGeoBone[0];
+
+    private float[] transforms = new float[0];
+
+    private byte[] changes = new byte[0];
+
+    private long evaluatedFrame = -1;
+
+    public BonePoseBuffer() {
+        this.boneIndexes.defaultReturnValue(-1);
+    }
+
+    /**
+     * Prepare the buffer for a new evaluation, clearing the changed state of each bone and re-indexing the bones if
+     * they have changed since the last evaluation
+     *
+     * @param bones The bones currently registered to the {@code AnimationProcessor}
+     */
+    public void prepare(Collection<? extends CoreGeoBone> bones) {
+        if (!matchesBones(bones)) {
+            this.bones = bones.toArray(new CoreGeoBone[0]);
+            this.transforms = new float[this.bones.length * BoneAnimationBuffer.CHANNELS];
+            this.changes = new byte[this.bones.length];
+
+            this.boneIndexes.clear();
+
+            for (int i = 0; i < this.bones.length; i++) {
+                this.boneIndexes.put(this.bones[i], i);
+            }
+        } else {
+            Arrays.fill(this.changes, (byte) 0);
+        }
+    }
+
+    private boolean matchesBones(Collection<? extends CoreGeoBone> bones) {
+        if (bones.size() != this.bones.length)
+            return false;
+
+        int index = 0;
+
+        for (CoreGeoBone bone : bones) {
+            if (this.bones[index++] != bone)
+                return false;
+        }
+
+        return true;
+    }
+
+    public int getBoneCount() {
+        return this.bones.length;
+    }
+
+    public CoreGeoBone getBone(int boneIndex) {
+        return this.bones[boneIndex];
+    }
+
+    /**
+     * Get the ordinal of the given bone in this buffer
+     *
+     * @return The bone index, or -1 if the bone isn't held by this buffer
+     */
+    public int getBoneIndex(CoreGeoBone bone) {
+        return this.boneIndexes.getInt(bone);
+    }
+
+    /**
+     * Get a transform value of a bone
+     *
+     * @param boneIndex The ordinal of the bone
+     * @param channel   The channel to get, e.g. {@link BoneAnimationBuffer#ROTATION_X}
+     */
+    public float get(int boneIndex, int channel) {
+        return this.transforms[boneIndex * BoneAnimationBuffer.CHANNELS + channel];
+    }
+
+    public void setRotation(int boneIndex, float x, float y, float z) {
+        set(boneIndex, BoneAnimationBuffer.ROTATION_X, x, y, z);
+    }
+
+    public void setPosition(int boneIndex, float x, float y, float z) {
+        set(boneIndex, BoneAnimationBuffer.POSITION_X, x, y, z);
+    }
+
+    public void setScale(int boneIndex, float x, float y, float z) {
+        set(boneIndex, BoneAnimationBuffer.SCALE_X, x, y, z);
+    }
+
+    private void set(int boneIndex, int channel, float x, float y, float z) {
+        int offset = boneIndex * BoneAnimationBuffer.CHANNELS + channel;
+
+        this.transforms[offset] = x;
+        this.transforms[offset + 1] = y;
+        this.transforms[offset + 2] = z;
+    }
+
+    /**
+     * Copy the current transformations of each bone back into this buffer.<br>
+     * Used once any {@link CoreGeoModel#setCustomAnimations custom animations} have been applied to the bones, so that
+     * the buffer holds the final pose of the animatable for rendering
+     */
+    public void captureBones() {
+        for (int boneIndex = 0; boneIndex < this.bones.length; boneIndex++) {
+            CoreGeoBone bone = this.bones[boneIndex];
+
+            setRotation(boneIndex, bone.getRotX(), bone.getRotY(), bone.getRotZ());
+            setPosition(boneIndex, bone.getPosX(), bone.getPosY(), bone.getPosZ());
+            setScale(boneIndex, bone.getScaleX(), bone.getScaleY(), bone.getScaleZ());
+        }
+    }
+
+    public void markRotationAsChanged(int boneIndex) {
+        this.changes[boneIndex] |= ROTATION_MASK;
+    }
+
+    public void markPositionAsChanged(int boneIndex) {
+        this.changes[boneIndex] |= POSITION_MASK;
+    }
+
+    public void markScaleAsChanged(int boneIndex) {
+        this.changes[boneIndex] |= SCALE_MASK;
+    }
+
+    public boolean hasRotationChanged(int boneIndex) {
+        return (this.changes[boneIndex] & ROTATION_MASK) != 0;
+    }
+
+    public boolean hasPositionChanged(int boneIndex) {
+        return (this.changes[boneIndex] & POSITION_MASK) != 0;
+    }
+
+    public boolean hasScaleChanged(int boneIndex) {
+        return (this.changes[boneIndex] & SCALE_MASK) != 0;
+    }
+
+    /**
+     * Mark this buffer as having been evaluated ahead of rendering for the given frame
+     */
+    public void markEvaluatedFor(long frame) {
+        this.evaluatedFrame = frame;
+    }
+
+    /**
+     * Check whether this buffer was evaluated ahead of rendering for the given frame, clearing the mark if so.<br>
+     * A buffer can only be consumed once, so that any re-renders of the same frame re-evaluate as normal
+     */
+    public boolean consumeEvaluatedFor(long frame) {
+        if (this.evaluatedFrame != frame)
+            return false;
+
+        this.evaluatedFrame = -1;
+
+        return true;
+    }
+}
@@ -8,6 +8,8 @@ package mod.azure.azurelib.sblforked;
 
 import com.mojang.serialization.Codec;
 import mod.azure.azurelib.sblforked.api.core.sensor.ExtendedSensor;
+import net.minecraft.world.entity.Entity;
+import net.minecraft.world.entity.EntityType;
 import net.minecraft.world.entity.ai.memory.MemoryModuleType;
 import net.minecraft.world.entity.ai.sensing.SensorType;
 import org.jetbrains.annotations.ApiStatus;
@@ -25,4 +27,6 @@ public interface SBLLoader {
 	<T> Supplier<MemoryModuleType<T>> registerMemoryType(String id, Optional<Codec<T>> codec);
 	@ApiStatus.Internal
 	<T extends ExtendedSensor<?>> Supplier<SensorType<T>> registerSensorType(String id, Supplier<T> sensor);
+	@ApiStatus.Internal
+	<T extends Entity> Supplier<EntityType<T>> registerEntityType(String id, Supplier<EntityType<T>> entityType);
 }
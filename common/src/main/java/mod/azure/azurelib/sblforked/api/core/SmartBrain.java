@@ -10,6 +10,8 @@ import com.google.common.collect.ImmutableList;
 import com.mojang.datafixers.util.Pair;
 import com.mojang.serialization.Codec;
 import it.unimi.dsi.fastutil.objects.ObjectArrayList;
+import it.unimi.dsi.fastutil.objects.Reference2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.objects.ReferenceOpenHashSet;
 import net.minecraft.server.level.ServerLevel;
 import net.minecraft.world.entity.LivingEntity;
 import net.minecraft.world.entity.Mob;
@@ -25,6 +27,7 @@ import net.minecraft.world.entity.ai.sensing.SensorType;
 import net.minecraft.world.entity.schedule.Activity;
 import net.minecraft.world.entity.schedule.Schedule;
 import mod.azure.azurelib.sblforked.api.SmartBrainOwner;
+import mod.azure.azurelib.sblforked.api.core.behaviour.ExtendedBehaviour;
 import mod.azure.azurelib.sblforked.api.core.behaviour.GroupBehaviour;
 import mod.azure.azurelib.sblforked.api.core.schedule.SmartBrainSchedule;
 import mod.azure.azurelib.sblforked.api.core.sensor.ExtendedSensor;
@@ -50,9 +53,13 @@ public class SmartBrain<E extends LivingEntity & SmartBrainOwner<E>> extends Bra
 	private final List<MemoryModuleType<?>> expirableMemories = new ObjectArrayList<>();
 	private final List<ActivityBehaviours<E>> behaviours = new ObjectArrayList<>();
 	private final List<Pair<SensorType<ExtendedSensor<? super E>>, ExtendedSensor<? super E>>> sensors = new ObjectArrayList<>();
+	private final Set<BehaviorControl<?>> memoryBlockedBehaviours = new ReferenceOpenHashSet<>();
+	private final Map<MemoryModuleType<?>, Set<BehaviorControl<?>>> memoryBlockedBehavioursByType = new Reference2ObjectOpenHashMap<>();
 	private SmartBrainSchedule schedule = null;
 
-	private boolean sortBehaviours = false;
+	private List<BehaviorControl<? super E>> tickPlanBehaviours = new ObjectArrayList<>();
+	private Activity[] tickPlanActivities = new Activity[0];
+	private boolean rebuildTickPlan = false;
 
 	public SmartBrain(List<MemoryModuleType<?>> memories, List<? extends ExtendedSensor<E>> sensors, @Nullable List<BrainActivityGroup<E>> taskList) {
 		super(memories, ImmutableList.of(), ImmutableList.of(), SmartBrain::emptyBrainCodec);
@@ -71,10 +78,6 @@ public class SmartBrain<E extends LivingEntity & SmartBrainOwner<E>> extends Bra
 	@Override
 	public void tick(ServerLevel level, E entity) {
 		entity.level().getProfiler().push("SmartBrain");
-
-		if (this.sortBehaviours)
-			this.behaviours.sort(Comparator.comparingInt(ActivityBehaviours::priority));
-
 		forgetOutdatedMemories();
 		tickSensors(level, entity);
 		checkForNewBehaviours(level, entity);
@@ -107,32 +110,118 @@ public class SmartBrain<E extends LivingEntity & SmartBrainOwner<E>> extends Bra
 		}
 	}
 
+	/**
+	 * Try to start any stopped behaviours in the active activities.<br>
+	 * {@link ExtendedBehaviour ExtendedBehaviours} that can't start because their memory requirements aren't met are
+	 * skipped from then on, until the status of one of the memories they require changes.
+	 * This saves re-checking the conditions of every idle behaviour each tick, when most of them are waiting on a memory.
+	 */
 	private void checkForNewBehaviours(ServerLevel level, E entity) {
 		long gameTime = level.getGameTime();
+		List<BehaviorControl<? super E>> behaviours = getTickPlanBehaviours();
+		Activity[] activities = this.tickPlanActivities;
+		Set<Activity> activeActivities = getActiveActivities();
+		Activity lastActivity = null;
+		boolean activityActive = false;
+
+		for (int i = 0; i < behaviours.size(); i++) {
+			BehaviorControl<? super E> behaviour = behaviours.get(i);
+
+			if (activities[i] != lastActivity) {
+				lastActivity = activities[i];
+				activityActive = activeActivities.contains(lastActivity);
+			}
 
-		for (ActivityBehaviours<E> behaviourGroup : this.behaviours) {
-			for (Pair<Activity, List<BehaviorControl<? super E>>> pair : behaviourGroup.behaviours) {
-				if (getActiveActivities().contains(pair.getFirst())) {
-					for (BehaviorControl<? super E> behaviour : pair.getSecond()) {
-						if (behaviour.getStatus() == Behavior.Status.STOPPED)
-							behaviour.tryStart(level, entity, gameTime);
-					}
+			if (!activityActive || behaviour.getStatus() != Behavior.Status.STOPPED || this.memoryBlockedBehaviours.contains(behaviour))
+				continue;
+
+			if (behaviour instanceof ExtendedBehaviour<? super E> extendedBehaviour) {
+				if (extendedBehaviour.isCoolingDown(gameTime))
+					continue;
+
+				if (!extendedBehaviour.hasRequiredMemories(entity)) {
+					blockUntilMemoryChange(extendedBehaviour);
+
+					continue;
 				}
 			}
+
+			behaviour.tryStart(level, entity, gameTime);
+		}
+	}
+
+	private void blockUntilMemoryChange(ExtendedBehaviour<?> behaviour) {
+		List<MemoryModuleType<?>> memoryTypes = behaviour.getRequiredMemoryTypes();
+
+		if (memoryTypes.isEmpty())
+			return;
+
+		this.memoryBlockedBehaviours.add(behaviour);
+
+		for (MemoryModuleType<?> memoryType : memoryTypes) {
+			this.memoryBlockedBehavioursByType.computeIfAbsent(memoryType, key -> new ReferenceOpenHashSet<>()).add(behaviour);
 		}
 	}
 
+	/**
+	 * Let any behaviours waiting on the given memory be checked again, now that its status has changed
+	 */
+	private void onMemoryStatusChanged(MemoryModuleType<?> memoryType) {
+		Set<BehaviorControl<?>> blockedBehaviours = this.memoryBlockedBehavioursByType.remove(memoryType);
+
+		if (blockedBehaviours != null)
+			this.memoryBlockedBehaviours.removeAll(blockedBehaviours);
+	}
+
 	private void tickRunningBehaviours(ServerLevel level, E entity) {
 		long gameTime = level.getGameTime();
+		List<BehaviorControl<? super E>> behaviours = getTickPlanBehaviours();
+
+		for (int i = 0; i < behaviours.size(); i++) {
+			BehaviorControl<? super E> behaviour = behaviours.get(i);
+
+			if (behaviour.getStatus() == Behavior.Status.RUNNING)
+				behaviour.tickOrStop(level, entity, gameTime);
+		}
+	}
+
+	/**
+	 * Get the flattened list of this brain's behaviours, rebuilding it first if they've changed since it was last built.
+	 * <br>
+	 * Behaviours can be added or removed part way through a tick (such as from a sensor's callback), so this is checked
+	 * before each pass over the behaviours rather than once per tick
+	 */
+	private List<BehaviorControl<? super E>> getTickPlanBehaviours() {
+		if (this.rebuildTickPlan)
+			rebuildTickPlan();
+
+		return this.tickPlanBehaviours;
+	}
+
+	/**
+	 * Flatten the behaviours of this brain into a single list, in priority order.<br>
+	 * The brain's behaviours are stored grouped by priority and activity, which is convenient for adding and removing
+	 * behaviours, but means chasing through several layers of lists for every behaviour, multiple times per tick.
+	 * Instead, the brain ticks through this flattened copy, which is only rebuilt when its behaviours change.
+	 */
+	private void rebuildTickPlan() {
+		this.behaviours.sort(Comparator.comparingInt(ActivityBehaviours::priority));
+
+		List<BehaviorControl<? super E>> behaviours = new ObjectArrayList<>();
+		List<Activity> activities = new ObjectArrayList<>();
 
 		for (ActivityBehaviours<E> behaviourGroup : this.behaviours) {
 			for (Pair<Activity, List<BehaviorControl<? super E>>> pair : behaviourGroup.behaviours) {
 				for (BehaviorControl<? super E> behaviour : pair.getSecond()) {
-					if (behaviour.getStatus() == Behavior.Status.RUNNING)
-						behaviour.tickOrStop(level, entity, gameTime);
+					behaviours.add(behaviour);
+					activities.add(pair.getFirst());
 				}
 			}
 		}
+
+		this.tickPlanBehaviours = behaviours;
+		this.tickPlanActivities = activities.toArray(new Activity[0]);
+		this.rebuildTickPlan = false;
 	}
 
 	@Override
@@ -167,19 +256,22 @@ public class SmartBrain<E extends LivingEntity & SmartBrainOwner<E>> extends Bra
 	public void stopAll(ServerLevel level, E entity) {
 		long gameTime = level.getGameTime();
 
-		for (ActivityBehaviours<E> behaviourGroup : this.behaviours) {
-			for (Pair<Activity, List<BehaviorControl<? super E>>> pair : behaviourGroup.behaviours) {
-				for (BehaviorControl<? super E> behaviour : pair.getSecond()) {
-					if (behaviour.getStatus() == Behavior.Status.RUNNING)
-						behaviour.doStop(level, entity, gameTime);
-				}
-			}
+		for (BehaviorControl<? super E> behaviour : getTickPlanBehaviours()) {
+			if (behaviour.getStatus() == Behavior.Status.RUNNING)
+				behaviour.doStop(level, entity, gameTime);
 		}
 	}
 
 	@Override
 	public <U> Optional<U> getMemory(MemoryModuleType<U> type) {
-		return (Optional<U>) this.memories.computeIfAbsent(type, key -> Optional.empty()).map(ExpirableValue::getValue);
+		Optional<? extends ExpirableValue<?>> memory = this.memories.get(type);
+
+		if (memory == null) {
+			this.memories.put(type, memory = Optional.empty());
+			onMemoryStatusChanged(type);
+		}
+
+		return (Optional<U>) memory.map(ExpirableValue::getValue);
 	}
 
 	@Override
@@ -187,12 +279,23 @@ public class SmartBrain<E extends LivingEntity & SmartBrainOwner<E>> extends Bra
 		if (memory.isPresent() && memory.get().getValue()instanceof Collection<?> collection && collection.isEmpty())
 			memory = Optional.empty();
 
-		this.memories.put(memoryType, memory);
+		Optional<? extends ExpirableValue<?>> previousMemory = this.memories.put(memoryType, memory);
+
+		if (previousMemory == null || previousMemory.isPresent() != memory.isPresent())
+			onMemoryStatusChanged(memoryType);
 
 		if (memory.isPresent() && memory.get().canExpire() && !this.expirableMemories.contains(memoryType))
 			this.expirableMemories.add(memoryType);
 	}
 
+	@Override
+	public void clearMemories() {
+		super.clearMemories();
+
+		this.memoryBlockedBehaviours.clear();
+		this.memoryBlockedBehavioursByType.clear();
+	}
+
 	@Override
 	public <U> boolean isMemoryValue(MemoryModuleType<U> memoryType, U memory) {
 		Optional<U> value = getMemory(memoryType);
@@ -258,6 +361,9 @@ public class SmartBrain<E extends LivingEntity & SmartBrainOwner<E>> extends Bra
 	@Override
 	public void removeAllBehaviors() {
 		this.behaviours.clear();
+		this.rebuildTickPlan = true;
+		this.memoryBlockedBehaviours.clear();
+		this.memoryBlockedBehavioursByType.clear();
 	}
 
 	@Override
@@ -292,19 +398,21 @@ public class SmartBrain<E extends LivingEntity & SmartBrainOwner<E>> extends Bra
 				for (Pair<Activity, List<BehaviorControl<? super E>>> pair : behaviourGroup.behaviours) {
 					if (pair.getFirst() == activity) {
 						pair.getSecond().add(behaviour);
+						this.rebuildTickPlan = true;
 
 						return;
 					}
 				}
 
 				behaviourGroup.behaviours.add(Pair.of(activity, ObjectArrayList.of(behaviour)));
+				this.rebuildTickPlan = true;
 
 				return;
 			}
 		}
 
 		this.behaviours.add(new ActivityBehaviours<>(priority, ObjectArrayList.of(Pair.of(activity, ObjectArrayList.<BehaviorControl<? super E>>of(behaviour)))));
-		this.sortBehaviours = true;
+		this.rebuildTickPlan = true;
 	}
 
 	/**
@@ -328,6 +436,7 @@ public class SmartBrain<E extends LivingEntity & SmartBrainOwner<E>> extends Bra
 							behaviour.doStop((ServerLevel)entity.level(), entity, entity.level().getGameTime());
 
 						iterator.remove();
+						this.rebuildTickPlan = true;
 					});
 				}
 			}
@@ -25,7 +25,7 @@ public abstract class DelayedBehaviour<E extends LivingEntity> extends ExtendedB
 	public DelayedBehaviour(int delayTicks) {
 		this.delayTime = delayTicks;
 		
-		runFor(entity -> Math.max(delayTicks, 60));
+		runForInt(entity -> Math.max(delayTicks, 60));
 	}
 
 	/**
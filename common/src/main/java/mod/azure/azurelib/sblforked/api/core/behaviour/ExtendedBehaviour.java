@@ -8,6 +8,7 @@ package mod.azure.azurelib.sblforked.api.core.behaviour;
 
 import com.mojang.datafixers.util.Pair;
 import it.unimi.dsi.fastutil.objects.Object2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.objects.ObjectArrayList;
 import net.minecraft.server.level.ServerLevel;
 import net.minecraft.world.entity.LivingEntity;
 import net.minecraft.world.entity.ai.Brain;
@@ -15,11 +16,13 @@ import net.minecraft.world.entity.ai.behavior.Behavior;
 import net.minecraft.world.entity.ai.memory.MemoryModuleType;
 import net.minecraft.world.entity.ai.memory.MemoryStatus;
 import mod.azure.azurelib.sblforked.APIOnly;
+import mod.azure.azurelib.sblforked.object.IntProvider;
 
 import java.util.List;
 import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.function.Predicate;
+import java.util.function.ToIntFunction;
 
 /**
  * An extension of the base Behavior class that is used for tasks in the brain
@@ -42,8 +45,8 @@ public abstract class ExtendedBehaviour<E extends LivingEntity> extends Behavior
 	protected Consumer<E> taskStartCallback = entity -> {};
 	protected Consumer<E> taskStopCallback = entity -> {};
 
-	protected Function<E, Integer> runtimeProvider = entity -> 60;
-	protected Function<E, Integer> cooldownProvider = entity -> 0;
+	protected Function<E, Integer> runtimeProvider = new IntProvider<>(entity -> 60);
+	protected Function<E, Integer> cooldownProvider = new IntProvider<>(entity -> 0);
 	protected long cooldownFinishedAt = 0;
 
 	public ExtendedBehaviour() {
@@ -94,6 +97,21 @@ public abstract class ExtendedBehaviour<E extends LivingEntity> extends Behavior
 		return this;
 	}
 
+	/**
+	 * Set the length that the task should run for, once activated. The value used
+	 * is in <i>ticks</i>.<br>
+	 * Equivalent to {@link ExtendedBehaviour#runFor(Function)}, without boxing the
+	 * tick value each time the task starts.
+	 *
+	 * @param timeProvider A function for the tick value
+	 * @return this
+	 */
+	public final ExtendedBehaviour<E> runForInt(ToIntFunction<E> timeProvider) {
+		this.runtimeProvider = new IntProvider<>(timeProvider);
+
+		return this;
+	}
+
 	/**
 	 * Set the length that the task should wait for between activations. This is the
 	 * time between when the task stops, and it is able to start again. The value
@@ -108,6 +126,22 @@ public abstract class ExtendedBehaviour<E extends LivingEntity> extends Behavior
 		return this;
 	}
 
+	/**
+	 * Set the length that the task should wait for between activations. This is the
+	 * time between when the task stops, and it is able to start again. The value
+	 * used is in <i>ticks</i><br>
+	 * Equivalent to {@link ExtendedBehaviour#cooldownFor(Function)}, without boxing
+	 * the tick value each time the task stops.
+	 *
+	 * @param timeProvider A function for the tick value
+	 * @return this
+	 */
+	public final ExtendedBehaviour<E> cooldownForInt(ToIntFunction<E> timeProvider) {
+		this.cooldownProvider = new IntProvider<>(timeProvider);
+
+		return this;
+	}
+
 	/**
 	 * Set an additional condition for the behaviour to be able to start. Useful for
 	 * dynamically predicating behaviours.<br>
@@ -143,7 +177,7 @@ public abstract class ExtendedBehaviour<E extends LivingEntity> extends Behavior
 	 * @return this
 	 */
 	public final ExtendedBehaviour<E> noTimeout() {
-		return runFor(entity -> Integer.MAX_VALUE);
+		return runForInt(entity -> Integer.MAX_VALUE);
 	}
 
 	@Override
@@ -152,7 +186,7 @@ public abstract class ExtendedBehaviour<E extends LivingEntity> extends Behavior
 			return false;
 
 		this.status = Status.RUNNING;
-		this.endTimestamp = gameTime + this.runtimeProvider.apply(entity);
+		this.endTimestamp = gameTime + getRuntime(entity);
 
 		start(level, entity, gameTime);
 
@@ -224,7 +258,7 @@ public abstract class ExtendedBehaviour<E extends LivingEntity> extends Behavior
 	@APIOnly
 	@Override
 	protected void stop(ServerLevel level, E entity, long gameTime) {
-		this.cooldownFinishedAt = gameTime + cooldownProvider.apply(entity);
+		this.cooldownFinishedAt = gameTime + getCooldown(entity);
 
 		this.taskStopCallback.accept(entity);
 		stop(entity);
@@ -320,6 +354,44 @@ public abstract class ExtendedBehaviour<E extends LivingEntity> extends Behavior
 		return true;
 	}
 
+	/**
+	 * Get the number of ticks this behaviour should run for when it starts, from its {@link ExtendedBehaviour#runtimeProvider}
+	 */
+	protected int getRuntime(E entity) {
+		return IntProvider.applyAsInt(this.runtimeProvider, entity);
+	}
+
+	/**
+	 * Get the number of ticks this behaviour should cool down for when it stops, from its {@link ExtendedBehaviour#cooldownProvider}
+	 */
+	protected int getCooldown(E entity) {
+		return IntProvider.applyAsInt(this.cooldownProvider, entity);
+	}
+
+	/**
+	 * Whether this behaviour is still cooling down from its last run, and so can't start yet
+	 *
+	 * @param gameTime The current gameTime (in ticks) of the level
+	 */
+	public boolean isCoolingDown(long gameTime) {
+		return this.cooldownFinishedAt > gameTime;
+	}
+
+	/**
+	 * Get the {@link MemoryModuleType memory types} checked by {@link ExtendedBehaviour#hasRequiredMemories(LivingEntity)}.<br>
+	 * The result of that check can only change when the status of one of these memories changes.
+	 */
+	public final List<MemoryModuleType<?>> getRequiredMemoryTypes() {
+		List<Pair<MemoryModuleType<?>, MemoryStatus>> requirements = getMemoryRequirements();
+		List<MemoryModuleType<?>> memoryTypes = new ObjectArrayList<>(requirements.size());
+
+		for (Pair<MemoryModuleType<?>, MemoryStatus> memoryPair : requirements) {
+			memoryTypes.add(memoryPair.getFirst());
+		}
+
+		return memoryTypes;
+	}
+
 	/**
 	 * The list of memory requirements this task has prior to starting. This
 	 * outlines the approximate state the brain should be in, in order to allow this
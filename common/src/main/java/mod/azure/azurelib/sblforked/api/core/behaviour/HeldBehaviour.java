@@ -21,7 +21,7 @@ public abstract class HeldBehaviour<E extends LivingEntity> extends ExtendedBeha
 	protected int runningTime = 0;
 
 	public HeldBehaviour() {
-		runFor(entity -> Integer.MAX_VALUE);
+		runForInt(entity -> Integer.MAX_VALUE);
 	}
 
 	/**
@@ -43,7 +43,7 @@ public class BreedWithPartner<E extends Animal> extends ExtendedBehaviour<E> {
 	protected Animal partner = null;
 
 	public BreedWithPartner() {
-		runFor(entity -> Integer.MAX_VALUE);
+		runForInt(entity -> Integer.MAX_VALUE);
 	}
 
 	@Override
@@ -8,6 +8,7 @@ package mod.azure.azurelib.sblforked.api.core.behaviour.custom.move;
 
 import com.mojang.datafixers.util.Pair;
 import it.unimi.dsi.fastutil.objects.ObjectArrayList;
+import net.minecraft.core.BlockPos;
 import net.minecraft.server.level.ServerLevel;
 import net.minecraft.world.entity.LivingEntity;
 import net.minecraft.world.entity.PathfinderMob;
@@ -17,7 +18,9 @@ import net.minecraft.world.entity.ai.util.DefaultRandomPos;
 import net.minecraft.world.level.pathfinder.Path;
 import net.minecraft.world.phys.Vec3;
 import mod.azure.azurelib.sblforked.api.core.behaviour.ExtendedBehaviour;
+import mod.azure.azurelib.sblforked.api.core.navigation.AsyncPathRequest;
 import mod.azure.azurelib.sblforked.util.BrainUtils;
+import org.jetbrains.annotations.Nullable;
 
 import java.util.List;
 import java.util.Optional;
@@ -39,8 +42,11 @@ public class AvoidEntity<E extends PathfinderMob> extends ExtendedBehaviour<E> {
 	protected float noCloserThanSqr = 9f;
 	protected float stopAvoidingAfterSqr = 49f;
 	protected float speedModifier = 1;
+	protected boolean computePathsAsync = false;
 
 	private Path runPath = null;
+	@Nullable
+	protected AsyncPathRequest pathRequest = null;
 
 	public AvoidEntity() {
 		noTimeout();
@@ -95,18 +101,43 @@ public class AvoidEntity<E extends PathfinderMob> extends ExtendedBehaviour<E> {
 		return this;
 	}
 
+	/**
+	 * Compute the path away off the server thread, via {@link AsyncPathRequest}.<br>
+	 * The behaviour won't start until the path is ready, and discards it if the entity has moved more than 2 blocks in the
+	 * meantime, or if the position it leads to is no longer further from the threat than the entity is.
+	 *
+	 * @return this
+	 */
+	public AvoidEntity<E> computePathsAsync() {
+		this.computePathsAsync = true;
+
+		return this;
+	}
+
 	@Override
 	protected boolean checkExtraStartConditions(ServerLevel level, E entity) {
 		Optional<LivingEntity> target = BrainUtils.getMemory(entity, MemoryModuleType.NEAREST_VISIBLE_LIVING_ENTITIES).findClosest(this.avoidingPredicate);
 
-		if (target.isEmpty())
+		if (target.isEmpty()) {
+			cancelPathRequest();
+
 			return false;
+		}
 
 		LivingEntity avoidingEntity = target.get();
 		double distToTarget = avoidingEntity.distanceToSqr(entity);
 
-		if (distToTarget > this.noCloserThanSqr)
+		if (distToTarget > this.noCloserThanSqr) {
+			cancelPathRequest();
+
 			return false;
+		}
+
+		if (this.computePathsAsync) {
+			this.runPath = pollRunPath(entity, avoidingEntity, distToTarget, this.pathRequest == null ? DefaultRandomPos.getPosAway(entity, 16, 7, avoidingEntity.position()) : null);
+
+			return this.runPath != null;
+		}
 
 		Vec3 runPos = DefaultRandomPos.getPosAway(entity, 16, 7, avoidingEntity.position());
 
@@ -128,10 +159,47 @@ public class AvoidEntity<E extends PathfinderMob> extends ExtendedBehaviour<E> {
 		entity.getNavigation().moveTo(this.runPath, this.speedModifier);
 	}
 
+
+	/**
+	 * Poll the pending path request, submitting a new one towards a random position away from the threat if there isn't one
+	 *
+	 * @return The finished path, or null if it's still being computed or was discarded
+	 */
+	@Nullable
+	protected Path pollRunPath(E entity, LivingEntity threat, double distToThreat, @Nullable Vec3 runPos) {
+		if (this.pathRequest == null) {
+			if (runPos != null && threat.distanceToSqr(runPos.x, runPos.y, runPos.z) >= distToThreat)
+				this.pathRequest = AsyncPathRequest.submit(entity, BlockPos.containing(runPos), 0);
+
+			return null;
+		}
+
+		if (!this.pathRequest.isDone())
+			return null;
+
+		AsyncPathRequest request = this.pathRequest;
+		this.pathRequest = null;
+
+		if (request.isStale(entity, request.getTarget(), 2) || threat.distanceToSqr(request.getTarget().getCenter()) < distToThreat)
+			return null;
+
+		return request.getPath();
+	}
+
+	protected void cancelPathRequest() {
+		if (this.pathRequest != null) {
+			this.pathRequest.cancel();
+
+			this.pathRequest = null;
+		}
+	}
+
 	@Override
 	protected void stop(E entity) {
 		this.runPath = null;
 
+		cancelPathRequest();
+
 		entity.getNavigation().setSpeedModifier(1);
 	}
 }
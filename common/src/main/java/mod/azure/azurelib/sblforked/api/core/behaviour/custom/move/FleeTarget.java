@@ -8,6 +8,7 @@ package mod.azure.azurelib.sblforked.api.core.behaviour.custom.move;
 
 import com.mojang.datafixers.util.Pair;
 import it.unimi.dsi.fastutil.objects.ObjectArrayList;
+import net.minecraft.core.BlockPos;
 import net.minecraft.server.level.ServerLevel;
 import net.minecraft.world.entity.LivingEntity;
 import net.minecraft.world.entity.PathfinderMob;
@@ -17,7 +18,9 @@ import net.minecraft.world.entity.ai.util.DefaultRandomPos;
 import net.minecraft.world.level.pathfinder.Path;
 import net.minecraft.world.phys.Vec3;
 import mod.azure.azurelib.sblforked.api.core.behaviour.ExtendedBehaviour;
+import mod.azure.azurelib.sblforked.api.core.navigation.AsyncPathRequest;
 import mod.azure.azurelib.sblforked.util.BrainUtils;
+import org.jetbrains.annotations.Nullable;
 
 import java.util.List;
 
@@ -35,8 +38,11 @@ public class FleeTarget<E extends PathfinderMob> extends ExtendedBehaviour<E> {
 
 	protected int fleeDistance = 20;
 	protected float speedModifier = 1;
+	protected boolean computePathsAsync = false;
 
 	protected Path runPath = null;
+	@Nullable
+	protected AsyncPathRequest pathRequest = null;
 
 	public FleeTarget() {
 		noTimeout();
@@ -69,10 +75,30 @@ public class FleeTarget<E extends PathfinderMob> extends ExtendedBehaviour<E> {
 		return this;
 	}
 
+	/**
+	 * Compute the path away off the server thread, via {@link AsyncPathRequest}.<br>
+	 * The behaviour won't start until the path is ready, and discards it if the entity has moved more than 2 blocks in the
+	 * meantime, or if the position it leads to is no longer further from the threat than the entity is.
+	 *
+	 * @return this
+	 */
+	public FleeTarget<E> computePathsAsync() {
+		this.computePathsAsync = true;
+
+		return this;
+	}
+
 	@Override
 	protected boolean checkExtraStartConditions(ServerLevel level, E entity) {
 		LivingEntity target = BrainUtils.getTargetOfEntity(entity);
 		double distToTarget = entity.distanceToSqr(target);
+
+		if (this.computePathsAsync) {
+			this.runPath = pollRunPath(entity, target, distToTarget, this.pathRequest == null ? DefaultRandomPos.getPosAway(entity, this.fleeDistance, 10, target.position()) : null);
+
+			return this.runPath != null;
+		}
+
 		Vec3 runPos = DefaultRandomPos.getPosAway(entity, this.fleeDistance, 10, target.position());
 
 		if (runPos == null || target.distanceToSqr(runPos.x, runPos.y, runPos.z) < distToTarget)
@@ -94,8 +120,45 @@ public class FleeTarget<E extends PathfinderMob> extends ExtendedBehaviour<E> {
 		BrainUtils.clearMemory(entity, MemoryModuleType.ATTACK_TARGET);
 	}
 
+
+	/**
+	 * Poll the pending path request, submitting a new one towards a random position away from the threat if there isn't one
+	 *
+	 * @return The finished path, or null if it's still being computed or was discarded
+	 */
+	@Nullable
+	protected Path pollRunPath(E entity, LivingEntity threat, double distToThreat, @Nullable Vec3 runPos) {
+		if (this.pathRequest == null) {
+			if (runPos != null && threat.distanceToSqr(runPos.x, runPos.y, runPos.z) >= distToThreat)
+				this.pathRequest = AsyncPathRequest.submit(entity, BlockPos.containing(runPos), 0);
+
+			return null;
+		}
+
+		if (!this.pathRequest.isDone())
+			return null;
+
+		AsyncPathRequest request = this.pathRequest;
+		this.pathRequest = null;
+
+		if (request.isStale(entity, request.getTarget(), 2) || threat.distanceToSqr(request.getTarget().getCenter()) < distToThreat)
+			return null;
+
+		return request.getPath();
+	}
+
+	protected void cancelPathRequest() {
+		if (this.pathRequest != null) {
+			this.pathRequest.cancel();
+
+			this.pathRequest = null;
+		}
+	}
+
 	@Override
 	protected void stop(E entity) {
+		cancelPathRequest();
+
 		if (entity.getNavigation().getPath() == this.runPath)
 			entity.getNavigation().setSpeedModifier(1);
 
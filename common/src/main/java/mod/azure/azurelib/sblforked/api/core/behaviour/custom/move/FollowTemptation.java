@@ -48,7 +48,7 @@ public class FollowTemptation<E extends PathfinderMob> extends ExtendedBehaviour
 	public FollowTemptation() {
 		super();
 
-		this.runFor(entity -> Integer.MAX_VALUE);
+		this.runForInt(entity -> Integer.MAX_VALUE);
 	}
 
 	@Override
@@ -20,7 +20,9 @@ import net.minecraft.world.entity.ai.util.DefaultRandomPos;
 import net.minecraft.world.level.pathfinder.Path;
 import net.minecraft.world.phys.Vec3;
 import mod.azure.azurelib.sblforked.api.core.behaviour.ExtendedBehaviour;
+import mod.azure.azurelib.sblforked.api.core.navigation.AsyncPathRequest;
 import mod.azure.azurelib.sblforked.util.BrainUtils;
+import mod.azure.azurelib.sblforked.util.SharedPathCache;
 import org.jetbrains.annotations.Nullable;
 
 import java.util.List;
@@ -33,10 +35,41 @@ public class MoveToWalkTarget<E extends PathfinderMob> extends ExtendedBehaviour
 	@Nullable
 	protected BlockPos lastTargetPos;
 	protected float speedModifier;
+	protected boolean computePathsAsync = false;
+	protected boolean sharePaths = false;
+	@Nullable
+	protected AsyncPathRequest pathRequest;
 
 	public MoveToWalkTarget() {
-		runFor(entity -> entity.getRandom().nextInt(100) + 150);
-		cooldownFor(entity -> entity.getRandom().nextInt(40));
+		runForInt(entity -> entity.getRandom().nextInt(100) + 150);
+		cooldownForInt(entity -> entity.getRandom().nextInt(40));
+	}
+
+	/**
+	 * Compute paths to the walk target off the server thread, via {@link AsyncPathRequest}.<br>
+	 * The behaviour waits until the path is ready before starting, and keeps following its current path while a new
+	 * one is computed for a moved target. Paths are discarded if the entity or its target moved more than 2 blocks in the
+	 * meantime.
+	 *
+	 * @return this
+	 */
+	public MoveToWalkTarget<E> computePathsAsync() {
+		this.computePathsAsync = true;
+
+		return this;
+	}
+
+	/**
+	 * Share computed paths with other entities of the same type nearby that are walking to the same position, via
+	 * {@link SharedPathCache}.<br>
+	 * Best suited to groups of mobs chasing the same target, which would otherwise each compute a near-identical path.
+	 *
+	 * @return this
+	 */
+	public MoveToWalkTarget<E> sharePaths() {
+		this.sharePaths = true;
+
+		return this;
 	}
 
 	@Override
@@ -49,12 +82,27 @@ public class MoveToWalkTarget<E extends PathfinderMob> extends ExtendedBehaviour
 		Brain<?> brain = entity.getBrain();
 		WalkTarget walkTarget = BrainUtils.getMemory(brain, MemoryModuleType.WALK_TARGET);
 
-		if (!hasReachedTarget(entity, walkTarget) && attemptNewPath(entity, walkTarget, false)) {
-			this.lastTargetPos = walkTarget.getTarget().currentBlockPosition();
+		if (!hasReachedTarget(entity, walkTarget)) {
+			if (this.computePathsAsync) {
+				AsyncPathRequest request = pollPathRequest(entity, walkTarget);
 
-			return true;
+				if (request == null)
+					return false;
+
+				if (applyNewPath(entity, walkTarget, false, request.getPath())) {
+					this.lastTargetPos = request.getTarget();
+
+					return true;
+				}
+			}
+			else if (attemptNewPath(entity, walkTarget, false)) {
+				this.lastTargetPos = walkTarget.getTarget().currentBlockPosition();
+
+				return true;
+			}
 		}
 
+		cancelPathRequest();
 		BrainUtils.clearMemory(brain, MemoryModuleType.WALK_TARGET);
 		BrainUtils.clearMemory(brain, MemoryModuleType.CANT_REACH_WALK_TARGET_SINCE);
 
@@ -93,10 +141,21 @@ public class MoveToWalkTarget<E extends PathfinderMob> extends ExtendedBehaviour
 		if (path != null && this.lastTargetPos != null) {
 			WalkTarget walkTarget = BrainUtils.getMemory(brain, MemoryModuleType.WALK_TARGET);
 
-			if (walkTarget.getTarget().currentBlockPosition().distSqr(this.lastTargetPos) > 4 && attemptNewPath(entity, walkTarget, hasReachedTarget(entity, walkTarget))) {
-				this.lastTargetPos = walkTarget.getTarget().currentBlockPosition();
+			if (walkTarget.getTarget().currentBlockPosition().distSqr(this.lastTargetPos) > 4) {
+				if (this.computePathsAsync) {
+					AsyncPathRequest request = pollPathRequest(entity, walkTarget);
 
-				startOnNewPath(entity);
+					if (request != null && applyNewPath(entity, walkTarget, hasReachedTarget(entity, walkTarget), request.getPath())) {
+						this.lastTargetPos = request.getTarget();
+
+						startOnNewPath(entity);
+					}
+				}
+				else if (attemptNewPath(entity, walkTarget, hasReachedTarget(entity, walkTarget))) {
+					this.lastTargetPos = walkTarget.getTarget().currentBlockPosition();
+
+					startOnNewPath(entity);
+				}
 			}
 		}
 	}
@@ -110,14 +169,58 @@ public class MoveToWalkTarget<E extends PathfinderMob> extends ExtendedBehaviour
 
 		entity.getNavigation().stop();
 		BrainUtils.clearMemories(brain, MemoryModuleType.WALK_TARGET, MemoryModuleType.PATH);
+		cancelPathRequest();
 
 		this.path = null;
 	}
 
 	protected boolean attemptNewPath(E entity, WalkTarget walkTarget, boolean reachedCurrentTarget) {
+		BlockPos pos = walkTarget.getTarget().currentBlockPosition();
+
+		return applyNewPath(entity, walkTarget, reachedCurrentTarget, this.sharePaths ? SharedPathCache.getOrCreatePath(entity, pos) : entity.getNavigation().createPath(pos, 0));
+	}
+
+	/**
+	 * Get the finished path request for the current walk target, submitting a new one if there isn't one yet or the
+	 * existing one is stale
+	 *
+	 * @return The finished request, or null if it is still being computed
+	 */
+	@Nullable
+	protected AsyncPathRequest pollPathRequest(E entity, WalkTarget walkTarget) {
+		BlockPos pos = walkTarget.getTarget().currentBlockPosition();
+
+		if (this.pathRequest == null || this.pathRequest.isStale(entity, pos, 2)) {
+			cancelPathRequest();
+
+			Path sharedPath = this.sharePaths ? SharedPathCache.getCachedPath(entity, pos) : null;
+			this.pathRequest = sharedPath != null ? AsyncPathRequest.completed(entity, pos, sharedPath) : AsyncPathRequest.submit(entity, pos, 0);
+		}
+
+		if (!this.pathRequest.isDone())
+			return null;
+
+		AsyncPathRequest request = this.pathRequest;
+		this.pathRequest = null;
+
+		if (this.sharePaths && request.getComputeNanos() > 0)
+			SharedPathCache.cachePath(entity, request.getTarget(), request.getPath(), request.getComputeNanos());
+
+		return request;
+	}
+
+	protected void cancelPathRequest() {
+		if (this.pathRequest != null) {
+			this.pathRequest.cancel();
+
+			this.pathRequest = null;
+		}
+	}
+
+	protected boolean applyNewPath(E entity, WalkTarget walkTarget, boolean reachedCurrentTarget, @Nullable Path path) {
 		Brain<?> brain = entity.getBrain();
 		BlockPos pos = walkTarget.getTarget().currentBlockPosition();
-		this.path = entity.getNavigation().createPath(pos, 0);
+		this.path = path;
 		this.speedModifier = walkTarget.getSpeedModifier();
 
 		if (reachedCurrentTarget) {
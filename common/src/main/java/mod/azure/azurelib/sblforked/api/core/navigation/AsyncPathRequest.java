@@ -0,0 +1,348 @@
+package mod.azure.azurelib.sblforked.api.core.navigation;
+
+import com.mojang.logging.LogUtils;
+import mod.azure.azurelib.sblforked.registry.SBLEntityTypes;
+import net.minecraft.core.BlockPos;
+import net.minecraft.util.Mth;
+import net.minecraft.util.profiling.InactiveProfiler;
+import net.minecraft.util.profiling.ProfilerFiller;
+import net.minecraft.world.entity.EntityDimensions;
+import net.minecraft.world.entity.EntityType;
+import net.minecraft.world.entity.Mob;
+import net.minecraft.world.entity.Pose;
+import net.minecraft.world.entity.ai.attributes.Attributes;
+import net.minecraft.world.entity.ai.navigation.PathNavigation;
+import net.minecraft.world.level.Level;
+import net.minecraft.world.level.PathNavigationRegion;
+import net.minecraft.world.level.pathfinder.NodeEvaluator;
+import net.minecraft.world.level.pathfinder.Path;
+import net.minecraft.world.level.pathfinder.PathFinder;
+import net.minecraft.world.level.pathfinder.PathType;
+import net.minecraft.world.level.pathfinder.PathTypeCache;
+import net.minecraft.world.level.pathfinder.PathfindingContext;
+import org.jetbrains.annotations.Nullable;
+import org.slf4j.Logger;
+
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A path computed off the server thread, for use by behaviours that would otherwise block the tick on pathfinding.
+ * <p>
+ * Submitting a request snapshots the surrounding area into a {@link PathNavigationRegion}, and the state of the mob that
+ * the pathfinder reads into a pooled {@link PathingProxy}, on the calling thread. It then runs the pathfinder on a shared
+ * worker pool with its own {@link NodeEvaluator} and {@link PathTypeCache}, so it never touches the navigation's own
+ * pathfinder, the live mob, or the level's path type cache. The owner is expected to poll {@link #isDone()} on later ticks, and should
+ * discard the result if it has become {@link #isStale stale} by then.
+ * <p>
+ * At most {@link #MAX_QUEUED_REQUESTS} requests can wait for a worker at once. Requests beyond that are computed
+ * immediately with {@link PathNavigation#createPath(BlockPos, int)}, in the same way as navigations that can't be pathed
+ * asynchronously.
+ * <p>
+ * Only navigations implementing {@link ExtendedNavigator#createNodeEvaluator()} can be pathed asynchronously. Requests
+ * for any other navigation are computed immediately with {@link PathNavigation#createPath(BlockPos, int)}, and are
+ * already done when returned.
+ * <p>
+ * The region snapshot still refers to the level's live chunks, so a block changed while the path is being computed may
+ * or may not be seen by it, in the same way as a block changed the tick after a synchronous path was made.
+ */
+public final class AsyncPathRequest {
+    private static final Logger LOGGER = LogUtils.getLogger();
+    private static final AtomicInteger THREAD_COUNT = new AtomicInteger();
+    private static final int THREADS = Math.max(1, Runtime.getRuntime().availableProcessors() / 4);
+
+    /**
+     * The most requests that can wait for a worker at once, so a backlog of requests can't hold onto an unbounded
+     * number of region snapshots
+     */
+    public static final int MAX_QUEUED_REQUESTS = 256;
+
+    private static final ExecutorService EXECUTOR = new ThreadPoolExecutor(THREADS, THREADS, 0, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>(MAX_QUEUED_REQUESTS), task -> {
+        Thread thread = new Thread(task, "SBL Pathfinder #" + THREAD_COUNT.incrementAndGet());
+
+        thread.setDaemon(true);
+
+        return thread;
+    });
+
+    /**
+     * How far beyond the follow range the region snapshot extends, matching vanilla's {@link PathNavigation#createPath(BlockPos, int)}
+     */
+    private static final int REGION_PADDING = 8;
+
+    /**
+     * Idle proxies, kept for reuse by later requests. Only as many as there are workers are kept
+     */
+    private static final Queue<PathingProxy> PROXIES = new ArrayBlockingQueue<>(THREADS);
+
+    private final BlockPos origin;
+    private final BlockPos target;
+    private final CompletableFuture<Path> path;
+    private volatile long computeNanos = 0;
+
+    private AsyncPathRequest(BlockPos origin, BlockPos target, CompletableFuture<Path> path) {
+        this.origin = origin;
+        this.target = target;
+        this.path = path;
+    }
+
+    /**
+     * Start computing a path for the given mob to the given position
+     *
+     * @param mob The mob to path for
+     * @param target The position to path to
+     * @param accuracy How close to the target the path needs to end, in blocks
+     * @return The request, to poll on later ticks
+     */
+    public static AsyncPathRequest submit(Mob mob, BlockPos target, int accuracy) {
+        final PathNavigation navigation = mob.getNavigation();
+        final BlockPos origin = mob.blockPosition();
+        final NodeEvaluator nodeEvaluator = navigation instanceof ExtendedNavigator extendedNavigator ? extendedNavigator.createNodeEvaluator() : null;
+
+        if (nodeEvaluator == null)
+            return computeNow(navigation, origin, target, accuracy);
+
+        if (mob.getY() < mob.level().getMinBuildHeight())
+            return new AsyncPathRequest(origin, target, CompletableFuture.completedFuture(null));
+
+        final NodeEvaluator navigationNodeEvaluator = navigation.getNodeEvaluator();
+
+        nodeEvaluator.setCanPassDoors(navigationNodeEvaluator.canPassDoors());
+        nodeEvaluator.setCanOpenDoors(navigationNodeEvaluator.canOpenDoors());
+        nodeEvaluator.setCanFloat(navigationNodeEvaluator.canFloat());
+        nodeEvaluator.setCanWalkOverFences(navigationNodeEvaluator.canWalkOverFences());
+
+        final float followRange = (float)mob.getAttributeValue(Attributes.FOLLOW_RANGE);
+        final int regionRadius = (int)followRange + REGION_PADDING;
+        final PathNavigationRegion region = new DetachedNavigationRegion(mob.level(), origin.offset(-regionRadius, -regionRadius, -regionRadius), origin.offset(regionRadius, regionRadius, regionRadius));
+        final PathingProxy proxy = PathingProxy.acquire(mob);
+        final PathFinder pathFinder = ((ExtendedNavigator)navigation).createSmoothPathFinder(nodeEvaluator, Mth.floor(followRange * 16));
+        final Set<BlockPos> targets = Set.of(target);
+        final CompletableFuture<Path> path = new CompletableFuture<>();
+        final AsyncPathRequest request = new AsyncPathRequest(origin, target, path);
+
+        try {
+            CompletableFuture.runAsync(() -> {
+                final long startTime = System.nanoTime();
+
+                try {
+                    final Path result = pathFinder.findPath(region, proxy, targets, followRange, accuracy, 1);
+                    request.computeNanos = System.nanoTime() - startTime;
+
+                    path.complete(result);
+                }
+                catch (Exception ex) {
+                    LOGGER.error("Failed to compute path for {} to {}", mob, target, ex);
+
+                    path.complete(null);
+                }
+                finally {
+                    proxy.release();
+                }
+            }, EXECUTOR);
+        }
+        catch (RejectedExecutionException ex) {
+            proxy.release();
+
+            return computeNow(navigation, origin, target, accuracy);
+        }
+
+        return request;
+    }
+
+    private static AsyncPathRequest computeNow(PathNavigation navigation, BlockPos origin, BlockPos target, int accuracy) {
+        final long startTime = System.nanoTime();
+        final AsyncPathRequest request = new AsyncPathRequest(origin, target, CompletableFuture.completedFuture(navigation.createPath(target, accuracy)));
+        request.computeNanos = System.nanoTime() - startTime;
+
+        return request;
+    }
+
+    /**
+     * Create an already-done request for a path that didn't need computing, such as one taken from a cache
+     *
+     * @param mob The mob the path is for
+     * @param target The position the path leads to
+     * @param path The path
+     * @return The request
+     */
+    public static AsyncPathRequest completed(Mob mob, BlockPos target, @Nullable Path path) {
+        return new AsyncPathRequest(mob.blockPosition(), target, CompletableFuture.completedFuture(path));
+    }
+
+    /**
+     * @return Whether the path has finished computing, successfully or not
+     */
+    public boolean isDone() {
+        return this.path.isDone();
+    }
+
+    /**
+     * @return The computed path, or null if it isn't {@link #isDone() done} or no path could be found
+     */
+    @Nullable
+    public Path getPath() {
+        return this.path.getNow(null);
+    }
+
+    /**
+     * @return How long the path took to compute on its worker thread, in nanoseconds, or 0 if it isn't done or was never computed
+     */
+    public long getComputeNanos() {
+        return this.computeNanos;
+    }
+
+    /**
+     * @return The position the path was requested to
+     */
+    public BlockPos getTarget() {
+        return this.target;
+    }
+
+    /**
+     * Check whether the path no longer fits the current situation, because either the mob or its target have moved too
+     * far since it was requested
+     *
+     * @param mob The mob the path was requested for
+     * @param currentTarget The position the mob currently wants to path to
+     * @param maxDistance The furthest either can have moved, in blocks
+     * @return Whether the path should be discarded
+     */
+    public boolean isStale(Mob mob, BlockPos currentTarget, double maxDistance) {
+        final double maxDistanceSqr = maxDistance * maxDistance;
+
+        return this.target.distSqr(currentTarget) > maxDistanceSqr || this.origin.distSqr(mob.blockPosition()) > maxDistanceSqr;
+    }
+
+    /**
+     * Discard this request. A path already being computed still finishes, but is never used
+     */
+    public void cancel() {
+        this.path.cancel(false);
+    }
+
+    /**
+     * A {@link PathNavigationRegion} that can be read from a worker thread, without reporting to the level's
+     * non-thread-safe profiler.<br>
+     * Each region has its own {@link PathTypeCache}, which {@link PathfindingContext PathfindingContexts} made for it use
+     * instead of the level's cache, as that is neither thread-safe nor invalidated off the server thread
+     */
+    public static final class DetachedNavigationRegion extends PathNavigationRegion {
+        private final PathTypeCache pathTypeCache = new PathTypeCache();
+
+        private DetachedNavigationRegion(Level level, BlockPos min, BlockPos max) {
+            super(level, min, max);
+        }
+
+        @Override
+        public ProfilerFiller getProfiler() {
+            return InactiveProfiler.INSTANCE;
+        }
+
+        public PathTypeCache getPathTypeCache() {
+            return this.pathTypeCache;
+        }
+    }
+
+    /**
+     * A stand-in for the {@link Mob} being pathed for, holding a copy of the state a {@link NodeEvaluator} reads or
+     * changes while pathing, so the path can be computed without touching the live entity from a worker thread.<br>
+     * Vanilla's evaluators and {@link PathfindingContext} only accept a mob, so proxies are mobs of their own
+     * {@link SBLEntityTypes#PATHING_PROXY entity type}, rather than copies posing as the mob's type. They're never added to
+     * the level, have no navigation, and are pooled, so a request only constructs one when none are idle.<br>
+     * Only the mob's position, bounds, movement state, step height and pathfinding maluses are copied, so the mob's own
+     * overrides of anything else the evaluator calls, such as {@link Mob#onPathfindingStart()} or
+     * {@link Mob#canStandOnFluid}, don't apply to asynchronous paths
+     */
+    public static final class PathingProxy extends Mob {
+        private static final PathType[] PATH_TYPES = PathType.values();
+
+        private final float[] pathfindingMalus = new float[PATH_TYPES.length];
+        private EntityDimensions proxyDimensions;
+        private float maxUpStep;
+        private boolean inWater;
+
+        public PathingProxy(EntityType<? extends PathingProxy> entityType, Level level) {
+            super(entityType, level);
+        }
+
+        /**
+         * Take an idle proxy from the pool, or create one if there are none, and copy the given mob's state into it.<br>
+         * Must be called on the mob's level's thread
+         */
+        private static PathingProxy acquire(Mob mob) {
+            PathingProxy proxy = PROXIES.poll();
+
+            if (proxy == null)
+                proxy = new PathingProxy(SBLEntityTypes.PATHING_PROXY.get(), mob.level());
+
+            proxy.copyFrom(mob);
+
+            return proxy;
+        }
+
+        private void copyFrom(Mob mob) {
+            for (PathType pathType : PATH_TYPES) {
+                this.pathfindingMalus[pathType.ordinal()] = mob.getPathfindingMalus(pathType);
+            }
+
+            this.proxyDimensions = mob.getDimensions(mob.getPose());
+            this.maxUpStep = mob.maxUpStep();
+            this.inWater = mob.isInWater();
+
+            setLevel(mob.level());
+            refreshDimensions();
+            setPos(mob.getX(), mob.getY(), mob.getZ());
+            setBoundingBox(mob.getBoundingBox());
+            setOnGround(mob.onGround());
+            setNoGravity(mob.isNoGravity());
+        }
+
+        /**
+         * Return this proxy to the pool once its path is done, dropping its reference to the level so an idle proxy
+         * can't keep an unloaded level alive
+         */
+        private void release() {
+            setLevel(null);
+            PROXIES.offer(this);
+        }
+
+        @Override
+        protected PathNavigation createNavigation(Level level) {
+            return null;
+        }
+
+        @Override
+        protected EntityDimensions getDefaultDimensions(Pose pose) {
+            return this.proxyDimensions == null ? super.getDefaultDimensions(pose) : this.proxyDimensions;
+        }
+
+        @Override
+        public float getPathfindingMalus(PathType pathType) {
+            return this.pathfindingMalus[pathType.ordinal()];
+        }
+
+        @Override
+        public void setPathfindingMalus(PathType pathType, float malus) {
+            this.pathfindingMalus[pathType.ordinal()] = malus;
+        }
+
+        @Override
+        public float maxUpStep() {
+            return this.maxUpStep;
+        }
+
+        @Override
+        public boolean isInWater() {
+            return this.inWater;
+        }
+    }
+}
@@ -112,6 +112,18 @@ public interface ExtendedNavigator {
         };
     }
 
+    /**
+     * Create a new {@link NodeEvaluator} of the type this navigator paths with, independent of the one it is currently using
+     * <p>
+     * Used by {@link AsyncPathRequest} to compute paths off-thread without sharing state with this navigator
+     *
+     * @return A new node evaluator, or null if this navigator doesn't support asynchronous pathing
+     */
+    @Nullable
+    default NodeEvaluator createNodeEvaluator() {
+        return null;
+    }
+
     /**
      * Create a PathFinder instance patching out the {@link Path#getEntityPosAtNode(Entity, int)} implementation for smoother pathing
      */
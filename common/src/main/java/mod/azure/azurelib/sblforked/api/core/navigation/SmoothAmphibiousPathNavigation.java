@@ -10,6 +10,7 @@ import net.minecraft.world.entity.Mob;
 import net.minecraft.world.entity.ai.navigation.AmphibiousPathNavigation;
 import net.minecraft.world.level.Level;
 import net.minecraft.world.level.pathfinder.AmphibiousNodeEvaluator;
+import net.minecraft.world.level.pathfinder.NodeEvaluator;
 import net.minecraft.world.level.pathfinder.Path;
 import net.minecraft.world.level.pathfinder.PathFinder;
 import org.jetbrains.annotations.Nullable;
@@ -53,9 +54,17 @@ public class SmoothAmphibiousPathNavigation extends AmphibiousPathNavigation imp
      */
     @Override
     protected PathFinder createPathFinder(int maxVisitedNodes) {
-        this.nodeEvaluator = new AmphibiousNodeEvaluator(prefersShallowSwimming());
-        this.nodeEvaluator.setCanPassDoors(true);
+        this.nodeEvaluator = createNodeEvaluator();
 
         return createSmoothPathFinder(this.nodeEvaluator, maxVisitedNodes);
     }
+
+    @Override
+    public NodeEvaluator createNodeEvaluator() {
+        NodeEvaluator nodeEvaluator = new AmphibiousNodeEvaluator(prefersShallowSwimming());
+
+        nodeEvaluator.setCanPassDoors(true);
+
+        return nodeEvaluator;
+    }
 }
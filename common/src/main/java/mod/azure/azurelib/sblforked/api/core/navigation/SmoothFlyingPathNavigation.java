@@ -10,6 +10,7 @@ import net.minecraft.world.entity.Mob;
 import net.minecraft.world.entity.ai.navigation.FlyingPathNavigation;
 import net.minecraft.world.level.Level;
 import net.minecraft.world.level.pathfinder.FlyNodeEvaluator;
+import net.minecraft.world.level.pathfinder.NodeEvaluator;
 import net.minecraft.world.level.pathfinder.Path;
 import net.minecraft.world.level.pathfinder.PathFinder;
 import org.jetbrains.annotations.Nullable;
@@ -43,9 +44,17 @@ public class SmoothFlyingPathNavigation extends FlyingPathNavigation implements
      */
     @Override
     protected PathFinder createPathFinder(int maxVisitedNodes) {
-        this.nodeEvaluator = new FlyNodeEvaluator();
-        this.nodeEvaluator.setCanPassDoors(true);
+        this.nodeEvaluator = createNodeEvaluator();
 
         return createSmoothPathFinder(this.nodeEvaluator, maxVisitedNodes);
     }
+
+    @Override
+    public NodeEvaluator createNodeEvaluator() {
+        NodeEvaluator nodeEvaluator = new FlyNodeEvaluator();
+
+        nodeEvaluator.setCanPassDoors(true);
+
+        return nodeEvaluator;
+    }
 }
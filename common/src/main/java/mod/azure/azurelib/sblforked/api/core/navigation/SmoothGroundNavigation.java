@@ -11,6 +11,7 @@ import net.minecraft.world.entity.Mob;
 import net.minecraft.world.entity.ai.navigation.GroundPathNavigation;
 import net.minecraft.world.entity.ai.navigation.PathNavigation;
 import net.minecraft.world.level.Level;
+import net.minecraft.world.level.pathfinder.NodeEvaluator;
 import net.minecraft.world.level.pathfinder.Path;
 import net.minecraft.world.level.pathfinder.PathFinder;
 import net.minecraft.world.level.pathfinder.WalkNodeEvaluator;
@@ -51,12 +52,20 @@ public class SmoothGroundNavigation extends GroundPathNavigation implements Exte
      */
     @Override
     protected PathFinder createPathFinder(int maxVisitedNodes) {
-        this.nodeEvaluator = new WalkNodeEvaluator();
-        this.nodeEvaluator.setCanPassDoors(true);
+        this.nodeEvaluator = createNodeEvaluator();
 
         return createSmoothPathFinder(this.nodeEvaluator, maxVisitedNodes);
     }
 
+    @Override
+    public NodeEvaluator createNodeEvaluator() {
+        NodeEvaluator nodeEvaluator = new WalkNodeEvaluator();
+
+        nodeEvaluator.setCanPassDoors(true);
+
+        return nodeEvaluator;
+    }
+
     @Override
     protected void followThePath() {
         final Vec3 safeSurfacePos = getTempMobPos();
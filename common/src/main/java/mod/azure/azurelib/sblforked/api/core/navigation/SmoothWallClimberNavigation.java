@@ -11,6 +11,7 @@ import net.minecraft.world.entity.ai.navigation.GroundPathNavigation;
 import net.minecraft.world.entity.ai.navigation.PathNavigation;
 import net.minecraft.world.entity.ai.navigation.WallClimberNavigation;
 import net.minecraft.world.level.Level;
+import net.minecraft.world.level.pathfinder.NodeEvaluator;
 import net.minecraft.world.level.pathfinder.Path;
 import net.minecraft.world.level.pathfinder.PathFinder;
 import net.minecraft.world.level.pathfinder.WalkNodeEvaluator;
@@ -46,12 +47,20 @@ public class SmoothWallClimberNavigation extends WallClimberNavigation implement
      */
     @Override
     protected PathFinder createPathFinder(int maxVisitedNodes) {
-        this.nodeEvaluator = new WalkNodeEvaluator();
-        this.nodeEvaluator.setCanPassDoors(true);
+        this.nodeEvaluator = createNodeEvaluator();
 
         return createSmoothPathFinder(this.nodeEvaluator, maxVisitedNodes);
     }
 
+    @Override
+    public NodeEvaluator createNodeEvaluator() {
+        NodeEvaluator nodeEvaluator = new WalkNodeEvaluator();
+
+        nodeEvaluator.setCanPassDoors(true);
+
+        return nodeEvaluator;
+    }
+
     /**
      * Helper override to allow end-users to modify the fluids an entity can swim in
      * <p>
@@ -10,6 +10,7 @@ import net.minecraft.world.entity.EntityType;
 import net.minecraft.world.entity.Mob;
 import net.minecraft.world.entity.ai.navigation.WaterBoundPathNavigation;
 import net.minecraft.world.level.Level;
+import net.minecraft.world.level.pathfinder.NodeEvaluator;
 import net.minecraft.world.level.pathfinder.Path;
 import net.minecraft.world.level.pathfinder.PathFinder;
 import net.minecraft.world.level.pathfinder.SwimNodeEvaluator;
@@ -55,9 +56,18 @@ public class SmoothWaterBoundPathNavigation extends WaterBoundPathNavigation imp
      */
     @Override
     protected PathFinder createPathFinder(int maxVisitedNodes) {
-        this.nodeEvaluator = new SwimNodeEvaluator(this.allowBreaching = canBreach());
-        this.nodeEvaluator.setCanPassDoors(true);
+        this.allowBreaching = canBreach();
+        this.nodeEvaluator = createNodeEvaluator();
 
         return createSmoothPathFinder(this.nodeEvaluator, maxVisitedNodes);
     }
+
+    @Override
+    public NodeEvaluator createNodeEvaluator() {
+        NodeEvaluator nodeEvaluator = new SwimNodeEvaluator(canBreach());
+
+        nodeEvaluator.setCanPassDoors(true);
+
+        return nodeEvaluator;
+    }
 }
@@ -6,10 +6,9 @@
  */
 package mod.azure.azurelib.sblforked.api.core.schedule;
 
-import com.google.common.collect.ListMultimap;
-import com.google.common.collect.MultimapBuilder;
-import it.unimi.dsi.fastutil.ints.Int2ObjectArrayMap;
-import it.unimi.dsi.fastutil.ints.Int2ObjectMap;
+import it.unimi.dsi.fastutil.ints.Int2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import it.unimi.dsi.fastutil.objects.ObjectArrayList;
 import net.minecraft.world.entity.LivingEntity;
 import net.minecraft.world.entity.schedule.Activity;
 import net.minecraft.world.entity.schedule.Schedule;
@@ -17,6 +16,9 @@ import mod.azure.azurelib.sblforked.api.SmartBrainOwner;
 import org.jetbrains.annotations.Nullable;
 
 import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
 import java.util.function.Consumer;
 import java.util.function.ToIntBiFunction;
 import java.util.function.ToIntFunction;
@@ -27,13 +29,25 @@ import java.util.function.ToIntFunction;
  * <br>
  * This segment of the Brain system is used to timeline activities, allowing you to run activity groups and tasks on a tick-based schedule.<br>
  * <br>
- * Activities scheduled using this system will <b>override</b> the activity priorities from {@link SmartBrainOwner#getActivityPriorities()} at tick time
+ * Activities scheduled using this system will <b>override</b> the activity priorities from {@link SmartBrainOwner#getActivityPriorities()} at tick time<br>
+ * <br>
+ * Tasks added via {@link #scheduleTask} are kept in a timing wheel of {@link #WHEEL_SIZE} slots per brain owner, indexed by the tick they are due.
+ * Adding a task and running it are both constant-time, and each tick only visits the tasks in the owner's current slot rather than every pending task.
+ * Each owner's wheel advances with that owner's own ticks, so a schedule shared between several brains works the same as one per brain.
  */
 public class SmartBrainSchedule extends Schedule {
+	/**
+	 * The number of slots in the scheduled task wheel. Must be a power of 2
+	 */
+	private static final int WHEEL_SIZE = 64;
+
 	private final Type type;
-	private final Int2ObjectArrayMap<Activity> timeline = new Int2ObjectArrayMap<>(0);
-	private final ListMultimap<Integer, Consumer<LivingEntity>> callbacks = MultimapBuilder.hashKeys(0).arrayListValues().build();
+	private final Int2ObjectOpenHashMap<Activity> timeline = new Int2ObjectOpenHashMap<>(0);
+	private final Int2ObjectOpenHashMap<List<Consumer<LivingEntity>>> callbacks = new Int2ObjectOpenHashMap<>(0);
+	private final Map<LivingEntity, TaskWheel> taskWheels = new WeakHashMap<>();
 
+	private int[] timelineTicks = new int[0];
+	private Activity[] timelineActivities = new Activity[0];
 	private boolean sortedTimeline = true;
 
 	public SmartBrainSchedule() {
@@ -65,19 +79,21 @@ public class SmartBrainSchedule extends Schedule {
 	 * @return this
 	 */
 	public SmartBrainSchedule doAt(int tick, Consumer<LivingEntity> callback) {
-		this.callbacks.put(tick, callback);
+		this.callbacks.computeIfAbsent(tick, key -> new ObjectArrayList<>(1)).add(callback);
 
 		return this;
 	}
 
 	/**
-	 * Adds a dynamically-scheduled task for a given tick-time in the future
+	 * Adds a dynamically-scheduled task for a given tick-time in the future.<br>
+	 * The delay is counted in the brain owner's own ticks, regardless of the schedule's {@link Type}, and the task only runs once.<br>
+	 * A task added after the schedule has already been ticked for the current tick runs on the next tick at the earliest
 	 * @param brainOwner The owner of the brain
 	 * @param delay The delay time (in ticks) before the task should be called
 	 * @param task The task to run after the given delay
 	 */
 	public void scheduleTask(LivingEntity brainOwner, int delay, Consumer<LivingEntity> task) {
-		this.callbacks.put(this.type.resolveDelay(brainOwner, delay), entity -> task.accept(brainOwner));
+		this.taskWheels.computeIfAbsent(brainOwner, key -> new TaskWheel()).add(brainOwner.tickCount + Math.max(0, delay), task);
 	}
 
 	/**
@@ -86,6 +102,13 @@ public class SmartBrainSchedule extends Schedule {
 	public void clearSchedule() {
 		this.callbacks.clear();
 		this.timeline.clear();
+
+		for (TaskWheel wheel : this.taskWheels.values()) {
+			wheel.clear();
+		}
+
+		this.taskWheels.clear();
+		this.sortedTimeline = false;
 	}
 
 	/**
@@ -95,73 +118,204 @@ public class SmartBrainSchedule extends Schedule {
 	 */
 	@Nullable
 	public Activity tick(LivingEntity brainOwner) {
+		if (!this.taskWheels.isEmpty()) {
+			TaskWheel wheel = this.taskWheels.get(brainOwner);
+
+			if (wheel != null)
+				wheel.runDue(brainOwner, brainOwner.tickCount);
+		}
+
 		int tick = this.type.resolve(brainOwner);
 
 		if (!this.callbacks.isEmpty()) {
-			this.callbacks.get(tick).forEach(consumer -> consumer.accept(brainOwner));
+			List<Consumer<LivingEntity>> tickCallbacks = this.type == Type.AGE ? this.callbacks.remove(tick) : this.callbacks.get(tick);
 
-			if (this.type == Type.AGE)
-				this.callbacks.removeAll(tick);
+			if (tickCallbacks != null) {
+				for (Consumer<LivingEntity> callback : tickCallbacks) {
+					callback.accept(brainOwner);
+				}
+			}
 		}
 
 		if (!this.timeline.isEmpty()) {
 			if (!this.sortedTimeline)
 				sortTimeline();
 
-			int index = -1;
-			Activity activity = null;
-
-			for (Int2ObjectMap.Entry<Activity> entry : this.timeline.int2ObjectEntrySet()) {
-				index++;
-
-				if (entry.getIntKey() >= tick) {
-					if (entry.getIntKey() == tick)
-						activity = entry.getValue();
-
-					break;
-				}
-
-				activity = entry.getValue();
-			}
+			int index = findTimelineIndex(tick);
 
-			if (this.type == Type.AGE && index + 1 >= this.timeline.size())
+			if (this.type == Type.AGE && index == this.timelineTicks.length - 1)
 				this.timeline.clear();
 
-			return activity;
+			return index < 0 ? null : this.timelineActivities[index];
 		}
 
 		return null;
 	}
 
+	/**
+	 * Find the index of the latest timeline entry at or before the given tick
+	 *
+	 * @return The index in the sorted timeline, or -1 if the tick is before the first entry
+	 */
+	private int findTimelineIndex(int tick) {
+		int index = Arrays.binarySearch(this.timelineTicks, tick);
+
+		return index >= 0 ? index : -index - 2;
+	}
+
 	private void sortTimeline() {
-		Int2ObjectArrayMap<Activity> copy = new Int2ObjectArrayMap<>(this.timeline);
-		int[] keys = copy.keySet().toArray(new int[0]);
+		int[] ticks = this.timeline.keySet().toIntArray();
+		Activity[] activities = new Activity[ticks.length];
 
-		Arrays.sort(keys);
-		this.timeline.clear();
+		Arrays.sort(ticks);
 
-		for (int key : keys) {
-			this.timeline.put(key, copy.get(key));
+		for (int i = 0; i < ticks.length; i++) {
+			activities[i] = this.timeline.get(ticks[i]);
 		}
 
+		this.timelineTicks = ticks;
+		this.timelineActivities = activities;
 		this.sortedTimeline = true;
 	}
 
+	/**
+	 * Get the activity set by the latest timeline entry strictly before the given tick.<br>
+	 * Unlike {@link #tick}, an entry at exactly the given tick doesn't apply yet, matching this method's behaviour from
+	 * before the timeline was flattened
+	 */
 	@Override
 	public final Activity getActivityAt(int tick) {
-		if (this.type == Type.AGE)
+		if (this.type == Type.AGE || this.timeline.isEmpty())
 			return Activity.IDLE;
 
-		Activity activity = Activity.IDLE;
+		if (!this.sortedTimeline)
+			sortTimeline();
+
+		int index = Arrays.binarySearch(this.timelineTicks, tick);
+		index = index >= 0 ? index - 1 : -index - 2;
+
+		return index < 0 ? Activity.IDLE : this.timelineActivities[index];
+	}
+
+	/**
+	 * The scheduled tasks of a single brain owner, and the last tick they were run for
+	 */
+	private static class TaskWheel {
+		private final TaskSlot[] slots = new TaskSlot[WHEEL_SIZE];
+		private int pendingTasks = 0;
+		private int lastTaskTick = Integer.MIN_VALUE;
+
+		/**
+		 * Add a task due at the given tick.<br>
+		 * Tasks due at a tick that has already been run are moved to the next tick, as their slot won't be visited again
+		 * until the wheel comes back round to it
+		 */
+		private void add(int dueTick, Consumer<LivingEntity> task) {
+			if (this.lastTaskTick != Integer.MIN_VALUE && dueTick <= this.lastTaskTick)
+				dueTick = this.lastTaskTick + 1;
+
+			TaskSlot slot = this.slots[dueTick & (WHEEL_SIZE - 1)];
+
+			if (slot == null)
+				slot = this.slots[dueTick & (WHEEL_SIZE - 1)] = new TaskSlot();
 
-		for (Int2ObjectMap.Entry<Activity> entry : this.timeline.int2ObjectEntrySet()) {
-			if (entry.getIntKey() >= tick)
-				return activity;
+			slot.add(dueTick, task);
 
-			activity = entry.getValue();
+			this.pendingTasks++;
 		}
 
-		return activity;
+		private void clear() {
+			for (TaskSlot slot : this.slots) {
+				if (slot != null)
+					slot.clear();
+			}
+
+			this.pendingTasks = 0;
+		}
+
+		/**
+		 * Run any tasks that have come due since the wheel was last run
+		 */
+		private void runDue(LivingEntity brainOwner, int tick) {
+			int fromTick = this.lastTaskTick == Integer.MIN_VALUE || tick - this.lastTaskTick >= WHEEL_SIZE || tick < this.lastTaskTick ? tick - WHEEL_SIZE + 1 : this.lastTaskTick + 1;
+			this.lastTaskTick = tick;
+
+			for (int slotTick = fromTick; slotTick <= tick && this.pendingTasks > 0; slotTick++) {
+				TaskSlot slot = this.slots[slotTick & (WHEEL_SIZE - 1)];
+
+				if (slot != null && slot.size() > 0)
+					this.pendingTasks = Math.max(0, this.pendingTasks - slot.runDue(brainOwner, tick));
+			}
+		}
+	}
+
+	/**
+	 * A single slot of a scheduled task wheel, holding the tasks due at any tick that maps to it
+	 */
+	private static class TaskSlot {
+		private final IntArrayList dueTicks = new IntArrayList();
+		private final ObjectArrayList<Consumer<LivingEntity>> tasks = new ObjectArrayList<>();
+
+		private void add(int dueTick, Consumer<LivingEntity> task) {
+			this.dueTicks.add(dueTick);
+			this.tasks.add(task);
+		}
+
+		private int size() {
+			return this.tasks.size();
+		}
+
+		private void clear() {
+			this.dueTicks.clear();
+			this.tasks.clear();
+		}
+
+		/**
+		 * Run and remove each task in this slot that is due by the given tick, keeping those due on a later turn of the wheel.<br>
+		 * Tasks added to this slot by the tasks being run are kept for the next time the slot is visited
+		 *
+		 * @return The number of tasks run
+		 */
+		private int runDue(LivingEntity brainOwner, int tick) {
+			int size = size();
+			int kept = 0;
+			int ran = 0;
+
+			for (int i = 0; i < size; i++) {
+				int dueTick = this.dueTicks.getInt(i);
+				Consumer<LivingEntity> task = this.tasks.get(i);
+
+				if (dueTick <= tick) {
+					task.accept(brainOwner);
+					ran++;
+
+					// The schedule was cleared by the task
+					if (size() <= i)
+						return ran;
+
+					continue;
+				}
+
+				keep(kept++, i);
+			}
+
+			for (int i = size; i < size(); i++) {
+				keep(kept++, i);
+			}
+
+			this.dueTicks.size(kept);
+			this.tasks.size(kept);
+
+			return ran;
+		}
+
+		private void keep(int toIndex, int fromIndex) {
+			if (toIndex == fromIndex)
+				return;
+
+			this.dueTicks.set(toIndex, this.dueTicks.getInt(fromIndex));
+			this.tasks.set(toIndex, this.tasks.get(fromIndex));
+		}
 	}
 
 	/**
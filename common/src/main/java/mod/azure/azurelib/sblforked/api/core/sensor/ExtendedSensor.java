@@ -6,7 +6,10 @@
  */
 package mod.azure.azurelib.sblforked.api.core.sensor;
 
+import it.unimi.dsi.fastutil.HashCommon;
 import it.unimi.dsi.fastutil.objects.ObjectOpenHashSet;
+import mod.azure.azurelib.sblforked.object.IntProvider;
+import mod.azure.azurelib.sblforked.object.SensorScanStats;
 import net.minecraft.server.level.ServerLevel;
 import net.minecraft.world.entity.LivingEntity;
 import net.minecraft.world.entity.ai.memory.MemoryModuleType;
@@ -17,6 +20,7 @@ import java.util.List;
 import java.util.Set;
 import java.util.function.Consumer;
 import java.util.function.Function;
+import java.util.function.ToIntFunction;
 
 /**
  * An extension of the base Sensor. This adds some minor additional functionality and swaps the memory to a list for easier usage and faster iteration. <br>
@@ -25,9 +29,10 @@ import java.util.function.Function;
  * @param <E> The entity
  */
 public abstract class ExtendedSensor<E extends LivingEntity> extends Sensor<E> {
-	protected Function<E, Integer> scanRate = entity -> 20;
+	protected Function<E, Integer> scanRate = new IntProvider<>(entity -> 20);
 	protected Consumer<E> scanCallback = entity -> {};
 	protected long nextTickTime = 0;
+	protected boolean staggerScans = false;
 
 	public ExtendedSensor() {
 		super();
@@ -46,6 +51,34 @@ public abstract class ExtendedSensor<E extends LivingEntity> extends Sensor<E> {
 		return this;
 	}
 
+	/**
+	 * Set the scan rate provider for this sensor. <br>
+	 * The provider will be sampled every time the sensor does a scan.<br>
+	 * Equivalent to {@link ExtendedSensor#setScanRate(Function)}, without boxing the tick rate on every scan.
+	 *
+	 * @param function The function to provide the tick rate
+	 * @return this
+	 */
+	public ExtendedSensor<E> setScanRateInt(ToIntFunction<E> function) {
+		this.scanRate = new IntProvider<>(function);
+
+		return this;
+	}
+
+	/**
+	 * Spread this sensor's scans across its scan window, instead of scanning on the first tick the entity is ticked.<br>
+	 * Each entity's first scan is delayed by a fixed offset within the scan rate, derived from its UUID and this sensor's
+	 * type. Entities spawned or loaded on the same tick then scan on different ticks, rather than all scanning together
+	 * every scan period and causing periodic tick spikes.
+	 *
+	 * @return this
+	 */
+	public ExtendedSensor<E> staggerScans() {
+		this.staggerScans = true;
+
+		return this;
+	}
+
 	/**
 	 * Set a callback function for when the sensor completes a scan.
 	 */
@@ -57,14 +90,51 @@ public abstract class ExtendedSensor<E extends LivingEntity> extends Sensor<E> {
 
 	@Override
 	public final void tick(ServerLevel level, E entity) {
+		if (this.staggerScans && nextTickTime == 0)
+			nextTickTime = level.getGameTime() + getScanOffset(entity, getScanRate(entity)) - 1;
+
 		if (nextTickTime < level.getGameTime()) {
-			nextTickTime = level.getGameTime() + scanRate.apply(entity);
+			nextTickTime = level.getGameTime() + getScanRate(entity);
+
+			if (SensorScanStats.isEnabled()) {
+				long startTime = System.nanoTime();
+
+				doTick(level, entity);
+				SensorScanStats.record(this, System.nanoTime() - startTime);
+				SensorScanStats.logIfDue(level.getGameTime());
+			}
+			else {
+				doTick(level, entity);
+			}
 
-			doTick(level, entity);
 			this.scanCallback.accept(entity);
 		}
 	}
 
+	/**
+	 * Get the number of ticks until this sensor's next scan, from its {@link ExtendedSensor#scanRate scan rate provider}
+	 *
+	 * @param entity The owner of the brain
+	 */
+	protected int getScanRate(E entity) {
+		return IntProvider.applyAsInt(this.scanRate, entity);
+	}
+
+	/**
+	 * Get the number of ticks to delay the first scan by when {@link #staggerScans() staggering scans}.<br>
+	 * Stable for a given entity and sensor type, and evenly spread across the scan window for different entities
+	 *
+	 * @param entity The owner of the brain
+	 * @param scanRate The current scan rate of this sensor
+	 * @return The offset, between 0 (inclusive) and the scan rate (exclusive)
+	 */
+	protected int getScanOffset(E entity, int scanRate) {
+		if (scanRate <= 1)
+			return 0;
+
+		return Math.floorMod(HashCommon.mix(entity.getUUID().hashCode() ^ getClass().getName().hashCode()), scanRate);
+	}
+
 	/**
 	 * Handle the Sensor's actual function here. Be wary of performance implications of computation-heavy checks here.
 	 *
@@ -19,7 +19,6 @@ import mod.azure.azurelib.sblforked.registry.SBLSensors;
 import mod.azure.azurelib.sblforked.util.BrainUtils;
 import mod.azure.azurelib.sblforked.util.EntityRetrievalUtil;
 
-import java.util.Comparator;
 import java.util.List;
 
 /**
@@ -36,7 +35,7 @@ public class IncomingProjectilesSensor<E extends LivingEntity> extends Predicate
 	private static final List<MemoryModuleType<?>> MEMORIES = ObjectArrayList.of(SBLMemoryTypes.INCOMING_PROJECTILES.get());
 
 	public IncomingProjectilesSensor() {
-		setScanRate(entity -> 3);
+		setScanRateInt(entity -> 3);
 		setPredicate((projectile, entity) -> {
 			if (projectile.onGround() || projectile.horizontalCollision || projectile.verticalCollision)
 				return false;
@@ -60,7 +59,7 @@ public class IncomingProjectilesSensor<E extends LivingEntity> extends Predicate
 		List<Projectile> projectiles = EntityRetrievalUtil.getEntities(level, entity.getBoundingBox().inflate(7), target -> target instanceof Projectile projectile && predicate().test(projectile, entity));
 
 		if (!projectiles.isEmpty()) {
-			projectiles.sort(Comparator.comparingDouble(entity::distanceToSqr));
+			EntityRetrievalUtil.sortByDistance(entity.position(), projectiles);
 			BrainUtils.setMemory(entity, SBLMemoryTypes.INCOMING_PROJECTILES.get(), projectiles);
 		}
 		else {
@@ -19,7 +19,10 @@ import mod.azure.azurelib.sblforked.api.core.sensor.PredicateSensor;
 import mod.azure.azurelib.sblforked.object.SquareRadius;
 import mod.azure.azurelib.sblforked.registry.SBLMemoryTypes;
 import mod.azure.azurelib.sblforked.registry.SBLSensors;
+import mod.azure.azurelib.sblforked.util.BlockChangeTracker;
+import mod.azure.azurelib.sblforked.util.BlockRetrievalUtil;
 import mod.azure.azurelib.sblforked.util.BrainUtils;
+import org.jetbrains.annotations.Nullable;
 
 import java.util.List;
 
@@ -35,6 +38,12 @@ public class NearbyBlocksSensor<E extends LivingEntity> extends PredicateSensor<
 	private static final List<MemoryModuleType<?>> MEMORIES = ObjectArrayList.of(SBLMemoryTypes.NEARBY_BLOCKS.get());
 
 	protected SquareRadius radius = new SquareRadius(1, 1);
+	protected boolean reuseUnchangedResults = false;
+
+	@Nullable
+	private BlockPos lastScanPos = null;
+	private long lastScanVersion = 0;
+	private List<Pair<BlockPos, BlockState>> lastScanResults = List.of();
 
 	public NearbyBlocksSensor() {
 		setPredicate((state, entity) -> !state.isAir());
@@ -67,19 +76,47 @@ public class NearbyBlocksSensor<E extends LivingEntity> extends PredicateSensor<
 	 */
 	public NearbyBlocksSensor<E> setRadius(double xz, double y) {
 		this.radius = new SquareRadius(xz, y);
+		this.lastScanPos = null;
+
+		return this;
+	}
+
+	/**
+	 * Reuse the results of the previous scan while the entity stays in the same block, and no blocks in range have changed.<br>
+	 * Only use this if the predicate depends solely on the block state, as reused results aren't re-tested against the entity
+	 *
+	 * @return this
+	 */
+	public NearbyBlocksSensor<E> reuseUnchangedResults() {
+		this.reuseUnchangedResults = true;
 
 		return this;
 	}
 
 	@Override
 	protected void doTick(ServerLevel level, E entity) {
-		List<Pair<BlockPos, BlockState>> blocks = new ObjectArrayList<>();
+		BlockPos pos = entity.blockPosition();
+		BlockPos min = pos.subtract(this.radius.toVec3i());
+		BlockPos max = pos.offset(this.radius.toVec3i());
+		List<Pair<BlockPos, BlockState>> blocks;
+
+		if (this.reuseUnchangedResults && pos.equals(this.lastScanPos) && BlockChangeTracker.getVersion(level, min, max) == this.lastScanVersion) {
+			blocks = new ObjectArrayList<>(this.lastScanResults);
+		}
+		else {
+			List<Pair<BlockPos, BlockState>> matches = new ObjectArrayList<>();
+
+			if (this.reuseUnchangedResults) {
+				this.lastScanPos = pos;
+				this.lastScanVersion = BlockChangeTracker.getVersion(level, min, max);
+			}
+
+			BlockRetrievalUtil.forEachMatchingBlock(level, min, max, state -> predicate().test(state, entity), (blockPos, state) -> matches.add(Pair.of(blockPos, state)));
 
-		for (BlockPos pos : BlockPos.betweenClosed(entity.blockPosition().subtract(this.radius.toVec3i()), entity.blockPosition().offset(this.radius.toVec3i()))) {
-			BlockState state = level.getBlockState(pos);
+			blocks = matches;
 
-			if (this.predicate().test(state, entity))
-				blocks.add(Pair.of(pos.immutable(), state));
+			if (this.reuseUnchangedResults)
+				this.lastScanResults = List.copyOf(matches);
 		}
 
 		if (blocks.isEmpty()) {
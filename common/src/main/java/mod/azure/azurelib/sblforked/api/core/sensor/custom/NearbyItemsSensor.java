@@ -20,7 +20,7 @@ import mod.azure.azurelib.sblforked.object.SquareRadius;
 import mod.azure.azurelib.sblforked.registry.SBLMemoryTypes;
 import mod.azure.azurelib.sblforked.registry.SBLSensors;
 import mod.azure.azurelib.sblforked.util.BrainUtils;
-import mod.azure.azurelib.sblforked.util.EntityRetrievalUtil;
+import mod.azure.azurelib.sblforked.util.SpatialQueryCache;
 
 import java.util.List;
 
@@ -80,7 +80,7 @@ public class NearbyItemsSensor<E extends Mob> extends PredicateSensor<ItemEntity
 
 	@Override
 	protected void doTick(ServerLevel level, E entity) {
-		BrainUtils.setMemory(entity, SBLMemoryTypes.NEARBY_ITEMS.get(), EntityRetrievalUtil.getEntities(level, this.radius.inflateAABB(entity.getBoundingBox()), obj -> obj instanceof ItemEntity item && predicate().test(item, entity)));
+		BrainUtils.setMemory(entity, SBLMemoryTypes.NEARBY_ITEMS.get(), SpatialQueryCache.getEntities(level, this.radius.inflateAABB(entity.getBoundingBox()), obj -> obj instanceof ItemEntity item && predicate().test(item, entity)));
 	}
 }
 
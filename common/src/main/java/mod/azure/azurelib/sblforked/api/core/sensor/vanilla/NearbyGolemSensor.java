@@ -39,7 +39,7 @@ public class NearbyGolemSensor<E extends LivingEntity> extends PredicateSensor<L
 	private int timeToRemember = 600;
 
 	public NearbyGolemSensor() {
-		setScanRate(entity -> 200);
+		setScanRateInt(entity -> 200);
 		setPredicate((target, entity) -> target.getType() == EntityType.IRON_GOLEM && target.isAlive());
 	}
 
@@ -12,6 +12,7 @@ import net.minecraft.world.entity.LivingEntity;
 import net.minecraft.world.entity.ai.attributes.Attributes;
 import net.minecraft.world.entity.ai.memory.MemoryModuleType;
 import net.minecraft.world.entity.ai.sensing.SensorType;
+import net.minecraft.world.phys.AABB;
 import mod.azure.azurelib.sblforked.api.core.sensor.ExtendedSensor;
 import mod.azure.azurelib.sblforked.api.core.sensor.PredicateSensor;
 import mod.azure.azurelib.sblforked.object.FixedNearestVisibleLivingEntities;
@@ -19,9 +20,10 @@ import mod.azure.azurelib.sblforked.object.SquareRadius;
 import mod.azure.azurelib.sblforked.registry.SBLSensors;
 import mod.azure.azurelib.sblforked.util.BrainUtils;
 import mod.azure.azurelib.sblforked.util.EntityRetrievalUtil;
+import mod.azure.azurelib.sblforked.util.SharedSensorResults;
+import mod.azure.azurelib.sblforked.util.SpatialQueryCache;
 import org.jetbrains.annotations.Nullable;
 
-import java.util.Comparator;
 import java.util.List;
 
 /**
@@ -42,6 +44,8 @@ public class NearbyLivingEntitySensor<E extends LivingEntity> extends PredicateS
 
 	@Nullable
 	protected SquareRadius radius = null;
+	protected boolean shareResults = false;
+	protected boolean approximateSharedOrdering = false;
 
 	public NearbyLivingEntitySensor() {
 		super((target, entity) -> target != entity && target.isAlive());
@@ -70,6 +74,23 @@ public class NearbyLivingEntitySensor<E extends LivingEntity> extends PredicateS
 		return this;
 	}
 
+	/**
+	 * Share this sensor's scans with other entities of the same type nearby.<br>
+	 * Entities of the same type and size in the same {@link SharedSensorResults#CELL_SIZE small cell} reuse a single scan
+	 * each tick, then filter it down for their own position. This greatly reduces the cost of sensors for herds and packs.
+	 *
+	 * @param approximateOrdering Whether to skip re-sorting the shared results for each entity, and instead keep them in
+	 *                            order of distance from the centre of the cell
+	 * @return this
+	 * @see SharedSensorResults
+	 */
+	public NearbyLivingEntitySensor<E> shareResults(boolean approximateOrdering) {
+		this.shareResults = true;
+		this.approximateSharedOrdering = approximateOrdering;
+
+		return this;
+	}
+
 	@Override
 	public List<MemoryModuleType<?>> memoriesUsed() {
 		return MEMORIES;
@@ -90,11 +111,39 @@ public class NearbyLivingEntitySensor<E extends LivingEntity> extends PredicateS
 			radius = new SquareRadius(dist, dist);
 		}
 
-		List<LivingEntity> entities = EntityRetrievalUtil.getEntities(level, entity.getBoundingBox().inflate(radius.xzRadius(), radius.yRadius(), radius.xzRadius()), obj -> obj instanceof LivingEntity livingEntity && predicate().test(livingEntity, entity));
+		AABB area = entity.getBoundingBox().inflate(radius.xzRadius(), radius.yRadius(), radius.xzRadius());
+		List<LivingEntity> entities;
 
-		entities.sort(Comparator.comparingDouble(entity::distanceToSqr));
+		if (this.shareResults) {
+			entities = new ObjectArrayList<>();
+
+			for (LivingEntity target : getSharedCandidates(level, entity, radius)) {
+				if (target != entity && target.getBoundingBox().intersects(area) && predicate().test(target, entity))
+					entities.add(target);
+			}
+
+			if (!this.approximateSharedOrdering)
+				EntityRetrievalUtil.sortByDistance(entity.position(), entities);
+		}
+		else {
+			entities = SpatialQueryCache.getEntitiesByDistance(level, entity, area, obj -> obj instanceof LivingEntity livingEntity && predicate().test(livingEntity, entity));
+		}
 
 		BrainUtils.setMemory(entity, MemoryModuleType.NEAREST_LIVING_ENTITIES, entities);
 		BrainUtils.setMemory(entity, MemoryModuleType.NEAREST_VISIBLE_LIVING_ENTITIES, new FixedNearestVisibleLivingEntities(entity, entities));
 	}
+
+	/**
+	 * Get every living entity in range of any position in the entity's {@link SharedSensorResults cell}, sorted by distance
+	 * to the centre of the cell, shared with the other entities in that cell this tick
+	 */
+	protected List<LivingEntity> getSharedCandidates(ServerLevel level, E entity, SquareRadius radius) {
+		return SharedSensorResults.getOrScan(level, this, entity, radius, () -> {
+			List<LivingEntity> candidates = SpatialQueryCache.getEntities(level, SharedSensorResults.getCellArea(entity).inflate(radius.xzRadius(), radius.yRadius(), radius.xzRadius()), obj -> obj instanceof LivingEntity);
+
+			EntityRetrievalUtil.sortByDistance(SharedSensorResults.getCellCentre(entity), candidates);
+
+			return candidates;
+		});
+	}
 }
@@ -21,7 +21,6 @@ import mod.azure.azurelib.sblforked.util.BrainUtils;
 import mod.azure.azurelib.sblforked.util.EntityRetrievalUtil;
 import org.jetbrains.annotations.Nullable;
 
-import java.util.Comparator;
 import java.util.List;
 
 /**
@@ -92,18 +91,27 @@ public class NearbyPlayersSensor<E extends LivingEntity> extends PredicateSensor
 
 		List<Player> players = EntityRetrievalUtil.getPlayers(level, radius.inflateAABB(entity.getBoundingBox()), player -> predicate().test(player, entity));
 
-		players.sort(Comparator.comparingDouble(entity::distanceToSqr));
+		EntityRetrievalUtil.sortByDistance(entity.position(), players);
 
-		List<Player> targetablePlayers = new ObjectArrayList<>(players);
+		Player nearestVisiblePlayer = null;
+		Player nearestAttackablePlayer = null;
 
-		targetablePlayers.removeIf(pl -> !isEntityTargetable(entity, pl));
+		for (Player player : players) {
+			if (!isEntityTargetable(entity, player))
+				continue;
 
-		List<Player> attackablePlayers = new ObjectArrayList<>(targetablePlayers);
+			if (nearestVisiblePlayer == null)
+				nearestVisiblePlayer = player;
 
-		attackablePlayers.removeIf(pl -> !isEntityAttackable(entity, pl));
+			if (isEntityAttackable(entity, player)) {
+				nearestAttackablePlayer = player;
+
+				break;
+			}
+		}
 
 		BrainUtils.setMemory(entity, MemoryModuleType.NEAREST_PLAYERS, players);
-		BrainUtils.setMemory(entity, MemoryModuleType.NEAREST_VISIBLE_PLAYER, targetablePlayers.isEmpty() ? null : targetablePlayers.get(0));
-		BrainUtils.setMemory(entity, MemoryModuleType.NEAREST_VISIBLE_ATTACKABLE_PLAYER, attackablePlayers.isEmpty() ? null : attackablePlayers.get(0));
+		BrainUtils.setMemory(entity, MemoryModuleType.NEAREST_VISIBLE_PLAYER, nearestVisiblePlayer);
+		BrainUtils.setMemory(entity, MemoryModuleType.NEAREST_VISIBLE_ATTACKABLE_PLAYER, nearestAttackablePlayer);
 	}
 }
@@ -20,7 +20,10 @@ import net.minecraft.world.level.block.Block;
 import mod.azure.azurelib.sblforked.api.core.sensor.ExtendedSensor;
 import mod.azure.azurelib.sblforked.object.SquareRadius;
 import mod.azure.azurelib.sblforked.registry.SBLSensors;
+import mod.azure.azurelib.sblforked.util.BlockChangeTracker;
+import mod.azure.azurelib.sblforked.util.BlockRetrievalUtil;
 import mod.azure.azurelib.sblforked.util.BrainUtils;
+import org.jetbrains.annotations.Nullable;
 
 import java.util.List;
 
@@ -40,9 +43,17 @@ public class SecondaryPoiSensor<E extends Villager> extends ExtendedSensor<E> {
 	private static final List<MemoryModuleType<?>> MEMORIES = ObjectArrayList.of(MemoryModuleType.SECONDARY_JOB_SITE);
 
 	protected SquareRadius radius = new SquareRadius(8, 4);
+	protected boolean reuseUnchangedResults = false;
+
+	@Nullable
+	private BlockPos lastScanPos = null;
+	@Nullable
+	private ImmutableSet<Block> lastScanPoiBlocks = null;
+	private long lastScanVersion = 0;
+	private List<GlobalPos> lastScanResults = List.of();
 
 	public SecondaryPoiSensor() {
-		setScanRate(entity -> 40);
+		setScanRateInt(entity -> 40);
 	}
 
 	/**
@@ -64,6 +75,19 @@ public class SecondaryPoiSensor<E extends Villager> extends ExtendedSensor<E> {
 	 */
 	public SecondaryPoiSensor<E> setRadius(double xz, double y) {
 		this.radius = new SquareRadius(xz, y);
+		this.lastScanPos = null;
+
+		return this;
+	}
+
+	/**
+	 * Reuse the results of the previous scan while the villager stays in the same block with the same profession, and no
+	 * blocks in range have changed
+	 *
+	 * @return this
+	 */
+	public SecondaryPoiSensor<E> reuseUnchangedResults() {
+		this.reuseUnchangedResults = true;
 
 		return this;
 	}
@@ -83,14 +107,32 @@ public class SecondaryPoiSensor<E extends Villager> extends ExtendedSensor<E> {
 		ResourceKey<Level> dimension = level.dimension();
 		BlockPos pos = entity.blockPosition();
 		ImmutableSet<Block> testPoiBlocks = entity.getVillagerData().getProfession().secondaryPoi();
-		List<GlobalPos> poiPositions = new ObjectArrayList<>();
+		List<GlobalPos> poiPositions;
 
 		if (testPoiBlocks.isEmpty())
 			return;
 
-		for (BlockPos testPos : BlockPos.betweenClosed(pos.getX() - (int) this.radius.xzRadius() / 2, pos.getY() - (int) this.radius.yRadius() / 2, pos.getZ() - (int) this.radius.xzRadius() / 2, pos.getX() + (int) this.radius.xzRadius() / 2, pos.getY() + (int) this.radius.yRadius() / 2, pos.getZ() + (int) this.radius.xzRadius() / 2)) {
-			if (testPoiBlocks.contains(level.getBlockState(testPos).getBlock()))
-				poiPositions.add(GlobalPos.of(dimension, testPos.immutable()));
+		BlockPos min = new BlockPos(pos.getX() - (int) this.radius.xzRadius() / 2, pos.getY() - (int) this.radius.yRadius() / 2, pos.getZ() - (int) this.radius.xzRadius() / 2);
+		BlockPos max = new BlockPos(pos.getX() + (int) this.radius.xzRadius() / 2, pos.getY() + (int) this.radius.yRadius() / 2, pos.getZ() + (int) this.radius.xzRadius() / 2);
+
+		if (this.reuseUnchangedResults && pos.equals(this.lastScanPos) && testPoiBlocks == this.lastScanPoiBlocks && BlockChangeTracker.getVersion(level, min, max) == this.lastScanVersion) {
+			poiPositions = new ObjectArrayList<>(this.lastScanResults);
+		}
+		else {
+			List<GlobalPos> matches = new ObjectArrayList<>();
+
+			if (this.reuseUnchangedResults) {
+				this.lastScanPos = pos;
+				this.lastScanPoiBlocks = testPoiBlocks;
+				this.lastScanVersion = BlockChangeTracker.getVersion(level, min, max);
+			}
+
+			BlockRetrievalUtil.forEachMatchingBlock(level, min, max, state -> testPoiBlocks.contains(state.getBlock()), (blockPos, state) -> matches.add(GlobalPos.of(dimension, blockPos)));
+
+			poiPositions = matches;
+
+			if (this.reuseUnchangedResults)
+				this.lastScanResults = List.copyOf(matches);
 		}
 
 		if (poiPositions.isEmpty()) {
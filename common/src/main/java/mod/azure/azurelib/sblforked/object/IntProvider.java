@@ -0,0 +1,33 @@
+package mod.azure.azurelib.sblforked.object;
+
+import java.util.function.Function;
+import java.util.function.ToIntFunction;
+
+/**
+ * A {@code Function<E, Integer>} backed by a {@link ToIntFunction}.<br>
+ * Lets int-providing fields keep their {@code Function<E, Integer>} type, while still being sampled without boxing
+ * through {@link #applyAsInt(Function, Object)} when they were set from a {@code ToIntFunction}.
+ *
+ * @param provider The underlying int provider
+ * @param <E> The input type
+ */
+public record IntProvider<E>(ToIntFunction<E> provider) implements Function<E, Integer> {
+	@Override
+	public Integer apply(E input) {
+		return this.provider.applyAsInt(input);
+	}
+
+	/**
+	 * Sample the given provider, skipping the boxing if it is an {@code IntProvider}
+	 *
+	 * @param function The provider to sample
+	 * @param input The input to sample it for
+	 * @return The provided value
+	 */
+	public static <E> int applyAsInt(Function<E, Integer> function, E input) {
+		if (function instanceof IntProvider<E> intProvider)
+			return intProvider.provider.applyAsInt(input);
+
+		return function.apply(input);
+	}
+}
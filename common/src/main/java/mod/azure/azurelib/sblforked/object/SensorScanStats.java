@@ -0,0 +1,145 @@
+package mod.azure.azurelib.sblforked.object;
+
+import com.mojang.logging.LogUtils;
+import mod.azure.azurelib.sblforked.api.core.sensor.ExtendedSensor;
+import org.slf4j.Logger;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+/**
+ * Running totals of the scans done by each type of {@link ExtendedSensor}, for tuning
+ * {@link ExtendedSensor#setScanRate scan rates}.<br>
+ * Sensors are grouped by class, and each records how many scans it has done and how long they took in total since the
+ * stats were last {@link #reset() reset}.<br>
+ * Recording is off by default, so that sensors don't pay for timing their scans unless someone is tuning them. Turn it
+ * on with the {@code recordSensorScanStats} config option, or {@link #setEnabled}.<br>
+ * While recording, the stats are logged and reset every {@link #LOG_INTERVAL} ticks, and once more when recording is
+ * turned off.
+ */
+public final class SensorScanStats {
+	private static final Logger LOGGER = LogUtils.getLogger();
+	private static final Map<Class<?>, SensorScanStats> STATS = new ConcurrentHashMap<>();
+
+	/**
+	 * The number of ticks between each log of the recorded stats
+	 */
+	public static final int LOG_INTERVAL = 6000;
+
+	private static volatile boolean enabled = false;
+	private static volatile long nextLogTime = Long.MIN_VALUE;
+
+	private final LongAdder scans = new LongAdder();
+	private final LongAdder nanos = new LongAdder();
+
+	private SensorScanStats() {}
+
+	/**
+	 * Set whether sensors should record their scans
+	 */
+	public static void setEnabled(boolean enabled) {
+		if (SensorScanStats.enabled && !enabled)
+			log();
+
+		SensorScanStats.enabled = enabled;
+		nextLogTime = Long.MIN_VALUE;
+	}
+
+	/**
+	 * Whether sensors are currently recording their scans
+	 */
+	public static boolean isEnabled() {
+		return enabled;
+	}
+
+	/**
+	 * Record a completed scan for the given sensor
+	 *
+	 * @param sensor The sensor that scanned
+	 * @param nanos The time the scan took
+	 */
+	public static void record(ExtendedSensor<?> sensor, long nanos) {
+		SensorScanStats stats = STATS.computeIfAbsent(sensor.getClass(), key -> new SensorScanStats());
+
+		stats.scans.increment();
+		stats.nanos.add(nanos);
+	}
+
+	/**
+	 * Log and reset the recorded stats if {@link #LOG_INTERVAL} ticks have passed since they were last logged
+	 *
+	 * @param gameTime The current game time of the level being ticked
+	 */
+	public static void logIfDue(long gameTime) {
+		long nextLog = nextLogTime;
+
+		if (nextLog == Long.MIN_VALUE) {
+			nextLogTime = gameTime + LOG_INTERVAL;
+		}
+		else if (gameTime >= nextLog) {
+			nextLogTime = gameTime + LOG_INTERVAL;
+
+			log();
+		}
+	}
+
+	/**
+	 * Log a summary of the recorded stats, then reset them
+	 */
+	public static void log() {
+		if (STATS.isEmpty())
+			return;
+
+		LOGGER.info("Sensor scan stats: {}", summarise());
+		reset();
+	}
+
+	/**
+	 * Get the stats for each sensor class that has scanned since the last reset
+	 */
+	public static Map<Class<?>, SensorScanStats> getAll() {
+		return Map.copyOf(STATS);
+	}
+
+	/**
+	 * Get a readable summary of each sensor class' stats, keyed by class name
+	 */
+	public static Map<String, String> summarise() {
+		return STATS.entrySet().stream().collect(Collectors.toMap(entry -> entry.getKey().getName(), entry -> entry.getValue().toString()));
+	}
+
+	/**
+	 * Clear all recorded stats
+	 */
+	public static void reset() {
+		STATS.clear();
+	}
+
+	public long getScans() {
+		return this.scans.sum();
+	}
+
+	/**
+	 * Get the total time spent scanning, in nanoseconds
+	 */
+	public long getNanos() {
+		return this.nanos.sum();
+	}
+
+	/**
+	 * Get the average time per scan, in nanoseconds
+	 */
+	public double getAverageNanos() {
+		long scans = getScans();
+
+		return scans == 0 ? 0 : getNanos() / (double)scans;
+	}
+
+	@Override
+	public String toString() {
+		return getScans() + " scans, " + TimeUnit.NANOSECONDS.toMillis(getNanos()) + "ms total, " + Math.round(getAverageNanos() / 1000d) + "us avg";
+	}
+}
@@ -0,0 +1,23 @@
+package mod.azure.azurelib.sblforked.registry;
+
+import mod.azure.azurelib.sblforked.SBLConstants;
+import mod.azure.azurelib.sblforked.api.core.navigation.AsyncPathRequest;
+import net.minecraft.world.entity.Entity;
+import net.minecraft.world.entity.EntityType;
+import net.minecraft.world.entity.MobCategory;
+
+import java.util.function.Supplier;
+
+/**
+ * Registry class for the internal {@link EntityType Entity Types} used by SBL.<br>
+ * None of these are ever added to a level
+ */
+public final class SBLEntityTypes {
+	public static void init() {}
+
+	public static final Supplier<EntityType<AsyncPathRequest.PathingProxy>> PATHING_PROXY = register("pathing_proxy", () -> EntityType.Builder.<AsyncPathRequest.PathingProxy>of(AsyncPathRequest.PathingProxy::new, MobCategory.MISC).sized(0.6f, 1.8f).noSave().noSummon().fireImmune().clientTrackingRange(0).build("pathing_proxy"));
+
+	private static <T extends Entity> Supplier<EntityType<T>> register(String id, Supplier<EntityType<T>> entityType) {
+		return SBLConstants.SBL_LOADER.registerEntityType(id, entityType);
+	}
+}
@@ -0,0 +1,86 @@
+package mod.azure.azurelib.sblforked.util;
+
+import it.unimi.dsi.fastutil.HashCommon;
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.SectionPos;
+import net.minecraft.server.level.ServerLevel;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Tracks block changes in each {@link ServerLevel} by chunk section, so that the results of block scans can be reused
+ * until a block in the scanned area changes.<br>
+ * Each section hashes into one of a fixed number of counters, which is incremented every time a block in that section
+ * changes. Summing the counters for the sections an area covers gives a version for that area, which is guaranteed to
+ * change when any block in it changes. Sections sharing a counter can cause a version to change when nothing in the area
+ * did, which only costs a re-scan.<br>
+ * <br>
+ * The counters are stored on the level itself, and are only created the first time a version is requested for that
+ * level, such as by a sensor opting in with {@code reuseUnchangedResults()}. Until then, block changes in that level
+ * aren't recorded at all.<br>
+ * Changes are recorded from {@link ServerLevel#onBlockStateChange}, which covers every change made through
+ * {@link net.minecraft.world.level.Level#setBlock}. Changes made directly to a chunk, bypassing the level, aren't seen.
+ */
+public final class BlockChangeTracker {
+	private static final int COUNTERS = 1 << 15;
+
+	private BlockChangeTracker() {}
+
+	/**
+	 * Record a block change in a level that is being tracked
+	 *
+	 * @param versions The level's counters, from {@link TrackedLevel#azurelib$getBlockVersions()}
+	 * @param pos The position of the block that changed
+	 */
+	public static void onBlockChanged(int[] versions, BlockPos pos) {
+		versions[counterIndex(SectionPos.asLong(pos))]++;
+	}
+
+	/**
+	 * Get the current version of the blocks in the given area, starting to track the level's block changes if it isn't
+	 * already.<br>
+	 * If this is the same as a previously retrieved version for the same area, no blocks in that area have changed since
+	 *
+	 * @param level The level the area is in
+	 * @param min The minimum corner of the area, inclusive
+	 * @param max The maximum corner of the area, inclusive
+	 */
+	public static long getVersion(ServerLevel level, BlockPos min, BlockPos max) {
+		TrackedLevel trackedLevel = (TrackedLevel)level;
+		int[] versions = trackedLevel.azurelib$getBlockVersions();
+
+		if (versions == null) {
+			trackedLevel.azurelib$setBlockVersions(new int[COUNTERS]);
+
+			return 0;
+		}
+
+		long version = 0;
+
+		for (int x = SectionPos.blockToSectionCoord(min.getX()); x <= SectionPos.blockToSectionCoord(max.getX()); x++) {
+			for (int y = SectionPos.blockToSectionCoord(min.getY()); y <= SectionPos.blockToSectionCoord(max.getY()); y++) {
+				for (int z = SectionPos.blockToSectionCoord(min.getZ()); z <= SectionPos.blockToSectionCoord(max.getZ()); z++) {
+					version += Integer.toUnsignedLong(versions[counterIndex(SectionPos.asLong(x, y, z))]);
+				}
+			}
+		}
+
+		return version;
+	}
+
+	private static int counterIndex(long sectionPos) {
+		return (int)HashCommon.mix(sectionPos) & (COUNTERS - 1);
+	}
+
+	/**
+	 * Implemented by {@link ServerLevel} to hold its block change counters
+	 */
+	public interface TrackedLevel {
+		/**
+		 * Get the level's block change counters, or null if its block changes aren't being tracked
+		 */
+		@Nullable
+		int[] azurelib$getBlockVersions();
+
+		void azurelib$setBlockVersions(int[] versions);
+	}
+}
@@ -0,0 +1,91 @@
+package mod.azure.azurelib.sblforked.util;
+
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.SectionPos;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.world.level.block.state.BlockState;
+import net.minecraft.world.level.chunk.LevelChunk;
+import net.minecraft.world.level.chunk.LevelChunkSection;
+
+import java.util.function.BiConsumer;
+import java.util.function.Predicate;
+
+/**
+ * A helper class for finding blocks in a given area, reading them by chunk section rather than position by position.
+ */
+public final class BlockRetrievalUtil {
+	private BlockRetrievalUtil() {}
+
+	/**
+	 * Find every block in the given area that matches the predicate, in the same order as
+	 * {@link BlockPos#betweenClosed(BlockPos, BlockPos)}.<br>
+	 * Each chunk section the area covers is checked against the predicate by its palette first, and sections that
+	 * can't contain a matching state are skipped entirely. Block states in the remaining sections are read directly from
+	 * the section, instead of looking up the chunk for every position.
+	 *
+	 * @param level     The level to search in
+	 * @param min       The minimum corner of the area, inclusive
+	 * @param max       The maximum corner of the area, inclusive
+	 * @param predicate The predicate to test each block state against
+	 * @param consumer  The consumer for each matching block, given an immutable position
+	 */
+	public static void forEachMatchingBlock(ServerLevel level, BlockPos min, BlockPos max, Predicate<BlockState> predicate, BiConsumer<BlockPos, BlockState> consumer) {
+		int minSectionX = SectionPos.blockToSectionCoord(min.getX());
+		int minSectionY = SectionPos.blockToSectionCoord(min.getY());
+		int minSectionZ = SectionPos.blockToSectionCoord(min.getZ());
+		int sectionsX = SectionPos.blockToSectionCoord(max.getX()) - minSectionX + 1;
+		int sectionsY = SectionPos.blockToSectionCoord(max.getY()) - minSectionY + 1;
+		int sectionsZ = SectionPos.blockToSectionCoord(max.getZ()) - minSectionZ + 1;
+		LevelChunkSection[] sections = new LevelChunkSection[sectionsX * sectionsY * sectionsZ];
+		boolean[] outsideLevel = new boolean[sections.length];
+
+		for (int sectionZ = 0; sectionZ < sectionsZ; sectionZ++) {
+			for (int sectionX = 0; sectionX < sectionsX; sectionX++) {
+				LevelChunk chunk = level.getChunk(minSectionX + sectionX, minSectionZ + sectionZ);
+
+				for (int sectionY = 0; sectionY < sectionsY; sectionY++) {
+					int index = (sectionZ * sectionsY + sectionY) * sectionsX + sectionX;
+					int chunkSectionIndex = chunk.getSectionIndexFromSectionY(minSectionY + sectionY);
+
+					if (chunkSectionIndex < 0 || chunkSectionIndex >= chunk.getSectionsCount()) {
+						outsideLevel[index] = true;
+					}
+					else {
+						LevelChunkSection section = chunk.getSection(chunkSectionIndex);
+
+						if (section.maybeHas(predicate))
+							sections[index] = section;
+					}
+				}
+			}
+		}
+
+		for (int z = min.getZ(); z <= max.getZ(); z++) {
+			int sectionZ = SectionPos.blockToSectionCoord(z) - minSectionZ;
+
+			for (int y = min.getY(); y <= max.getY(); y++) {
+				int sectionY = SectionPos.blockToSectionCoord(y) - minSectionY;
+
+				for (int x = min.getX(); x <= max.getX();) {
+					int sectionX = SectionPos.blockToSectionCoord(x) - minSectionX;
+					int runEnd = Math.min(max.getX(), SectionPos.sectionToBlockCoord(minSectionX + sectionX, 15));
+					int index = (sectionZ * sectionsY + sectionY) * sectionsX + sectionX;
+					LevelChunkSection section = sections[index];
+
+					if (section == null && !outsideLevel[index]) {
+						x = runEnd + 1;
+
+						continue;
+					}
+
+					for (; x <= runEnd; x++) {
+						BlockState state = section != null ? section.getBlockState(x & 15, y & 15, z & 15) : level.getBlockState(new BlockPos(x, y, z));
+
+						if (predicate.test(state))
+							consumer.accept(new BlockPos(x, y, z), state);
+					}
+				}
+			}
+		}
+	}
+}
@@ -6,6 +6,7 @@
  */
 package mod.azure.azurelib.sblforked.util;
 
+import it.unimi.dsi.fastutil.Arrays;
 import it.unimi.dsi.fastutil.objects.ObjectArrayList;
 import net.minecraft.world.entity.Entity;
 import net.minecraft.world.entity.player.Player;
@@ -55,6 +56,38 @@ public final class EntityRetrievalUtil {
 		return closest;
 	}
 
+	/**
+	 * Sort a list of entities in place by their distance to the given origin,
+	 * closest first.<br>
+	 * Each entity's distance is computed once up front, rather than on every
+	 * comparison as with a {@code Comparator.comparingDouble(entity::distanceToSqr)}
+	 * sort
+	 *
+	 * @param origin   The center-point of the distance comparison
+	 * @param entities The list of entities to sort
+	 * @param <T> The entity type
+	 */
+	public static <T extends Entity> void sortByDistance(Vec3 origin, List<T> entities) {
+		int size = entities.size();
+
+		if (size < 2)
+			return;
+
+		double[] distances = new double[size];
+
+		for (int i = 0; i < size; i++) {
+			distances[i] = entities.get(i).distanceToSqr(origin);
+		}
+
+		Arrays.mergeSort(0, size, (a, b) -> Double.compare(distances[a], distances[b]), (a, b) -> {
+			double distance = distances[a];
+
+			distances[a] = distances[b];
+			distances[b] = distance;
+			entities.set(a, entities.set(b, entities.get(a)));
+		});
+	}
+
 	/**
 	 * Retrieve the nearest entity with a certain radius of a given origin point
 	 * that meet a given criteria. <br>
@@ -0,0 +1,205 @@
+package mod.azure.azurelib.sblforked.util;
+
+import it.unimi.dsi.fastutil.longs.Long2BooleanOpenHashMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import net.minecraft.core.BlockPos;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.util.Mth;
+import net.minecraft.world.entity.Entity;
+import net.minecraft.world.level.block.state.BlockState;
+import net.minecraft.world.level.chunk.BulkSectionAccess;
+import net.minecraft.world.phys.Vec3;
+import net.minecraft.world.phys.shapes.CollisionContext;
+import net.minecraft.world.phys.shapes.VoxelShape;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * A per-level, per-tick cache of line of sight checks, shared by every entity in a {@link ServerLevel}.<br>
+ * Results are keyed by the block positions of the two entities' eyes, in either order. Once one mob has checked whether
+ * it can see another, any other check between the same two eye blocks in the same tick reuses that result, in either
+ * direction. In dense fights, where many mobs in the same few blocks all check the same targets, this replaces most of
+ * the raycasts done by sensors.<br>
+ * <br>
+ * Raycasts are done the same way as {@link net.minecraft.world.entity.LivingEntity#hasLineOfSight(Entity)}, from eye to
+ * eye, against block collision shapes and ignoring fluids. Because results are shared between entities, shapes are
+ * checked with an {@link CollisionContext#empty() empty} collision context rather than the viewer's own, and a ray from
+ * anywhere within the same eye blocks is considered equivalent.<br>
+ * <br>
+ * The number of raycasts done and the number of checks answered from the cache in the last completed tick are kept for
+ * each level, to measure how effective the cache is.
+ */
+public final class LineOfSightCache {
+	private static final Map<ServerLevel, LineOfSightCache> CACHES = Collections.synchronizedMap(new WeakHashMap<>());
+
+	/**
+	 * The maximum distance vanilla allows line of sight over
+	 */
+	private static final double MAX_DISTANCE = 128;
+
+	private final Long2ObjectOpenHashMap<Long2BooleanOpenHashMap> results = new Long2ObjectOpenHashMap<>();
+	private long cachedTick = Long.MIN_VALUE;
+	private int raycasts = 0;
+	private int cacheHits = 0;
+	private int lastTickRaycasts = 0;
+	private int lastTickCacheHits = 0;
+
+	private LineOfSightCache() {}
+
+	/**
+	 * Get the line of sight cache for the given level, cleared if it was last used in a previous tick
+	 */
+	private static LineOfSightCache get(ServerLevel level) {
+		LineOfSightCache cache = CACHES.computeIfAbsent(level, key -> new LineOfSightCache());
+		long gameTime = level.getGameTime();
+
+		if (cache.cachedTick != gameTime) {
+			cache.cachedTick = gameTime;
+			cache.lastTickRaycasts = cache.raycasts;
+			cache.lastTickCacheHits = cache.cacheHits;
+			cache.raycasts = 0;
+			cache.cacheHits = 0;
+
+			cache.results.clear();
+		}
+
+		return cache;
+	}
+
+	/**
+	 * Check whether the viewer can see the target, reusing any result for the same pair of eye blocks from this tick
+	 *
+	 * @param level The level both entities are in
+	 * @param viewer The entity looking
+	 * @param target The entity being looked at
+	 * @return Whether there are no blocks in the way between the two entities' eyes
+	 */
+	public static boolean hasLineOfSight(ServerLevel level, Entity viewer, Entity target) {
+		if (target.level() != level)
+			return false;
+
+		Vec3 from = new Vec3(viewer.getX(), viewer.getEyeY(), viewer.getZ());
+		Vec3 to = new Vec3(target.getX(), target.getEyeY(), target.getZ());
+
+		if (from.distanceToSqr(to) > MAX_DISTANCE * MAX_DISTANCE)
+			return false;
+
+		long fromKey = BlockPos.asLong(Mth.floor(from.x), Mth.floor(from.y), Mth.floor(from.z));
+		long toKey = BlockPos.asLong(Mth.floor(to.x), Mth.floor(to.y), Mth.floor(to.z));
+		LineOfSightCache cache = get(level);
+		Long2BooleanOpenHashMap pairResults = cache.results.computeIfAbsent(Math.min(fromKey, toKey), key -> new Long2BooleanOpenHashMap());
+		long pairKey = Math.max(fromKey, toKey);
+
+		if (pairResults.containsKey(pairKey)) {
+			cache.cacheHits++;
+
+			return pairResults.get(pairKey);
+		}
+
+		boolean result;
+
+		try (BulkSectionAccess blocks = new BulkSectionAccess(level)) {
+			result = !isRayBlocked(level, blocks, from, to);
+		}
+
+		cache.raycasts++;
+		pairResults.put(pairKey, result);
+
+		return result;
+	}
+
+	/**
+	 * Get the number of line of sight raycasts done in the given level in the last completed tick
+	 */
+	public static int getLastTickRaycasts(ServerLevel level) {
+		LineOfSightCache cache = CACHES.get(level);
+
+		return cache == null ? 0 : cache.lastTickRaycasts;
+	}
+
+	/**
+	 * Get the number of line of sight checks answered from the cache, without a raycast, in the given level in the last
+	 * completed tick.<br>
+	 * Without the cache, each of these would have been an additional raycast.
+	 */
+	public static int getLastTickCacheHits(ServerLevel level) {
+		LineOfSightCache cache = CACHES.get(level);
+
+		return cache == null ? 0 : cache.lastTickCacheHits;
+	}
+
+	/**
+	 * Walk the blocks between the two points, in the same order as {@link net.minecraft.world.level.BlockGetter#clip},
+	 * stopping at the first block whose collision shape the ray passes through
+	 */
+	private static boolean isRayBlocked(ServerLevel level, BulkSectionAccess blocks, Vec3 from, Vec3 to) {
+		if (from.equals(to))
+			return false;
+
+		double endX = Mth.lerp(-1.0E-7, to.x, from.x);
+		double endY = Mth.lerp(-1.0E-7, to.y, from.y);
+		double endZ = Mth.lerp(-1.0E-7, to.z, from.z);
+		double startX = Mth.lerp(-1.0E-7, from.x, to.x);
+		double startY = Mth.lerp(-1.0E-7, from.y, to.y);
+		double startZ = Mth.lerp(-1.0E-7, from.z, to.z);
+		int x = Mth.floor(startX);
+		int y = Mth.floor(startY);
+		int z = Mth.floor(startZ);
+		BlockPos.MutableBlockPos pos = new BlockPos.MutableBlockPos(x, y, z);
+
+		if (isBlocking(level, blocks, pos, from, to))
+			return true;
+
+		double deltaX = endX - startX;
+		double deltaY = endY - startY;
+		double deltaZ = endZ - startZ;
+		int stepX = Mth.sign(deltaX);
+		int stepY = Mth.sign(deltaY);
+		int stepZ = Mth.sign(deltaZ);
+		double tDeltaX = stepX == 0 ? Double.MAX_VALUE : stepX / deltaX;
+		double tDeltaY = stepY == 0 ? Double.MAX_VALUE : stepY / deltaY;
+		double tDeltaZ = stepZ == 0 ? Double.MAX_VALUE : stepZ / deltaZ;
+		double tMaxX = tDeltaX * (stepX > 0 ? 1 - Mth.frac(startX) : Mth.frac(startX));
+		double tMaxY = tDeltaY * (stepY > 0 ? 1 - Mth.frac(startY) : Mth.frac(startY));
+		double tMaxZ = tDeltaZ * (stepZ > 0 ? 1 - Mth.frac(startZ) : Mth.frac(startZ));
+
+		while (tMaxX <= 1 || tMaxY <= 1 || tMaxZ <= 1) {
+			if (tMaxX < tMaxY) {
+				if (tMaxX < tMaxZ) {
+					x += stepX;
+					tMaxX += tDeltaX;
+				}
+				else {
+					z += stepZ;
+					tMaxZ += tDeltaZ;
+				}
+			}
+			else if (tMaxY < tMaxZ) {
+				y += stepY;
+				tMaxY += tDeltaY;
+			}
+			else {
+				z += stepZ;
+				tMaxZ += tDeltaZ;
+			}
+
+			if (isBlocking(level, blocks, pos.set(x, y, z), from, to))
+				return true;
+		}
+
+		return false;
+	}
+
+	private static boolean isBlocking(ServerLevel level, BulkSectionAccess blocks, BlockPos pos, Vec3 from, Vec3 to) {
+		BlockState state = blocks.getBlockState(pos);
+
+		if (state.isAir())
+			return false;
+
+		VoxelShape shape = state.getCollisionShape(level, pos, CollisionContext.empty());
+
+		return !shape.isEmpty() && shape.clip(from, to, pos) != null;
+	}
+}
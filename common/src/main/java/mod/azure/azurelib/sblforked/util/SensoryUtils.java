@@ -6,6 +6,7 @@
  */
 package mod.azure.azurelib.sblforked.util;
 
+import net.minecraft.server.level.ServerLevel;
 import net.minecraft.world.entity.Entity;
 import net.minecraft.world.entity.LivingEntity;
 import net.minecraft.world.entity.Mob;
@@ -53,10 +54,14 @@ public class SensoryUtils {
     }
 
     /**
-     * Check whether the given target is visible to the entity
+     * Check whether the given target is visible to the entity.<br>
+     * On the server, this is shared with other entities checking between the same blocks in the same tick, via the {@link LineOfSightCache}
      * @return Whether the entity has line of sight to the target
      */
     public static boolean hasLineOfSight(LivingEntity entity, Entity target) {
+        if (entity.level() instanceof ServerLevel level)
+            return LineOfSightCache.hasLineOfSight(level, entity, target);
+
         if (entity instanceof Mob mob)
             return mob.getSensing().hasLineOfSight(target);
 
@@ -0,0 +1,271 @@
+package mod.azure.azurelib.sblforked.util;
+
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
+import it.unimi.dsi.fastutil.longs.LongSet;
+import it.unimi.dsi.fastutil.objects.Object2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.objects.ObjectArrayList;
+import net.minecraft.core.BlockPos;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.util.Mth;
+import net.minecraft.world.entity.EntityType;
+import net.minecraft.world.entity.Mob;
+import net.minecraft.world.entity.ai.navigation.PathNavigation;
+import net.minecraft.world.level.pathfinder.Node;
+import net.minecraft.world.level.pathfinder.Path;
+import mod.azure.azurelib.sblforked.api.core.navigation.ExtendedNavigator;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A short-lived, per-level store of computed paths, shared between mobs heading for the same target from the same area.<br>
+ * When a crowd of mobs chases the same player, each one would otherwise compute a near-identical path to the same block.
+ * Instead, the first mob's path is kept for {@link #EXPIRY_TICKS} ticks, and any similar mob starting within
+ * {@link #SPLICE_DISTANCE} blocks of one of that path's nodes splices onto it from there.<br>
+ * <br>
+ * Cached paths are indexed by every small cell their nodes pass through, so a lookup only has to check
+ * the paths passing through the cells around the mob.<br>
+ * Paths are only shared between mobs of the same type, using the same type of navigation and the same sized pathing
+ * bounds, as those all affect which nodes a path can use. Paths are dropped early if a block in the area they cover
+ * changes, as tracked by {@link BlockChangeTracker}.<br>
+ * Mobs that have had their {@link Mob#setPathfindingMalus pathfinding malus} altered per-instance shouldn't use this,
+ * as the path they are given may have been computed with a different malus.
+ */
+public final class SharedPathCache {
+	/**
+	 * How long a path is kept for, in ticks
+	 */
+	public static final int EXPIRY_TICKS = 10;
+	/**
+	 * The furthest a mob can be from a cached path's node, in blocks, to splice onto the path at that node
+	 */
+	public static final int SPLICE_DISTANCE = 2;
+	/**
+	 * The size of the cells cached paths are indexed by, in blocks
+	 */
+	private static final int CELL_SIZE = 4;
+
+	private static final Map<ServerLevel, SharedPathCache> CACHES = Collections.synchronizedMap(new WeakHashMap<>());
+	private static final LongAdder LOOKUPS = new LongAdder();
+	private static final LongAdder HITS = new LongAdder();
+	private static final LongAdder SAVED_NODES = new LongAdder();
+	private static final LongAdder SAVED_NANOS = new LongAdder();
+
+	private final Map<PathKey, List<CachedPath>> paths = new Object2ObjectOpenHashMap<>();
+	private long purgedTick = Long.MIN_VALUE;
+
+	private SharedPathCache() {}
+
+	/**
+	 * Get the cache for the given level, with any expired paths removed
+	 */
+	private static SharedPathCache get(ServerLevel level) {
+		SharedPathCache cache = CACHES.computeIfAbsent(level, key -> new SharedPathCache());
+		long gameTime = level.getGameTime();
+
+		if (cache.purgedTick != gameTime) {
+			cache.purgedTick = gameTime;
+
+			cache.paths.values().removeIf(paths -> {
+				paths.removeIf(path -> gameTime - path.createdTick > EXPIRY_TICKS);
+
+				return paths.isEmpty();
+			});
+		}
+
+		return cache;
+	}
+
+	/**
+	 * Get a path for the mob to the given position, splicing onto a cached path if a similar mob nearby has recently
+	 * pathed there, or otherwise computing a new path with the mob's navigation and caching it for others.
+	 *
+	 * @param mob The mob to get a path for
+	 * @param target The position to path to
+	 * @return The path, or null if no path could be found
+	 */
+	@Nullable
+	public static Path getOrCreatePath(Mob mob, BlockPos target) {
+		Path path = getCachedPath(mob, target);
+
+		if (path != null)
+			return path;
+
+		long startTime = System.nanoTime();
+		path = mob.getNavigation().createPath(target, 0);
+
+		cachePath(mob, target, path, System.nanoTime() - startTime);
+
+		return path;
+	}
+
+	/**
+	 * Get a path for the mob to the given position spliced from a cached path, if there is one it can join
+	 *
+	 * @param mob The mob to get a path for
+	 * @param target The position to path to
+	 * @return A new path, starting from the cached path's node closest to the mob, or null if no cached path is close enough
+	 */
+	@Nullable
+	public static Path getCachedPath(Mob mob, BlockPos target) {
+		if (!(mob.level() instanceof ServerLevel level))
+			return null;
+
+		SharedPathCache cache = get(level);
+		BlockPos mobPos = mob.blockPosition();
+
+		LOOKUPS.increment();
+
+		for (int cellX = Math.floorDiv(mobPos.getX() - SPLICE_DISTANCE, CELL_SIZE); cellX <= Math.floorDiv(mobPos.getX() + SPLICE_DISTANCE, CELL_SIZE); cellX++) {
+			for (int cellY = Math.floorDiv(mobPos.getY() - 1, CELL_SIZE); cellY <= Math.floorDiv(mobPos.getY() + 1, CELL_SIZE); cellY++) {
+				for (int cellZ = Math.floorDiv(mobPos.getZ() - SPLICE_DISTANCE, CELL_SIZE); cellZ <= Math.floorDiv(mobPos.getZ() + SPLICE_DISTANCE, CELL_SIZE); cellZ++) {
+					List<CachedPath> cachedPaths = cache.paths.get(PathKey.of(mob, BlockPos.asLong(cellX, cellY, cellZ), target));
+
+					if (cachedPaths == null)
+						continue;
+
+					for (int i = 0; i < cachedPaths.size(); i++) {
+						CachedPath cachedPath = cachedPaths.get(i);
+
+						if (BlockChangeTracker.getVersion(level, cachedPath.min, cachedPath.max) != cachedPath.blocksVersion) {
+							cachedPaths.remove(i--);
+
+							continue;
+						}
+
+						Path path = cachedPath.spliceFrom(mob);
+
+						if (path != null) {
+							HITS.increment();
+							SAVED_NODES.add(cachedPath.nodes.size());
+							SAVED_NANOS.add(cachedPath.computeNanos);
+
+							return path;
+						}
+					}
+				}
+			}
+		}
+
+		return null;
+	}
+
+	/**
+	 * Store a path computed for the given mob, for other mobs like it to splice onto
+	 *
+	 * @param mob The mob the path was computed for
+	 * @param target The position the path was computed to
+	 * @param path The computed path. Null paths are ignored
+	 * @param computeNanos The time taken to compute the path, for {@link #getSavedNanos()}
+	 */
+	public static void cachePath(Mob mob, BlockPos target, @Nullable Path path, long computeNanos) {
+		if (path == null || path.getNodeCount() == 0 || !(mob.level() instanceof ServerLevel level))
+			return;
+
+		BlockPos start = path.getNodePos(0);
+		BlockPos.MutableBlockPos min = start.mutable();
+		BlockPos.MutableBlockPos max = start.mutable();
+		LongSet cells = new LongOpenHashSet();
+
+		for (int i = 0; i < path.getNodeCount(); i++) {
+			Node node = path.getNode(i);
+
+			min.set(Math.min(min.getX(), node.x), Math.min(min.getY(), node.y), Math.min(min.getZ(), node.z));
+			max.set(Math.max(max.getX(), node.x), Math.max(max.getY(), node.y), Math.max(max.getZ(), node.z));
+			cells.add(BlockPos.asLong(Math.floorDiv(node.x, CELL_SIZE), Math.floorDiv(node.y, CELL_SIZE), Math.floorDiv(node.z, CELL_SIZE)));
+		}
+
+		BlockPos areaMin = min.offset(-1, -1, -1);
+		BlockPos areaMax = max.offset(1, Mth.ceil(mob.getBbHeight()), 1);
+		CachedPath cachedPath = new CachedPath(List.copyOf(path.nodes), path.getTarget(), path.canReach(), areaMin, areaMax, BlockChangeTracker.getVersion(level, areaMin, areaMax), level.getGameTime(), computeNanos);
+		SharedPathCache cache = get(level);
+
+		for (long cell : cells.toLongArray()) {
+			cache.paths.computeIfAbsent(PathKey.of(mob, cell, target), key -> new ObjectArrayList<>()).add(cachedPath);
+		}
+	}
+
+	/**
+	 * Get the fraction of lookups that were answered from the cache since the stats were last {@link #resetStats() reset}
+	 */
+	public static double getHitRate() {
+		long lookups = LOOKUPS.sum();
+
+		return lookups == 0 ? 0 : HITS.sum() / (double)lookups;
+	}
+
+	/**
+	 * Get the number of lookups answered from the cache since the stats were last {@link #resetStats() reset}
+	 */
+	public static long getHits() {
+		return HITS.sum();
+	}
+
+	/**
+	 * Get the total number of nodes in the cached paths that have been reused since the stats were last
+	 * {@link #resetStats() reset}.<br>
+	 * Vanilla's pathfinder doesn't expose how many nodes it evaluated, so this is a lower bound of the evaluations saved
+	 */
+	public static long getSavedNodes() {
+		return SAVED_NODES.sum();
+	}
+
+	/**
+	 * Get the total time the reused paths originally took to compute, in nanoseconds, since the stats were last
+	 * {@link #resetStats() reset}
+	 */
+	public static long getSavedNanos() {
+		return SAVED_NANOS.sum();
+	}
+
+	/**
+	 * Clear the recorded cache stats
+	 */
+	public static void resetStats() {
+		LOOKUPS.reset();
+		HITS.reset();
+		SAVED_NODES.reset();
+		SAVED_NANOS.reset();
+	}
+
+	private record PathKey(Class<?> navigatorType, EntityType<?> entityType, int width, int height, long cell, long target) {
+		private static PathKey of(Mob mob, long cell, BlockPos target) {
+			return new PathKey(mob.getNavigation().getClass(), mob.getType(), Mth.floor(mob.getBbWidth() + 1), Mth.ceil(mob.getBbHeight()), cell, target.asLong());
+		}
+	}
+
+	private record CachedPath(List<Node> nodes, BlockPos pathTarget, boolean canReach, BlockPos min, BlockPos max, long blocksVersion, long createdTick, long computeNanos) {
+		/**
+		 * Build a new path for the mob, starting from this path's closest node within {@link #SPLICE_DISTANCE} blocks of it
+		 */
+		@Nullable
+		private Path spliceFrom(Mob mob) {
+			BlockPos mobPos = mob.blockPosition();
+			int spliceIndex = -1;
+			int closestDist = Integer.MAX_VALUE;
+
+			for (int i = 0; i < this.nodes.size(); i++) {
+				Node node = this.nodes.get(i);
+				int horizontalDist = Math.max(Math.abs(node.x - mobPos.getX()), Math.abs(node.z - mobPos.getZ()));
+
+				if (horizontalDist <= SPLICE_DISTANCE && Math.abs(node.y - mobPos.getY()) <= 1 && horizontalDist <= closestDist) {
+					spliceIndex = i;
+					closestDist = horizontalDist;
+				}
+			}
+
+			if (spliceIndex == -1)
+				return null;
+
+			Path path = new Path(new ArrayList<>(this.nodes.subList(spliceIndex, this.nodes.size())), this.pathTarget, this.canReach);
+			PathNavigation navigation = mob.getNavigation();
+
+			return navigation instanceof ExtendedNavigator extendedNavigator ? extendedNavigator.patchPath(path) : path;
+		}
+	}
+}
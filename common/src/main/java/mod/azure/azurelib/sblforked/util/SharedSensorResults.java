@@ -0,0 +1,99 @@
+package mod.azure.azurelib.sblforked.util;
+
+import it.unimi.dsi.fastutil.objects.Object2ObjectOpenHashMap;
+import net.minecraft.core.BlockPos;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.world.entity.Entity;
+import net.minecraft.world.entity.EntityType;
+import net.minecraft.world.phys.AABB;
+import net.minecraft.world.phys.Vec3;
+import mod.azure.azurelib.sblforked.api.core.sensor.ExtendedSensor;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.function.Supplier;
+
+/**
+ * A per-level, per-tick store of sensor scan results, shared between entities of the same type standing close together.<br>
+ * The level is divided into cells of {@link #CELL_SIZE} blocks on each axis. The first entity in a cell to run a given
+ * sensor does a scan that covers the whole cell, and any other entity of the same type and size in that cell running
+ * the same sensor in the same tick reuses that scan. Each entity then only needs to narrow the shared result down to
+ * its own position, instead of querying the level again.<br>
+ * For herds and packs of the same mob, this turns one scan per mob into one scan per occupied cell.
+ *
+ * @see mod.azure.azurelib.sblforked.api.core.sensor.vanilla.NearbyLivingEntitySensor#shareResults(boolean)
+ */
+public final class SharedSensorResults {
+	/**
+	 * The size of each cell, in blocks
+	 */
+	public static final int CELL_SIZE = 4;
+
+	private static final Map<ServerLevel, SharedSensorResults> RESULTS = Collections.synchronizedMap(new WeakHashMap<>());
+
+	private final Map<CellKey, Object> results = new Object2ObjectOpenHashMap<>();
+	private long cachedTick = Long.MIN_VALUE;
+
+	private SharedSensorResults() {}
+
+	/**
+	 * Get the result shared by the entity's cell for the given sensor this tick, running the scan if this is the first
+	 * request for it.<br>
+	 * The scan must not depend on anything about the entity other than its cell, type and size, as its result is given
+	 * to every entity matching those.
+	 *
+	 * @param level The level the entity is in
+	 * @param sensor The sensor requesting the result
+	 * @param entity The entity the sensor is scanning for
+	 * @param settings Any additional settings the scan depends on, such as its radius. Must implement equals and hashCode
+	 * @param scan The scan to run if there's no result for the cell yet
+	 * @return The shared result
+	 * @param <T> The result type
+	 */
+	public static <T> T getOrScan(ServerLevel level, ExtendedSensor<?> sensor, Entity entity, Object settings, Supplier<T> scan) {
+		SharedSensorResults cache = RESULTS.computeIfAbsent(level, key -> new SharedSensorResults());
+		long gameTime = level.getGameTime();
+
+		if (cache.cachedTick != gameTime) {
+			cache.cachedTick = gameTime;
+
+			cache.results.clear();
+		}
+
+		CellKey key = new CellKey(sensor.getClass(), entity.getType(), getCell(entity), entity.getBbWidth(), entity.getBbHeight(), settings);
+		T result = (T)cache.results.get(key);
+
+		if (result == null) {
+			result = scan.get();
+
+			cache.results.put(key, result);
+		}
+
+		return result;
+	}
+
+	/**
+	 * Get the area covered by the bounding box of any entity the same size as the given entity, positioned anywhere in its cell
+	 */
+	public static AABB getCellArea(Entity entity) {
+		BlockPos min = BlockPos.of(getCell(entity)).multiply(CELL_SIZE);
+		double halfWidth = entity.getBbWidth() / 2d;
+
+		return new AABB(min.getX() - halfWidth, min.getY(), min.getZ() - halfWidth,
+				min.getX() + CELL_SIZE + halfWidth, min.getY() + CELL_SIZE + entity.getBbHeight(), min.getZ() + CELL_SIZE + halfWidth);
+	}
+
+	/**
+	 * Get the centre of the given entity's cell
+	 */
+	public static Vec3 getCellCentre(Entity entity) {
+		return Vec3.atLowerCornerOf(BlockPos.of(getCell(entity)).multiply(CELL_SIZE)).add(CELL_SIZE / 2d, CELL_SIZE / 2d, CELL_SIZE / 2d);
+	}
+
+	private static long getCell(Entity entity) {
+		return BlockPos.asLong(Math.floorDiv(entity.getBlockX(), CELL_SIZE), Math.floorDiv(entity.getBlockY(), CELL_SIZE), Math.floorDiv(entity.getBlockZ(), CELL_SIZE));
+	}
+
+	private record CellKey(Class<?> sensorClass, EntityType<?> entityType, long cell, float width, float height, Object settings) {}
+}
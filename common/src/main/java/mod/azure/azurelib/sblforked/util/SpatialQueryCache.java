@@ -0,0 +1,137 @@
+package mod.azure.azurelib.sblforked.util;
+
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.objects.ObjectArrayList;
+import it.unimi.dsi.fastutil.objects.ReferenceOpenHashSet;
+import net.minecraft.core.SectionPos;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.util.Mth;
+import net.minecraft.world.entity.Entity;
+import net.minecraft.world.phys.AABB;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.function.Predicate;
+
+/**
+ * A per-level, per-tick cache of the entities in each chunk section of a {@link ServerLevel}, shared by all sensors
+ * ticking in that level.<br>
+ * The first query of each tick to reach a chunk section looks up the entities in that section through the level's own
+ * entity storage, and every query after that in the same tick reuses the result instead of going back through the
+ * storage for each brain owner. Only the sections that are actually queried are looked up, and sections the level
+ * doesn't treat as accessible are skipped just as they are for vanilla's lookups. When hundreds of mobs share a few
+ * chunks, this turns the thousands of repeated section lookups per tick into one per section.<br>
+ * <br>
+ * Because each section is only looked up once per tick, entities that enter a section or are added later in the same
+ * tick aren't returned until the next tick, and entities removed since are skipped. Matching is done against each
+ * entity's current bounding box.<br>
+ * This makes it suited to sensors that scan periodically for slow-changing targets, but not to logic that needs to see
+ * entities spawned or moved earlier in the same tick, such as projectiles. Use {@link EntityRetrievalUtil} for that
+ * instead.
+ */
+public final class SpatialQueryCache {
+	private static final Map<ServerLevel, SpatialQueryCache> CACHES = Collections.synchronizedMap(new WeakHashMap<>());
+
+	private final Long2ObjectOpenHashMap<List<Entity>> sections = new Long2ObjectOpenHashMap<>();
+	private long cachedTick = Long.MIN_VALUE;
+
+	private SpatialQueryCache() {}
+
+	/**
+	 * Get the query cache for the given level, cleared if it was last used in a previous tick
+	 */
+	private static SpatialQueryCache get(ServerLevel level) {
+		SpatialQueryCache cache = CACHES.computeIfAbsent(level, key -> new SpatialQueryCache());
+		long gameTime = level.getGameTime();
+
+		if (cache.cachedTick != gameTime) {
+			cache.cachedTick = gameTime;
+			cache.sections.clear();
+		}
+
+		return cache;
+	}
+
+	/**
+	 * Retrieve all entities from the given area that meet the given criteria, using this tick's cached sections.<br>
+	 * Note that the output is blind-cast to your intended output type for ease of use. Make sure you check
+	 * {@code instanceof} in your predicate if you intend to use any subclass of Entity
+	 *
+	 * @param level     The level to search in
+	 * @param area      The region to search for entities in
+	 * @param predicate The predicate to filter entities by
+	 * @return A list of entities found in the provided region that meet the criteria of the predicate, or an empty list
+	 *         if none match
+	 * @param <T> The output entity subtype
+	 */
+	public static <T> List<T> getEntities(ServerLevel level, AABB area, Predicate<? extends Entity> predicate) {
+		Predicate<Entity> typeSafePredicate = (Predicate<Entity>) predicate;
+		SpatialQueryCache cache = get(level);
+		List<T> entities = new ObjectArrayList<>();
+
+		int minX = SectionPos.blockToSectionCoord(Mth.floor(area.minX));
+		int minY = SectionPos.blockToSectionCoord(Mth.floor(area.minY));
+		int minZ = SectionPos.blockToSectionCoord(Mth.floor(area.minZ));
+		int maxX = SectionPos.blockToSectionCoord(Mth.floor(area.maxX));
+		int maxY = SectionPos.blockToSectionCoord(Mth.floor(area.maxY));
+		int maxZ = SectionPos.blockToSectionCoord(Mth.floor(area.maxZ));
+		Set<Entity> visited = minX == maxX && minY == maxY && minZ == maxZ ? null : new ReferenceOpenHashSet<>();
+
+		for (int x = minX; x <= maxX; x++) {
+			for (int z = minZ; z <= maxZ; z++) {
+				for (int y = minY; y <= maxY; y++) {
+					for (Entity entity : cache.getSection(level, x, y, z)) {
+						if (visited != null && !visited.add(entity))
+							continue;
+
+						if (!entity.isRemoved() && entity.getBoundingBox().intersects(area) && typeSafePredicate.test(entity))
+							entities.add((T)entity);
+					}
+				}
+			}
+		}
+
+		return entities;
+	}
+
+	/**
+	 * Retrieve all entities from the given area that meet the given criteria, excluding the origin entity itself, sorted
+	 * by their distance to the origin.<br>
+	 * Each entity's distance is only computed once, rather than on every comparison of the sort
+	 *
+	 * @param level     The level to search in
+	 * @param origin    The entity to sort by distance to
+	 * @param area      The region to search for entities in
+	 * @param predicate The predicate to filter entities by
+	 * @param <T> The output entity subtype
+	 */
+	public static <T extends Entity> List<T> getEntitiesByDistance(ServerLevel level, Entity origin, AABB area, Predicate<? extends Entity> predicate) {
+		Predicate<Entity> typeSafePredicate = (Predicate<Entity>) predicate;
+		List<T> entities = getEntities(level, area, entity -> entity != origin && typeSafePredicate.test(entity));
+
+		EntityRetrievalUtil.sortByDistance(origin.position(), entities);
+
+		return entities;
+	}
+
+	/**
+	 * Get the entities overlapping the given chunk section, looking them up from the level if they haven't yet been this
+	 * tick.<br>
+	 * An entity overlapping more than one section is included in each of them
+	 */
+	private List<Entity> getSection(ServerLevel level, int x, int y, int z) {
+		return this.sections.computeIfAbsent(SectionPos.asLong(x, y, z), key -> {
+			List<Entity> section = new ObjectArrayList<>();
+			int minX = SectionPos.sectionToBlockCoord(x);
+			int minY = SectionPos.sectionToBlockCoord(y);
+			int minZ = SectionPos.sectionToBlockCoord(z);
+
+			level.getEntities().get(new AABB(minX, minY, minZ, minX + 16, minY + 16, minZ + 16), section::add);
+
+			return section;
+		});
+	}
+}
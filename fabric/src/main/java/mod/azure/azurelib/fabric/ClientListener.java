@@ -2,12 +2,17 @@ package mod.azure.azurelib.fabric;
 
 import com.mojang.blaze3d.platform.InputConstants;
 import mod.azure.azurelib.common.api.client.helper.ClientUtils;
+import mod.azure.azurelib.common.internal.client.renderer.skinned.InstancedGeoShader;
+import mod.azure.azurelib.common.internal.client.renderer.skinned.SkinnedGeoRenderer;
+import mod.azure.azurelib.common.internal.client.renderer.skinned.SkinnedGeoShader;
 import mod.azure.azurelib.common.internal.common.AzureLib;
+import mod.azure.azurelib.common.internal.common.cache.AzureLibCache;
 import mod.azure.azurelib.common.internal.common.network.packet.*;
 import mod.azure.azurelib.common.platform.services.AzureLibNetwork;
 import net.fabricmc.api.ClientModInitializer;
 import net.fabricmc.fabric.api.client.keybinding.v1.KeyBindingHelper;
 import net.fabricmc.fabric.api.client.networking.v1.ClientPlayNetworking;
+import net.fabricmc.fabric.api.client.rendering.v1.CoreShaderRegistrationCallback;
 import net.minecraft.client.KeyMapping;
 import org.lwjgl.glfw.GLFW;
 
@@ -44,5 +49,10 @@ public final class ClientListener implements ClientModInitializer {
         ClientPlayNetworking.registerGlobalReceiver(EntityAnimDataSyncPacket.TYPE, (packet, context) -> packet.handle());
         ClientPlayNetworking.registerGlobalReceiver(AnimTriggerPacket.TYPE, (packet, context) -> packet.handle());
         ClientPlayNetworking.registerGlobalReceiver(AnimDataSyncPacket.TYPE, (packet, context) -> packet.handle());
+        CoreShaderRegistrationCallback.EVENT.register(context -> {
+            context.register(SkinnedGeoShader.ID, SkinnedGeoShader.FORMAT, SkinnedGeoShader::setShader);
+            context.register(InstancedGeoShader.ID, SkinnedGeoShader.FORMAT, InstancedGeoShader::setShader);
+        });
+        AzureLibCache.addReloadCallback(SkinnedGeoRenderer::clearMeshes);
     }
 }
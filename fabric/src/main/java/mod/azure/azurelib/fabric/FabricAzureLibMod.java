@@ -11,6 +11,7 @@ import mod.azure.azurelib.common.internal.common.network.packet.*;
 import mod.azure.azurelib.common.platform.services.AzureLibNetwork;
 import mod.azure.azurelib.fabric.platform.FabricAzureLibNetwork;
 import mod.azure.azurelib.sblforked.SBLConstants;
+import mod.azure.azurelib.sblforked.object.SensorScanStats;
 import net.fabricmc.api.ModInitializer;
 import net.fabricmc.fabric.api.event.lifecycle.v1.ServerLifecycleEvents;
 import net.fabricmc.fabric.api.networking.v1.PayloadTypeRegistry;
@@ -31,6 +32,7 @@ public final class FabricAzureLibMod implements ModInitializer {
         AzureLibMod.initRegistry();
         new FabricAzureLibNetwork();
         AzureLibMod.config = AzureLibMod.registerConfig(AzureLibConfig.class, ConfigFormats.json()).getConfigInstance();
+        SensorScanStats.setEnabled(AzureLibMod.config.recordSensorScanStats);
         ServerLifecycleEvents.SERVER_STOPPING.register(server -> ConfigIO.FILE_WATCH_MANAGER.stopService());
         PayloadTypeRegistry.playS2C().register(BlockEntityAnimTriggerPacket.TYPE, BlockEntityAnimTriggerPacket.CODEC);
         PayloadTypeRegistry.playS2C().register(BlockEntityAnimDataSyncPacket.TYPE, BlockEntityAnimDataSyncPacket.CODEC);
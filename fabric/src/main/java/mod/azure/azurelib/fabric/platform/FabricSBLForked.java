@@ -10,12 +10,17 @@ import com.mojang.serialization.Codec;
 import mod.azure.azurelib.common.internal.common.AzureLib;
 import mod.azure.azurelib.sblforked.SBLLoader;
 import mod.azure.azurelib.sblforked.api.core.sensor.ExtendedSensor;
+import mod.azure.azurelib.sblforked.registry.SBLEntityTypes;
 import mod.azure.azurelib.sblforked.registry.SBLMemoryTypes;
 import mod.azure.azurelib.sblforked.registry.SBLSensors;
+import net.fabricmc.fabric.api.object.builder.v1.entity.FabricDefaultAttributeRegistry;
 import net.fabricmc.loader.api.FabricLoader;
 import net.minecraft.core.Registry;
 import net.minecraft.core.registries.BuiltInRegistries;
 import net.minecraft.resources.ResourceLocation;
+import net.minecraft.world.entity.Entity;
+import net.minecraft.world.entity.EntityType;
+import net.minecraft.world.entity.Mob;
 import net.minecraft.world.entity.ai.memory.MemoryModuleType;
 import net.minecraft.world.entity.ai.sensing.SensorType;
 
@@ -27,6 +32,8 @@ public class FabricSBLForked implements SBLLoader {
     public void init(Object eventBus) {
         SBLMemoryTypes.init();
         SBLSensors.init();
+        SBLEntityTypes.init();
+        FabricDefaultAttributeRegistry.register(SBLEntityTypes.PATHING_PROXY.get(), Mob.createMobAttributes());
     }
 
     @Override
@@ -53,4 +60,11 @@ public class FabricSBLForked implements SBLLoader {
 
         return () -> sensorType;
     }
+
+    @Override
+    public <T extends Entity> Supplier<EntityType<T>> registerEntityType(String id, Supplier<EntityType<T>> entityType) {
+        EntityType<T> type = Registry.register(BuiltInRegistries.ENTITY_TYPE, ResourceLocation.fromNamespaceAndPath(AzureLib.MOD_ID, id), entityType.get());
+
+        return () -> type;
+    }
 }
@@ -3,10 +3,15 @@ package mod.azure.azurelib.neoforge;
 import com.mojang.blaze3d.platform.InputConstants;
 import mod.azure.azurelib.common.api.client.helper.ClientUtils;
 import mod.azure.azurelib.common.internal.client.AzureLibClient;
+import mod.azure.azurelib.common.internal.client.renderer.skinned.InstancedGeoShader;
+import mod.azure.azurelib.common.internal.client.renderer.skinned.SkinnedGeoRenderer;
+import mod.azure.azurelib.common.internal.client.renderer.skinned.SkinnedGeoShader;
 import mod.azure.azurelib.common.internal.common.AzureLib;
+import mod.azure.azurelib.common.internal.common.cache.AzureLibCache;
 import mod.azure.azurelib.common.internal.common.config.ConfigHolder;
 import mod.azure.azurelib.common.internal.common.config.ConfigHolderRegistry;
 import net.minecraft.client.KeyMapping;
+import net.minecraft.client.renderer.ShaderInstance;
 import net.neoforged.api.distmarker.Dist;
 import net.neoforged.bus.api.SubscribeEvent;
 import net.neoforged.fml.ModContainer;
@@ -15,10 +20,12 @@ import net.neoforged.fml.ModLoadingContext;
 import net.neoforged.fml.common.EventBusSubscriber;
 import net.neoforged.fml.event.lifecycle.FMLClientSetupEvent;
 import net.neoforged.neoforge.client.event.RegisterKeyMappingsEvent;
+import net.neoforged.neoforge.client.event.RegisterShadersEvent;
 import net.neoforged.neoforge.client.gui.IConfigScreenFactory;
 import net.neoforged.neoforge.common.NeoForge;
 import org.lwjgl.glfw.GLFW;
 
+import java.io.IOException;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -43,6 +50,12 @@ public class ClientModListener {
         }
     }
 
+    @SubscribeEvent
+    public static void registerShaders(final RegisterShadersEvent event) throws IOException {
+        event.registerShader(new ShaderInstance(event.getResourceProvider(), SkinnedGeoShader.ID, SkinnedGeoShader.FORMAT), SkinnedGeoShader::setShader);
+        event.registerShader(new ShaderInstance(event.getResourceProvider(), InstancedGeoShader.ID, SkinnedGeoShader.FORMAT), InstancedGeoShader::setShader);
+    }
+
     @SubscribeEvent
     public static void clientInit(final FMLClientSetupEvent event) {
         Map<String, List<ConfigHolder<?>>> groups = ConfigHolderRegistry.getConfigGroupingByGroup();
@@ -60,6 +73,6 @@ public class ClientModListener {
                 });
             });
         }
-
+        AzureLibCache.addReloadCallback(SkinnedGeoRenderer::clearMeshes);
     }
 }
@@ -11,6 +11,7 @@ import mod.azure.azurelib.common.internal.common.network.packet.*;
 import mod.azure.azurelib.neoforge.platform.NeoForgeAzureLibNetwork;
 import mod.azure.azurelib.neoforge.platform.NeoForgeCommonRegistry;
 import mod.azure.azurelib.sblforked.SBLConstants;
+import mod.azure.azurelib.sblforked.object.SensorScanStats;
 import net.minecraft.core.registries.Registries;
 import net.minecraft.world.level.block.Block;
 import net.minecraft.world.level.block.SoundType;
@@ -41,6 +42,7 @@ public final class NeoForgeAzureLibMod {
         if (NeoForgeCommonRegistry.blockDeferredRegister != null)
             NeoForgeCommonRegistry.blockDeferredRegister.register(modEventBus);
         AzureLibMod.config = AzureLibMod.registerConfig(AzureLibConfig.class, ConfigFormats.json()).getConfigInstance();
+        SensorScanStats.setEnabled(AzureLibMod.config.recordSensorScanStats);
         modEventBus.addListener(this::init);
         modEventBus.addListener(this::registerMessages);
         SBLConstants.SBL_LOADER.init(modEventBus);
@@ -10,14 +10,18 @@ import com.mojang.serialization.Codec;
 import mod.azure.azurelib.common.internal.common.AzureLib;
 import mod.azure.azurelib.sblforked.SBLLoader;
 import mod.azure.azurelib.sblforked.api.core.sensor.ExtendedSensor;
+import mod.azure.azurelib.sblforked.registry.SBLEntityTypes;
 import mod.azure.azurelib.sblforked.registry.SBLMemoryTypes;
 import mod.azure.azurelib.sblforked.registry.SBLSensors;
 import net.minecraft.core.registries.Registries;
+import net.minecraft.world.entity.Entity;
 import net.minecraft.world.entity.EntityType;
+import net.minecraft.world.entity.Mob;
 import net.minecraft.world.entity.ai.memory.MemoryModuleType;
 import net.minecraft.world.entity.ai.sensing.SensorType;
 import net.neoforged.bus.api.IEventBus;
 import net.neoforged.fml.loading.FMLLoader;
+import net.neoforged.neoforge.event.entity.EntityAttributeCreationEvent;
 import net.neoforged.neoforge.registries.DeferredRegister;
 
 import java.util.Optional;
@@ -33,9 +37,12 @@ public class NeoForgeSBLForked implements SBLLoader {
 
         MEMORY_TYPES.register(modEventBus);
         SENSORS.register(modEventBus);
+        ENTITY_TYPES.register(modEventBus);
+        modEventBus.addListener(EntityAttributeCreationEvent.class, event -> event.put(SBLEntityTypes.PATHING_PROXY.get(), Mob.createMobAttributes().build()));
 
         SBLMemoryTypes.init();
         SBLSensors.init();
+        SBLEntityTypes.init();
     }
 
     @Override
@@ -57,4 +64,9 @@ public class NeoForgeSBLForked implements SBLLoader {
     public <T extends ExtendedSensor<?>> Supplier<SensorType<T>> registerSensorType(String id, Supplier<T> sensor) {
         return SENSORS.register(id, () -> new SensorType<>(sensor));
     }
+
+    @Override
+    public <T extends Entity> Supplier<EntityType<T>> registerEntityType(String id, Supplier<EntityType<T>> entityType) {
+        return ENTITY_TYPES.register(id, entityType);
+    }
 }